@@ -25,6 +25,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
@@ -395,6 +396,71 @@ public abstract class AbstractByteBuf extends ByteBuf {
 
     protected abstract long _getLong(int index);
 
+    @Override
+    public short getShortLE(int index) {
+        checkIndex(index, 2);
+        return _getShortLE(index);
+    }
+
+    /**
+     * Returns the 16-bit short integer at the specified index in Little Endian Byte Order. Implementations
+     * which can do better than swapping the bytes of {@link #_getShort(int)} should override this.
+     */
+    protected short _getShortLE(int index) {
+        return Short.reverseBytes(_getShort(index));
+    }
+
+    @Override
+    public int getUnsignedShortLE(int index) {
+        return getShortLE(index) & 0xFFFF;
+    }
+
+    @Override
+    public int getUnsignedMediumLE(int index) {
+        checkIndex(index, 3);
+        return _getUnsignedMediumLE(index);
+    }
+
+    protected int _getUnsignedMediumLE(int index) {
+        return  _getByte(index)     & 0xff        |
+               (_getByte(index + 1) & 0xff) <<  8 |
+               (_getByte(index + 2) & 0xff) << 16;
+    }
+
+    @Override
+    public int getMediumLE(int index) {
+        int value = getUnsignedMediumLE(index);
+        if ((value & 0x800000) != 0) {
+            value |= 0xff000000;
+        }
+        return value;
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        checkIndex(index, 4);
+        return _getIntLE(index);
+    }
+
+    protected int _getIntLE(int index) {
+        return Integer.reverseBytes(_getInt(index));
+    }
+
+    @Override
+    public long getUnsignedIntLE(int index) {
+        return getIntLE(index) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        checkIndex(index, 8);
+        return _getLongLE(index);
+    }
+
+    protected long _getLongLE(int index) {
+        return Long.reverseBytes(_getLong(index));
+    }
+
     @Override
     public char getChar(int index) {
         return (char) getShort(index);
@@ -492,6 +558,56 @@ public abstract class AbstractByteBuf extends ByteBuf {
 
     protected abstract void _setLong(int index, long value);
 
+    @Override
+    public ByteBuf setShortLE(int index, int value) {
+        checkIndex(index, 2);
+        _setShortLE(index, value);
+        return this;
+    }
+
+    /**
+     * Sets the 16-bit short integer at the specified index in Little Endian Byte Order. Implementations
+     * which can do better than swapping the bytes for {@link #_setShort(int, int)} should override this.
+     */
+    protected void _setShortLE(int index, int value) {
+        _setShort(index, Short.reverseBytes((short) value));
+    }
+
+    @Override
+    public ByteBuf setMediumLE(int index, int value) {
+        checkIndex(index, 3);
+        _setMediumLE(index, value);
+        return this;
+    }
+
+    protected void _setMediumLE(int index, int value) {
+        _setByte(index, value);
+        _setByte(index + 1, value >>> 8);
+        _setByte(index + 2, value >>> 16);
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        checkIndex(index, 4);
+        _setIntLE(index, value);
+        return this;
+    }
+
+    protected void _setIntLE(int index, int value) {
+        _setInt(index, Integer.reverseBytes(value));
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        checkIndex(index, 8);
+        _setLongLE(index, value);
+        return this;
+    }
+
+    protected void _setLongLE(int index, long value) {
+        _setLong(index, Long.reverseBytes(value));
+    }
+
     @Override
     public ByteBuf setDouble(int index, double value) {
         setLong(index, Double.doubleToRawLongBits(value));
@@ -628,6 +744,57 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return v;
     }
 
+    @Override
+    public short readShortLE() {
+        checkReadableBytes(2);
+        short v = _getShortLE(readerIndex);
+        readerIndex += 2;
+        return v;
+    }
+
+    @Override
+    public int readUnsignedShortLE() {
+        return readShortLE() & 0xFFFF;
+    }
+
+    @Override
+    public int readMediumLE() {
+        int value = readUnsignedMediumLE();
+        if ((value & 0x800000) != 0) {
+            value |= 0xff000000;
+        }
+        return value;
+    }
+
+    @Override
+    public int readUnsignedMediumLE() {
+        checkReadableBytes(3);
+        int v = _getUnsignedMediumLE(readerIndex);
+        readerIndex += 3;
+        return v;
+    }
+
+    @Override
+    public int readIntLE() {
+        checkReadableBytes(4);
+        int v = _getIntLE(readerIndex);
+        readerIndex += 4;
+        return v;
+    }
+
+    @Override
+    public long readUnsignedIntLE() {
+        return readIntLE() & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public long readLongLE() {
+        checkReadableBytes(8);
+        long v = _getLongLE(readerIndex);
+        readerIndex += 8;
+        return v;
+    }
+
     @Override
     public char readChar() {
         return (char) readShort();
@@ -721,6 +888,14 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return readBytes;
     }
 
+    @Override
+    public int readBytes(FileChannel out, long position, int length) throws IOException {
+        checkReadableBytes(length);
+        int readBytes = getBytes(readerIndex, out, position, length);
+        readerIndex += readBytes;
+        return readBytes;
+    }
+
     @Override
     public ByteBuf readBytes(OutputStream out, int length) throws IOException {
         checkReadableBytes(length);
@@ -788,6 +963,38 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return this;
     }
 
+    @Override
+    public ByteBuf writeShortLE(int value) {
+        ensureWritable(2);
+        _setShortLE(writerIndex, value);
+        writerIndex += 2;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeMediumLE(int value) {
+        ensureWritable(3);
+        _setMediumLE(writerIndex, value);
+        writerIndex += 3;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeIntLE(int value) {
+        ensureWritable(4);
+        _setIntLE(writerIndex, value);
+        writerIndex += 4;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLongLE(long value) {
+        ensureWritable(8);
+        _setLongLE(writerIndex, value);
+        writerIndex += 8;
+        return this;
+    }
+
     @Override
     public ByteBuf writeChar(int value) {
         writeShort(value);
@@ -875,6 +1082,16 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return writtenBytes;
     }
 
+    @Override
+    public int writeBytes(FileChannel in, long position, int length) throws IOException {
+        ensureWritable(length);
+        int writtenBytes = setBytes(writerIndex, in, position, length);
+        if (writtenBytes > 0) {
+            writerIndex += writtenBytes;
+        }
+        return writtenBytes;
+    }
+
     @Override
     public ByteBuf writeZero(int length) {
         if (length == 0) {
@@ -928,6 +1145,21 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return new SlicedByteBuf(this, index, length);
     }
 
+    @Override
+    public ByteBuf retainedSlice() {
+        return retainedSlice(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuf retainedSlice(int index, int length) {
+        return PooledSlicedByteBuf.newInstance(this, this, index, length);
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        return PooledDuplicatedByteBuf.newInstance(this, this, readerIndex, writerIndex);
+    }
+
     @Override
     public ByteBuffer nioBuffer() {
         return nioBuffer(readerIndex, readableBytes());
@@ -1009,6 +1241,22 @@ public abstract class AbstractByteBuf extends ByteBuf {
         }
 
         final int endIndex = index + length;
+        if (ByteBufUtil.canSearchFast(this, length)) {
+            // The well-known processors which only look for specific bytes can use a long-at-a-time scan.
+            if (processor == ByteBufProcessor.FIND_CRLF) {
+                return ByteBufUtil.firstIndexOfFast(this, index, endIndex, (byte) '\r', (byte) '\n');
+            }
+            if (processor == ByteBufProcessor.FIND_LF) {
+                return ByteBufUtil.firstIndexOfFast(this, index, endIndex, (byte) '\n', (byte) '\n');
+            }
+            if (processor == ByteBufProcessor.FIND_CR) {
+                return ByteBufUtil.firstIndexOfFast(this, index, endIndex, (byte) '\r', (byte) '\r');
+            }
+            if (processor == ByteBufProcessor.FIND_NUL) {
+                return ByteBufUtil.firstIndexOfFast(this, index, endIndex, (byte) 0, (byte) 0);
+            }
+        }
+
         int i = index;
         try {
             do {
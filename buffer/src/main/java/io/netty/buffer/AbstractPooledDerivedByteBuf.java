@@ -0,0 +1,353 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.Recycler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+
+/**
+ * Abstract base class for derived {@link ByteBuf} implementations which are recycled once released.  Unlike
+ * {@link AbstractDerivedByteBuf}, a buffer of this type has its own reference count and holds a single reference to
+ * its parent until it is released.
+ */
+abstract class AbstractPooledDerivedByteBuf extends AbstractReferenceCountedByteBuf {
+
+    private final Recycler.Handle recyclerHandle;
+
+    // The buffer whose content is accessed.  'adjustment' is added to every index.
+    ByteBuf buffer;
+    int adjustment;
+
+    // The buffer which is retained by this buffer and released once this buffer is deallocated.
+    private ByteBuf parent;
+
+    protected AbstractPooledDerivedByteBuf(Recycler.Handle recyclerHandle) {
+        super(0);
+        this.recyclerHandle = recyclerHandle;
+    }
+
+    /**
+     * Must be called after {@link #capacity()} of the subclass has been initialized.
+     */
+    final void init(ByteBuf buffer, ByteBuf parent, int adjustment, int readerIndex, int writerIndex,
+                    int maxCapacity) {
+        parent.retain();
+        this.parent = parent;
+        this.buffer = buffer;
+        this.adjustment = adjustment;
+
+        setRefCnt(1);
+        maxCapacity(maxCapacity);
+        setIndex(0, 0);
+        markReaderIndex();
+        markWriterIndex();
+        setIndex(readerIndex, writerIndex);
+    }
+
+    @Override
+    protected final void deallocate() {
+        ByteBuf parent = this.parent;
+        this.parent = null;
+        buffer = null;
+        parent.release();
+        recycle();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recycle() {
+        ((Recycler<Object>) recycler()).recycle(this, recyclerHandle);
+    }
+
+    protected abstract Recycler<?> recycler();
+
+    @Override
+    public final ByteBuf unwrap() {
+        return buffer;
+    }
+
+    @Override
+    public final ByteBufAllocator alloc() {
+        return buffer.alloc();
+    }
+
+    @Override
+    public final ByteOrder order() {
+        return buffer.order();
+    }
+
+    @Override
+    public final boolean isDirect() {
+        return buffer.isDirect();
+    }
+
+    @Override
+    public final boolean hasArray() {
+        return buffer.hasArray();
+    }
+
+    @Override
+    public final byte[] array() {
+        return buffer.array();
+    }
+
+    @Override
+    public final int arrayOffset() {
+        return buffer.arrayOffset() + adjustment;
+    }
+
+    @Override
+    public final boolean hasMemoryAddress() {
+        return buffer.hasMemoryAddress();
+    }
+
+    @Override
+    public final long memoryAddress() {
+        return buffer.memoryAddress() + adjustment;
+    }
+
+    @Override
+    protected final byte _getByte(int index) {
+        return buffer.getByte(index + adjustment);
+    }
+
+    @Override
+    protected final short _getShort(int index) {
+        return buffer.getShort(index + adjustment);
+    }
+
+    @Override
+    protected final int _getUnsignedMedium(int index) {
+        return buffer.getUnsignedMedium(index + adjustment);
+    }
+
+    @Override
+    protected final int _getInt(int index) {
+        return buffer.getInt(index + adjustment);
+    }
+
+    @Override
+    protected final long _getLong(int index) {
+        return buffer.getLong(index + adjustment);
+    }
+
+    @Override
+    protected final short _getShortLE(int index) {
+        return buffer.getShortLE(index + adjustment);
+    }
+
+    @Override
+    protected final int _getUnsignedMediumLE(int index) {
+        return buffer.getUnsignedMediumLE(index + adjustment);
+    }
+
+    @Override
+    protected final int _getIntLE(int index) {
+        return buffer.getIntLE(index + adjustment);
+    }
+
+    @Override
+    protected final long _getLongLE(int index) {
+        return buffer.getLongLE(index + adjustment);
+    }
+
+    @Override
+    public final ByteBuf copy(int index, int length) {
+        checkIndex(index, length);
+        return buffer.copy(index + adjustment, length);
+    }
+
+    @Override
+    public final ByteBuf retainedSlice(int index, int length) {
+        checkIndex(index, length);
+        return PooledSlicedByteBuf.newInstance(buffer, this, index + adjustment, length);
+    }
+
+    @Override
+    public final ByteBuf getBytes(int index, ByteBuf dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        buffer.getBytes(index + adjustment, dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public final ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        buffer.getBytes(index + adjustment, dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public final ByteBuf getBytes(int index, ByteBuffer dst) {
+        checkIndex(index, dst.remaining());
+        buffer.getBytes(index + adjustment, dst);
+        return this;
+    }
+
+    @Override
+    public final ByteBuf getBytes(int index, OutputStream out, int length) throws IOException {
+        checkIndex(index, length);
+        buffer.getBytes(index + adjustment, out, length);
+        return this;
+    }
+
+    @Override
+    public final int getBytes(int index, GatheringByteChannel out, int length) throws IOException {
+        checkIndex(index, length);
+        return buffer.getBytes(index + adjustment, out, length);
+    }
+
+    @Override
+    public final int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        checkIndex(index, length);
+        return buffer.getBytes(index + adjustment, out, position, length);
+    }
+
+    @Override
+    protected final void _setByte(int index, int value) {
+        buffer.setByte(index + adjustment, value);
+    }
+
+    @Override
+    protected final void _setShort(int index, int value) {
+        buffer.setShort(index + adjustment, value);
+    }
+
+    @Override
+    protected final void _setMedium(int index, int value) {
+        buffer.setMedium(index + adjustment, value);
+    }
+
+    @Override
+    protected final void _setInt(int index, int value) {
+        buffer.setInt(index + adjustment, value);
+    }
+
+    @Override
+    protected final void _setLong(int index, long value) {
+        buffer.setLong(index + adjustment, value);
+    }
+
+    @Override
+    protected final void _setShortLE(int index, int value) {
+        buffer.setShortLE(index + adjustment, value);
+    }
+
+    @Override
+    protected final void _setMediumLE(int index, int value) {
+        buffer.setMediumLE(index + adjustment, value);
+    }
+
+    @Override
+    protected final void _setIntLE(int index, int value) {
+        buffer.setIntLE(index + adjustment, value);
+    }
+
+    @Override
+    protected final void _setLongLE(int index, long value) {
+        buffer.setLongLE(index + adjustment, value);
+    }
+
+    @Override
+    public final ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        buffer.setBytes(index + adjustment, src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public final ByteBuf setBytes(int index, ByteBuf src, int srcIndex, int length) {
+        checkIndex(index, length);
+        buffer.setBytes(index + adjustment, src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public final ByteBuf setBytes(int index, ByteBuffer src) {
+        checkIndex(index, src.remaining());
+        buffer.setBytes(index + adjustment, src);
+        return this;
+    }
+
+    @Override
+    public final int setBytes(int index, InputStream in, int length) throws IOException {
+        checkIndex(index, length);
+        return buffer.setBytes(index + adjustment, in, length);
+    }
+
+    @Override
+    public final int setBytes(int index, ScatteringByteChannel in, int length) throws IOException {
+        checkIndex(index, length);
+        return buffer.setBytes(index + adjustment, in, length);
+    }
+
+    @Override
+    public final int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        checkIndex(index, length);
+        return buffer.setBytes(index + adjustment, in, position, length);
+    }
+
+    @Override
+    public final int nioBufferCount() {
+        return buffer.nioBufferCount();
+    }
+
+    @Override
+    public final ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        return buffer.nioBuffer(index + adjustment, length);
+    }
+
+    @Override
+    public final ByteBuffer[] nioBuffers(int index, int length) {
+        checkIndex(index, length);
+        return buffer.nioBuffers(index + adjustment, length);
+    }
+
+    @Override
+    public final ByteBuffer internalNioBuffer(int index, int length) {
+        return nioBuffer(index, length);
+    }
+
+    @Override
+    public final int forEachByte(int index, int length, ByteBufProcessor processor) {
+        checkIndex(index, length);
+        int ret = buffer.forEachByte(index + adjustment, length, processor);
+        if (ret >= adjustment) {
+            return ret - adjustment;
+        } else {
+            return -1;
+        }
+    }
+
+    @Override
+    public final int forEachByteDesc(int index, int length, ByteBufProcessor processor) {
+        checkIndex(index, length);
+        int ret = buffer.forEachByteDesc(index + adjustment, length, processor);
+        if (ret >= adjustment) {
+            return ret - adjustment;
+        } else {
+            return -1;
+        }
+    }
+}
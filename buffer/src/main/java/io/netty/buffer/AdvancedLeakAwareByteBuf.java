@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
@@ -86,6 +87,24 @@ final class AdvancedLeakAwareByteBuf extends WrappedByteBuf {
         return new AdvancedLeakAwareByteBuf(super.duplicate(), leak);
     }
 
+    @Override
+    public ByteBuf retainedSlice() {
+        leak.record();
+        return super.retainedSlice();
+    }
+
+    @Override
+    public ByteBuf retainedSlice(int index, int length) {
+        leak.record();
+        return super.retainedSlice(index, length);
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        leak.record();
+        return super.retainedDuplicate();
+    }
+
     @Override
     public ByteBuf readSlice(int length) {
         leak.record();
@@ -176,6 +195,48 @@ final class AdvancedLeakAwareByteBuf extends WrappedByteBuf {
         return super.getLong(index);
     }
 
+    @Override
+    public short getShortLE(int index) {
+        leak.record();
+        return super.getShortLE(index);
+    }
+
+    @Override
+    public int getUnsignedShortLE(int index) {
+        leak.record();
+        return super.getUnsignedShortLE(index);
+    }
+
+    @Override
+    public int getMediumLE(int index) {
+        leak.record();
+        return super.getMediumLE(index);
+    }
+
+    @Override
+    public int getUnsignedMediumLE(int index) {
+        leak.record();
+        return super.getUnsignedMediumLE(index);
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        leak.record();
+        return super.getIntLE(index);
+    }
+
+    @Override
+    public long getUnsignedIntLE(int index) {
+        leak.record();
+        return super.getUnsignedIntLE(index);
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        leak.record();
+        return super.getLongLE(index);
+    }
+
     @Override
     public char getChar(int index) {
         leak.record();
@@ -242,6 +303,12 @@ final class AdvancedLeakAwareByteBuf extends WrappedByteBuf {
         return super.getBytes(index, out, length);
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        leak.record();
+        return super.getBytes(index, out, position, length);
+    }
+
     @Override
     public ByteBuf setBoolean(int index, boolean value) {
         leak.record();
@@ -278,6 +345,30 @@ final class AdvancedLeakAwareByteBuf extends WrappedByteBuf {
         return super.setLong(index, value);
     }
 
+    @Override
+    public ByteBuf setShortLE(int index, int value) {
+        leak.record();
+        return super.setShortLE(index, value);
+    }
+
+    @Override
+    public ByteBuf setMediumLE(int index, int value) {
+        leak.record();
+        return super.setMediumLE(index, value);
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        leak.record();
+        return super.setIntLE(index, value);
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        leak.record();
+        return super.setLongLE(index, value);
+    }
+
     @Override
     public ByteBuf setChar(int index, int value) {
         leak.record();
@@ -344,6 +435,12 @@ final class AdvancedLeakAwareByteBuf extends WrappedByteBuf {
         return super.setBytes(index, in, length);
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        leak.record();
+        return super.setBytes(index, in, position, length);
+    }
+
     @Override
     public ByteBuf setZero(int index, int length) {
         leak.record();
@@ -410,6 +507,48 @@ final class AdvancedLeakAwareByteBuf extends WrappedByteBuf {
         return super.readLong();
     }
 
+    @Override
+    public short readShortLE() {
+        leak.record();
+        return super.readShortLE();
+    }
+
+    @Override
+    public int readUnsignedShortLE() {
+        leak.record();
+        return super.readUnsignedShortLE();
+    }
+
+    @Override
+    public int readMediumLE() {
+        leak.record();
+        return super.readMediumLE();
+    }
+
+    @Override
+    public int readUnsignedMediumLE() {
+        leak.record();
+        return super.readUnsignedMediumLE();
+    }
+
+    @Override
+    public int readIntLE() {
+        leak.record();
+        return super.readIntLE();
+    }
+
+    @Override
+    public long readUnsignedIntLE() {
+        leak.record();
+        return super.readUnsignedIntLE();
+    }
+
+    @Override
+    public long readLongLE() {
+        leak.record();
+        return super.readLongLE();
+    }
+
     @Override
     public char readChar() {
         leak.record();
@@ -482,6 +621,12 @@ final class AdvancedLeakAwareByteBuf extends WrappedByteBuf {
         return super.readBytes(out, length);
     }
 
+    @Override
+    public int readBytes(FileChannel out, long position, int length) throws IOException {
+        leak.record();
+        return super.readBytes(out, position, length);
+    }
+
     @Override
     public ByteBuf skipBytes(int length) {
         leak.record();
@@ -524,6 +669,30 @@ final class AdvancedLeakAwareByteBuf extends WrappedByteBuf {
         return super.writeLong(value);
     }
 
+    @Override
+    public ByteBuf writeShortLE(int value) {
+        leak.record();
+        return super.writeShortLE(value);
+    }
+
+    @Override
+    public ByteBuf writeMediumLE(int value) {
+        leak.record();
+        return super.writeMediumLE(value);
+    }
+
+    @Override
+    public ByteBuf writeIntLE(int value) {
+        leak.record();
+        return super.writeIntLE(value);
+    }
+
+    @Override
+    public ByteBuf writeLongLE(long value) {
+        leak.record();
+        return super.writeLongLE(value);
+    }
+
     @Override
     public ByteBuf writeChar(int value) {
         leak.record();
@@ -590,6 +759,12 @@ final class AdvancedLeakAwareByteBuf extends WrappedByteBuf {
         return super.writeBytes(in, length);
     }
 
+    @Override
+    public int writeBytes(FileChannel in, long position, int length) throws IOException {
+        leak.record();
+        return super.writeBytes(in, position, length);
+    }
+
     @Override
     public ByteBuf writeZero(int length) {
         leak.record();
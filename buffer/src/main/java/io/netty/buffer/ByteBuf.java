@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
@@ -838,6 +839,83 @@ public abstract class ByteBuf implements ReferenceCounted, Comparable<ByteBuf> {
      */
     public abstract long  getLong(int index);
 
+    /**
+     * Gets a 16-bit short integer at the specified absolute {@code index} in this buffer
+     * in Little Endian Byte Order.  This method does not modify {@code readerIndex}
+     * or {@code writerIndex} of this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 2} is greater than {@code this.capacity}
+     */
+    public abstract short getShortLE(int index);
+
+    /**
+     * Gets an unsigned 16-bit short integer at the specified absolute {@code index} in this buffer
+     * in Little Endian Byte Order.  This method does not modify {@code readerIndex}
+     * or {@code writerIndex} of this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 2} is greater than {@code this.capacity}
+     */
+    public abstract int getUnsignedShortLE(int index);
+
+    /**
+     * Gets a 24-bit medium integer at the specified absolute {@code index} in this buffer
+     * in Little Endian Byte Order.  This method does not modify {@code readerIndex}
+     * or {@code writerIndex} of this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 3} is greater than {@code this.capacity}
+     */
+    public abstract int getMediumLE(int index);
+
+    /**
+     * Gets an unsigned 24-bit medium integer at the specified absolute {@code index} in this buffer
+     * in Little Endian Byte Order.  This method does not modify {@code readerIndex}
+     * or {@code writerIndex} of this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 3} is greater than {@code this.capacity}
+     */
+    public abstract int getUnsignedMediumLE(int index);
+
+    /**
+     * Gets a 32-bit integer at the specified absolute {@code index} in this buffer
+     * in Little Endian Byte Order.  This method does not modify {@code readerIndex}
+     * or {@code writerIndex} of this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 4} is greater than {@code this.capacity}
+     */
+    public abstract int getIntLE(int index);
+
+    /**
+     * Gets an unsigned 32-bit integer at the specified absolute {@code index} in this buffer
+     * in Little Endian Byte Order.  This method does not modify {@code readerIndex}
+     * or {@code writerIndex} of this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 4} is greater than {@code this.capacity}
+     */
+    public abstract long getUnsignedIntLE(int index);
+
+    /**
+     * Gets a 64-bit long integer at the specified absolute {@code index} in this buffer
+     * in Little Endian Byte Order.  This method does not modify {@code readerIndex}
+     * or {@code writerIndex} of this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 8} is greater than {@code this.capacity}
+     */
+    public abstract long getLongLE(int index);
+
     /**
      * <pre>
      * ȡUTF-16ʽַռ2λ
@@ -1069,6 +1147,26 @@ public abstract class ByteBuf implements ReferenceCounted, Comparable<ByteBuf> {
      */
     public abstract int getBytes(int index, GatheringByteChannel out, int length) throws IOException;
 
+    /**
+     * Transfers this buffer's data starting at the specified absolute {@code index}
+     * to the specified channel starting at the given file position.
+     * This method does not modify {@code readerIndex} or {@code writerIndex} of
+     * this buffer.  This method does not modify the channel's position.
+     *
+     * @param position the file position at which the transfer is to begin
+     * @param length the maximum number of bytes to transfer
+     *
+     * @return the actual number of bytes written out to the specified channel
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         if {@code index + length} is greater than
+     *            {@code this.capacity}
+     * @throws IOException
+     *         if the specified channel threw an exception during I/O
+     */
+    public abstract int getBytes(int index, FileChannel out, long position, int length) throws IOException;
+
     /**
      * <pre>
      * ָλõ±boolean͡ռһֽڡ
@@ -1171,6 +1269,56 @@ public abstract class ByteBuf implements ReferenceCounted, Comparable<ByteBuf> {
      */
     public abstract ByteBuf setLong(int index, long  value);
 
+    /**
+     * Sets the specified 16-bit short integer at the specified absolute
+     * {@code index} in this buffer in Little Endian Byte Order.  The 16 high-order bits of the
+     * specified value are ignored.
+     * This method does not modify {@code readerIndex} or {@code writerIndex} of
+     * this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 2} is greater than {@code this.capacity}
+     */
+    public abstract ByteBuf setShortLE(int index, int value);
+
+    /**
+     * Sets the specified 24-bit medium integer at the specified absolute
+     * {@code index} in this buffer in Little Endian Byte Order.  Please note that the most
+     * significant byte is ignored in the specified value.
+     * This method does not modify {@code readerIndex} or {@code writerIndex} of
+     * this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 3} is greater than {@code this.capacity}
+     */
+    public abstract ByteBuf setMediumLE(int index, int value);
+
+    /**
+     * Sets the specified 32-bit integer at the specified absolute
+     * {@code index} in this buffer in Little Endian Byte Order.
+     * This method does not modify {@code readerIndex} or {@code writerIndex} of
+     * this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 4} is greater than {@code this.capacity}
+     */
+    public abstract ByteBuf setIntLE(int index, int value);
+
+    /**
+     * Sets the specified 64-bit long integer at the specified absolute
+     * {@code index} in this buffer in Little Endian Byte Order.
+     * This method does not modify {@code readerIndex} or {@code writerIndex} of
+     * this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         {@code index + 8} is greater than {@code this.capacity}
+     */
+    public abstract ByteBuf setLongLE(int index, long value);
+
     /**
      * <pre>
      * ָλõ±char͡ UTF-16ʽռ2ֽڡ
@@ -1393,6 +1541,27 @@ public abstract class ByteBuf implements ReferenceCounted, Comparable<ByteBuf> {
      */
     public abstract int  setBytes(int index, ScatteringByteChannel in, int length) throws IOException;
 
+    /**
+     * Transfers the content of the specified source channel starting at the given file position
+     * to this buffer starting at the specified absolute {@code index}.
+     * This method does not modify {@code readerIndex} or {@code writerIndex} of
+     * this buffer.  This method does not modify the channel's position.
+     *
+     * @param position the file position at which the transfer is to begin
+     * @param length the maximum number of bytes to transfer
+     *
+     * @return the actual number of bytes read in from the specified channel.
+     *         {@code -1} if the specified channel is closed or the position is
+     *         at or beyond the end of the file.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the specified {@code index} is less than {@code 0} or
+     *         if {@code index + length} is greater than {@code this.capacity}
+     * @throws IOException
+     *         if the specified channel threw an exception during I/O
+     */
+    public abstract int  setBytes(int index, FileChannel in, long position, int length) throws IOException;
+
     /**
      * <pre>
      * ѵǰbufferindexʼΪlengthΪ0x00. еյ˼
@@ -1547,6 +1716,76 @@ public abstract class ByteBuf implements ReferenceCounted, Comparable<ByteBuf> {
      */
     public abstract long  readLong();
 
+    /**
+     * Gets a 16-bit short integer at the current {@code readerIndex}
+     * in Little Endian Byte Order and increases the {@code readerIndex}
+     * by {@code 2} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.readableBytes} is less than {@code 2}
+     */
+    public abstract short readShortLE();
+
+    /**
+     * Gets an unsigned 16-bit short integer at the current {@code readerIndex}
+     * in Little Endian Byte Order and increases the {@code readerIndex}
+     * by {@code 2} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.readableBytes} is less than {@code 2}
+     */
+    public abstract int readUnsignedShortLE();
+
+    /**
+     * Gets a 24-bit medium integer at the current {@code readerIndex}
+     * in Little Endian Byte Order and increases the {@code readerIndex}
+     * by {@code 3} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.readableBytes} is less than {@code 3}
+     */
+    public abstract int readMediumLE();
+
+    /**
+     * Gets an unsigned 24-bit medium integer at the current {@code readerIndex}
+     * in Little Endian Byte Order and increases the {@code readerIndex}
+     * by {@code 3} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.readableBytes} is less than {@code 3}
+     */
+    public abstract int readUnsignedMediumLE();
+
+    /**
+     * Gets a 32-bit integer at the current {@code readerIndex}
+     * in Little Endian Byte Order and increases the {@code readerIndex}
+     * by {@code 4} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.readableBytes} is less than {@code 4}
+     */
+    public abstract int readIntLE();
+
+    /**
+     * Gets an unsigned 32-bit integer at the current {@code readerIndex}
+     * in Little Endian Byte Order and increases the {@code readerIndex}
+     * by {@code 4} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.readableBytes} is less than {@code 4}
+     */
+    public abstract long readUnsignedIntLE();
+
+    /**
+     * Gets a 64-bit integer at the current {@code readerIndex}
+     * in Little Endian Byte Order and increases the {@code readerIndex}
+     * by {@code 8} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.readableBytes} is less than {@code 8}
+     */
+    public abstract long readLongLE();
+
     /**
      * <pre>
      * ڵǰreaderIndexλûȡһUTF-16charͣͬʱreaderIndex2.
@@ -1778,6 +2017,24 @@ public abstract class ByteBuf implements ReferenceCounted, Comparable<ByteBuf> {
      */
     public abstract int  readBytes(GatheringByteChannel out, int length) throws IOException;
 
+    /**
+     * Transfers this buffer's data starting at the current {@code readerIndex}
+     * to the specified channel starting at the given file position and increases
+     * the {@code readerIndex} by the number of the transferred bytes.
+     * This method does not modify the channel's position.
+     *
+     * @param position the file position at which the transfer is to begin
+     * @param length the maximum number of bytes to transfer
+     *
+     * @return the actual number of bytes written out to the specified channel
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code length} is greater than {@code this.readableBytes}
+     * @throws IOException
+     *         if the specified channel threw an exception during I/O
+     */
+    public abstract int  readBytes(FileChannel out, long position, int length) throws IOException;
+
     /**
      * <pre>
      * ˼Ϊ
@@ -1886,6 +2143,47 @@ public abstract class ByteBuf implements ReferenceCounted, Comparable<ByteBuf> {
      */
     public abstract ByteBuf writeLong(long  value);
 
+    /**
+     * Sets the specified 16-bit short integer at the current
+     * {@code writerIndex} in Little Endian Byte Order and increases the
+     * {@code writerIndex} by {@code 2} in this buffer.
+     * The 16 high-order bits of the specified value are ignored.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.writableBytes} is less than {@code 2}
+     */
+    public abstract ByteBuf writeShortLE(int value);
+
+    /**
+     * Sets the specified 24-bit medium integer at the current
+     * {@code writerIndex} in Little Endian Byte Order and increases the
+     * {@code writerIndex} by {@code 3} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.writableBytes} is less than {@code 3}
+     */
+    public abstract ByteBuf writeMediumLE(int value);
+
+    /**
+     * Sets the specified 32-bit integer at the current
+     * {@code writerIndex} in Little Endian Byte Order and increases the
+     * {@code writerIndex} by {@code 4} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.writableBytes} is less than {@code 4}
+     */
+    public abstract ByteBuf writeIntLE(int value);
+
+    /**
+     * Sets the specified 64-bit long integer at the current
+     * {@code writerIndex} in Little Endian Byte Order and increases the
+     * {@code writerIndex} by {@code 8} in this buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code this.writableBytes} is less than {@code 8}
+     */
+    public abstract ByteBuf writeLongLE(long value);
+
     /**
      * <pre>
      * 趨2ֽڵUTF-16ַǰwriterIndexλ
@@ -2082,6 +2380,26 @@ public abstract class ByteBuf implements ReferenceCounted, Comparable<ByteBuf> {
      */
     public abstract int  writeBytes(ScatteringByteChannel in, int length) throws IOException;
 
+    /**
+     * Transfers the content of the specified channel starting at the given file position
+     * to this buffer starting at the current {@code writerIndex} and increases the
+     * {@code writerIndex} by the number of the transferred bytes.
+     * This method does not modify the channel's position.
+     *
+     * @param position the file position at which the transfer is to begin
+     * @param length the maximum number of bytes to transfer
+     *
+     * @return the actual number of bytes read in from the specified channel.
+     *         {@code -1} if the specified channel is closed or the position is
+     *         at or beyond the end of the file.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if {@code length} is greater than {@code this.writableBytes}
+     * @throws IOException
+     *         if the specified channel threw an exception during I/O
+     */
+    public abstract int  writeBytes(FileChannel in, long position, int length) throws IOException;
+
     /**
      * <pre>
      * writerIndexʼһֱlengthȵλö0x00.
@@ -2289,6 +2607,36 @@ public abstract class ByteBuf implements ReferenceCounted, Comparable<ByteBuf> {
      */
     public abstract ByteBuf duplicate();
 
+    /**
+     * Returns a retained slice of this buffer's readable bytes.  This method behaves like
+     * {@code buf.slice().retain()}, but the returned buffer may be recycled once released, so it produces less
+     * garbage.  The returned buffer has its own reference count and holds one reference to this buffer until it is
+     * released, so it must be released exactly once (unless it was retained again).
+     * This method does not modify {@code readerIndex} or {@code writerIndex} of
+     * this buffer.
+     */
+    public abstract ByteBuf retainedSlice();
+
+    /**
+     * Returns a retained slice of this buffer's sub-region.  This method behaves like
+     * {@code buf.slice(index, length).retain()}, but the returned buffer may be recycled once released, so it
+     * produces less garbage.  The returned buffer has its own reference count and holds one reference to this
+     * buffer until it is released.
+     * This method does not modify {@code readerIndex} or {@code writerIndex} of
+     * this buffer.
+     */
+    public abstract ByteBuf retainedSlice(int index, int length);
+
+    /**
+     * Returns a retained buffer which shares the whole region of this buffer.  This method behaves like
+     * {@code buf.duplicate().retain()}, but the returned buffer may be recycled once released, so it produces less
+     * garbage.  The returned buffer has its own reference count and holds one reference to this buffer until it is
+     * released.
+     * This method does not modify {@code readerIndex} or {@code writerIndex} of
+     * this buffer.
+     */
+    public abstract ByteBuf retainedDuplicate();
+
     /**
      * Returns the maximum number of NIO {@link ByteBuffer}s that consist this buffer.  Note that {@link #nioBuffers()}
      * or {@link #nioBuffers(int, int)} might return a less number of {@link ByteBuffer}s.
@@ -15,7 +15,10 @@
  */
 package io.netty.buffer;
 
+import io.netty.util.AsciiString;
 import io.netty.util.CharsetUtil;
+import io.netty.util.IllegalReferenceCountException;
+import io.netty.util.internal.PlatformDependent;
 import io.netty.util.internal.SystemPropertyUtil;
 import io.netty.util.internal.logging.InternalLogger;
 import io.netty.util.internal.logging.InternalLoggerFactory;
@@ -41,6 +44,22 @@ public final class ByteBufUtil {
 
     static final ByteBufAllocator DEFAULT_ALLOCATOR;
 
+    /**
+     * {@code true} if the memory of heap and direct buffers can be read a {@code long} at a time cheaply.
+     */
+    private static final boolean SWAR_SEARCH = PlatformDependent.isUnaligned();
+
+    /**
+     * {@code true} if {@link #equals(ByteBuf, ByteBuf)}, {@link #compare(ByteBuf, ByteBuf)} and
+     * {@link #hashCode(ByteBuf)} can work on the memory of heap and direct buffers directly.
+     */
+    private static final boolean UNSAFE_ACCESS = PlatformDependent.isUnaligned();
+
+    /**
+     * Ranges shorter than this are always scanned byte by byte, because the long-at-a-time scan does not pay off.
+     */
+    private static final int SWAR_SEARCH_THRESHOLD = 16;
+
     static {
         final char[] DIGITS = "0123456789abcdef".toCharArray();
         for (int i = 0; i < 256; i ++) {
@@ -104,6 +123,25 @@ public final class ByteBufUtil {
      */
     public static int hashCode(ByteBuf buffer) {
         final int aLen = buffer.readableBytes();
+        int hashCode;
+        if (UNSAFE_ACCESS && buffer.hasArray()) {
+            ensureAccessible(buffer);
+            hashCode = PlatformDependent.hashCode(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), aLen);
+        } else if (UNSAFE_ACCESS && buffer.hasMemoryAddress()) {
+            ensureAccessible(buffer);
+            hashCode = PlatformDependent.hashCode(buffer.memoryAddress() + buffer.readerIndex(), aLen);
+        } else {
+            hashCode = hashCodeSlow(buffer, aLen);
+        }
+
+        if (hashCode == 0) {
+            hashCode = 1;
+        }
+
+        return hashCode;
+    }
+
+    private static int hashCodeSlow(ByteBuf buffer, int aLen) {
         final int intCount = aLen >>> 2;
         final int byteCount = aLen & 3;
 
@@ -125,10 +163,6 @@ public final class ByteBufUtil {
             hashCode = 31 * hashCode + buffer.getByte(arrayIndex ++);
         }
 
-        if (hashCode == 0) {
-            hashCode = 1;
-        }
-
         return hashCode;
     }
 
@@ -142,16 +176,58 @@ public final class ByteBufUtil {
         if (aLen != bufferB.readableBytes()) {
             return false;
         }
+        return equals(bufferA, bufferA.readerIndex(), bufferB, bufferB.readerIndex(), aLen);
+    }
 
-        final int longCount = aLen >>> 3;
-        final int byteCount = aLen & 7;
+    /**
+     * Returns {@code true} if and only if the {@code length} bytes starting at {@code aStartIndex} of {@code a} are
+     * identical to the {@code length} bytes starting at {@code bStartIndex} of {@code b}.  Returns {@code false} if
+     * either region goes beyond the {@code writerIndex} of its buffer.  The byte order and the indexes of the
+     * buffers are neither taken into account nor modified, so no slices need to be created to compare parts of
+     * buffers.
+     */
+    public static boolean equals(ByteBuf a, int aStartIndex, ByteBuf b, int bStartIndex, int length) {
+        if (aStartIndex < 0 || bStartIndex < 0 || length < 0) {
+            throw new IllegalArgumentException(
+                    "aStartIndex: " + aStartIndex + ", bStartIndex: " + bStartIndex + ", length: " + length +
+                    " (expected: all non-negative)");
+        }
+        if (a.writerIndex() - length < aStartIndex || b.writerIndex() - length < bStartIndex) {
+            return false;
+        }
 
-        int aIndex = bufferA.readerIndex();
-        int bIndex = bufferB.readerIndex();
+        if (UNSAFE_ACCESS) {
+            ensureAccessible(a);
+            ensureAccessible(b);
+            if (a.hasArray()) {
+                byte[] aArray = a.array();
+                int aIndex = a.arrayOffset() + aStartIndex;
+                if (b.hasArray()) {
+                    return PlatformDependent.equals(aArray, aIndex, b.array(), b.arrayOffset() + bStartIndex, length);
+                }
+                if (b.hasMemoryAddress()) {
+                    return PlatformDependent.equals(aArray, aIndex, b.memoryAddress() + bStartIndex, length);
+                }
+            } else if (a.hasMemoryAddress()) {
+                long aAddress = a.memoryAddress() + aStartIndex;
+                if (b.hasArray()) {
+                    return PlatformDependent.equals(b.array(), b.arrayOffset() + bStartIndex, aAddress, length);
+                }
+                if (b.hasMemoryAddress()) {
+                    return PlatformDependent.equals(aAddress, b.memoryAddress() + bStartIndex, length);
+                }
+            }
+        }
 
-        if (bufferA.order() == bufferB.order()) {
+        final int longCount = length >>> 3;
+        final int byteCount = length & 7;
+
+        int aIndex = aStartIndex;
+        int bIndex = bStartIndex;
+
+        if (a.order() == b.order()) {
             for (int i = longCount; i > 0; i --) {
-                if (bufferA.getLong(aIndex) != bufferB.getLong(bIndex)) {
+                if (a.getLong(aIndex) != b.getLong(bIndex)) {
                     return false;
                 }
                 aIndex += 8;
@@ -159,7 +235,7 @@ public final class ByteBufUtil {
             }
         } else {
             for (int i = longCount; i > 0; i --) {
-                if (bufferA.getLong(aIndex) != swapLong(bufferB.getLong(bIndex))) {
+                if (a.getLong(aIndex) != swapLong(b.getLong(bIndex))) {
                     return false;
                 }
                 aIndex += 8;
@@ -168,7 +244,7 @@ public final class ByteBufUtil {
         }
 
         for (int i = byteCount; i > 0; i --) {
-            if (bufferA.getByte(aIndex) != bufferB.getByte(bIndex)) {
+            if (a.getByte(aIndex) != b.getByte(bIndex)) {
                 return false;
             }
             aIndex ++;
@@ -192,6 +268,14 @@ public final class ByteBufUtil {
         int aIndex = bufferA.readerIndex();
         int bIndex = bufferB.readerIndex();
 
+        // Only a comparison of big-endian buffers is a plain comparison of the unsigned bytes.
+        if (UNSAFE_ACCESS && bufferA.order() == ByteOrder.BIG_ENDIAN && bufferB.order() == ByteOrder.BIG_ENDIAN &&
+                (bufferA.hasArray() || bufferA.hasMemoryAddress()) &&
+                (bufferB.hasArray() || bufferB.hasMemoryAddress())) {
+            int result = compareFast(bufferA, aIndex, bufferB, bIndex, minLength);
+            return result != 0? result : aLen - bLen;
+        }
+
         if (bufferA.order() == bufferB.order()) {
             for (int i = uintCount; i > 0; i --) {
                 long va = bufferA.getUnsignedInt(aIndex);
@@ -236,6 +320,24 @@ public final class ByteBufUtil {
         return aLen - bLen;
     }
 
+    private static int compareFast(ByteBuf a, int aIndex, ByteBuf b, int bIndex, int length) {
+        ensureAccessible(a);
+        ensureAccessible(b);
+        if (a.hasArray()) {
+            byte[] aArray = a.array();
+            aIndex += a.arrayOffset();
+            if (b.hasArray()) {
+                return PlatformDependent.compare(aArray, aIndex, b.array(), b.arrayOffset() + bIndex, length);
+            }
+            return PlatformDependent.compare(aArray, aIndex, b.memoryAddress() + bIndex, length);
+        }
+        long aAddress = a.memoryAddress() + aIndex;
+        if (b.hasArray()) {
+            return -PlatformDependent.compare(b.array(), b.arrayOffset() + bIndex, aAddress, length);
+        }
+        return PlatformDependent.compare(aAddress, b.memoryAddress() + bIndex, length);
+    }
+
     /**
      * The default implementation of {@link ByteBuf#indexOf(int, int, byte)}.
      * This method is useful when implementing a new buffer type.
@@ -303,6 +405,10 @@ public final class ByteBufUtil {
             return -1;
         }
 
+        if (toIndex <= buffer.capacity() && canSearchFast(buffer, toIndex - fromIndex)) {
+            return firstIndexOfFast(buffer, fromIndex, toIndex, value, value);
+        }
+
         for (int i = fromIndex; i < toIndex; i ++) {
             if (buffer.getByte(i) == value) {
                 return i;
@@ -327,6 +433,304 @@ public final class ByteBufUtil {
         return -1;
     }
 
+    /**
+     * Returns {@code true} if {@link #firstIndexOfFast(ByteBuf, int, int, byte, byte)} can be used to search
+     * {@code length} bytes of the specified buffer.
+     */
+    static boolean canSearchFast(ByteBuf buffer, int length) {
+        return SWAR_SEARCH && length >= SWAR_SEARCH_THRESHOLD &&
+               (buffer.hasArray() || buffer.hasMemoryAddress()) && buffer.refCnt() != 0;
+    }
+
+    /**
+     * Returns the index of the first byte in the specified range which is equal to {@code value1} or
+     * {@code value2}, or {@code -1} if there is no such byte.  The memory is read a {@code long} at a time and
+     * all 8 bytes are compared at once, so the caller must have validated the range and checked
+     * {@link #canSearchFast(ByteBuf, int)}.
+     */
+    static int firstIndexOfFast(ByteBuf buffer, int fromIndex, int toIndex, byte value1, byte value2) {
+        final long pattern1 = compilePattern(value1);
+        final long pattern2 = compilePattern(value2);
+        int i = fromIndex;
+        if (buffer.hasArray()) {
+            final byte[] array = buffer.array();
+            final int offset = buffer.arrayOffset();
+            for (; toIndex - i >= 8; i += 8) {
+                long word = PlatformDependent.getLong(array, offset + i);
+                long matches = findMatches(word, pattern1) | findMatches(word, pattern2);
+                if (matches != 0) {
+                    return i + firstMatchIndex(matches);
+                }
+            }
+            for (; i < toIndex; i ++) {
+                byte b = array[offset + i];
+                if (b == value1 || b == value2) {
+                    return i;
+                }
+            }
+        } else {
+            final long address = buffer.memoryAddress();
+            for (; toIndex - i >= 8; i += 8) {
+                long word = PlatformDependent.getLong(address + i);
+                long matches = findMatches(word, pattern1) | findMatches(word, pattern2);
+                if (matches != 0) {
+                    return i + firstMatchIndex(matches);
+                }
+            }
+            for (; i < toIndex; i ++) {
+                byte b = PlatformDependent.getByte(address + i);
+                if (b == value1 || b == value2) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a {@code long} whose 8 bytes are all equal to {@code value}.
+     */
+    private static long compilePattern(byte value) {
+        return (value & 0xFFL) * 0x0101010101010101L;
+    }
+
+    /**
+     * Returns a {@code long} which has the highest bit of every byte set where {@code word} and {@code pattern}
+     * have the same byte, and all other bits cleared.  Unlike the well-known {@code (x - 0x01..) & ~x & 0x80..}
+     * trick, this never reports a false match, so it works for either byte order.
+     */
+    private static long findMatches(long word, long pattern) {
+        final long input = word ^ pattern;
+        final long tmp = (input & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL;
+        return ~(tmp | input | 0x7F7F7F7F7F7F7F7FL);
+    }
+
+    /**
+     * Returns the offset of the first matching byte in memory order, given the result of
+     * {@link #findMatches(long, long)} for a {@code long} read in the native byte order.
+     */
+    private static int firstMatchIndex(long matches) {
+        if (PlatformDependent.BIG_ENDIAN_NATIVE_ORDER) {
+            return Long.numberOfLeadingZeros(matches) >>> 3;
+        }
+        return Long.numberOfTrailingZeros(matches) >>> 3;
+    }
+
+    /**
+     * Returns the number of bytes the specified {@link CharSequence} occupies when encoded in UTF-8 by
+     * {@link #writeUtf8(ByteBuf, CharSequence)}.
+     */
+    public static int utf8Length(CharSequence seq) {
+        final int length = seq.length();
+        int i = 0;
+        while (i < length && seq.charAt(i) < 0x80) {
+            i ++;
+        }
+
+        int utf8Length = length;
+        for (; i < length; i ++) {
+            char c = seq.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                utf8Length ++;
+            } else if (isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                    // 4 bytes for the 2 chars of a surrogate pair.
+                    utf8Length += 2;
+                    i ++;
+                }
+                // An unpaired surrogate is replaced with '?'.
+            } else {
+                utf8Length += 2;
+            }
+        }
+        return utf8Length;
+    }
+
+    /**
+     * Encodes the specified {@link CharSequence} in UTF-8 into a new {@link ByteBuf} of the exact required size
+     * which is allocated via the {@link ByteBufAllocator}.
+     */
+    public static ByteBuf writeUtf8(ByteBufAllocator alloc, CharSequence seq) {
+        final int length = utf8Length(seq);
+        ByteBuf buf = alloc.buffer(length);
+        writeUtf8(buf, seq, length);
+        return buf;
+    }
+
+    /**
+     * Encodes the specified {@link CharSequence} in UTF-8 and writes it to the specified {@link ByteBuf}, increasing
+     * its {@code writerIndex}.  The characters are encoded straight into the memory of the buffer, so no temporary
+     * byte array is created unless the buffer exposes neither its array nor its memory address.  Unpaired
+     * surrogates are replaced with {@code '?'} like {@link String#getBytes(Charset)} does.
+     *
+     * @return the number of bytes written
+     */
+    public static int writeUtf8(ByteBuf buf, CharSequence seq) {
+        final int length = utf8Length(seq);
+        writeUtf8(buf, seq, length);
+        return length;
+    }
+
+    private static void writeUtf8(ByteBuf buf, CharSequence seq, int utf8Length) {
+        ensureAccessible(buf);
+        buf.ensureWritable(utf8Length);
+        final int writerIndex = buf.writerIndex();
+        if (buf.hasArray()) {
+            writeUtf8(buf.array(), buf.arrayOffset() + writerIndex, seq);
+        } else if (buf.hasMemoryAddress()) {
+            writeUtf8(buf.memoryAddress() + writerIndex, seq);
+        } else {
+            byte[] bytes = new byte[utf8Length];
+            writeUtf8(bytes, 0, seq);
+            buf.setBytes(writerIndex, bytes);
+        }
+        buf.writerIndex(writerIndex + utf8Length);
+    }
+
+    private static void writeUtf8(byte[] dst, int index, CharSequence seq) {
+        final int length = seq.length();
+        int i = 0;
+        for (; i < length; i ++) {
+            char c = seq.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            dst[index ++] = (byte) c;
+        }
+
+        for (; i < length; i ++) {
+            char c = seq.charAt(i);
+            if (c < 0x80) {
+                dst[index ++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[index ++] = (byte) (0xc0 | c >> 6);
+                dst[index ++] = (byte) (0x80 | c & 0x3f);
+            } else if (isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, seq.charAt(++ i));
+                    dst[index ++] = (byte) (0xf0 | codePoint >> 18);
+                    dst[index ++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                    dst[index ++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                    dst[index ++] = (byte) (0x80 | codePoint & 0x3f);
+                } else {
+                    dst[index ++] = '?';
+                }
+            } else {
+                dst[index ++] = (byte) (0xe0 | c >> 12);
+                dst[index ++] = (byte) (0x80 | c >> 6 & 0x3f);
+                dst[index ++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+    }
+
+    private static void writeUtf8(long address, CharSequence seq) {
+        final int length = seq.length();
+        int i = 0;
+        for (; i < length; i ++) {
+            char c = seq.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            PlatformDependent.putByte(address ++, (byte) c);
+        }
+
+        for (; i < length; i ++) {
+            char c = seq.charAt(i);
+            if (c < 0x80) {
+                PlatformDependent.putByte(address ++, (byte) c);
+            } else if (c < 0x800) {
+                PlatformDependent.putByte(address ++, (byte) (0xc0 | c >> 6));
+                PlatformDependent.putByte(address ++, (byte) (0x80 | c & 0x3f));
+            } else if (isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, seq.charAt(++ i));
+                    PlatformDependent.putByte(address ++, (byte) (0xf0 | codePoint >> 18));
+                    PlatformDependent.putByte(address ++, (byte) (0x80 | codePoint >> 12 & 0x3f));
+                    PlatformDependent.putByte(address ++, (byte) (0x80 | codePoint >> 6 & 0x3f));
+                    PlatformDependent.putByte(address ++, (byte) (0x80 | codePoint & 0x3f));
+                } else {
+                    PlatformDependent.putByte(address ++, (byte) '?');
+                }
+            } else {
+                PlatformDependent.putByte(address ++, (byte) (0xe0 | c >> 12));
+                PlatformDependent.putByte(address ++, (byte) (0x80 | c >> 6 & 0x3f));
+                PlatformDependent.putByte(address ++, (byte) (0x80 | c & 0x3f));
+            }
+        }
+    }
+
+    private static boolean isSurrogate(char c) {
+        return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+    }
+
+    /**
+     * Encodes the specified ASCII {@link CharSequence} into a new {@link ByteBuf} of the exact required size
+     * which is allocated via the {@link ByteBufAllocator}.
+     *
+     * @see #writeAscii(ByteBuf, CharSequence)
+     */
+    public static ByteBuf writeAscii(ByteBufAllocator alloc, CharSequence seq) {
+        ByteBuf buf = alloc.buffer(seq.length());
+        writeAscii(buf, seq);
+        return buf;
+    }
+
+    /**
+     * Writes the specified ASCII {@link CharSequence} to the specified {@link ByteBuf}, increasing its
+     * {@code writerIndex}.  Every character is written as its lower 8 bits, so the caller must make sure the
+     * sequence contains only ASCII (or ISO-8859-1) characters.  The characters are written straight into the memory
+     * of the buffer, so no temporary byte array is created unless the buffer exposes neither its array nor its
+     * memory address.
+     *
+     * @return the number of bytes written
+     */
+    public static int writeAscii(ByteBuf buf, CharSequence seq) {
+        if (seq instanceof AsciiString) {
+            // Already encoded.
+            AsciiString asciiString = (AsciiString) seq;
+            buf.writeBytes(asciiString.array(), asciiString.arrayOffset(), asciiString.length());
+            return asciiString.length();
+        }
+
+        final int length = seq.length();
+        ensureAccessible(buf);
+        buf.ensureWritable(length);
+        final int writerIndex = buf.writerIndex();
+        if (buf.hasArray()) {
+            final byte[] array = buf.array();
+            final int offset = buf.arrayOffset() + writerIndex;
+            for (int i = 0; i < length; i ++) {
+                array[offset + i] = (byte) seq.charAt(i);
+            }
+        } else if (buf.hasMemoryAddress()) {
+            final long address = buf.memoryAddress() + writerIndex;
+            for (int i = 0; i < length; i ++) {
+                PlatformDependent.putByte(address + i, (byte) seq.charAt(i));
+            }
+        } else {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i ++) {
+                bytes[i] = (byte) seq.charAt(i);
+            }
+            buf.setBytes(writerIndex, bytes);
+        }
+        buf.writerIndex(writerIndex + length);
+        return length;
+    }
+
+    /**
+     * Makes sure the memory of the specified buffer is not accessed directly after it was released, like the
+     * accessor methods of the buffer make sure.
+     */
+    private static void ensureAccessible(ByteBuf buf) {
+        if (buf.refCnt() == 0) {
+            throw new IllegalReferenceCountException(0);
+        }
+    }
+
     /**
      * Encode the given {@link CharBuffer} using the given {@link Charset} into a new {@link ByteBuf} which
      * is allocated via the {@link ByteBufAllocator}.
@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 import java.util.ArrayList;
@@ -44,11 +45,27 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
     private final boolean direct;
     private final List<Component> components = new ArrayList<Component>();
     private final int maxNumComponents;
+    private final boolean incrementalConsolidation;
     private static final ByteBuffer FULL_BYTEBUFFER = (ByteBuffer) ByteBuffer.allocate(1).position(1);
 
+    // The index of the component which was looked up last. Sequential access usually hits it or its successor.
+    private int lastAccessedId;
+
     private boolean freed;
 
     public CompositeByteBuf(ByteBufAllocator alloc, boolean direct, int maxNumComponents) {
+        this(alloc, direct, maxNumComponents, false);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param incrementalConsolidation if {@code true}, only the run of adjacent components with the least bytes is
+     *                                 merged once {@code maxNumComponents} is exceeded, instead of copying all
+     *                                 components into a single buffer.  Large components are then kept as they are.
+     */
+    public CompositeByteBuf(
+            ByteBufAllocator alloc, boolean direct, int maxNumComponents, boolean incrementalConsolidation) {
         super(Integer.MAX_VALUE);
         if (alloc == null) {
             throw new NullPointerException("alloc");
@@ -56,6 +73,7 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         this.alloc = alloc;
         this.direct = direct;
         this.maxNumComponents = maxNumComponents;
+        this.incrementalConsolidation = incrementalConsolidation;
         leak = leakDetector.open(this);
     }
 
@@ -72,6 +90,7 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         this.alloc = alloc;
         this.direct = direct;
         this.maxNumComponents = maxNumComponents;
+        incrementalConsolidation = false;
 
         addComponents0(0, buffers);
         consolidateIfNeeded();
@@ -93,6 +112,7 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         this.alloc = alloc;
         this.direct = direct;
         this.maxNumComponents = maxNumComponents;
+        incrementalConsolidation = false;
         addComponents0(0, buffers);
         consolidateIfNeeded();
         setIndex(0, capacity());
@@ -141,6 +161,34 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         return this;
     }
 
+    /**
+     * Add the given {@link ByteBuf}s without consolidating, even if the number of components exceeds
+     * {@link #maxNumComponents()}, so the content of the buffers is never copied.
+     *
+     * Be aware that this method does not increase the {@code writerIndex} of the {@link CompositeByteBuf}.
+     * If you need to have it increased you need to handle it by your own.
+     *
+     * @param buffers the {@link ByteBuf}s to add
+     */
+    public CompositeByteBuf addComponentsWithoutConsolidation(ByteBuf... buffers) {
+        addComponents0(components.size(), buffers);
+        return this;
+    }
+
+    /**
+     * Add the given {@link ByteBuf}s without consolidating, even if the number of components exceeds
+     * {@link #maxNumComponents()}, so the content of the buffers is never copied.
+     *
+     * Be aware that this method does not increase the {@code writerIndex} of the {@link CompositeByteBuf}.
+     * If you need to have it increased you need to handle it by your own.
+     *
+     * @param buffers the {@link ByteBuf}s to add
+     */
+    public CompositeByteBuf addComponentsWithoutConsolidation(Iterable<ByteBuf> buffers) {
+        addComponents0(components.size(), buffers);
+        return this;
+    }
+
     /**
      * Add the given {@link ByteBuf} on the specific index.
      *
@@ -284,6 +332,11 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         // operation.
         final int numComponents = components.size();
         if (numComponents > maxNumComponents) {
+            if (incrementalConsolidation) {
+                consolidateSmallestRun(numComponents - maxNumComponents + 1);
+                return;
+            }
+
             final int capacity = components.get(numComponents - 1).endOffset;
 
             ByteBuf consolidated = allocBuffer(capacity);
@@ -303,6 +356,28 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         }
     }
 
+    /**
+     * Consolidates the {@code numComponents} adjacent components which hold the least bytes.
+     */
+    private void consolidateSmallestRun(int numComponents) {
+        int runLength = 0;
+        for (int i = 0; i < numComponents; i ++) {
+            runLength += components.get(i).length;
+        }
+
+        int start = 0;
+        int minRunLength = runLength;
+        for (int i = numComponents; i < components.size(); i ++) {
+            runLength += components.get(i).length - components.get(i - numComponents).length;
+            if (runLength < minRunLength) {
+                minRunLength = runLength;
+                start = i - numComponents + 1;
+            }
+        }
+
+        consolidate(start, numComponents);
+    }
+
     private void checkComponentIndex(int cIndex) {
         assert !freed;
         if (cIndex < 0 || cIndex > components.size()) {
@@ -571,8 +646,30 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
     public int toComponentIndex(int offset) {
         assert !freed;
         checkIndex(offset);
+        return findComponentId(offset);
+    }
+
+    private int findComponentId(int offset) {
+        final List<Component> components = this.components;
+        final int size = components.size();
 
-        for (int low = 0, high = components.size(); low <= high;) {
+        // Try the last accessed component and its successor first. The id is validated against the offsets, so it
+        // does not need to be updated when components are added or removed.
+        int id = lastAccessedId;
+        if (id < size) {
+            Component c = components.get(id);
+            if (offset >= c.offset) {
+                if (offset < c.endOffset) {
+                    return id;
+                }
+                if (++ id < size && offset < components.get(id).endOffset) {
+                    lastAccessedId = id;
+                    return id;
+                }
+            }
+        }
+
+        for (int low = 0, high = size - 1; low <= high;) {
             int mid = low + high >>> 1;
             Component c = components.get(mid);
             if (offset >= c.endOffset) {
@@ -580,6 +677,7 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
             } else if (offset < c.offset) {
                 high = mid - 1;
             } else {
+                lastAccessedId = mid;
                 return mid;
             }
         }
@@ -651,6 +749,46 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         }
     }
 
+    @Override
+    protected short _getShortLE(int index) {
+        Component c = findComponent(index);
+        if (index + 2 <= c.endOffset) {
+            return c.buf.getShortLE(index - c.offset);
+        } else {
+            return (short) (_getByte(index) & 0xff | (_getByte(index + 1) & 0xff) << 8);
+        }
+    }
+
+    @Override
+    protected int _getUnsignedMediumLE(int index) {
+        Component c = findComponent(index);
+        if (index + 3 <= c.endOffset) {
+            return c.buf.getUnsignedMediumLE(index - c.offset);
+        } else {
+            return _getShortLE(index) & 0xffff | (_getByte(index + 2) & 0xff) << 16;
+        }
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        Component c = findComponent(index);
+        if (index + 4 <= c.endOffset) {
+            return c.buf.getIntLE(index - c.offset);
+        } else {
+            return _getShortLE(index) & 0xffff | (_getShortLE(index + 2) & 0xffff) << 16;
+        }
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        Component c = findComponent(index);
+        if (index + 8 <= c.endOffset) {
+            return c.buf.getLongLE(index - c.offset);
+        } else {
+            return _getIntLE(index) & 0xffffffffL | (_getIntLE(index + 4) & 0xffffffffL) << 32;
+        }
+    }
+
     @Override
     public CompositeByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
         checkDstIndex(index, length, dstIndex, dst.length);
@@ -740,6 +878,26 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         }
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length)
+            throws IOException {
+        int count = nioBufferCount();
+        if (count == 1) {
+            return out.write(internalNioBuffer(index, length), position);
+        } else {
+            // There is no gathering write at an explicit position, so write the component buffers one after the
+            // other without merging them.
+            int writtenBytes = 0;
+            for (ByteBuffer buf: nioBuffers(index, length)) {
+                writtenBytes += out.write(buf, position + writtenBytes);
+                if (buf.hasRemaining()) {
+                    break;
+                }
+            }
+            return writtenBytes;
+        }
+    }
+
     @Override
     public CompositeByteBuf getBytes(int index, OutputStream out, int length) throws IOException {
         checkIndex(index, length);
@@ -849,6 +1007,50 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         }
     }
 
+    @Override
+    protected void _setShortLE(int index, int value) {
+        Component c = findComponent(index);
+        if (index + 2 <= c.endOffset) {
+            c.buf.setShortLE(index - c.offset, value);
+        } else {
+            _setByte(index, (byte) value);
+            _setByte(index + 1, (byte) (value >>> 8));
+        }
+    }
+
+    @Override
+    protected void _setMediumLE(int index, int value) {
+        Component c = findComponent(index);
+        if (index + 3 <= c.endOffset) {
+            c.buf.setMediumLE(index - c.offset, value);
+        } else {
+            _setShortLE(index, (short) value);
+            _setByte(index + 2, (byte) (value >>> 16));
+        }
+    }
+
+    @Override
+    protected void _setIntLE(int index, int value) {
+        Component c = findComponent(index);
+        if (index + 4 <= c.endOffset) {
+            c.buf.setIntLE(index - c.offset, value);
+        } else {
+            _setShortLE(index, (short) value);
+            _setShortLE(index + 2, (short) (value >>> 16));
+        }
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        Component c = findComponent(index);
+        if (index + 8 <= c.endOffset) {
+            c.buf.setLongLE(index - c.offset, value);
+        } else {
+            _setIntLE(index, (int) value);
+            _setIntLE(index + 4, (int) (value >>> 32));
+        }
+    }
+
     @Override
     public CompositeByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
         checkSrcIndex(index, length, srcIndex, src.length);
@@ -1004,6 +1206,49 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
         return readBytes;
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        checkIndex(index, length);
+        if (length == 0) {
+            return in.read(FULL_BYTEBUFFER, position);
+        }
+
+        int i = toComponentIndex(index);
+        int readBytes = 0;
+        do {
+            Component c = components.get(i);
+            ByteBuf s = c.buf;
+            int adjustment = c.offset;
+            int localLength = Math.min(length, s.capacity() - (index - adjustment));
+            int localReadBytes = s.setBytes(index - adjustment, in, position + readBytes, localLength);
+
+            if (localReadBytes == 0) {
+                break;
+            }
+
+            if (localReadBytes < 0) {
+                if (readBytes == 0) {
+                    return -1;
+                } else {
+                    break;
+                }
+            }
+
+            if (localReadBytes == localLength) {
+                index += localLength;
+                length -= localLength;
+                readBytes += localLength;
+                i ++;
+            } else {
+                index += localReadBytes;
+                length -= localReadBytes;
+                readBytes += localReadBytes;
+            }
+        } while (length > 0);
+
+        return readBytes;
+    }
+
     @Override
     public ByteBuf copy(int index, int length) {
         checkIndex(index, length);
@@ -1077,20 +1322,7 @@ public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
     private Component findComponent(int offset) {
         assert !freed;
         checkIndex(offset);
-
-        for (int low = 0, high = components.size(); low <= high;) {
-            int mid = low + high >>> 1;
-            Component c = components.get(mid);
-            if (offset >= c.endOffset) {
-                low = mid + 1;
-            } else if (offset < c.offset) {
-                high = mid - 1;
-            } else {
-                return c;
-            }
-        }
-
-        throw new Error("should not reach here");
+        return components.get(findComponentId(offset));
     }
 
     @Override
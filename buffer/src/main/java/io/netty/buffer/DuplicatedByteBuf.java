@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 
@@ -151,6 +152,26 @@ public class DuplicatedByteBuf extends AbstractDerivedByteBuf {
         return buffer.getLong(index);
     }
 
+    @Override
+    protected short _getShortLE(int index) {
+        return buffer.getShortLE(index);
+    }
+
+    @Override
+    protected int _getUnsignedMediumLE(int index) {
+        return buffer.getUnsignedMediumLE(index);
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        return buffer.getIntLE(index);
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        return buffer.getLongLE(index);
+    }
+
     @Override
     public ByteBuf copy(int index, int length) {
         return buffer.copy(index, length);
@@ -234,6 +255,26 @@ public class DuplicatedByteBuf extends AbstractDerivedByteBuf {
         buffer.setLong(index, value);
     }
 
+    @Override
+    protected void _setShortLE(int index, int value) {
+        buffer.setShortLE(index, value);
+    }
+
+    @Override
+    protected void _setMediumLE(int index, int value) {
+        buffer.setMediumLE(index, value);
+    }
+
+    @Override
+    protected void _setIntLE(int index, int value) {
+        buffer.setIntLE(index, value);
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        buffer.setLongLE(index, value);
+    }
+
     @Override
     public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
         buffer.setBytes(index, src, srcIndex, length);
@@ -265,6 +306,12 @@ public class DuplicatedByteBuf extends AbstractDerivedByteBuf {
         return buffer.getBytes(index, out, length);
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length)
+            throws IOException {
+        return buffer.getBytes(index, out, position, length);
+    }
+
     @Override
     public int setBytes(int index, InputStream in, int length)
             throws IOException {
@@ -277,6 +324,12 @@ public class DuplicatedByteBuf extends AbstractDerivedByteBuf {
         return buffer.setBytes(index, in, length);
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length)
+            throws IOException {
+        return buffer.setBytes(index, in, position, length);
+    }
+
     @Override
     public int nioBufferCount() {
         return buffer.nioBufferCount();
@@ -25,6 +25,7 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
@@ -282,6 +283,41 @@ public final class EmptyByteBuf extends ByteBuf {
         throw new IndexOutOfBoundsException();
     }
 
+    @Override
+    public short getShortLE(int index) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public int getUnsignedShortLE(int index) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public int getMediumLE(int index) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public int getUnsignedMediumLE(int index) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public long getUnsignedIntLE(int index) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        throw new IndexOutOfBoundsException();
+    }
+
     @Override
     public char getChar(int index) {
         throw new IndexOutOfBoundsException();
@@ -338,6 +374,12 @@ public final class EmptyByteBuf extends ByteBuf {
         return 0;
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) {
+        checkIndex(index, length);
+        return 0;
+    }
+
     @Override
     public ByteBuf setBoolean(int index, boolean value) {
         throw new IndexOutOfBoundsException();
@@ -368,6 +410,26 @@ public final class EmptyByteBuf extends ByteBuf {
         throw new IndexOutOfBoundsException();
     }
 
+    @Override
+    public ByteBuf setShortLE(int index, int value) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public ByteBuf setMediumLE(int index, int value) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        throw new IndexOutOfBoundsException();
+    }
+
     @Override
     public ByteBuf setChar(int index, int value) {
         throw new IndexOutOfBoundsException();
@@ -425,6 +487,12 @@ public final class EmptyByteBuf extends ByteBuf {
         return 0;
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) {
+        checkIndex(index, length);
+        return 0;
+    }
+
     @Override
     public ByteBuf setZero(int index, int length) {
         return checkIndex(index, length);
@@ -480,6 +548,41 @@ public final class EmptyByteBuf extends ByteBuf {
         throw new IndexOutOfBoundsException();
     }
 
+    @Override
+    public short readShortLE() {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public int readUnsignedShortLE() {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public int readMediumLE() {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public int readUnsignedMediumLE() {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public int readIntLE() {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public long readUnsignedIntLE() {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public long readLongLE() {
+        throw new IndexOutOfBoundsException();
+    }
+
     @Override
     public char readChar() {
         throw new IndexOutOfBoundsException();
@@ -546,6 +649,12 @@ public final class EmptyByteBuf extends ByteBuf {
         return 0;
     }
 
+    @Override
+    public int readBytes(FileChannel out, long position, int length) {
+        checkLength(length);
+        return 0;
+    }
+
     @Override
     public ByteBuf skipBytes(int length) {
         return checkLength(length);
@@ -581,6 +690,26 @@ public final class EmptyByteBuf extends ByteBuf {
         throw new IndexOutOfBoundsException();
     }
 
+    @Override
+    public ByteBuf writeShortLE(int value) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public ByteBuf writeMediumLE(int value) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public ByteBuf writeIntLE(int value) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public ByteBuf writeLongLE(long value) {
+        throw new IndexOutOfBoundsException();
+    }
+
     @Override
     public ByteBuf writeChar(int value) {
         throw new IndexOutOfBoundsException();
@@ -638,6 +767,12 @@ public final class EmptyByteBuf extends ByteBuf {
         return 0;
     }
 
+    @Override
+    public int writeBytes(FileChannel in, long position, int length) {
+        checkLength(length);
+        return 0;
+    }
+
     @Override
     public ByteBuf writeZero(int length) {
         return checkLength(length);
@@ -714,6 +849,21 @@ public final class EmptyByteBuf extends ByteBuf {
         return this;
     }
 
+    @Override
+    public ByteBuf retainedSlice() {
+        return this;
+    }
+
+    @Override
+    public ByteBuf retainedSlice(int index, int length) {
+        return checkIndex(index, length);
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        return this;
+    }
+
     @Override
     public int nioBufferCount() {
         return 1;
@@ -16,20 +16,30 @@
 
 package io.netty.buffer;
 
+import io.netty.util.internal.LongCounter;
 import io.netty.util.internal.PlatformDependent;
 import io.netty.util.internal.StringUtil;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
-abstract class PoolArena<T> {
+abstract class PoolArena<T> implements PoolArenaMetric {
+
+    static final boolean HAS_UNSAFE = PlatformDependent.hasUnsafe();
+
+    static final int numTinySubpagePools = 512 >>> 4;
 
     final PooledByteBufAllocator parent;
 
-    private final int pageSize;
+    final int pageSize;
     private final int maxOrder;
     private final int pageShifts;
-    private final int chunkSize;
+    final int chunkSize;
     private final int subpageOverflowMask;
+    final int numSmallSubpagePools;
 
     private final PoolSubpage<T>[] tinySubpagePools;
     private final PoolSubpage<T>[] smallSubpagePools;
@@ -41,6 +51,38 @@ abstract class PoolArena<T> {
     private final PoolChunkList<T> q075;
     private final PoolChunkList<T> q100;
 
+    private final List<PoolSubpageMetric> tinySubpageMetrics;
+    private final List<PoolSubpageMetric> smallSubpageMetrics;
+    private final List<PoolChunkListMetric> chunkListMetrics;
+
+    // Metrics which are only updated while holding the lock of this arena.  They are volatile so the metric
+    // accessors can read them without taking the lock.
+    private volatile long allocationsTiny;
+    private volatile long allocationsSmall;
+    private volatile long allocationsNormal;
+    private volatile long deallocationsTiny;
+    private volatile long deallocationsSmall;
+    private volatile long deallocationsNormal;
+    private volatile long activeBytesPooled;
+
+    // Huge allocations never take the lock of this arena, so their metrics need to be thread-safe.
+    private final LongCounter allocationsHuge = PlatformDependent.newLongCounter();
+    private final LongCounter deallocationsHuge = PlatformDependent.newLongCounter();
+    private final LongCounter activeBytesHuge = PlatformDependent.newLongCounter();
+
+    // Updated in batches by the PoolThreadCaches which use this arena.
+    final LongCounter threadCacheHits = PlatformDependent.newLongCounter();
+    final LongCounter threadCacheMisses = PlatformDependent.newLongCounter();
+
+    // Number of PoolThreadCaches which use this arena.
+    final AtomicInteger numThreadCaches = new AtomicInteger();
+    // Whether the threads using this arena are event loop threads. Guarded by the allocator's thread cache lock
+    // and only meaningful while numThreadCaches is not 0.
+    boolean eventLoopArena;
+
+    // Guarded by the lock of this arena.
+    private long lastIdleCheckNanos = System.nanoTime();
+
     // TODO: Test if adding padding helps under contention
     //private long pad0, pad1, pad2, pad3, pad4, pad5, pad6, pad7;
 
@@ -52,12 +94,13 @@ abstract class PoolArena<T> {
         this.chunkSize = chunkSize;
         subpageOverflowMask = ~(pageSize - 1);
 
-        tinySubpagePools = newSubpagePoolArray(512 >>> 4);
+        tinySubpagePools = newSubpagePoolArray(numTinySubpagePools);
         for (int i = 0; i < tinySubpagePools.length; i ++) {
             tinySubpagePools[i] = newSubpagePoolHead(pageSize);
         }
 
-        smallSubpagePools = newSubpagePoolArray(pageShifts - 9);
+        numSmallSubpagePools = pageShifts - 9;
+        smallSubpagePools = newSubpagePoolArray(numSmallSubpagePools);
         for (int i = 0; i < smallSubpagePools.length; i ++) {
             smallSubpagePools[i] = newSubpagePoolHead(pageSize);
         }
@@ -75,6 +118,28 @@ abstract class PoolArena<T> {
         q025.prevList = q000;
         q000.prevList = null;
         qInit.prevList = qInit;
+
+        List<PoolChunkListMetric> metrics = new ArrayList<PoolChunkListMetric>(6);
+        metrics.add(qInit);
+        metrics.add(q000);
+        metrics.add(q025);
+        metrics.add(q050);
+        metrics.add(q075);
+        metrics.add(q100);
+        chunkListMetrics = Collections.unmodifiableList(metrics);
+
+        tinySubpageMetrics = subpageMetrics(tinySubpagePools, true);
+        smallSubpageMetrics = subpageMetrics(smallSubpagePools, false);
+    }
+
+    private static List<PoolSubpageMetric> subpageMetrics(PoolSubpage<?>[] pools, boolean tiny) {
+        List<PoolSubpageMetric> metrics = new ArrayList<PoolSubpageMetric>(pools.length);
+        // The first tiny pool only serves empty buffers, so it is left out.
+        for (int i = tiny ? 1 : 0; i < pools.length; i ++) {
+            int elementSize = tiny ? i << 4 : 512 << i;
+            metrics.add(new SubpagePoolMetric(pools[i], elementSize));
+        }
+        return Collections.unmodifiableList(metrics);
     }
 
     private PoolSubpage<T> newSubpagePoolHead(int pageSize) {
@@ -95,21 +160,48 @@ abstract class PoolArena<T> {
         return buf;
     }
 
+    static int tinyIdx(int normCapacity) {
+        return normCapacity >>> 4;
+    }
+
+    static int smallIdx(int normCapacity) {
+        int tableIdx = 0;
+        int i = normCapacity >>> 10;
+        while (i != 0) {
+            i >>>= 1;
+            tableIdx ++;
+        }
+        return tableIdx;
+    }
+
+    // capacity < pageSize
+    boolean isTinyOrSmall(int normCapacity) {
+        return (normCapacity & subpageOverflowMask) == 0;
+    }
+
+    // normCapacity < 512
+    static boolean isTiny(int normCapacity) {
+        return (normCapacity & 0xFFFFFE00) == 0;
+    }
+
     private void allocate(PoolThreadCache cache, PooledByteBuf<T> buf, final int reqCapacity) {
         final int normCapacity = normalizeCapacity(reqCapacity);
-        if ((normCapacity & subpageOverflowMask) == 0) { // capacity < pageSize
+        if (isTinyOrSmall(normCapacity)) { // capacity < pageSize
             int tableIdx;
             PoolSubpage<T>[] table;
-            if ((normCapacity & 0xFFFFFE00) == 0) { // < 512
-                tableIdx = normCapacity >>> 4;
+            if (isTiny(normCapacity)) { // < 512
+                if (cache.allocateTiny(this, buf, reqCapacity, normCapacity)) {
+                    // was able to allocate out of the cache so move on
+                    return;
+                }
+                tableIdx = tinyIdx(normCapacity);
                 table = tinySubpagePools;
             } else {
-                tableIdx = 0;
-                int i = normCapacity >>> 10;
-                while (i != 0) {
-                    i >>>= 1;
-                    tableIdx ++;
+                if (cache.allocateSmall(this, buf, reqCapacity, normCapacity)) {
+                    // was able to allocate out of the cache so move on
+                    return;
                 }
+                tableIdx = smallIdx(normCapacity);
                 table = smallSubpagePools;
             }
 
@@ -121,10 +213,16 @@ abstract class PoolArena<T> {
                     long handle = s.allocate();
                     assert handle >= 0;
                     s.chunk.initBufWithSubpage(buf, handle, reqCapacity);
+                    incAllocation(normCapacity);
                     return;
                 }
             }
-        } else if (normCapacity > chunkSize) {
+        } else if (normCapacity <= chunkSize) {
+            if (cache.allocateNormal(this, buf, reqCapacity, normCapacity)) {
+                // was able to allocate out of the cache so move on
+                return;
+            }
+        } else {
             allocateHuge(buf, reqCapacity);
             return;
         }
@@ -133,9 +231,13 @@ abstract class PoolArena<T> {
     }
 
     private synchronized void allocateNormal(PooledByteBuf<T> buf, int reqCapacity, int normCapacity) {
+        // Look for idle chunks before a new chunk may be added, so a busy arena does not keep growing.
+        checkIdleChunks();
+
         if (q050.allocate(buf, reqCapacity, normCapacity) || q025.allocate(buf, reqCapacity, normCapacity) ||
             q000.allocate(buf, reqCapacity, normCapacity) || qInit.allocate(buf, reqCapacity, normCapacity) ||
             q075.allocate(buf, reqCapacity, normCapacity) || q100.allocate(buf, reqCapacity, normCapacity)) {
+            incAllocation(normCapacity);
             return;
         }
 
@@ -145,35 +247,120 @@ abstract class PoolArena<T> {
         assert handle > 0;
         c.initBuf(buf, handle, reqCapacity);
         qInit.add(c);
+        incAllocation(normCapacity);
+    }
+
+    // Must be called while holding the lock of this arena.
+    private void incAllocation(int normCapacity) {
+        if (isTinyOrSmall(normCapacity)) {
+            if (isTiny(normCapacity)) {
+                ++ allocationsTiny;
+            } else {
+                ++ allocationsSmall;
+            }
+        } else {
+            ++ allocationsNormal;
+        }
+        activeBytesPooled += normCapacity;
     }
 
     private void allocateHuge(PooledByteBuf<T> buf, int reqCapacity) {
-        buf.initUnpooled(newUnpooledChunk(reqCapacity), reqCapacity);
+        PoolChunk<T> chunk = newUnpooledChunk(reqCapacity);
+        activeBytesHuge.add(chunk.chunkSize());
+        buf.initUnpooled(chunk, reqCapacity);
+        allocationsHuge.increment();
     }
 
-     void free(PoolChunk<T> chunk, long handle) {
+    void free(PoolChunk<T> chunk, long handle, int normCapacity) {
         if (chunk.unpooled) {
+            activeBytesHuge.add(-chunk.chunkSize());
             destroyChunk(chunk);
+            deallocationsHuge.increment();
         } else {
-            synchronized (this) {
-                chunk.parent.free(chunk, handle);
+            PoolThreadCache cache = parent.threadCache.get();
+            if (cache.add(this, chunk, handle, normCapacity)) {
+                // cached so not free it.
+                return;
             }
+            freeChunk(chunk, handle, normCapacity);
         }
     }
 
+    void freeChunk(PoolChunk<T> chunk, long handle, int normCapacity) {
+        synchronized (this) {
+            if (isTinyOrSmall(normCapacity)) {
+                if (isTiny(normCapacity)) {
+                    ++ deallocationsTiny;
+                } else {
+                    ++ deallocationsSmall;
+                }
+            } else {
+                ++ deallocationsNormal;
+            }
+            activeBytesPooled -= normCapacity;
+            chunk.parent.free(chunk, handle);
+            checkIdleChunks();
+        }
+    }
+
+    /**
+     * Destroys the chunks which were not used at all for the chunk idle timeout of the allocator.  The arena is
+     * only scanned once per timeout, so this method is cheap enough to be called on every allocation and release.
+     */
+    synchronized void checkIdleChunks() {
+        long idleNanos = parent.chunkIdleTimeoutNanos;
+        if (idleNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - lastIdleCheckNanos >= idleNanos) {
+            lastIdleCheckNanos = now;
+            destroyIdleChunks(now, idleNanos);
+        }
+    }
+
+    // Must be called while holding the lock of this arena.
+    private static <T> void releaseUnusedSubpages(PoolSubpage<T>[] pools) {
+        for (PoolSubpage<T> head: pools) {
+            PoolSubpage<T> s = head.next;
+            if (s != head && s.next == head && s.destroyIfUnused()) {
+                s.chunk.parent.freeSubpage(s.chunk, s);
+            }
+        }
+    }
+
+    /**
+     * Destroys all chunks of this arena which are not used at all.
+     *
+     * @return the number of destroyed chunks
+     */
+    synchronized int trim() {
+        return destroyIdleChunks(System.nanoTime(), 0);
+    }
+
+    // Must be called while holding the lock of this arena.
+    private int destroyIdleChunks(long nowNanos, long idleNanos) {
+        // The last subpage of a pool is kept even when it is unused, which would keep its chunk alive forever.
+        releaseUnusedSubpages(tinySubpagePools);
+        releaseUnusedSubpages(smallSubpagePools);
+
+        // A chunk may become unused with a single deallocation, so any list may contain unused chunks.
+        return qInit.destroyIdleChunks(nowNanos, idleNanos) +
+               q000.destroyIdleChunks(nowNanos, idleNanos) +
+               q025.destroyIdleChunks(nowNanos, idleNanos) +
+               q050.destroyIdleChunks(nowNanos, idleNanos) +
+               q075.destroyIdleChunks(nowNanos, idleNanos) +
+               q100.destroyIdleChunks(nowNanos, idleNanos);
+    }
+
     PoolSubpage<T> findSubpagePoolHead(int elemSize) {
         int tableIdx;
         PoolSubpage<T>[] table;
-        if ((elemSize & 0xFFFFFE00) == 0) { // < 512
-            tableIdx = elemSize >>> 4;
+        if (isTiny(elemSize)) { // < 512
+            tableIdx = tinyIdx(elemSize);
             table = tinySubpagePools;
         } else {
-            tableIdx = 0;
-            elemSize >>>= 10;
-            while (elemSize != 0) {
-                elemSize >>>= 1;
-                tableIdx ++;
-            }
+            tableIdx = smallIdx(elemSize);
             table = smallSubpagePools;
         }
 
@@ -228,6 +415,7 @@ abstract class PoolArena<T> {
         long oldHandle = buf.handle;
         T oldMemory = buf.memory;
         int oldOffset = buf.offset;
+        int oldMaxLength = buf.maxLength;
 
         int readerIndex = buf.readerIndex();
         int writerIndex = buf.writerIndex();
@@ -253,10 +441,138 @@ abstract class PoolArena<T> {
         buf.setIndex(readerIndex, writerIndex);
 
         if (freeOldMemory) {
-            free(oldChunk, oldHandle);
+            free(oldChunk, oldHandle, oldMaxLength);
         }
     }
 
+    @Override
+    public int numThreadCaches() {
+        return numThreadCaches.get();
+    }
+
+    @Override
+    public int numTinySubpages() {
+        return tinySubpageMetrics.size();
+    }
+
+    @Override
+    public int numSmallSubpages() {
+        return smallSubpageMetrics.size();
+    }
+
+    @Override
+    public int numChunkLists() {
+        return chunkListMetrics.size();
+    }
+
+    @Override
+    public List<PoolSubpageMetric> tinySubpages() {
+        return tinySubpageMetrics;
+    }
+
+    @Override
+    public List<PoolSubpageMetric> smallSubpages() {
+        return smallSubpageMetrics;
+    }
+
+    @Override
+    public List<PoolChunkListMetric> chunkLists() {
+        return chunkListMetrics;
+    }
+
+    @Override
+    public long numAllocations() {
+        return allocationsTiny + allocationsSmall + allocationsNormal + allocationsHuge.value();
+    }
+
+    @Override
+    public long numTinyAllocations() {
+        return allocationsTiny;
+    }
+
+    @Override
+    public long numSmallAllocations() {
+        return allocationsSmall;
+    }
+
+    @Override
+    public long numNormalAllocations() {
+        return allocationsNormal;
+    }
+
+    @Override
+    public long numHugeAllocations() {
+        return allocationsHuge.value();
+    }
+
+    @Override
+    public long numDeallocations() {
+        return deallocationsTiny + deallocationsSmall + deallocationsNormal + deallocationsHuge.value();
+    }
+
+    @Override
+    public long numTinyDeallocations() {
+        return deallocationsTiny;
+    }
+
+    @Override
+    public long numSmallDeallocations() {
+        return deallocationsSmall;
+    }
+
+    @Override
+    public long numNormalDeallocations() {
+        return deallocationsNormal;
+    }
+
+    @Override
+    public long numHugeDeallocations() {
+        return deallocationsHuge.value();
+    }
+
+    @Override
+    public long numActiveAllocations() {
+        long val = numActiveTinyAllocations() + numActiveSmallAllocations() + numActiveNormalAllocations() +
+                   numActiveHugeAllocations();
+        return Math.max(val, 0);
+    }
+
+    @Override
+    public long numActiveTinyAllocations() {
+        return Math.max(allocationsTiny - deallocationsTiny, 0);
+    }
+
+    @Override
+    public long numActiveSmallAllocations() {
+        return Math.max(allocationsSmall - deallocationsSmall, 0);
+    }
+
+    @Override
+    public long numActiveNormalAllocations() {
+        return Math.max(allocationsNormal - deallocationsNormal, 0);
+    }
+
+    @Override
+    public long numActiveHugeAllocations() {
+        // The two counters are not read atomically, so the difference may be negative for a moment.
+        return Math.max(allocationsHuge.value() - deallocationsHuge.value(), 0);
+    }
+
+    @Override
+    public long numActiveBytes() {
+        return Math.max(activeBytesPooled + activeBytesHuge.value(), 0);
+    }
+
+    @Override
+    public long numThreadCacheHits() {
+        return threadCacheHits.value();
+    }
+
+    @Override
+    public long numThreadCacheMisses() {
+        return threadCacheMisses.value();
+    }
+
     protected abstract PoolChunk<T> newChunk(int pageSize, int maxOrder, int pageShifts, int chunkSize);
     protected abstract PoolChunk<T> newUnpooledChunk(int capacity);
     protected abstract PooledByteBuf<T> newByteBuf(int maxCapacity);
@@ -333,6 +649,41 @@ abstract class PoolArena<T> {
         return buf.toString();
     }
 
+    private static final class SubpagePoolMetric implements PoolSubpageMetric {
+        private final PoolSubpage<?> head;
+        private final int elementSize;
+
+        SubpagePoolMetric(PoolSubpage<?> head, int elementSize) {
+            this.head = head;
+            this.elementSize = elementSize;
+        }
+
+        @Override
+        public int elementSize() {
+            return elementSize;
+        }
+
+        @Override
+        public int numSubpages() {
+            return head.poolNumSubpages;
+        }
+
+        @Override
+        public int maxNumElements() {
+            return head.poolMaxNumElems;
+        }
+
+        @Override
+        public int numAvailable() {
+            return head.poolNumAvail;
+        }
+
+        @Override
+        public int pageSize() {
+            return head.pageSize;
+        }
+    }
+
     static final class HeapArena extends PoolArena<byte[]> {
 
         HeapArena(PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize) {
@@ -356,7 +707,8 @@ abstract class PoolArena<T> {
 
         @Override
         protected PooledByteBuf<byte[]> newByteBuf(int maxCapacity) {
-            return PooledHeapByteBuf.newInstance(maxCapacity);
+            return HAS_UNSAFE ? PooledUnsafeHeapByteBuf.newUnsafeInstance(maxCapacity)
+                    : PooledHeapByteBuf.newInstance(maxCapacity);
         }
 
         @Override
@@ -371,26 +723,33 @@ abstract class PoolArena<T> {
 
     static final class DirectArena extends PoolArena<ByteBuffer> {
 
-        private static final boolean HAS_UNSAFE = PlatformDependent.hasUnsafe();
-
         DirectArena(PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize) {
             super(parent, pageSize, maxOrder, pageShifts, chunkSize);
         }
 
+        private static ByteBuffer allocateDirect(int capacity) {
+            return PlatformDependent.useDirectBufferNoCleaner() ?
+                    PlatformDependent.allocateDirectNoCleaner(capacity) : ByteBuffer.allocateDirect(capacity);
+        }
+
         @Override
         protected PoolChunk<ByteBuffer> newChunk(int pageSize, int maxOrder, int pageShifts, int chunkSize) {
             return new PoolChunk<ByteBuffer>(
-                    this, ByteBuffer.allocateDirect(chunkSize), pageSize, maxOrder, pageShifts, chunkSize);
+                    this, allocateDirect(chunkSize), pageSize, maxOrder, pageShifts, chunkSize);
         }
 
         @Override
         protected PoolChunk<ByteBuffer> newUnpooledChunk(int capacity) {
-            return new PoolChunk<ByteBuffer>(this, ByteBuffer.allocateDirect(capacity), capacity);
+            return new PoolChunk<ByteBuffer>(this, allocateDirect(capacity), capacity);
         }
 
         @Override
         protected void destroyChunk(PoolChunk<ByteBuffer> chunk) {
-            PlatformDependent.freeDirectBuffer(chunk.memory);
+            if (PlatformDependent.useDirectBufferNoCleaner()) {
+                PlatformDependent.freeDirectNoCleaner(chunk.memory);
+            } else {
+                PlatformDependent.freeDirectBuffer(chunk.memory);
+            }
         }
 
         @Override
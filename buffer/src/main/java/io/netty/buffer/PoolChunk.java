@@ -44,6 +44,9 @@ final class PoolChunk<T> {
 
     private int freeBytes;
 
+    // The value of System.nanoTime() when the last allocation of this chunk was freed.
+    long idleSinceNanos;
+
     PoolChunkList<T> parent;
     PoolChunk<T> prev;
     PoolChunk<T> next;
@@ -97,6 +100,17 @@ final class PoolChunk<T> {
         return new PoolSubpage[size];
     }
 
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns {@code true} if nothing is allocated out of this chunk.
+     */
+    boolean isUnused() {
+        return freeBytes == chunkSize;
+    }
+
     int usage() {
         if (freeBytes == 0) {
             return 100;
@@ -256,6 +270,20 @@ final class PoolChunk<T> {
             assert bitmapIdx == 0;
         }
 
+        freeRun(memoryMapIdx, val);
+    }
+
+    /**
+     * Releases the run of a subpage which was destroyed via {@link PoolSubpage#destroyIfUnused()}.
+     */
+    void freeSubpage(PoolSubpage<T> subpage) {
+        int memoryMapIdx = subpage.memoryMapIdx;
+        int val = memoryMap[memoryMapIdx];
+        assert (val & 3) == ST_ALLOCATED_SUBPAGE && !subpage.doNotDestroy;
+        freeRun(memoryMapIdx, val);
+    }
+
+    private void freeRun(int memoryMapIdx, int val) {
         freeBytes += runLength(val);
 
         for (;;) {
@@ -263,6 +291,7 @@ final class PoolChunk<T> {
             memoryMap[memoryMapIdx] = val & ~3 | ST_UNUSED;
             if (memoryMapIdx == 1) {
                 assert freeBytes == chunkSize;
+                idleSinceNanos = System.nanoTime();
                 return;
             }
 
@@ -18,7 +18,7 @@ package io.netty.buffer;
 
 import io.netty.util.internal.StringUtil;
 
-final class PoolChunkList<T> {
+final class PoolChunkList<T> implements PoolChunkListMetric {
     private final PoolArena<T> arena;
     private final PoolChunkList<T> nextList;
     PoolChunkList<T> prevList;
@@ -28,6 +28,9 @@ final class PoolChunkList<T> {
 
     private PoolChunk<T> head;
 
+    // Only modified while holding the lock of the arena but read without it by PoolChunkListMetric.numChunks().
+    private int numChunks;
+
     // TODO: Test if adding padding helps under contention
     //private long pad0, pad1, pad2, pad3, pad4, pad5, pad6, pad7;
 
@@ -63,6 +66,15 @@ final class PoolChunkList<T> {
 
     void free(PoolChunk<T> chunk, long handle) {
         chunk.free(handle);
+        moveIfNeeded(chunk);
+    }
+
+    void freeSubpage(PoolChunk<T> chunk, PoolSubpage<T> subpage) {
+        chunk.freeSubpage(subpage);
+        moveIfNeeded(chunk);
+    }
+
+    private void moveIfNeeded(PoolChunk<T> chunk) {
         if (chunk.usage() < minUsage) {
             remove(chunk);
             if (prevList == null) {
@@ -74,6 +86,26 @@ final class PoolChunkList<T> {
         }
     }
 
+    /**
+     * Destroys the chunks of this list which are not used at all and were idle for at least {@code idleNanos}.
+     * If {@code idleNanos} is {@code 0} all unused chunks are destroyed.
+     *
+     * @return the number of destroyed chunks
+     */
+    int destroyIdleChunks(long nowNanos, long idleNanos) {
+        int destroyed = 0;
+        for (PoolChunk<T> cur = head; cur != null;) {
+            PoolChunk<T> next = cur.next;
+            if (cur.isUnused() && (idleNanos == 0 || nowNanos - cur.idleSinceNanos >= idleNanos)) {
+                remove(cur);
+                arena.destroyChunk(cur);
+                destroyed ++;
+            }
+            cur = next;
+        }
+        return destroyed;
+    }
+
     void add(PoolChunk<T> chunk) {
         if (chunk.usage() >= maxUsage) {
             nextList.add(chunk);
@@ -81,6 +113,7 @@ final class PoolChunkList<T> {
         }
 
         chunk.parent = this;
+        numChunks ++;
         if (head == null) {
             head = chunk;
             chunk.prev = null;
@@ -94,6 +127,7 @@ final class PoolChunkList<T> {
     }
 
     private void remove(PoolChunk<T> cur) {
+        numChunks --;
         if (cur == head) {
             head = cur.next;
             if (head != null) {
@@ -108,6 +142,21 @@ final class PoolChunkList<T> {
         }
     }
 
+    @Override
+    public int minUsage() {
+        return Math.max(0, minUsage);
+    }
+
+    @Override
+    public int maxUsage() {
+        return Math.min(maxUsage, 100);
+    }
+
+    @Override
+    public int numChunks() {
+        return numChunks;
+    }
+
     @Override
     public String toString() {
         if (head == null) {
@@ -34,6 +34,15 @@ final class PoolSubpage<T> {
     int bitmapLength;
     int numAvail;
 
+    // The head of the pool this subpage belongs to for its current element size.
+    private PoolSubpage<T> head;
+
+    // Only used by the head of a pool. Aggregates the state of all subpages of the pool so the metrics can be read
+    // without walking the pool. Modified while holding the lock of the arena.
+    int poolNumSubpages;
+    int poolMaxNumElems;
+    int poolNumAvail;
+
     // TODO: Test if adding padding helps under contention
     //private long pad0, pad1, pad2, pad3, pad4, pad5, pad6, pad7;
 
@@ -72,6 +81,12 @@ final class PoolSubpage<T> {
             }
         }
 
+        head = chunk.arena.findSubpagePoolHead(elemSize);
+        if (elemSize != 0) {
+            head.poolNumSubpages ++;
+            head.poolMaxNumElems += maxNumElems;
+            head.poolNumAvail += numAvail;
+        }
         addToPool();
     }
 
@@ -92,6 +107,7 @@ final class PoolSubpage<T> {
         int r = bitmapIdx & 63;
         assert (bitmap[q] >>> r & 1) == 0;
         bitmap[q] |= 1L << r;
+        head.poolNumAvail --;
 
         if (-- numAvail == 0) {
             removeFromPool();
@@ -117,6 +133,7 @@ final class PoolSubpage<T> {
         int r = bitmapIdx & 63;
         assert (bitmap[q] >>> r & 1) != 0;
         bitmap[q] ^= 1L << r;
+        head.poolNumAvail ++;
 
         if (numAvail ++ == 0) {
             nextAvail = bitmapIdx;
@@ -134,14 +151,35 @@ final class PoolSubpage<T> {
             }
 
             // Remove this subpage from the pool if there are other subpages left in the pool.
-            doNotDestroy = false;
-            removeFromPool();
+            destroy();
             return false;
         }
     }
 
+    /**
+     * Removes this subpage from its pool if nothing is allocated out of it, even if it is the last subpage of the
+     * pool.
+     *
+     * @return {@code true} if this subpage was removed and thus it's OK to release its run.
+     */
+    boolean destroyIfUnused() {
+        if (elemSize == 0 || !doNotDestroy || numAvail != maxNumElems) {
+            return false;
+        }
+        destroy();
+        return true;
+    }
+
+    private void destroy() {
+        doNotDestroy = false;
+        removeFromPool();
+        head.poolNumSubpages --;
+        head.poolMaxNumElems -= maxNumElems;
+        head.poolNumAvail -= numAvail;
+    }
+
     private void addToPool() {
-        PoolSubpage<T> head = chunk.arena.findSubpagePoolHead(elemSize);
+        PoolSubpage<T> head = this.head;
         assert prev == null && next == null;
         prev = head;
         next = head.next;
@@ -16,18 +16,494 @@
 
 package io.netty.buffer;
 
+import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Acts as a thread cache for allocations. This implementation is modelled after
+ * <a href="http://people.freebsd.org/~jasone/jemalloc/bsdcan2006/jemalloc.pdf">jemalloc</a> and the described
+ * technics of <a href="https://www.facebook.com/notes/facebook-engineering/scalable-memory-allocation-using-jemalloc/
+ * 480222803919">Scalable memory allocation using jemalloc</a>.
+ * <p>
+ * A cache is only ever accessed by the thread which owns it, so none of its state needs to be synchronized.
+ * Memory that is freed by the owning thread is parked here and handed out again without taking the lock of the
+ * {@link PoolArena}.
+ */
 final class PoolThreadCache {
 
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(PoolThreadCache.class);
+
     final PoolArena<byte[]> heapArena;
     final PoolArena<ByteBuffer> directArena;
 
+    // Hold the caches for the different size classes, which are tiny, small and normal.
+    private final MemoryRegionCache<byte[]>[] tinySubPageHeapCaches;
+    private final MemoryRegionCache<byte[]>[] smallSubPageHeapCaches;
+    private final MemoryRegionCache<ByteBuffer>[] tinySubPageDirectCaches;
+    private final MemoryRegionCache<ByteBuffer>[] smallSubPageDirectCaches;
+    private final MemoryRegionCache<byte[]>[] normalHeapCaches;
+    private final MemoryRegionCache<ByteBuffer>[] normalDirectCaches;
+
+    // Used for bitshifting when calculate the index of normal caches later
+    private final int numShiftsNormalDirect;
+    private final int numShiftsNormalHeap;
+    private final int freeSweepAllocationThreshold;
+
+    private int allocations;
+
+    // Hit and miss counts which were not yet reported to the arenas.
+    private int heapCacheHits;
+    private int heapCacheMisses;
+    private int directCacheHits;
+    private int directCacheMisses;
+
+    private final AtomicBoolean freed = new AtomicBoolean();
+
+    // Looks for idle chunks in the arenas periodically if the owning thread is an event loop, null otherwise.
+    ScheduledFuture<?> idleChunkCheckFuture;
+
     // TODO: Test if adding padding helps under contention
     //private long pad0, pad1, pad2, pad3, pad4, pad5, pad6, pad7;
 
-    PoolThreadCache(PoolArena<byte[]> heapArena, PoolArena<ByteBuffer> directArena) {
+    PoolThreadCache(PoolArena<byte[]> heapArena, PoolArena<ByteBuffer> directArena,
+                    int tinyCacheSize, int smallCacheSize, int normalCacheSize,
+                    int maxCachedBufferCapacity, int freeSweepAllocationThreshold) {
+        if (maxCachedBufferCapacity < 0) {
+            throw new IllegalArgumentException("maxCachedBufferCapacity: "
+                    + maxCachedBufferCapacity + " (expected: >= 0)");
+        }
+        if (freeSweepAllocationThreshold < 1) {
+            throw new IllegalArgumentException("freeSweepAllocationThreshold: "
+                    + freeSweepAllocationThreshold + " (expected: > 0)");
+        }
+        this.freeSweepAllocationThreshold = freeSweepAllocationThreshold;
         this.heapArena = heapArena;
         this.directArena = directArena;
+        if (directArena != null) {
+            tinySubPageDirectCaches = createSubPageCaches(tinyCacheSize, PoolArena.numTinySubpagePools, true);
+            smallSubPageDirectCaches = createSubPageCaches(smallCacheSize, directArena.numSmallSubpagePools, false);
+
+            numShiftsNormalDirect = log2(directArena.pageSize);
+            normalDirectCaches = createNormalCaches(
+                    normalCacheSize, maxCachedBufferCapacity, directArena);
+
+            directArena.numThreadCaches.getAndIncrement();
+        } else {
+            // No directArea is configured so just null out all caches
+            tinySubPageDirectCaches = null;
+            smallSubPageDirectCaches = null;
+            normalDirectCaches = null;
+            numShiftsNormalDirect = -1;
+        }
+        if (heapArena != null) {
+            // Create the caches for the heap allocations
+            tinySubPageHeapCaches = createSubPageCaches(tinyCacheSize, PoolArena.numTinySubpagePools, true);
+            smallSubPageHeapCaches = createSubPageCaches(smallCacheSize, heapArena.numSmallSubpagePools, false);
+
+            numShiftsNormalHeap = log2(heapArena.pageSize);
+            normalHeapCaches = createNormalCaches(
+                    normalCacheSize, maxCachedBufferCapacity, heapArena);
+
+            heapArena.numThreadCaches.getAndIncrement();
+        } else {
+            // No heapArea is configured so just null out all caches
+            tinySubPageHeapCaches = null;
+            smallSubPageHeapCaches = null;
+            normalHeapCaches = null;
+            numShiftsNormalHeap = -1;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MemoryRegionCache<T>[] createSubPageCaches(int cacheSize, int numCaches, boolean tiny) {
+        if (cacheSize > 0) {
+            MemoryRegionCache<T>[] cache = new MemoryRegionCache[numCaches];
+            for (int i = 0; i < cache.length; i ++) {
+                cache[i] = new SubPageMemoryRegionCache<T>(cacheSize, tiny ? i << 4 : 512 << i);
+            }
+            return cache;
+        } else {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MemoryRegionCache<T>[] createNormalCaches(
+            int cacheSize, int maxCachedBufferCapacity, PoolArena<T> area) {
+        if (cacheSize > 0 && maxCachedBufferCapacity >= area.pageSize) {
+            int max = Math.min(area.chunkSize, maxCachedBufferCapacity);
+            int arraySize = Math.max(1, log2(max / area.pageSize) + 1);
+
+            MemoryRegionCache<T>[] cache = new MemoryRegionCache[arraySize];
+            for (int i = 0; i < cache.length; i ++) {
+                cache[i] = new NormalMemoryRegionCache<T>(cacheSize, area.pageSize << i);
+            }
+            return cache;
+        } else {
+            return null;
+        }
+    }
+
+    private static int log2(int val) {
+        int res = 0;
+        while (val > 1) {
+            val >>= 1;
+            res ++;
+        }
+        return res;
+    }
+
+    /**
+     * Try to allocate a tiny buffer out of the cache. Returns {@code true} if successful {@code false} otherwise
+     */
+    boolean allocateTiny(PoolArena<?> area, PooledByteBuf<?> buf, int reqCapacity, int normCapacity) {
+        return allocate(area, cacheForTiny(area, normCapacity), buf, reqCapacity);
+    }
+
+    /**
+     * Try to allocate a small buffer out of the cache. Returns {@code true} if successful {@code false} otherwise
+     */
+    boolean allocateSmall(PoolArena<?> area, PooledByteBuf<?> buf, int reqCapacity, int normCapacity) {
+        return allocate(area, cacheForSmall(area, normCapacity), buf, reqCapacity);
+    }
+
+    /**
+     * Try to allocate a normal buffer out of the cache. Returns {@code true} if successful {@code false} otherwise
+     */
+    boolean allocateNormal(PoolArena<?> area, PooledByteBuf<?> buf, int reqCapacity, int normCapacity) {
+        return allocate(area, cacheForNormal(area, normCapacity), buf, reqCapacity);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private boolean allocate(PoolArena<?> area, MemoryRegionCache<?> cache, PooledByteBuf buf, int reqCapacity) {
+        // If no cache was found for the size the allocation is still counted as a miss.
+        boolean allocated = cache != null && cache.allocate(buf, reqCapacity);
+        if (area == heapArena) {
+            if (allocated) {
+                heapCacheHits ++;
+            } else {
+                heapCacheMisses ++;
+            }
+        } else if (area == directArena) {
+            if (allocated) {
+                directCacheHits ++;
+            } else {
+                directCacheMisses ++;
+            }
+        }
+        if (++ allocations >= freeSweepAllocationThreshold) {
+            allocations = 0;
+            trim();
+        }
+        return allocated;
+    }
+
+    /**
+     * Add {@link PoolChunk} and {@code handle} to the cache if there is enough room.
+     * Returns {@code true} if it fit into the cache {@code false} otherwise.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    boolean add(PoolArena<?> area, PoolChunk chunk, long handle, int normCapacity) {
+        MemoryRegionCache<?> cache;
+        if (area.isTinyOrSmall(normCapacity)) {
+            if (PoolArena.isTiny(normCapacity)) {
+                cache = cacheForTiny(area, normCapacity);
+            } else {
+                cache = cacheForSmall(area, normCapacity);
+            }
+        } else {
+            cache = cacheForNormal(area, normCapacity);
+        }
+        if (cache == null) {
+            return false;
+        }
+        return cache.add(chunk, handle);
+    }
+
+    /**
+     * Should be called if the Thread that uses this cache is about to exit to release resources out of the cache
+     */
+    void free() {
+        if (!freed.compareAndSet(false, true)) {
+            return;
+        }
+
+        int numFreed = free(tinySubPageDirectCaches) +
+                free(smallSubPageDirectCaches) +
+                free(normalDirectCaches) +
+                free(tinySubPageHeapCaches) +
+                free(smallSubPageHeapCaches) +
+                free(normalHeapCaches);
+
+        if (numFreed > 0 && logger.isDebugEnabled()) {
+            logger.debug("Freed {} thread-local buffer(s) from thread: {}", numFreed, Thread.currentThread().getName());
+        }
+
+        reportCacheStats();
+        if (directArena != null) {
+            directArena.numThreadCaches.getAndDecrement();
+        }
+        if (heapArena != null) {
+            heapArena.numThreadCaches.getAndDecrement();
+        }
+    }
+
+    private static int free(MemoryRegionCache<?>[] caches) {
+        if (caches == null) {
+            return 0;
+        }
+
+        int numFreed = 0;
+        for (MemoryRegionCache<?> c: caches) {
+            numFreed += free(c);
+        }
+        return numFreed;
+    }
+
+    private static int free(MemoryRegionCache<?> cache) {
+        if (cache == null) {
+            return 0;
+        }
+        return cache.free();
+    }
+
+    void trim() {
+        trim(tinySubPageDirectCaches);
+        trim(smallSubPageDirectCaches);
+        trim(normalDirectCaches);
+        trim(tinySubPageHeapCaches);
+        trim(smallSubPageHeapCaches);
+        trim(normalHeapCaches);
+        reportCacheStats();
+    }
+
+    /**
+     * Adds the hits and misses counted since the last call to the metrics of the arenas.  This is only done from time
+     * to time so that updating the shared counters does not slow down every allocation.
+     */
+    private void reportCacheStats() {
+        if (heapArena != null) {
+            report(heapArena, heapCacheHits, heapCacheMisses);
+        }
+        if (directArena != null) {
+            report(directArena, directCacheHits, directCacheMisses);
+        }
+        heapCacheHits = heapCacheMisses = directCacheHits = directCacheMisses = 0;
+    }
+
+    private static void report(PoolArena<?> arena, int hits, int misses) {
+        if (hits != 0) {
+            arena.threadCacheHits.add(hits);
+        }
+        if (misses != 0) {
+            arena.threadCacheMisses.add(misses);
+        }
+    }
+
+    private static void trim(MemoryRegionCache<?>[] caches) {
+        if (caches == null) {
+            return;
+        }
+        for (MemoryRegionCache<?> c: caches) {
+            trim(c);
+        }
+    }
+
+    private static void trim(MemoryRegionCache<?> cache) {
+        if (cache == null) {
+            return;
+        }
+        cache.trim();
+    }
+
+    /**
+     * Releases the cached memory once the owning {@link Thread} is gone and this cache became unreachable.
+     * Without this the cached regions would keep their {@link PoolChunk}s from ever being released.
+     */
+    @Override
+    protected void finalize() throws Throwable {
+        try {
+            super.finalize();
+        } finally {
+            free();
+        }
+    }
+
+    private MemoryRegionCache<?> cacheForTiny(PoolArena<?> area, int normCapacity) {
+        int idx = PoolArena.tinyIdx(normCapacity);
+        if (area == directArena) {
+            return cache(tinySubPageDirectCaches, idx);
+        }
+        if (area == heapArena) {
+            return cache(tinySubPageHeapCaches, idx);
+        }
+        return null;
+    }
+
+    private MemoryRegionCache<?> cacheForSmall(PoolArena<?> area, int normCapacity) {
+        int idx = PoolArena.smallIdx(normCapacity);
+        if (area == directArena) {
+            return cache(smallSubPageDirectCaches, idx);
+        }
+        if (area == heapArena) {
+            return cache(smallSubPageHeapCaches, idx);
+        }
+        return null;
+    }
+
+    private MemoryRegionCache<?> cacheForNormal(PoolArena<?> area, int normCapacity) {
+        if (area == directArena) {
+            int idx = log2(normCapacity >> numShiftsNormalDirect);
+            return cache(normalDirectCaches, idx);
+        }
+        if (area == heapArena) {
+            int idx = log2(normCapacity >> numShiftsNormalHeap);
+            return cache(normalHeapCaches, idx);
+        }
+        return null;
+    }
+
+    private static <T> MemoryRegionCache<T> cache(MemoryRegionCache<T>[] cache, int idx) {
+        if (cache == null || idx > cache.length - 1) {
+            return null;
+        }
+        return cache[idx];
+    }
+
+    /**
+     * Cache used for buffers which are backed by TINY or SMALL size.
+     */
+    private static final class SubPageMemoryRegionCache<T> extends MemoryRegionCache<T> {
+        SubPageMemoryRegionCache(int size, int normCapacity) {
+            super(size, normCapacity);
+        }
+
+        @Override
+        protected void initBuf(PoolChunk<T> chunk, long handle, PooledByteBuf<T> buf, int reqCapacity) {
+            chunk.initBufWithSubpage(buf, handle, reqCapacity);
+        }
+    }
+
+    /**
+     * Cache used for buffers which are backed by NORMAL size.
+     */
+    private static final class NormalMemoryRegionCache<T> extends MemoryRegionCache<T> {
+        NormalMemoryRegionCache(int size, int normCapacity) {
+            super(size, normCapacity);
+        }
+
+        @Override
+        protected void initBuf(PoolChunk<T> chunk, long handle, PooledByteBuf<T> buf, int reqCapacity) {
+            chunk.initBuf(buf, handle, reqCapacity);
+        }
+    }
+
+    /**
+     * A bounded LIFO stack of cached memory regions of a single size class. The most recently freed region is handed
+     * out first as it is the most likely one to still be in the CPU cache.
+     */
+    private abstract static class MemoryRegionCache<T> {
+        private final int maxSize;
+        private final int normCapacity;
+        private PoolChunk<T>[] chunks;
+        private long[] handles;
+        private int size;
+
+        // Number of allocations served by this cache since the last trim.
+        private int allocations;
+
+        MemoryRegionCache(int maxSize, int normCapacity) {
+            this.maxSize = maxSize;
+            this.normCapacity = normCapacity;
+        }
+
+        /**
+         * Init the {@link PooledByteBuf} using the provided chunk and handle with the capacity restrictions.
+         */
+        protected abstract void initBuf(PoolChunk<T> chunk, long handle,
+                                        PooledByteBuf<T> buf, int reqCapacity);
+
+        /**
+         * Add to cache if not already full.
+         */
+        @SuppressWarnings("unchecked")
+        public boolean add(PoolChunk<T> chunk, long handle) {
+            if (size == maxSize) {
+                // cache is full
+                return false;
+            }
+            if (chunks == null) {
+                // Allocate the backing arrays lazily as most size classes are never used by a given thread.
+                chunks = new PoolChunk[maxSize];
+                handles = new long[maxSize];
+            }
+            chunks[size] = chunk;
+            handles[size] = handle;
+            size ++;
+            return true;
+        }
+
+        /**
+         * Allocate something out of the cache if possible and remove the entry from the cache.
+         */
+        public boolean allocate(PooledByteBuf<T> buf, int reqCapacity) {
+            if (size == 0) {
+                return false;
+            }
+            int idx = -- size;
+            PoolChunk<T> chunk = chunks[idx];
+            chunks[idx] = null;
+            initBuf(chunk, handles[idx], buf, reqCapacity);
+            allocations ++;
+            return true;
+        }
+
+        /**
+         * Clear out this cache and free up all previous cached {@link PoolChunk}s and {@code handle}s.
+         */
+        public int free() {
+            int numFreed = size;
+            freeEntries(numFreed);
+            allocations = 0;
+            return numFreed;
+        }
+
+        /**
+         * Free up cached {@link PoolChunk}s if not allocated frequently enough.
+         */
+        public void trim() {
+            int free = size - allocations;
+            allocations = 0;
+
+            // Release the entries that were not needed since the last trim.
+            if (free > 0) {
+                freeEntries(free);
+            }
+        }
+
+        /**
+         * Free the {@code num} least recently cached entries, which are the ones at the bottom of the stack.
+         */
+        private void freeEntries(int num) {
+            if (num == 0) {
+                return;
+            }
+            for (int i = 0; i < num; i ++) {
+                PoolChunk<T> chunk = chunks[i];
+                chunk.arena.freeChunk(chunk, handles[i], normCapacity);
+            }
+
+            int remaining = size - num;
+            System.arraycopy(chunks, num, chunks, 0, remaining);
+            System.arraycopy(handles, num, handles, 0, remaining);
+            for (int i = remaining; i < size; i ++) {
+                chunks[i] = null;
+            }
+            size = remaining;
+        }
     }
 }
@@ -16,13 +16,22 @@
 
 package io.netty.buffer;
 
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
 import io.netty.util.internal.PlatformDependent;
 import io.netty.util.internal.SystemPropertyUtil;
+import io.netty.util.internal.ThreadExecutorMap;
 import io.netty.util.internal.logging.InternalLogger;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 
 import java.nio.ByteBuffer;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class PooledByteBufAllocator extends AbstractByteBufAllocator {
 
@@ -33,6 +42,12 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
 
     private static final int DEFAULT_PAGE_SIZE;
     private static final int DEFAULT_MAX_ORDER; // 8192 << 11 = 16 MiB per chunk
+    private static final int DEFAULT_TINY_CACHE_SIZE;
+    private static final int DEFAULT_SMALL_CACHE_SIZE;
+    private static final int DEFAULT_NORMAL_CACHE_SIZE;
+    private static final int DEFAULT_MAX_CACHED_BUFFER_CAPACITY;
+    private static final int DEFAULT_CACHE_TRIM_INTERVAL;
+    private static final long DEFAULT_CHUNK_IDLE_TIMEOUT;
 
     private static final int MIN_PAGE_SIZE = 4096;
     private static final int MAX_CHUNK_SIZE = (int) (((long) Integer.MAX_VALUE + 1) / 2);
@@ -75,6 +90,24 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
                                 runtime.availableProcessors(),
                                 PlatformDependent.maxDirectMemory() / defaultChunkSize / 2 / 3)));
 
+        // cache sizes
+        DEFAULT_TINY_CACHE_SIZE = SystemPropertyUtil.getInt("io.netty.allocator.tinyCacheSize", 512);
+        DEFAULT_SMALL_CACHE_SIZE = SystemPropertyUtil.getInt("io.netty.allocator.smallCacheSize", 256);
+        DEFAULT_NORMAL_CACHE_SIZE = SystemPropertyUtil.getInt("io.netty.allocator.normalCacheSize", 64);
+
+        // 32 kb is the default maximum capacity of the cached buffer. Similar to what is explained in
+        // 'Scalable memory allocation using jemalloc'
+        DEFAULT_MAX_CACHED_BUFFER_CAPACITY = SystemPropertyUtil.getInt(
+                "io.netty.allocator.maxCachedBufferCapacity", 32 * 1024);
+
+        // the number of threshold of allocations when cached entries will be freed up if not frequently used
+        DEFAULT_CACHE_TRIM_INTERVAL = SystemPropertyUtil.getInt(
+                "io.netty.allocator.cacheTrimInterval", 8192);
+
+        // the number of milliseconds after which an unused chunk is released, 0 keeps all chunks
+        DEFAULT_CHUNK_IDLE_TIMEOUT = Math.max(0, SystemPropertyUtil.getLong(
+                "io.netty.allocator.chunkIdleTimeout", 0));
+
         if (logger.isDebugEnabled()) {
             logger.debug("-Dio.netty.allocator.numHeapArenas: {}", DEFAULT_NUM_HEAP_ARENA);
             logger.debug("-Dio.netty.allocator.numDirectArenas: {}", DEFAULT_NUM_DIRECT_ARENA);
@@ -89,6 +122,12 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
                 logger.debug("-Dio.netty.allocator.maxOrder: {}", DEFAULT_MAX_ORDER, maxOrderFallbackCause);
             }
             logger.debug("-Dio.netty.allocator.chunkSize: {}", DEFAULT_PAGE_SIZE << DEFAULT_MAX_ORDER);
+            logger.debug("-Dio.netty.allocator.tinyCacheSize: {}", DEFAULT_TINY_CACHE_SIZE);
+            logger.debug("-Dio.netty.allocator.smallCacheSize: {}", DEFAULT_SMALL_CACHE_SIZE);
+            logger.debug("-Dio.netty.allocator.normalCacheSize: {}", DEFAULT_NORMAL_CACHE_SIZE);
+            logger.debug("-Dio.netty.allocator.maxCachedBufferCapacity: {}", DEFAULT_MAX_CACHED_BUFFER_CAPACITY);
+            logger.debug("-Dio.netty.allocator.cacheTrimInterval: {}", DEFAULT_CACHE_TRIM_INTERVAL);
+            logger.debug("-Dio.netty.allocator.chunkIdleTimeout: {}", DEFAULT_CHUNK_IDLE_TIMEOUT);
         }
     }
 
@@ -97,30 +136,14 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
 
     private final PoolArena<byte[]>[] heapArenas;
     private final PoolArena<ByteBuffer>[] directArenas;
+    private final List<PoolArenaMetric> heapArenaMetrics;
+    private final List<PoolArenaMetric> directArenaMetrics;
+    private final int tinyCacheSize;
+    private final int smallCacheSize;
+    private final int normalCacheSize;
+    final long chunkIdleTimeoutNanos;
 
-    final ThreadLocal<PoolThreadCache> threadCache = new ThreadLocal<PoolThreadCache>() {
-        private final AtomicInteger index = new AtomicInteger();
-        @Override
-        protected PoolThreadCache initialValue() {
-            final int idx = index.getAndIncrement();
-            final PoolArena<byte[]> heapArena;
-            final PoolArena<ByteBuffer> directArena;
-
-            if (heapArenas != null) {
-                heapArena = heapArenas[Math.abs(idx % heapArenas.length)];
-            } else {
-                heapArena = null;
-            }
-
-            if (directArenas != null) {
-                directArena = directArenas[Math.abs(idx % directArenas.length)];
-            } else {
-                directArena = null;
-            }
-
-            return new PoolThreadCache(heapArena, directArena);
-        }
-    };
+    final PoolThreadLocalCache threadCache = new PoolThreadLocalCache();
 
     public PooledByteBufAllocator() {
         this(false);
@@ -135,7 +158,41 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
     }
 
     public PooledByteBufAllocator(boolean preferDirect, int nHeapArena, int nDirectArena, int pageSize, int maxOrder) {
+        this(preferDirect, nHeapArena, nDirectArena, pageSize, maxOrder,
+                DEFAULT_TINY_CACHE_SIZE, DEFAULT_SMALL_CACHE_SIZE, DEFAULT_NORMAL_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new instance whose per-thread caches hold up to {@code tinyCacheSize}, {@code smallCacheSize} and
+     * {@code normalCacheSize} freed buffers per size class.  Specify {@code 0} to disable the respective cache.
+     */
+    public PooledByteBufAllocator(boolean preferDirect, int nHeapArena, int nDirectArena, int pageSize, int maxOrder,
+                                  int tinyCacheSize, int smallCacheSize, int normalCacheSize) {
+        this(preferDirect, nHeapArena, nDirectArena, pageSize, maxOrder,
+                tinyCacheSize, smallCacheSize, normalCacheSize, DEFAULT_CHUNK_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Creates a new instance which gives a chunk back to the system once it was not used at all for
+     * {@code chunkIdleTimeoutMillis} milliseconds.  Specify {@code 0} to keep all chunks, which is the default.
+     * <p>
+     * An arena looks for idle chunks at most once per timeout, while buffers are allocated from or released to
+     * it and periodically from the event loops which use it, so a chunk may be kept up to twice as long as the
+     * timeout.  An arena which is only used by other threads is not checked while these threads do not allocate
+     * or release buffers.  Call {@link #trim()} to release all unused chunks at once.
+     */
+    public PooledByteBufAllocator(boolean preferDirect, int nHeapArena, int nDirectArena, int pageSize, int maxOrder,
+                                  int tinyCacheSize, int smallCacheSize, int normalCacheSize,
+                                  long chunkIdleTimeoutMillis) {
         super(preferDirect);
+        this.tinyCacheSize = tinyCacheSize;
+        this.smallCacheSize = smallCacheSize;
+        this.normalCacheSize = normalCacheSize;
+        if (chunkIdleTimeoutMillis < 0) {
+            throw new IllegalArgumentException(
+                    "chunkIdleTimeoutMillis: " + chunkIdleTimeoutMillis + " (expected: >= 0)");
+        }
+        chunkIdleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(chunkIdleTimeoutMillis);
 
         final int chunkSize = validateAndCalculateChunkSize(pageSize, maxOrder);
 
@@ -145,6 +202,15 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
         if (nDirectArena < 0) {
             throw new IllegalArgumentException("nDirectArea: " + nDirectArena + " (expected: >= 0)");
         }
+        if (tinyCacheSize < 0) {
+            throw new IllegalArgumentException("tinyCacheSize: " + tinyCacheSize + " (expected: >= 0)");
+        }
+        if (smallCacheSize < 0) {
+            throw new IllegalArgumentException("smallCacheSize: " + smallCacheSize + " (expected: >= 0)");
+        }
+        if (normalCacheSize < 0) {
+            throw new IllegalArgumentException("normalCacheSize: " + normalCacheSize + " (expected: >= 0)");
+        }
 
         int pageShifts = validateAndCalculatePageShifts(pageSize);
 
@@ -153,8 +219,10 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
             for (int i = 0; i < heapArenas.length; i ++) {
                 heapArenas[i] = new PoolArena.HeapArena(this, pageSize, maxOrder, pageShifts, chunkSize);
             }
+            heapArenaMetrics = arenaMetrics(heapArenas);
         } else {
             heapArenas = null;
+            heapArenaMetrics = Collections.emptyList();
         }
 
         if (nDirectArena > 0) {
@@ -162,11 +230,19 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
             for (int i = 0; i < directArenas.length; i ++) {
                 directArenas[i] = new PoolArena.DirectArena(this, pageSize, maxOrder, pageShifts, chunkSize);
             }
+            directArenaMetrics = arenaMetrics(directArenas);
         } else {
             directArenas = null;
+            directArenaMetrics = Collections.emptyList();
         }
     }
 
+    private static List<PoolArenaMetric> arenaMetrics(PoolArena<?>[] arenas) {
+        List<PoolArenaMetric> metrics = new ArrayList<PoolArenaMetric>(arenas.length);
+        Collections.addAll(metrics, arenas);
+        return Collections.unmodifiableList(metrics);
+    }
+
     @SuppressWarnings("unchecked")
     private static <T> PoolArena<T>[] newArenaArray(int size) {
         return new PoolArena[size];
@@ -222,7 +298,9 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
         if (heapArena != null) {
             buf = heapArena.allocate(cache, initialCapacity, maxCapacity);
         } else {
-            buf = new UnpooledHeapByteBuf(this, initialCapacity, maxCapacity);
+            buf = PlatformDependent.hasUnsafe() ?
+                    new UnpooledUnsafeHeapByteBuf(this, initialCapacity, maxCapacity) :
+                    new UnpooledHeapByteBuf(this, initialCapacity, maxCapacity);
         }
 
         return toLeakAwareBuffer(buf);
@@ -237,7 +315,9 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
         if (directArena != null) {
             buf = directArena.allocate(cache, initialCapacity, maxCapacity);
         } else {
-            if (PlatformDependent.hasUnsafe()) {
+            if (PlatformDependent.useDirectBufferNoCleaner()) {
+                buf = new UnpooledUnsafeNoCleanerDirectByteBuf(this, initialCapacity, maxCapacity);
+            } else if (PlatformDependent.hasUnsafe()) {
                 buf = new UnpooledUnsafeDirectByteBuf(this, initialCapacity, maxCapacity);
             } else {
                 buf = new UnpooledDirectByteBuf(this, initialCapacity, maxCapacity);
@@ -252,6 +332,237 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
         return directArenas != null;
     }
 
+    /**
+     * Return the number of heap arenas.
+     */
+    public int numHeapArenas() {
+        return heapArenaMetrics.size();
+    }
+
+    /**
+     * Return the number of direct arenas.
+     */
+    public int numDirectArenas() {
+        return directArenaMetrics.size();
+    }
+
+    /**
+     * Return an unmodifiable {@link List} of all heap {@link PoolArenaMetric}s that are provided by this pool.
+     */
+    public List<PoolArenaMetric> heapArenas() {
+        return heapArenaMetrics;
+    }
+
+    /**
+     * Return an unmodifiable {@link List} of all direct {@link PoolArenaMetric}s that are provided by this pool.
+     */
+    public List<PoolArenaMetric> directArenas() {
+        return directArenaMetrics;
+    }
+
+    /**
+     * Return a snapshot of the live {@link Thread}s which allocated heap buffers from this allocator, mapped to the
+     * heap arena they are bound to.
+     */
+    public Map<Thread, PoolArenaMetric> threadHeapArenas() {
+        return threadCache.bindings(true);
+    }
+
+    /**
+     * Return a snapshot of the live {@link Thread}s which allocated direct buffers from this allocator, mapped to
+     * the direct arena they are bound to.
+     */
+    public Map<Thread, PoolArenaMetric> threadDirectArenas() {
+        return threadCache.bindings(false);
+    }
+
+    /**
+     * Return the number of milliseconds after which an unused chunk is released or {@code 0} if chunks are kept.
+     */
+    public long chunkIdleTimeoutMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(chunkIdleTimeoutNanos);
+    }
+
+    /**
+     * Gives the memory which sits in the cache of the calling {@link Thread} and was not allocated from it since
+     * the last trim back to the arenas.  Caches of other threads are not affected.
+     */
+    public void trimCurrentThreadCache() {
+        threadCache.get().trim();
+    }
+
+    /**
+     * Releases all chunks which are not used at all, regardless of how long they have been idle.  The memory of
+     * direct chunks is freed right away instead of waiting for the garbage collector.
+     * <p>
+     * Memory which sits in the cache of a thread still counts as used, so you may want to call
+     * {@link #trimCurrentThreadCache()} from the threads that allocate before.
+     *
+     * @return the number of released chunks
+     */
+    public int trim() {
+        int trimmed = 0;
+        if (heapArenas != null) {
+            for (PoolArena<byte[]> a: heapArenas) {
+                trimmed += a.trim();
+            }
+        }
+        if (directArenas != null) {
+            for (PoolArena<ByteBuffer> a: directArenas) {
+                trimmed += a.trim();
+            }
+        }
+        return trimmed;
+    }
+
+    /**
+     * Return the size of the tiny cache.
+     */
+    public int tinyCacheSize() {
+        return tinyCacheSize;
+    }
+
+    /**
+     * Return the size of the small cache.
+     */
+    public int smallCacheSize() {
+        return smallCacheSize;
+    }
+
+    /**
+     * Return the size of the normal cache.
+     */
+    public int normalCacheSize() {
+        return normalCacheSize;
+    }
+
+    /**
+     * Binds every {@link Thread} to the least used heap and direct arena when it allocates for the first time.
+     * <p>
+     * Event loop threads get an arena of their own as long as there are unused arenas, and only share among
+     * themselves once they run out of them.  All other threads share the arenas which are not used by event loops,
+     * so a busy application thread never slows down the allocations of an event loop.  One arena is kept for the
+     * other threads as long as the allocator has more than one arena.
+     */
+    final class PoolThreadLocalCache extends FastThreadLocal<PoolThreadCache> {
+
+        // Guarded by this. Weak keys so the bindings do not keep terminated threads reachable.
+        private final Map<Thread, PoolArena<byte[]>> heapBindings = new WeakHashMap<Thread, PoolArena<byte[]>>();
+        private final Map<Thread, PoolArena<ByteBuffer>> directBindings =
+                new WeakHashMap<Thread, PoolArena<ByteBuffer>>();
+
+        @Override
+        protected synchronized PoolThreadCache initialValue() {
+            final EventExecutor executor = ThreadExecutorMap.currentExecutor();
+            final boolean eventLoop = executor != null;
+            final PoolArena<byte[]> heapArena = leastUsedArena(heapArenas, eventLoop);
+            final PoolArena<ByteBuffer> directArena = leastUsedArena(directArenas, eventLoop);
+
+            final Thread thread = Thread.currentThread();
+            if (heapArena != null) {
+                heapBindings.put(thread, heapArena);
+            }
+            if (directArena != null) {
+                directBindings.put(thread, directArena);
+            }
+
+            // Creating the cache increments numThreadCaches of the arenas, which the next call takes into account.
+            final PoolThreadCache cache = new PoolThreadCache(
+                    heapArena, directArena, tinyCacheSize, smallCacheSize, normalCacheSize,
+                    DEFAULT_MAX_CACHED_BUFFER_CAPACITY, DEFAULT_CACHE_TRIM_INTERVAL);
+
+            if (eventLoop && chunkIdleTimeoutNanos > 0) {
+                // Release idle chunks even if the event loop stops allocating, like when all its channels are idle.
+                cache.idleChunkCheckFuture = executor.scheduleAtFixedRate(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (heapArena != null) {
+                            heapArena.checkIdleChunks();
+                        }
+                        if (directArena != null) {
+                            directArena.checkIdleChunks();
+                        }
+                    }
+                }, chunkIdleTimeoutNanos, chunkIdleTimeoutNanos, TimeUnit.NANOSECONDS);
+            }
+            return cache;
+        }
+
+        @Override
+        protected void onRemoval(PoolThreadCache cache) {
+            if (cache.idleChunkCheckFuture != null) {
+                cache.idleChunkCheckFuture.cancel(false);
+            }
+            // Give the cached memory back to the arenas right away instead of waiting for the finalizer.
+            cache.free();
+
+            synchronized (this) {
+                Thread thread = Thread.currentThread();
+                heapBindings.remove(thread);
+                directBindings.remove(thread);
+            }
+        }
+
+        synchronized Map<Thread, PoolArenaMetric> bindings(boolean heap) {
+            Map<Thread, ? extends PoolArena<?>> bindings = heap ? heapBindings : directBindings;
+            Map<Thread, PoolArenaMetric> snapshot = new IdentityHashMap<Thread, PoolArenaMetric>();
+            for (Map.Entry<Thread, ? extends PoolArena<?>> e: bindings.entrySet()) {
+                Thread thread = e.getKey();
+                if (thread != null && thread.isAlive()) {
+                    snapshot.put(thread, e.getValue());
+                }
+            }
+            return Collections.unmodifiableMap(snapshot);
+        }
+    }
+
+    private static <T> PoolArena<T> leastUsedArena(PoolArena<T>[] arenas, boolean eventLoop) {
+        if (arenas == null) {
+            return null;
+        }
+
+        int unusedArenas = 0;
+        boolean hasSharedArena = false;
+        for (PoolArena<T> arena: arenas) {
+            if (arena.numThreadCaches.get() == 0) {
+                unusedArenas ++;
+            } else if (!arena.eventLoopArena) {
+                hasSharedArena = true;
+            }
+        }
+
+        PoolArena<T> minArena = null;
+        int minThreadCaches = Integer.MAX_VALUE;
+        for (PoolArena<T> arena: arenas) {
+            int numThreadCaches = arena.numThreadCaches.get();
+            boolean eligible;
+            if (numThreadCaches == 0) {
+                // Do not let an event loop take the last arena the other threads could use.
+                eligible = !eventLoop || hasSharedArena || unusedArenas > 1;
+            } else {
+                eligible = arena.eventLoopArena == eventLoop;
+            }
+            if (eligible && numThreadCaches < minThreadCaches) {
+                minArena = arena;
+                minThreadCaches = numThreadCaches;
+            }
+        }
+
+        if (minArena == null) {
+            // All arenas are used by the other kind of threads, so there is no choice but to share one.
+            minArena = arenas[0];
+            for (PoolArena<T> arena: arenas) {
+                if (arena.numThreadCaches.get() < minArena.numThreadCaches.get()) {
+                    minArena = arena;
+                }
+            }
+        }
+        if (minArena.numThreadCaches.get() == 0) {
+            minArena.eventLoopArena = eventLoop;
+        }
+        return minArena;
+    }
+
 //    Too noisy at the moment.
 //
 //    public String toString() {
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.Recycler;
+
+/**
+ * A recycled derived buffer which simply forwards all data access requests to its parent.  Returned by
+ * {@link ByteBuf#retainedDuplicate()}.
+ */
+final class PooledDuplicatedByteBuf extends AbstractPooledDerivedByteBuf {
+
+    private static final Recycler<PooledDuplicatedByteBuf> RECYCLER = new Recycler<PooledDuplicatedByteBuf>() {
+        @Override
+        protected PooledDuplicatedByteBuf newObject(Handle handle) {
+            return new PooledDuplicatedByteBuf(handle);
+        }
+    };
+
+    /**
+     * Returns a duplicate of {@code buffer} which retains {@code parent} until it is released.
+     */
+    static PooledDuplicatedByteBuf newInstance(ByteBuf buffer, ByteBuf parent, int readerIndex, int writerIndex) {
+        PooledDuplicatedByteBuf duplicate = RECYCLER.get();
+        duplicate.init(buffer, parent, 0, readerIndex, writerIndex, buffer.maxCapacity());
+        return duplicate;
+    }
+
+    private PooledDuplicatedByteBuf(Recycler.Handle recyclerHandle) {
+        super(recyclerHandle);
+    }
+
+    @Override
+    protected Recycler<?> recycler() {
+        return RECYCLER;
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public ByteBuf capacity(int newCapacity) {
+        buffer.capacity(newCapacity);
+        return this;
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        ensureAccessible();
+        return newInstance(buffer, this, readerIndex(), writerIndex());
+    }
+}
@@ -22,10 +22,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 
-final class PooledHeapByteBuf extends PooledByteBuf<byte[]> {
+class PooledHeapByteBuf extends PooledByteBuf<byte[]> {
 
     private static final Recycler<PooledHeapByteBuf> RECYCLER = new Recycler<PooledHeapByteBuf>() {
         @Override
@@ -41,7 +42,7 @@ final class PooledHeapByteBuf extends PooledByteBuf<byte[]> {
         return buf;
     }
 
-    private PooledHeapByteBuf(Recycler.Handle recyclerHandle, int maxCapacity) {
+    PooledHeapByteBuf(Recycler.Handle recyclerHandle, int maxCapacity) {
         super(recyclerHandle, maxCapacity);
     }
 
@@ -91,6 +92,42 @@ final class PooledHeapByteBuf extends PooledByteBuf<byte[]> {
                 (long) memory[index + 7] & 0xff;
     }
 
+    @Override
+    protected short _getShortLE(int index) {
+        index = idx(index);
+        return (short) (memory[index] & 0xff | memory[index + 1] << 8);
+    }
+
+    @Override
+    protected int _getUnsignedMediumLE(int index) {
+        index = idx(index);
+        return  memory[index]     & 0xff        |
+               (memory[index + 1] & 0xff) <<  8 |
+               (memory[index + 2] & 0xff) << 16;
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        index = idx(index);
+        return  memory[index]     & 0xff        |
+               (memory[index + 1] & 0xff) <<  8 |
+               (memory[index + 2] & 0xff) << 16 |
+               (memory[index + 3] & 0xff) << 24;
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        index = idx(index);
+        return  (long) memory[index]     & 0xff        |
+               ((long) memory[index + 1] & 0xff) <<  8 |
+               ((long) memory[index + 2] & 0xff) << 16 |
+               ((long) memory[index + 3] & 0xff) << 24 |
+               ((long) memory[index + 4] & 0xff) << 32 |
+               ((long) memory[index + 5] & 0xff) << 40 |
+               ((long) memory[index + 6] & 0xff) << 48 |
+               ((long) memory[index + 7] & 0xff) << 56;
+    }
+
     @Override
     public ByteBuf getBytes(int index, ByteBuf dst, int dstIndex, int length) {
         checkDstIndex(index, length, dstIndex, dst.capacity());
@@ -142,6 +179,23 @@ final class PooledHeapByteBuf extends PooledByteBuf<byte[]> {
         return out.write((ByteBuffer) tmpBuf.clear().position(index).limit(index + length));
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        return getBytes(index, out, position, length, false);
+    }
+
+    private int getBytes(int index, FileChannel out, long position, int length, boolean internal) throws IOException {
+        checkIndex(index, length);
+        index = idx(index);
+        ByteBuffer tmpBuf;
+        if (internal) {
+            tmpBuf = internalNioBuffer();
+        } else {
+            tmpBuf = ByteBuffer.wrap(memory);
+        }
+        return out.write((ByteBuffer) tmpBuf.clear().position(index).limit(index + length), position);
+    }
+
     @Override
     public int readBytes(GatheringByteChannel out, int length) throws IOException {
         checkReadableBytes(length);
@@ -150,6 +204,14 @@ final class PooledHeapByteBuf extends PooledByteBuf<byte[]> {
         return readBytes;
     }
 
+    @Override
+    public int readBytes(FileChannel out, long position, int length) throws IOException {
+        checkReadableBytes(length);
+        int readBytes = getBytes(readerIndex, out, position, length, true);
+        readerIndex += readBytes;
+        return readBytes;
+    }
+
     @Override
     protected void _setByte(int index, int value) {
         memory[idx(index)] = (byte) value;
@@ -192,6 +254,43 @@ final class PooledHeapByteBuf extends PooledByteBuf<byte[]> {
         memory[index + 7] = (byte) value;
     }
 
+    @Override
+    protected void _setShortLE(int index, int value) {
+        index = idx(index);
+        memory[index]     = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+    }
+
+    @Override
+    protected void _setMediumLE(int index, int value) {
+        index = idx(index);
+        memory[index]     = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+        memory[index + 2] = (byte) (value >>> 16);
+    }
+
+    @Override
+    protected void _setIntLE(int index, int value) {
+        index = idx(index);
+        memory[index]     = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+        memory[index + 2] = (byte) (value >>> 16);
+        memory[index + 3] = (byte) (value >>> 24);
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        index = idx(index);
+        memory[index]     = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+        memory[index + 2] = (byte) (value >>> 16);
+        memory[index + 3] = (byte) (value >>> 24);
+        memory[index + 4] = (byte) (value >>> 32);
+        memory[index + 5] = (byte) (value >>> 40);
+        memory[index + 6] = (byte) (value >>> 48);
+        memory[index + 7] = (byte) (value >>> 56);
+    }
+
     @Override
     public ByteBuf setBytes(int index, ByteBuf src, int srcIndex, int length) {
         checkSrcIndex(index, length, srcIndex, src.capacity());
@@ -237,6 +336,17 @@ final class PooledHeapByteBuf extends PooledByteBuf<byte[]> {
         }
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        checkIndex(index, length);
+        index = idx(index);
+        try {
+            return in.read((ByteBuffer) internalNioBuffer().clear().position(index).limit(index + length), position);
+        } catch (ClosedChannelException e) {
+            return -1;
+        }
+    }
+
     @Override
     public ByteBuf copy(int index, int length) {
         checkIndex(index, length);
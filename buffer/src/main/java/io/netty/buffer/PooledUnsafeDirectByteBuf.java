@@ -25,6 +25,7 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 
@@ -109,6 +110,24 @@ final class PooledUnsafeDirectByteBuf extends PooledByteBuf<ByteBuffer> {
         return NATIVE_ORDER? v : Long.reverseBytes(v);
     }
 
+    @Override
+    protected short _getShortLE(int index) {
+        short v = PlatformDependent.getShort(addr(index));
+        return NATIVE_ORDER? Short.reverseBytes(v) : v;
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        int v = PlatformDependent.getInt(addr(index));
+        return NATIVE_ORDER? Integer.reverseBytes(v) : v;
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        long v = PlatformDependent.getLong(addr(index));
+        return NATIVE_ORDER? Long.reverseBytes(v) : v;
+    }
+
     @Override
     public ByteBuf getBytes(int index, ByteBuf dst, int dstIndex, int length) {
         checkIndex(index, length);
@@ -208,6 +227,28 @@ final class PooledUnsafeDirectByteBuf extends PooledByteBuf<ByteBuffer> {
         return out.write(tmpBuf);
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        return getBytes(index, out, position, length, false);
+    }
+
+    private int getBytes(int index, FileChannel out, long position, int length, boolean internal) throws IOException {
+        checkIndex(index, length);
+        if (length == 0) {
+            return 0;
+        }
+
+        ByteBuffer tmpBuf;
+        if (internal) {
+            tmpBuf = internalNioBuffer();
+        } else {
+            tmpBuf = memory.duplicate();
+        }
+        index = idx(index);
+        tmpBuf.clear().position(index).limit(index + length);
+        return out.write(tmpBuf, position);
+    }
+
     @Override
     public int readBytes(GatheringByteChannel out, int length)
             throws IOException {
@@ -217,6 +258,14 @@ final class PooledUnsafeDirectByteBuf extends PooledByteBuf<ByteBuffer> {
         return readBytes;
     }
 
+    @Override
+    public int readBytes(FileChannel out, long position, int length) throws IOException {
+        checkReadableBytes(length);
+        int readBytes = getBytes(readerIndex, out, position, length, true);
+        readerIndex += readBytes;
+        return readBytes;
+    }
+
     @Override
     protected void _setByte(int index, int value) {
         PlatformDependent.putByte(addr(index), (byte) value);
@@ -245,6 +294,21 @@ final class PooledUnsafeDirectByteBuf extends PooledByteBuf<ByteBuffer> {
         PlatformDependent.putLong(addr(index), NATIVE_ORDER ? value : Long.reverseBytes(value));
     }
 
+    @Override
+    protected void _setShortLE(int index, int value) {
+        PlatformDependent.putShort(addr(index), NATIVE_ORDER ? Short.reverseBytes((short) value) : (short) value);
+    }
+
+    @Override
+    protected void _setIntLE(int index, int value) {
+        PlatformDependent.putInt(addr(index), NATIVE_ORDER ? Integer.reverseBytes(value) : value);
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        PlatformDependent.putLong(addr(index), NATIVE_ORDER ? Long.reverseBytes(value) : value);
+    }
+
     @Override
     public ByteBuf setBytes(int index, ByteBuf src, int srcIndex, int length) {
         checkIndex(index, length);
@@ -314,6 +378,19 @@ final class PooledUnsafeDirectByteBuf extends PooledByteBuf<ByteBuffer> {
         }
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        checkIndex(index, length);
+        ByteBuffer tmpBuf = internalNioBuffer();
+        index = idx(index);
+        tmpBuf.clear().position(index).limit(index + length);
+        try {
+            return in.read(tmpBuf, position);
+        } catch (ClosedChannelException e) {
+            return -1;
+        }
+    }
+
     @Override
     public ByteBuf copy(int index, int length) {
         checkIndex(index, length);
@@ -26,7 +26,7 @@ import java.nio.ByteOrder;
 /**
  * Read-only ByteBuf which wraps a read-only direct ByteBuffer and use unsafe for best performance.
  */
-final class ReadOnlyUnsafeDirectByteBuf extends ReadOnlyByteBufferBuf {
+class ReadOnlyUnsafeDirectByteBuf extends ReadOnlyByteBufferBuf {
     private static final boolean NATIVE_ORDER = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
     private final long memoryAddress;
 
@@ -66,6 +66,24 @@ final class ReadOnlyUnsafeDirectByteBuf extends ReadOnlyByteBufferBuf {
         return NATIVE_ORDER? v : Long.reverseBytes(v);
     }
 
+    @Override
+    protected short _getShortLE(int index) {
+        short v = PlatformDependent.getShort(addr(index));
+        return NATIVE_ORDER? Short.reverseBytes(v) : v;
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        int v = PlatformDependent.getInt(addr(index));
+        return NATIVE_ORDER? Integer.reverseBytes(v) : v;
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        long v = PlatformDependent.getLong(addr(index));
+        return NATIVE_ORDER? Long.reverseBytes(v) : v;
+    }
+
     @Override
     public ByteBuf getBytes(int index, ByteBuf dst, int dstIndex, int length) {
         checkIndex(index, length);
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.internal.PlatformDependent;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Read-only {@link ByteBuf} which wraps a memory-mapped region of a file, uses unsafe for best performance and
+ * unmaps the region once it is released.
+ */
+final class ReadOnlyUnsafeMappedByteBuf extends ReadOnlyUnsafeDirectByteBuf {
+
+    // The region must be unmapped via the original buffer because the wrapped slice has no cleaner.
+    private final MappedByteBuffer mapped;
+
+    ReadOnlyUnsafeMappedByteBuf(ByteBufAllocator allocator, MappedByteBuffer mapped) {
+        super(allocator, mapped);
+        this.mapped = mapped;
+    }
+
+    @Override
+    protected void deallocate() {
+        PlatformDependent.freeDirectBuffer(mapped);
+    }
+}
@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 
@@ -137,6 +138,26 @@ public class SlicedByteBuf extends AbstractDerivedByteBuf {
         return buffer.getLong(index + adjustment);
     }
 
+    @Override
+    protected short _getShortLE(int index) {
+        return buffer.getShortLE(index + adjustment);
+    }
+
+    @Override
+    protected int _getUnsignedMediumLE(int index) {
+        return buffer.getUnsignedMediumLE(index + adjustment);
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        return buffer.getIntLE(index + adjustment);
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        return buffer.getLongLE(index + adjustment);
+    }
+
     @Override
     public ByteBuf duplicate() {
         ByteBuf duplicate = buffer.slice(adjustment, length);
@@ -205,6 +226,26 @@ public class SlicedByteBuf extends AbstractDerivedByteBuf {
         buffer.setLong(index + adjustment, value);
     }
 
+    @Override
+    protected void _setShortLE(int index, int value) {
+        buffer.setShortLE(index + adjustment, value);
+    }
+
+    @Override
+    protected void _setMediumLE(int index, int value) {
+        buffer.setMediumLE(index + adjustment, value);
+    }
+
+    @Override
+    protected void _setIntLE(int index, int value) {
+        buffer.setIntLE(index + adjustment, value);
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        buffer.setLongLE(index + adjustment, value);
+    }
+
     @Override
     public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
         checkIndex(index, length);
@@ -239,6 +280,12 @@ public class SlicedByteBuf extends AbstractDerivedByteBuf {
         return buffer.getBytes(index + adjustment, out, length);
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        checkIndex(index, length);
+        return buffer.getBytes(index + adjustment, out, position, length);
+    }
+
     @Override
     public int setBytes(int index, InputStream in, int length) throws IOException {
         checkIndex(index, length);
@@ -251,6 +298,12 @@ public class SlicedByteBuf extends AbstractDerivedByteBuf {
         return buffer.setBytes(index + adjustment, in, length);
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        checkIndex(index, length);
+        return buffer.setBytes(index + adjustment, in, position, length);
+    }
+
     @Override
     public int nioBufferCount() {
         return buffer.nioBufferCount();
@@ -17,9 +17,15 @@ package io.netty.buffer;
 
 import io.netty.util.internal.PlatformDependent;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
@@ -341,6 +347,55 @@ public final class Unpooled {
         return EMPTY_BUFFER;
     }
 
+    /**
+     * Creates a new big-endian read-only buffer which is backed by the whole content of the specified file mapped
+     * into memory, so the file is never copied into the heap or a pooled buffer.  The file is unmapped once the
+     * returned buffer is released.  The file must not be larger than {@link Integer#MAX_VALUE} bytes and must not be
+     * truncated while it is mapped.
+     */
+    public static ByteBuf wrappedMappedFile(File file) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("file");
+        }
+
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            // The mapping stays valid after the file has been closed.
+            return wrappedMappedFile(raf.getChannel(), 0, raf.length());
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Creates a new big-endian read-only buffer which is backed by the specified region of the file mapped into
+     * memory via {@link FileChannel#map(MapMode, long, long)}.  The region is unmapped once the returned buffer is
+     * released.  The specified {@link FileChannel} is not closed by this method and may be closed by the caller
+     * without affecting the returned buffer.
+     */
+    public static ByteBuf wrappedMappedFile(FileChannel channel, long position, long length) throws IOException {
+        if (channel == null) {
+            throw new NullPointerException("channel");
+        }
+        if (position < 0) {
+            throw new IllegalArgumentException("position: " + position + " (expected: >= 0)");
+        }
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "length: " + length + " (expected: 0-" + Integer.MAX_VALUE + ')');
+        }
+        if (length == 0) {
+            return EMPTY_BUFFER;
+        }
+
+        MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, position, length);
+        if (PlatformDependent.hasUnsafe()) {
+            return new ReadOnlyUnsafeMappedByteBuf(ALLOC, mapped);
+        } else {
+            return new ReadOnlyMappedByteBuf(ALLOC, mapped);
+        }
+    }
+
     /**
      * Returns a new big-endian composite buffer with no components.
      */
@@ -23,6 +23,7 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 
@@ -32,7 +33,7 @@ import java.nio.channels.ScatteringByteChannel;
 public class UnpooledHeapByteBuf extends AbstractReferenceCountedByteBuf {
 
     private final ByteBufAllocator alloc;
-    private byte[] array;
+    byte[] array;
     private ByteBuffer tmpNioBuf;
 
     /**
@@ -208,6 +209,23 @@ public class UnpooledHeapByteBuf extends AbstractReferenceCountedByteBuf {
         return out.write((ByteBuffer) tmpBuf.clear().position(index).limit(index + length));
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        ensureAccessible();
+        return getBytes(index, out, position, length, false);
+    }
+
+    private int getBytes(int index, FileChannel out, long position, int length, boolean internal) throws IOException {
+        ensureAccessible();
+        ByteBuffer tmpBuf;
+        if (internal) {
+            tmpBuf = internalNioBuffer();
+        } else {
+            tmpBuf = ByteBuffer.wrap(array);
+        }
+        return out.write((ByteBuffer) tmpBuf.clear().position(index).limit(index + length), position);
+    }
+
     @Override
     public int readBytes(GatheringByteChannel out, int length) throws IOException {
         checkReadableBytes(length);
@@ -216,6 +234,14 @@ public class UnpooledHeapByteBuf extends AbstractReferenceCountedByteBuf {
         return readBytes;
     }
 
+    @Override
+    public int readBytes(FileChannel out, long position, int length) throws IOException {
+        checkReadableBytes(length);
+        int readBytes = getBytes(readerIndex, out, position, length, true);
+        readerIndex += readBytes;
+        return readBytes;
+    }
+
     @Override
     public ByteBuf setBytes(int index, ByteBuf src, int srcIndex, int length) {
         checkSrcIndex(index, length, srcIndex, src.capacity());
@@ -259,6 +285,16 @@ public class UnpooledHeapByteBuf extends AbstractReferenceCountedByteBuf {
         }
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        ensureAccessible();
+        try {
+            return in.read((ByteBuffer) internalNioBuffer().clear().position(index).limit(index + length), position);
+        } catch (ClosedChannelException e) {
+            return -1;
+        }
+    }
+
     @Override
     public int nioBufferCount() {
         return 1;
@@ -347,6 +383,38 @@ public class UnpooledHeapByteBuf extends AbstractReferenceCountedByteBuf {
                  (long) array[index + 7] & 0xff;
     }
 
+    @Override
+    protected short _getShortLE(int index) {
+        return (short) (array[index] & 0xff | array[index + 1] << 8);
+    }
+
+    @Override
+    protected int _getUnsignedMediumLE(int index) {
+        return  array[index]     & 0xff        |
+               (array[index + 1] & 0xff) <<  8 |
+               (array[index + 2] & 0xff) << 16;
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        return  array[index]     & 0xff        |
+               (array[index + 1] & 0xff) <<  8 |
+               (array[index + 2] & 0xff) << 16 |
+               (array[index + 3] & 0xff) << 24;
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        return  (long) array[index]     & 0xff        |
+               ((long) array[index + 1] & 0xff) <<  8 |
+               ((long) array[index + 2] & 0xff) << 16 |
+               ((long) array[index + 3] & 0xff) << 24 |
+               ((long) array[index + 4] & 0xff) << 32 |
+               ((long) array[index + 5] & 0xff) << 40 |
+               ((long) array[index + 6] & 0xff) << 48 |
+               ((long) array[index + 7] & 0xff) << 56;
+    }
+
     @Override
     public ByteBuf setByte(int index, int value) {
         ensureAccessible();
@@ -420,6 +488,39 @@ public class UnpooledHeapByteBuf extends AbstractReferenceCountedByteBuf {
         array[index + 7] = (byte) value;
     }
 
+    @Override
+    protected void _setShortLE(int index, int value) {
+        array[index]     = (byte) value;
+        array[index + 1] = (byte) (value >>> 8);
+    }
+
+    @Override
+    protected void _setMediumLE(int index, int value) {
+        array[index]     = (byte) value;
+        array[index + 1] = (byte) (value >>> 8);
+        array[index + 2] = (byte) (value >>> 16);
+    }
+
+    @Override
+    protected void _setIntLE(int index, int value) {
+        array[index]     = (byte) value;
+        array[index + 1] = (byte) (value >>> 8);
+        array[index + 2] = (byte) (value >>> 16);
+        array[index + 3] = (byte) (value >>> 24);
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        array[index]     = (byte) value;
+        array[index + 1] = (byte) (value >>> 8);
+        array[index + 2] = (byte) (value >>> 16);
+        array[index + 3] = (byte) (value >>> 24);
+        array[index + 4] = (byte) (value >>> 32);
+        array[index + 5] = (byte) (value >>> 40);
+        array[index + 6] = (byte) (value >>> 48);
+        array[index + 7] = (byte) (value >>> 56);
+    }
+
     @Override
     public ByteBuf copy(int index, int length) {
         checkIndex(index, length);
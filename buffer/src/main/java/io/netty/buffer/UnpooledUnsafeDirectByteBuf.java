@@ -23,6 +23,7 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 
@@ -245,6 +246,24 @@ public class UnpooledUnsafeDirectByteBuf extends AbstractReferenceCountedByteBuf
         return NATIVE_ORDER? v : Long.reverseBytes(v);
     }
 
+    @Override
+    protected short _getShortLE(int index) {
+        short v = PlatformDependent.getShort(addr(index));
+        return NATIVE_ORDER? Short.reverseBytes(v) : v;
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        int v = PlatformDependent.getInt(addr(index));
+        return NATIVE_ORDER? Integer.reverseBytes(v) : v;
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        long v = PlatformDependent.getLong(addr(index));
+        return NATIVE_ORDER? Long.reverseBytes(v) : v;
+    }
+
     @Override
     public ByteBuf getBytes(int index, ByteBuf dst, int dstIndex, int length) {
         checkIndex(index, length);
@@ -342,6 +361,21 @@ public class UnpooledUnsafeDirectByteBuf extends AbstractReferenceCountedByteBuf
         PlatformDependent.putLong(addr(index), NATIVE_ORDER ? value : Long.reverseBytes(value));
     }
 
+    @Override
+    protected void _setShortLE(int index, int value) {
+        PlatformDependent.putShort(addr(index), NATIVE_ORDER ? Short.reverseBytes((short) value) : (short) value);
+    }
+
+    @Override
+    protected void _setIntLE(int index, int value) {
+        PlatformDependent.putInt(addr(index), NATIVE_ORDER ? Integer.reverseBytes(value) : value);
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        PlatformDependent.putLong(addr(index), NATIVE_ORDER ? Long.reverseBytes(value) : value);
+    }
+
     @Override
     public ByteBuf setBytes(int index, ByteBuf src, int srcIndex, int length) {
         checkIndex(index, length);
@@ -418,6 +452,27 @@ public class UnpooledUnsafeDirectByteBuf extends AbstractReferenceCountedByteBuf
         return out.write(tmpBuf);
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        return getBytes(index, out, position, length, false);
+    }
+
+    private int getBytes(int index, FileChannel out, long position, int length, boolean internal) throws IOException {
+        ensureAccessible();
+        if (length == 0) {
+            return 0;
+        }
+
+        ByteBuffer tmpBuf;
+        if (internal) {
+            tmpBuf = internalNioBuffer();
+        } else {
+            tmpBuf = buffer.duplicate();
+        }
+        tmpBuf.clear().position(index).limit(index + length);
+        return out.write(tmpBuf, position);
+    }
+
     @Override
     public int readBytes(GatheringByteChannel out, int length) throws IOException {
         checkReadableBytes(length);
@@ -426,6 +481,14 @@ public class UnpooledUnsafeDirectByteBuf extends AbstractReferenceCountedByteBuf
         return readBytes;
     }
 
+    @Override
+    public int readBytes(FileChannel out, long position, int length) throws IOException {
+        checkReadableBytes(length);
+        int readBytes = getBytes(readerIndex, out, position, length, true);
+        readerIndex += readBytes;
+        return readBytes;
+    }
+
     @Override
     public int setBytes(int index, InputStream in, int length) throws IOException {
         checkIndex(index, length);
@@ -449,6 +512,18 @@ public class UnpooledUnsafeDirectByteBuf extends AbstractReferenceCountedByteBuf
         }
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        ensureAccessible();
+        ByteBuffer tmpBuf = internalNioBuffer();
+        tmpBuf.clear().position(index).limit(index + length);
+        try {
+            return in.read(tmpBuf, position);
+        } catch (ClosedChannelException e) {
+            return -1;
+        }
+    }
+
     @Override
     public int nioBufferCount() {
         return 1;
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.internal.PlatformDependent;
+
+import java.nio.ByteOrder;
+
+/**
+ * Big endian Java heap buffer implementation which reads and writes multi-byte values with
+ * {@code sun.misc.Unsafe}. It is recommended to use {@link Unpooled#buffer(int)} instead of calling the
+ * constructor explicitly.
+ */
+public class UnpooledUnsafeHeapByteBuf extends UnpooledHeapByteBuf {
+
+    private static final boolean NATIVE_ORDER = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    /**
+     * Creates a new heap buffer with a newly allocated byte array.
+     *
+     * @param initialCapacity the initial capacity of the underlying byte array
+     * @param maxCapacity the max capacity of the underlying byte array
+     */
+    protected UnpooledUnsafeHeapByteBuf(ByteBufAllocator alloc, int initialCapacity, int maxCapacity) {
+        super(alloc, initialCapacity, maxCapacity);
+    }
+
+    /**
+     * Creates a new heap buffer with an existing byte array.
+     *
+     * @param initialArray the initial underlying byte array
+     * @param maxCapacity the max capacity of the underlying byte array
+     */
+    protected UnpooledUnsafeHeapByteBuf(ByteBufAllocator alloc, byte[] initialArray, int maxCapacity) {
+        super(alloc, initialArray, maxCapacity);
+    }
+
+    // Unsafe does not check the array bounds, so the index has to be validated before every access.
+
+    @Override
+    public short getShort(int index) {
+        checkIndex(index, 2);
+        return _getShort(index);
+    }
+
+    @Override
+    protected short _getShort(int index) {
+        short v = PlatformDependent.getShort(array, index);
+        return NATIVE_ORDER? v : Short.reverseBytes(v);
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index, 4);
+        return _getInt(index);
+    }
+
+    @Override
+    protected int _getInt(int index) {
+        int v = PlatformDependent.getInt(array, index);
+        return NATIVE_ORDER? v : Integer.reverseBytes(v);
+    }
+
+    @Override
+    public long getLong(int index) {
+        checkIndex(index, 8);
+        return _getLong(index);
+    }
+
+    @Override
+    protected long _getLong(int index) {
+        long v = PlatformDependent.getLong(array, index);
+        return NATIVE_ORDER? v : Long.reverseBytes(v);
+    }
+
+    @Override
+    protected short _getShortLE(int index) {
+        short v = PlatformDependent.getShort(array, index);
+        return NATIVE_ORDER? Short.reverseBytes(v) : v;
+    }
+
+    @Override
+    protected int _getIntLE(int index) {
+        int v = PlatformDependent.getInt(array, index);
+        return NATIVE_ORDER? Integer.reverseBytes(v) : v;
+    }
+
+    @Override
+    protected long _getLongLE(int index) {
+        long v = PlatformDependent.getLong(array, index);
+        return NATIVE_ORDER? Long.reverseBytes(v) : v;
+    }
+
+    @Override
+    public ByteBuf setShort(int index, int value) {
+        checkIndex(index, 2);
+        _setShort(index, value);
+        return this;
+    }
+
+    @Override
+    protected void _setShort(int index, int value) {
+        PlatformDependent.putShort(array, index, NATIVE_ORDER ? (short) value : Short.reverseBytes((short) value));
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        checkIndex(index, 4);
+        _setInt(index, value);
+        return this;
+    }
+
+    @Override
+    protected void _setInt(int index, int value) {
+        PlatformDependent.putInt(array, index, NATIVE_ORDER ? value : Integer.reverseBytes(value));
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        checkIndex(index, 8);
+        _setLong(index, value);
+        return this;
+    }
+
+    @Override
+    protected void _setLong(int index, long value) {
+        PlatformDependent.putLong(array, index, NATIVE_ORDER ? value : Long.reverseBytes(value));
+    }
+
+    @Override
+    protected void _setShortLE(int index, int value) {
+        PlatformDependent.putShort(array, index, NATIVE_ORDER ? Short.reverseBytes((short) value) : (short) value);
+    }
+
+    @Override
+    protected void _setIntLE(int index, int value) {
+        PlatformDependent.putInt(array, index, NATIVE_ORDER ? Integer.reverseBytes(value) : value);
+    }
+
+    @Override
+    protected void _setLongLE(int index, long value) {
+        PlatformDependent.putLong(array, index, NATIVE_ORDER ? Long.reverseBytes(value) : value);
+    }
+
+    @Override
+    public ByteBuf copy(int index, int length) {
+        checkIndex(index, length);
+        byte[] copiedArray = new byte[length];
+        System.arraycopy(array, index, copiedArray, 0, length);
+        return new UnpooledUnsafeHeapByteBuf(alloc(), copiedArray, maxCapacity());
+    }
+}
@@ -65,6 +65,21 @@ final class UnreleasableByteBuf extends WrappedByteBuf {
         return new UnreleasableByteBuf(buf.duplicate());
     }
 
+    @Override
+    public ByteBuf retainedSlice() {
+        return slice();
+    }
+
+    @Override
+    public ByteBuf retainedSlice(int index, int length) {
+        return slice(index, length);
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        return duplicate();
+    }
+
     @Override
     public ByteBuf retain(int increment) {
         return this;
@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
@@ -245,6 +246,41 @@ class WrappedByteBuf extends ByteBuf {
         return buf.getLong(index);
     }
 
+    @Override
+    public short getShortLE(int index) {
+        return buf.getShortLE(index);
+    }
+
+    @Override
+    public int getUnsignedShortLE(int index) {
+        return buf.getUnsignedShortLE(index);
+    }
+
+    @Override
+    public int getMediumLE(int index) {
+        return buf.getMediumLE(index);
+    }
+
+    @Override
+    public int getUnsignedMediumLE(int index) {
+        return buf.getUnsignedMediumLE(index);
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        return buf.getIntLE(index);
+    }
+
+    @Override
+    public long getUnsignedIntLE(int index) {
+        return buf.getUnsignedIntLE(index);
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        return buf.getLongLE(index);
+    }
+
     @Override
     public char getChar(int index) {
         return buf.getChar(index);
@@ -307,6 +343,11 @@ class WrappedByteBuf extends ByteBuf {
         return buf.getBytes(index, out, length);
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) throws IOException {
+        return buf.getBytes(index, out, position, length);
+    }
+
     @Override
     public ByteBuf setBoolean(int index, boolean value) {
         buf.setBoolean(index, value);
@@ -343,6 +384,30 @@ class WrappedByteBuf extends ByteBuf {
         return this;
     }
 
+    @Override
+    public ByteBuf setShortLE(int index, int value) {
+        buf.setShortLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setMediumLE(int index, int value) {
+        buf.setMediumLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        buf.setIntLE(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        buf.setLongLE(index, value);
+        return this;
+    }
+
     @Override
     public ByteBuf setChar(int index, int value) {
         buf.setChar(index, value);
@@ -407,6 +472,11 @@ class WrappedByteBuf extends ByteBuf {
         return buf.setBytes(index, in, length);
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) throws IOException {
+        return buf.setBytes(index, in, position, length);
+    }
+
     @Override
     public ByteBuf setZero(int index, int length) {
         buf.setZero(index, length);
@@ -463,6 +533,41 @@ class WrappedByteBuf extends ByteBuf {
         return buf.readLong();
     }
 
+    @Override
+    public short readShortLE() {
+        return buf.readShortLE();
+    }
+
+    @Override
+    public int readUnsignedShortLE() {
+        return buf.readUnsignedShortLE();
+    }
+
+    @Override
+    public int readMediumLE() {
+        return buf.readMediumLE();
+    }
+
+    @Override
+    public int readUnsignedMediumLE() {
+        return buf.readUnsignedMediumLE();
+    }
+
+    @Override
+    public int readIntLE() {
+        return buf.readIntLE();
+    }
+
+    @Override
+    public long readUnsignedIntLE() {
+        return buf.readUnsignedIntLE();
+    }
+
+    @Override
+    public long readLongLE() {
+        return buf.readLongLE();
+    }
+
     @Override
     public char readChar() {
         return buf.readChar();
@@ -535,6 +640,11 @@ class WrappedByteBuf extends ByteBuf {
         return buf.readBytes(out, length);
     }
 
+    @Override
+    public int readBytes(FileChannel out, long position, int length) throws IOException {
+        return buf.readBytes(out, position, length);
+    }
+
     @Override
     public ByteBuf skipBytes(int length) {
         buf.skipBytes(length);
@@ -577,6 +687,30 @@ class WrappedByteBuf extends ByteBuf {
         return this;
     }
 
+    @Override
+    public ByteBuf writeShortLE(int value) {
+        buf.writeShortLE(value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeMediumLE(int value) {
+        buf.writeMediumLE(value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeIntLE(int value) {
+        buf.writeIntLE(value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLongLE(long value) {
+        buf.writeLongLE(value);
+        return this;
+    }
+
     @Override
     public ByteBuf writeChar(int value) {
         buf.writeChar(value);
@@ -641,6 +775,11 @@ class WrappedByteBuf extends ByteBuf {
         return buf.writeBytes(in, length);
     }
 
+    @Override
+    public int writeBytes(FileChannel in, long position, int length) throws IOException {
+        return buf.writeBytes(in, position, length);
+    }
+
     @Override
     public ByteBuf writeZero(int length) {
         buf.writeZero(length);
@@ -712,6 +851,22 @@ class WrappedByteBuf extends ByteBuf {
         return buf.duplicate();
     }
 
+    @Override
+    public ByteBuf retainedSlice() {
+        return PooledSlicedByteBuf.newInstance(this, this, readerIndex(), readableBytes());
+    }
+
+    @Override
+    public ByteBuf retainedSlice(int index, int length) {
+        // Retain this buffer rather than the wrapped one so that the release is seen by the wrapper.
+        return PooledSlicedByteBuf.newInstance(this, this, index, length);
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        return PooledDuplicatedByteBuf.newInstance(this, this, readerIndex(), writerIndex());
+    }
+
     @Override
     public int nioBufferCount() {
         return buf.nioBufferCount();
@@ -25,9 +25,13 @@ import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
@@ -486,6 +490,107 @@ public abstract class AbstractByteBufTest {
         }
     }
 
+    @Test
+    public void testMultiByteLayout() {
+        // Use an unaligned index so the layout is verified for unaligned access as well.
+        buffer.setLong(1, 0x0102030405060708L);
+        buffer.setInt(9, 0x090A0B0C);
+        buffer.setShort(13, 0x0D0E);
+
+        ByteBuffer expected = ByteBuffer.allocate(15).order(buffer.order());
+        expected.put((byte) 0).putLong(0x0102030405060708L).putInt(0x090A0B0C).putShort((short) 0x0D0E);
+        for (int i = 1; i < 15; i ++) {
+            assertEquals(expected.get(i), buffer.getByte(i));
+        }
+        assertEquals(0x0102030405060708L, buffer.getLong(1));
+        assertEquals(0x090A0B0C, buffer.getInt(9));
+        assertEquals(0x0D0E, buffer.getShort(13));
+    }
+
+    @Test
+    public void testLittleEndianLayout() {
+        buffer.setLongLE(1, 0x0102030405060708L);
+        buffer.setIntLE(9, 0x090A0B0C);
+        buffer.setMediumLE(13, 0x0D0E0F);
+        buffer.setShortLE(16, 0x1011);
+
+        ByteBuffer expected = ByteBuffer.allocate(18).order(ByteOrder.LITTLE_ENDIAN);
+        expected.put((byte) 0).putLong(0x0102030405060708L).putInt(0x090A0B0C);
+        expected.put((byte) 0x0F).put((byte) 0x0E).put((byte) 0x0D).putShort((short) 0x1011);
+        for (int i = 1; i < 18; i ++) {
+            assertEquals(expected.get(i), buffer.getByte(i));
+        }
+        assertEquals(0x0102030405060708L, buffer.getLongLE(1));
+        assertEquals(0x090A0B0C, buffer.getIntLE(9));
+        assertEquals(0x0D0E0F, buffer.getMediumLE(13));
+        assertEquals(0x1011, buffer.getShortLE(16));
+    }
+
+    @Test
+    public void testRandomLittleEndianAccess() {
+        for (int i = 0; i < buffer.capacity() - 7; i += 8) {
+            buffer.setLongLE(i, random.nextLong());
+        }
+        random.setSeed(seed);
+        for (int i = 0; i < buffer.capacity() - 7; i += 8) {
+            assertEquals(random.nextLong(), buffer.getLongLE(i));
+        }
+
+        random.setSeed(seed);
+        for (int i = 0; i < buffer.capacity() - 3; i += 4) {
+            buffer.setIntLE(i, random.nextInt());
+        }
+        random.setSeed(seed);
+        for (int i = 0; i < buffer.capacity() - 3; i += 4) {
+            int value = random.nextInt();
+            assertEquals(value, buffer.getIntLE(i));
+            assertEquals(value & 0xFFFFFFFFL, buffer.getUnsignedIntLE(i));
+        }
+
+        for (int i = 0; i < buffer.capacity() - 2; i += 3) {
+            buffer.setMediumLE(i, i << 8 | 0x800080);
+        }
+        for (int i = 0; i < buffer.capacity() - 2; i += 3) {
+            int value = i << 8 | 0x800080;
+            assertEquals(value & 0xFFFFFF, buffer.getUnsignedMediumLE(i));
+            assertEquals(value << 8 >> 8, buffer.getMediumLE(i));
+        }
+
+        for (int i = 0; i < buffer.capacity() - 1; i += 2) {
+            buffer.setShortLE(i, i | 0x8000);
+        }
+        for (int i = 0; i < buffer.capacity() - 1; i += 2) {
+            assertEquals((short) (i | 0x8000), buffer.getShortLE(i));
+            assertEquals((i | 0x8000) & 0xFFFF, buffer.getUnsignedShortLE(i));
+        }
+    }
+
+    @Test
+    public void testSequentialLittleEndianAccess() {
+        buffer.clear();
+        buffer.writeShortLE(0x0102);
+        buffer.writeMediumLE(0x030405);
+        buffer.writeIntLE(0x06070809);
+        buffer.writeLongLE(0x0A0B0C0D0E0F1011L);
+        assertEquals(17, buffer.writerIndex());
+
+        assertEquals(0x0102, buffer.readShortLE());
+        assertEquals(0x030405, buffer.readMediumLE());
+        assertEquals(0x06070809, buffer.readIntLE());
+        assertEquals(0x0A0B0C0D0E0F1011L, buffer.readLongLE());
+        assertEquals(17, buffer.readerIndex());
+
+        buffer.readerIndex(0);
+        assertEquals(0x0102, buffer.readUnsignedShortLE());
+        assertEquals(0x030405, buffer.readUnsignedMediumLE());
+        assertEquals(0x06070809L, buffer.readUnsignedIntLE());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetLongLEOutOfBounds() {
+        buffer.getLongLE(buffer.capacity() - 7);
+    }
+
     @Test
     public void testSetZero() {
         buffer.clear();
@@ -1451,6 +1556,73 @@ public abstract class AbstractByteBufTest {
         assertEquals(buffer.getByte(1), duplicate.getByte(1));
     }
 
+    @Test
+    public void testRetainedSlice() {
+        for (int i = 0; i < buffer.capacity(); i ++) {
+            buffer.setByte(i, (byte) random.nextInt());
+        }
+        buffer.setIndex(CAPACITY / 3, CAPACITY * 2 / 3);
+
+        int refCnt = buffer.refCnt();
+        ByteBuf slice = buffer.retainedSlice();
+        assertEquals(refCnt + 1, buffer.refCnt());
+        assertEquals(1, slice.refCnt());
+        assertEquals(0, slice.readerIndex());
+        assertEquals(buffer.readableBytes(), slice.writerIndex());
+        assertEquals(buffer.readableBytes(), slice.capacity());
+        assertSame(buffer.order(), slice.order());
+        for (int i = 0; i < slice.capacity(); i ++) {
+            assertEquals(buffer.getByte(buffer.readerIndex() + i), slice.getByte(i));
+        }
+
+        // Make sure the buffer content is shared.
+        slice.setByte(0, (byte) (slice.getByte(0) + 1));
+        assertEquals(slice.getByte(0), buffer.getByte(buffer.readerIndex()));
+
+        // A slice of a retained slice holds its own reference as well.
+        ByteBuf nested = slice.retainedSlice(1, 2);
+        assertEquals(2, slice.refCnt());
+        assertEquals(buffer.getByte(buffer.readerIndex() + 1), nested.getByte(0));
+        assertTrue(nested.release());
+        assertEquals(1, slice.refCnt());
+
+        assertTrue(slice.release());
+        assertEquals(0, slice.refCnt());
+        assertEquals(refCnt, buffer.refCnt());
+    }
+
+    @Test
+    public void testRetainedDuplicate() {
+        for (int i = 0; i < buffer.capacity(); i ++) {
+            buffer.setByte(i, (byte) random.nextInt());
+        }
+        buffer.setIndex(CAPACITY / 3, CAPACITY * 2 / 3);
+
+        int refCnt = buffer.refCnt();
+        ByteBuf duplicate = buffer.retainedDuplicate();
+        assertEquals(refCnt + 1, buffer.refCnt());
+        assertEquals(1, duplicate.refCnt());
+        assertEquals(buffer.readerIndex(), duplicate.readerIndex());
+        assertEquals(buffer.writerIndex(), duplicate.writerIndex());
+        assertEquals(buffer.capacity(), duplicate.capacity());
+        assertSame(buffer.order(), duplicate.order());
+        for (int i = 0; i < duplicate.capacity(); i ++) {
+            assertEquals(buffer.getByte(i), duplicate.getByte(i));
+        }
+
+        // Releasing the duplicate must only give back the reference it holds.
+        duplicate.retain();
+        assertFalse(duplicate.release());
+        assertEquals(refCnt + 1, buffer.refCnt());
+        assertTrue(duplicate.release());
+        assertEquals(refCnt, buffer.refCnt());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRetainedSliceOutOfBounds() {
+        buffer.retainedSlice(1, buffer.capacity());
+    }
+
     @Test
     public void testSliceEndianness() throws Exception {
         assertEquals(buffer.order(), buffer.slice(0, buffer.capacity()).order());
@@ -1551,6 +1723,91 @@ public abstract class AbstractByteBufTest {
         assertEquals(3, buffer.indexOf(4, 1, (byte) 2));
     }
 
+    @Test
+    public void testIndexOfLongRange() {
+        fillWithoutLineDelimiters();
+
+        for (int from = 0; from < 9; from ++) {
+            for (int pos = from; pos < from + 40; pos ++) {
+                buffer.setByte(pos, '\n');
+                assertEquals(pos, buffer.indexOf(from, CAPACITY, (byte) '\n'));
+                assertEquals(pos, buffer.indexOf(from, pos + 1, (byte) '\n'));
+                assertEquals(-1, buffer.indexOf(from, pos, (byte) '\n'));
+                assertEquals(pos, buffer.bytesBefore(from, CAPACITY - from, (byte) '\n') + from);
+                buffer.setByte(pos, 'a');
+            }
+        }
+        assertEquals(-1, buffer.indexOf(0, CAPACITY, (byte) '\n'));
+    }
+
+    @Test
+    public void testForEachByteFindDelimiters() {
+        fillWithoutLineDelimiters();
+
+        for (int from = 0; from < 9; from ++) {
+            buffer.readerIndex(from);
+            for (int pos = from; pos < from + 40; pos ++) {
+                buffer.setByte(pos, '\r');
+                assertEquals(pos, buffer.forEachByte(ByteBufProcessor.FIND_CR));
+                assertEquals(pos, buffer.forEachByte(ByteBufProcessor.FIND_CRLF));
+                assertEquals(-1, buffer.forEachByte(ByteBufProcessor.FIND_LF));
+                assertEquals(-1, buffer.forEachByte(from, pos - from, ByteBufProcessor.FIND_CRLF));
+
+                buffer.setByte(pos, '\n');
+                assertEquals(pos, buffer.forEachByte(ByteBufProcessor.FIND_LF));
+                assertEquals(pos, buffer.forEachByte(ByteBufProcessor.FIND_CRLF));
+                assertEquals(-1, buffer.forEachByte(ByteBufProcessor.FIND_CR));
+
+                buffer.setByte(pos, 0);
+                assertEquals(pos, buffer.forEachByte(ByteBufProcessor.FIND_NUL));
+                assertEquals(-1, buffer.forEachByte(ByteBufProcessor.FIND_CRLF));
+                buffer.setByte(pos, 'a');
+            }
+        }
+    }
+
+    @Test
+    public void testWriteUtf8() {
+        String text = "Some UTF-8 like \u00e4\u00c4\u220f\u0bcd, a surrogate pair \ud800\udf48 " +
+                      "and unpaired surrogates \udf48\ud800";
+        byte[] expected = text.getBytes(CharsetUtil.UTF_8);
+        assertEquals(expected.length, ByteBufUtil.utf8Length(text));
+
+        buffer.clear();
+        buffer.writeByte(1);
+        assertEquals(expected.length, ByteBufUtil.writeUtf8(buffer, text));
+        assertEquals(1 + expected.length, buffer.writerIndex());
+        assertEquals(1, buffer.readByte());
+
+        byte[] actual = new byte[expected.length];
+        buffer.readBytes(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void testWriteAscii() {
+        String text = "Some US-ASCII text";
+
+        buffer.clear();
+        buffer.writeByte(1);
+        assertEquals(text.length(), ByteBufUtil.writeAscii(buffer, text));
+        assertEquals(1 + text.length(), buffer.writerIndex());
+        assertEquals(1, buffer.readByte());
+        assertEquals(text, buffer.toString(CharsetUtil.US_ASCII));
+    }
+
+    private void fillWithoutLineDelimiters() {
+        buffer.clear();
+        for (int i = 0; i < CAPACITY; i ++) {
+            // Includes the neighbours of the searched bytes and bytes with the highest bit set.
+            byte b;
+            do {
+                b = (byte) random.nextInt();
+            } while (b == '\r' || b == '\n' || b == 0);
+            buffer.writeByte(b);
+        }
+    }
+
     @Test
     public void testNioBuffer1() {
         Assume.assumeTrue(buffer.nioBufferCount() == 1);
@@ -1940,6 +2197,77 @@ public abstract class AbstractByteBufTest {
         }
     }
 
+    @Test
+    public void testGetBytesAndSetBytesWithFileChannel() throws IOException {
+        File file = File.createTempFile("netty-", ".tmp");
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            FileChannel channel = randomAccessFile.getChannel();
+            long channelPosition = channel.position();
+
+            byte[] data = new byte[BLOCK_SIZE];
+            random.nextBytes(data);
+            ByteBuf buffer = releaseLater(newBuffer(BLOCK_SIZE * 2));
+            buffer.clear();
+            buffer.writeBytes(data);
+
+            assertEquals(BLOCK_SIZE - 1, buffer.getBytes(1, channel, 10, BLOCK_SIZE - 1));
+            assertEquals(0, buffer.readerIndex());
+            assertEquals(channelPosition, channel.position());
+
+            ByteBuf buffer2 = releaseLater(newBuffer(BLOCK_SIZE * 2));
+            buffer2.clear();
+            assertEquals(BLOCK_SIZE - 1, buffer2.setBytes(3, channel, 10, BLOCK_SIZE - 1));
+            assertEquals(0, buffer2.writerIndex());
+            assertEquals(channelPosition, channel.position());
+            for (int i = 1; i < BLOCK_SIZE; i ++) {
+                assertEquals(data[i], buffer2.getByte(i + 2));
+            }
+
+            // Reading beyond the end of the file.
+            assertEquals(-1, buffer2.setBytes(0, channel, 10 + BLOCK_SIZE, 1));
+        } finally {
+            if (randomAccessFile != null) {
+                randomAccessFile.close();
+            }
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testReadBytesAndWriteBytesWithFileChannel() throws IOException {
+        File file = File.createTempFile("netty-", ".tmp");
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            FileChannel channel = randomAccessFile.getChannel();
+            long channelPosition = channel.position();
+
+            byte[] data = new byte[BLOCK_SIZE];
+            random.nextBytes(data);
+            ByteBuf buffer = releaseLater(newBuffer(BLOCK_SIZE * 2));
+            buffer.clear();
+            buffer.writeBytes(data);
+
+            assertEquals(BLOCK_SIZE, buffer.readBytes(channel, 10, BLOCK_SIZE));
+            assertEquals(BLOCK_SIZE, buffer.readerIndex());
+            assertEquals(channelPosition, channel.position());
+
+            ByteBuf buffer2 = releaseLater(newBuffer(BLOCK_SIZE * 2));
+            buffer2.clear();
+            assertEquals(BLOCK_SIZE, buffer2.writeBytes(channel, 10, BLOCK_SIZE));
+            assertEquals(BLOCK_SIZE, buffer2.writerIndex());
+            assertEquals(channelPosition, channel.position());
+            assertEquals(wrappedBuffer(data), buffer2);
+        } finally {
+            if (randomAccessFile != null) {
+                randomAccessFile.close();
+            }
+            file.delete();
+        }
+    }
+
     static final class TestGatheringByteChannel implements GatheringByteChannel {
         private final ByteArrayOutputStream out = new ByteArrayOutputStream();
         private final WritableByteChannel channel = Channels.newChannel(out);
@@ -22,6 +22,7 @@ import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static io.netty.buffer.Unpooled.*;
 import static io.netty.util.ReferenceCountUtil.*;
@@ -177,6 +178,77 @@ public abstract class AbstractCompositeByteBufTest extends AbstractByteBufTest {
         assertEquals(0, buf.arrayOffset());
     }
 
+    @Test
+    public void testIncrementalConsolidation() {
+        CompositeByteBuf buf = releaseLater(
+                new CompositeByteBuf(UnpooledByteBufAllocator.DEFAULT, false, 3, true));
+
+        buf.addComponent(wrappedBuffer(new byte[] { 1, 2, 3, 4 }));
+        buf.addComponent(wrappedBuffer(new byte[] { 5 }));
+        buf.addComponent(wrappedBuffer(new byte[] { 6 }));
+        assertEquals(3, buf.numComponents());
+
+        // Only the two smallest adjacent components are merged.
+        buf.addComponent(wrappedBuffer(new byte[] { 7, 8, 9 }));
+        assertEquals(3, buf.numComponents());
+        assertEquals(4, buf.component(0).capacity());
+        assertEquals(2, buf.component(1).capacity());
+        assertEquals(3, buf.component(2).capacity());
+
+        buf.writerIndex(buf.capacity());
+        for (int i = 0; i < buf.capacity(); i ++) {
+            assertEquals(i + 1, buf.getByte(i));
+        }
+    }
+
+    @Test
+    public void testAddComponentsWithoutConsolidation() {
+        CompositeByteBuf buf = releaseLater(compositeBuffer(2));
+
+        buf.addComponentsWithoutConsolidation(
+                wrappedBuffer(new byte[] { 1 }), wrappedBuffer(new byte[] { 2, 3 }),
+                wrappedBuffer(new byte[] { 4, 5, 6 }));
+        assertEquals(3, buf.numComponents());
+
+        buf.addComponentsWithoutConsolidation(Collections.singletonList(wrappedBuffer(new byte[] { 7 })));
+        assertEquals(4, buf.numComponents());
+        assertEquals(7, buf.capacity());
+    }
+
+    @Test
+    public void testComponentLookup() {
+        CompositeByteBuf buf = releaseLater(compositeBuffer(Integer.MAX_VALUE));
+        int numComponents = 100;
+        for (int i = 0; i < numComponents; i ++) {
+            // Components of different sizes so that the offsets are not trivially predictable.
+            ByteBuf component = buffer(i % 3 + 1);
+            while (component.isWritable()) {
+                component.writeByte(i);
+            }
+            buf.addComponent(component);
+        }
+        buf.writerIndex(buf.capacity());
+
+        for (int i = 0; i < buf.capacity(); i ++) {
+            assertEquals(buf.component(buf.toComponentIndex(i)).getByte(0), buf.getByte(i));
+        }
+        for (int i = buf.capacity() - 1; i >= 0; i --) {
+            assertEquals(buf.getByte(i), buf.toComponentIndex(i));
+        }
+
+        Random random = new Random();
+        for (int i = 0; i < 1000; i ++) {
+            int index = random.nextInt(buf.capacity());
+            assertEquals(buf.getByte(index), buf.toComponentIndex(index));
+        }
+
+        // The cached position must not be used after the components were changed.
+        buf.removeComponents(0, 50);
+        for (int i = 0; i < buf.capacity(); i ++) {
+            assertEquals(buf.getByte(i), buf.toComponentIndex(i) + 50);
+        }
+    }
+
     @Test
     public void testCompositeToSingleBuffer() {
         CompositeByteBuf buf = releaseLater(compositeBuffer(3));
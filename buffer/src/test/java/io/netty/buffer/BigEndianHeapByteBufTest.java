@@ -28,7 +28,7 @@ public class BigEndianHeapByteBufTest extends AbstractByteBufTest {
 
     @Override
     protected ByteBuf newBuffer(int length) {
-        buffer = Unpooled.buffer(length);
+        buffer = new UnpooledHeapByteBuf(UnpooledByteBufAllocator.DEFAULT, length, Integer.MAX_VALUE);
         assertEquals(0, buffer.writerIndex());
         return buffer;
     }
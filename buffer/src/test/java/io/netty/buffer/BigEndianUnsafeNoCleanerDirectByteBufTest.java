@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.internal.PlatformDependent;
+import org.junit.Assume;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BigEndianUnsafeNoCleanerDirectByteBufTest extends BigEndianDirectByteBufTest {
+
+    @Override
+    protected ByteBuf newBuffer(int length) {
+        // Checked here because the buffer is created by the @Before method of the super class.
+        Assume.assumeTrue("direct buffers without a Cleaner are not enabled, skip tests",
+                PlatformDependent.useDirectBufferNoCleaner());
+        return new UnpooledUnsafeNoCleanerDirectByteBuf(UnpooledByteBufAllocator.DEFAULT, length, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testUsedDirectMemory() {
+        long used = PlatformDependent.usedDirectMemory();
+        ByteBuf buf = newBuffer(1024);
+        assertEquals(used + 1024, PlatformDependent.usedDirectMemory());
+
+        buf.capacity(2048);
+        assertEquals(used + 2048, PlatformDependent.usedDirectMemory());
+
+        assertTrue(buf.release());
+        assertEquals(used, PlatformDependent.usedDirectMemory());
+    }
+}
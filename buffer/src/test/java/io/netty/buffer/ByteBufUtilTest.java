@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.AsciiString;
+import io.netty.util.CharsetUtil;
+import io.netty.util.IllegalReferenceCountException;
+import org.junit.Test;
+
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static io.netty.buffer.Unpooled.*;
+import static org.junit.Assert.*;
+
+public class ByteBufUtilTest {
+
+    private static final Random random = new Random();
+
+    @Test
+    public void testEqualsRegion() {
+        byte[] data = new byte[64];
+        random.nextBytes(data);
+        for (ByteBuf a: variants(data)) {
+            for (ByteBuf b: variants(data)) {
+                for (int length = 0; length <= 40; length ++) {
+                    assertTrue(ByteBufUtil.equals(a, 3, b, 3, length));
+                }
+                // Random data practically never equals itself shifted by one byte.
+                assertFalse(ByteBufUtil.equals(a, 3, b, 4, 40));
+                // The buffers end at index 67.
+                assertFalse(ByteBufUtil.equals(a, 30, b, 30, 38));
+                assertTrue(ByteBufUtil.equals(a, 30, b, 30, 37));
+            }
+        }
+    }
+
+    @Test
+    public void testEqualsRegionDetectsEveryDifference() {
+        byte[] data = new byte[37];
+        random.nextBytes(data);
+        for (int i = 0; i < data.length; i ++) {
+            byte[] changed = data.clone();
+            changed[i] ++;
+            for (ByteBuf a: variants(data)) {
+                for (ByteBuf b: variants(changed)) {
+                    assertFalse(ByteBufUtil.equals(a, 3, b, 3, data.length));
+                    assertFalse(ByteBufUtil.equals(a, b));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEqualsRegionNegativeLength() {
+        ByteBuf buf = wrappedBuffer(new byte[8]);
+        ByteBufUtil.equals(buf, 0, buf, 0, -1);
+    }
+
+    @Test
+    public void testHashCodeIsIndependentOfBufferType() {
+        for (int length = 0; length < 40; length ++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            int expected = ByteBufUtil.hashCode(buffer(length).writeBytes(data));
+            for (ByteBuf buf: variants(data)) {
+                assertEquals(expected, ByteBufUtil.hashCode(buf.slice(3, length)));
+            }
+        }
+    }
+
+    @Test
+    public void testCompareIsUnsignedAndLexicographic() {
+        for (int length = 1; length < 40; length ++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            for (int i = 0; i < length; i ++) {
+                byte[] greater = data.clone();
+                greater[i] = (byte) 0x80;
+                data[i] = 0x7F;
+                for (ByteBuf a: variants(data)) {
+                    for (ByteBuf b: variants(greater)) {
+                        ByteBuf sliceA = a.slice(3, length);
+                        ByteBuf sliceB = b.slice(3, length);
+                        assertTrue(ByteBufUtil.compare(sliceA, sliceB) < 0);
+                        assertTrue(ByteBufUtil.compare(sliceB, sliceA) > 0);
+                        assertEquals(0, ByteBufUtil.compare(sliceA, a.slice(3, length)));
+                        assertTrue(ByteBufUtil.compare(sliceA, a.slice(3, length - 1)) > 0);
+                    }
+                }
+                data[i] = greater[i];
+            }
+        }
+    }
+
+    @Test
+    public void testCompareLittleEndian() {
+        // Little-endian buffers keep comparing their 32-bit integers in their own byte order.
+        ByteBuf a = wrappedBuffer(new byte[] { 1, 0, 0, 0 }).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuf b = wrappedBuffer(new byte[] { 0, 1, 0, 0 }).order(ByteOrder.LITTLE_ENDIAN);
+        assertTrue(ByteBufUtil.compare(a, b) < 0);
+    }
+
+    @Test
+    public void testWriteAsciiString() {
+        AsciiString s = new AsciiString("xContent-Lengthx").subSequence(1, 15);
+        ByteBuf buf = buffer(4);
+        assertEquals(14, ByteBufUtil.writeAscii(buf, s));
+        assertEquals("Content-Length", buf.toString(CharsetUtil.US_ASCII));
+        assertTrue(buf.release());
+    }
+
+    @Test(expected = IllegalReferenceCountException.class)
+    public void testHashCodeOfReleasedBuffer() {
+        ByteBufUtil.hashCode(releasedBuffer());
+    }
+
+    @Test(expected = IllegalReferenceCountException.class)
+    public void testEqualsRegionOfReleasedBuffer() {
+        ByteBufUtil.equals(releasedBuffer(), 0, wrappedBuffer(new byte[8]), 0, 8);
+    }
+
+    @Test(expected = IllegalReferenceCountException.class)
+    public void testCompareReleasedBuffer() {
+        ByteBufUtil.compare(wrappedBuffer(new byte[8]), releasedBuffer());
+    }
+
+    /**
+     * Returns a released buffer whose array is still returned by {@link ByteBuf#array()}, which is the case for
+     * pooled heap buffers.
+     */
+    private static ByteBuf releasedBuffer() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 0, 8192, 11, 0, 0, 0);
+        ByteBuf buf = allocator.heapBuffer(8).writeZero(8);
+        assertTrue(buf.release());
+        return buf;
+    }
+
+    /**
+     * Returns buffers of different types which contain the specified data after three padding bytes.
+     */
+    private static ByteBuf[] variants(byte[] data) {
+        byte[] padded = new byte[data.length + 3];
+        System.arraycopy(data, 0, padded, 3, data.length);
+        ByteBuf composite = compositeBuffer()
+                .addComponent(wrappedBuffer(padded, 0, 2))
+                .addComponent(wrappedBuffer(padded, 2, padded.length - 2));
+        composite.writerIndex(padded.length);
+        return new ByteBuf[] {
+                wrappedBuffer(padded),
+                wrappedBuffer(padded).order(ByteOrder.LITTLE_ENDIAN),
+                directBuffer(padded.length).writeBytes(padded),
+                composite,
+        };
+    }
+}
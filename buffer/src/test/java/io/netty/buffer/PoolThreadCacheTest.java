@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PoolThreadCacheTest {
+
+    @Test
+    public void testTinyReusedFromCache() {
+        testReusedFromCache(16);
+    }
+
+    @Test
+    public void testSmallReusedFromCache() {
+        testReusedFromCache(1024);
+    }
+
+    @Test
+    public void testNormalReusedFromCache() {
+        testReusedFromCache(16 * 1024);
+    }
+
+    private static void testReusedFromCache(int size) {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(1, 0, 8192, 11);
+
+        ByteBuf a = allocator.heapBuffer(size);
+        byte[] memory = a.array();
+        int offset = a.arrayOffset();
+        // Keep the chunk in use so freeing 'a' cannot make the chunk go away.
+        ByteBuf b = allocator.heapBuffer(size);
+        assertTrue(a.release());
+
+        ByteBuf c = allocator.heapBuffer(size);
+        assertSame(memory, c.array());
+        assertEquals(offset, c.arrayOffset());
+
+        assertTrue(b.release());
+        assertTrue(c.release());
+    }
+
+    @Test
+    public void testNotCachedIfDisabled() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 0, 8192, 11, 0, 0, 0);
+        PoolThreadCache cache = allocator.threadCache.get();
+
+        ByteBuf a = allocator.heapBuffer(16);
+        PooledByteBuf<?> pooled = unwrapPooled(a);
+        assertFalse(cache.add(pooled.chunk.arena, pooled.chunk, pooled.handle, pooled.maxLength));
+        assertTrue(a.release());
+    }
+
+    @Test
+    public void testHugeNotCached() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(1, 0, 8192, 11);
+
+        // Exceeds the chunk size and so is allocated unpooled.
+        ByteBuf a = allocator.heapBuffer(16 * 1024 * 1024 + 1);
+        byte[] memory = a.array();
+        assertTrue(a.release());
+
+        ByteBuf b = allocator.heapBuffer(16 * 1024 * 1024 + 1);
+        assertNotSame(memory, b.array());
+        assertTrue(b.release());
+    }
+
+    @Test
+    public void testReleaseFromOtherThreadUsesItsCache() throws Exception {
+        final PooledByteBufAllocator allocator = new PooledByteBufAllocator(1, 0, 8192, 11);
+        final ByteBuf a = allocator.heapBuffer(16);
+        final ByteBuf keep = allocator.heapBuffer(16);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    byte[] memory = a.array();
+                    int offset = a.arrayOffset();
+                    assertTrue(a.release());
+
+                    // The releasing thread shares the arena and so parks the memory in its own cache.
+                    ByteBuf b = allocator.heapBuffer(16);
+                    assertSame(memory, b.array());
+                    assertEquals(offset, b.arrayOffset());
+                    assertTrue(b.release());
+                } catch (Throwable cause) {
+                    error.set(cause);
+                }
+            }
+        });
+        t.start();
+        t.join();
+
+        Throwable cause = error.get();
+        if (cause != null) {
+            throw new AssertionError(cause);
+        }
+        assertTrue(keep.release());
+    }
+
+    @Test
+    public void testTrimFreesUnusedEntries() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(1, 0, 8192, 11);
+        PoolThreadCache cache = allocator.threadCache.get();
+
+        ByteBuf keep = allocator.heapBuffer(16);
+        ByteBuf a = allocator.heapBuffer(16);
+        byte[] memory = a.array();
+        assertTrue(a.release());
+
+        // Nothing was allocated out of the cache since it was filled so trimming must release the cached memory.
+        cache.trim();
+        PooledByteBuf<?> pooled = unwrapPooled(keep);
+        assertFalse(cache.allocateTiny(pooled.chunk.arena, PooledHeapByteBuf.newInstance(16), 16, 16));
+
+        ByteBuf b = allocator.heapBuffer(16);
+        assertSame(memory, b.array());
+        assertTrue(b.release());
+        assertTrue(keep.release());
+    }
+
+    @Test
+    public void testRemoveAllFreesCache() throws Exception {
+        final PooledByteBufAllocator allocator = new PooledByteBufAllocator(1, 0, 8192, 11);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ByteBuf a = allocator.heapBuffer(16);
+                    assertTrue(a.release());
+                    assertEquals(1, allocator.heapArenas().get(0).numThreadCaches());
+                    assertEquals(1, allocator.threadHeapArenas().size());
+
+                    FastThreadLocal.removeAll();
+                    assertEquals(0, allocator.heapArenas().get(0).numThreadCaches());
+                    assertTrue(allocator.threadHeapArenas().isEmpty());
+                } catch (Throwable cause) {
+                    error.set(cause);
+                }
+            }
+        });
+        t.start();
+        t.join();
+
+        Throwable cause = error.get();
+        if (cause != null) {
+            throw new AssertionError(cause);
+        }
+    }
+
+    private static PooledByteBuf<?> unwrapPooled(ByteBuf buf) {
+        // The allocator may have wrapped the buffer for leak detection.
+        while (!(buf instanceof PooledByteBuf)) {
+            buf = buf.unwrap();
+        }
+        return (PooledByteBuf<?>) buf;
+    }
+}
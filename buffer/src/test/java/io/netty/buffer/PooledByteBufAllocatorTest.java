@@ -0,0 +1,382 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.internal.ThreadExecutorMap;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PooledByteBufAllocatorTest {
+
+    @Test
+    public void testArenaMetrics() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 2, 3, 8192, 11, 0, 0, 0);
+        assertEquals(2, allocator.numHeapArenas());
+        assertEquals(2, allocator.heapArenas().size());
+        assertEquals(3, allocator.numDirectArenas());
+        assertEquals(3, allocator.directArenas().size());
+
+        PooledByteBufAllocator noDirect = new PooledByteBufAllocator(false, 1, 0, 8192, 11);
+        assertEquals(0, noDirect.numDirectArenas());
+        assertTrue(noDirect.directArenas().isEmpty());
+    }
+
+    @Test
+    public void testAllocationCounts() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 0, 8192, 11, 0, 0, 0);
+        PoolArenaMetric metric = allocator.heapArenas().get(0);
+
+        // Capacities are rounded up to their size class, so 1000 becomes 1024 and 16000 becomes 16384.
+        ByteBuf tiny = allocator.heapBuffer(16);
+        ByteBuf small = allocator.heapBuffer(1000);
+        ByteBuf normal = allocator.heapBuffer(16000);
+        ByteBuf huge = allocator.heapBuffer(16 * 1024 * 1024 + 1);
+
+        assertEquals(4, metric.numAllocations());
+        assertEquals(1, metric.numTinyAllocations());
+        assertEquals(1, metric.numSmallAllocations());
+        assertEquals(1, metric.numNormalAllocations());
+        assertEquals(1, metric.numHugeAllocations());
+        assertEquals(4, metric.numActiveAllocations());
+        assertEquals(16 + 1024 + 16 * 1024 + 16 * 1024 * 1024 + 1, metric.numActiveBytes());
+        assertEquals(0, metric.numDeallocations());
+
+        assertTrue(tiny.release());
+        assertTrue(small.release());
+        assertTrue(normal.release());
+        assertTrue(huge.release());
+
+        assertEquals(4, metric.numDeallocations());
+        assertEquals(1, metric.numTinyDeallocations());
+        assertEquals(1, metric.numSmallDeallocations());
+        assertEquals(1, metric.numNormalDeallocations());
+        assertEquals(1, metric.numHugeDeallocations());
+        assertEquals(0, metric.numActiveAllocations());
+        assertEquals(0, metric.numActiveBytes());
+    }
+
+    @Test
+    public void testChunkListMetrics() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 0, 8192, 11, 0, 0, 0);
+        PoolArenaMetric metric = allocator.heapArenas().get(0);
+        List<PoolChunkListMetric> lists = metric.chunkLists();
+        assertEquals(6, metric.numChunkLists());
+        assertEquals(6, lists.size());
+        assertEquals(0, numChunks(lists));
+
+        // Use half of the chunk so it is moved out of the initial list.
+        ByteBuf buf = allocator.heapBuffer(8 * 1024 * 1024 - 1);
+        assertEquals(1, numChunks(lists));
+        assertEquals(0, lists.get(0).numChunks());
+        assertEquals(1, lists.get(2).numChunks());
+        assertTrue(buf.release());
+
+        // An unused chunk is kept in the list with the lowest usage.
+        assertEquals(1, numChunks(lists));
+        assertEquals(1, lists.get(1).numChunks());
+    }
+
+    private static int numChunks(List<PoolChunkListMetric> lists) {
+        int numChunks = 0;
+        for (PoolChunkListMetric m: lists) {
+            assertTrue(m.minUsage() <= m.maxUsage());
+            numChunks += m.numChunks();
+        }
+        return numChunks;
+    }
+
+    @Test
+    public void testTrim() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(true, 1, 1, 8192, 11, 0, 0, 0);
+        List<PoolChunkListMetric> lists = allocator.directArenas().get(0).chunkLists();
+
+        ByteBuf buf = allocator.directBuffer(8 * 1024 * 1024 - 1);
+        assertEquals(0, allocator.trim());
+        assertTrue(buf.release());
+        assertEquals(1, numChunks(lists));
+
+        assertEquals(1, allocator.trim());
+        assertEquals(0, numChunks(lists));
+
+        // The arena must still be usable after its chunks were released.
+        buf = allocator.directBuffer(1024);
+        assertEquals(1, numChunks(lists));
+        assertTrue(buf.release());
+    }
+
+    @Test
+    public void testTrimCurrentThreadCache() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 0, 8192, 11);
+        List<PoolChunkListMetric> lists = allocator.heapArenas().get(0).chunkLists();
+
+        ByteBuf buf = allocator.heapBuffer(16);
+        assertTrue(buf.release());
+
+        // The buffer sits in the thread cache and so keeps its chunk in use.
+        assertEquals(0, allocator.trim());
+        allocator.trimCurrentThreadCache();
+        assertEquals(1, allocator.trim());
+        assertEquals(0, numChunks(lists));
+    }
+
+    @Test
+    public void testIdleChunksAreReleased() throws Exception {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 0, 8192, 11, 0, 0, 0, 10);
+        assertEquals(10, allocator.chunkIdleTimeoutMillis());
+        List<PoolChunkListMetric> lists = allocator.heapArenas().get(0).chunkLists();
+
+        // Fill up two chunks.
+        ByteBuf a = allocator.heapBuffer(8 * 1024 * 1024 - 1);
+        ByteBuf b = allocator.heapBuffer(8 * 1024 * 1024 - 1);
+        ByteBuf c = allocator.heapBuffer(8 * 1024 * 1024 - 1);
+        assertEquals(2, numChunks(lists));
+
+        assertTrue(a.release());
+        assertTrue(b.release());
+        assertEquals(2, numChunks(lists));
+        Thread.sleep(100);
+
+        // Releasing a buffer looks for idle chunks. The chunk of 'c' just became unused and so is kept.
+        assertTrue(c.release());
+        assertEquals(1, numChunks(lists));
+    }
+
+    @Test
+    public void testIdleChunksAreReleasedByEventLoop() throws Exception {
+        final PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 0, 8192, 11, 0, 0, 0, 10);
+        List<PoolChunkListMetric> lists = allocator.heapArenas().get(0).chunkLists();
+        final EventExecutorGroup group = new DefaultEventExecutorGroup(1);
+        try {
+            group.next().submit(new Runnable() {
+                @Override
+                public void run() {
+                    ThreadExecutorMap.setCurrentExecutor(group.next());
+                    assertTrue(allocator.heapBuffer(1024).release());
+                }
+            }).sync();
+            assertEquals(1, numChunks(lists));
+
+            // Nobody allocates or releases anymore, so only the event loop can find the idle chunk.
+            for (int i = 0; i < 50 && numChunks(lists) != 0; i ++) {
+                Thread.sleep(100);
+            }
+            assertEquals(0, numChunks(lists));
+        } finally {
+            group.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeChunkIdleTimeout() {
+        new PooledByteBufAllocator(false, 1, 0, 8192, 11, 0, 0, 0, -1);
+    }
+
+    @Test
+    public void testSubpageMetrics() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 0, 8192, 11, 0, 0, 0);
+        PoolArenaMetric metric = allocator.heapArenas().get(0);
+        assertEquals(31, metric.numTinySubpages());
+        assertEquals(4, metric.numSmallSubpages());
+
+        PoolSubpageMetric tiny = metric.tinySubpages().get(0);
+        assertEquals(16, tiny.elementSize());
+        assertEquals(8192, tiny.pageSize());
+        assertEquals(0, tiny.numSubpages());
+
+        ByteBuf a = allocator.heapBuffer(16);
+        ByteBuf b = allocator.heapBuffer(16);
+        assertEquals(1, tiny.numSubpages());
+        assertEquals(8192 / 16, tiny.maxNumElements());
+        assertEquals(8192 / 16 - 2, tiny.numAvailable());
+
+        PoolSubpageMetric small = metric.smallSubpages().get(1);
+        assertEquals(1024, small.elementSize());
+        ByteBuf c = allocator.heapBuffer(1000);
+        assertEquals(1, small.numSubpages());
+        assertEquals(7, small.numAvailable());
+
+        assertTrue(a.release());
+        assertEquals(8192 / 16 - 1, tiny.numAvailable());
+        assertTrue(b.release());
+        assertTrue(c.release());
+    }
+
+    @Test
+    public void testThreadCacheMetrics() {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 0, 8192, 11);
+        PoolArenaMetric metric = allocator.heapArenas().get(0);
+        PoolThreadCache cache = allocator.threadCache.get();
+        assertEquals(1, metric.numThreadCaches());
+
+        ByteBuf keep = allocator.heapBuffer(16);
+        ByteBuf buf = allocator.heapBuffer(16);
+        assertTrue(buf.release());
+        buf = allocator.heapBuffer(16);
+        assertTrue(buf.release());
+
+        // The counts are reported to the arena in batches.
+        cache.trim();
+        assertEquals(1, metric.numThreadCacheHits());
+        assertEquals(2, metric.numThreadCacheMisses());
+
+        // Memory which sits in the cache is still active from the point of view of the arena.
+        assertEquals(2, metric.numActiveTinyAllocations());
+        assertTrue(keep.release());
+
+        cache.free();
+        assertEquals(0, metric.numThreadCaches());
+        assertEquals(0, metric.numActiveAllocations());
+    }
+
+    @Test
+    public void testThreadsBoundToLeastUsedArena() throws Exception {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 2, 0, 8192, 11);
+        PoolArenaMetric a = allocate(allocator);
+        PoolArenaMetric b = allocateInThread(allocator);
+        assertNotSame(a, b);
+        assertEquals(1, a.numThreadCaches());
+        assertEquals(1, b.numThreadCaches());
+        assertSame(a, allocator.threadHeapArenas().get(Thread.currentThread()));
+        assertTrue(allocator.threadDirectArenas().isEmpty());
+    }
+
+    @Test
+    public void testEventLoopsBoundToOwnArenas() throws Exception {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 3, 0, 8192, 11);
+        // The calling thread is no event loop thread and so gets a shared arena.
+        PoolArenaMetric shared = allocate(allocator);
+
+        EventExecutorGroup group = new DefaultEventExecutorGroup(3);
+        EventExecutor e1 = group.next();
+        EventExecutor e2 = group.next();
+        EventExecutor e3 = group.next();
+        try {
+            PoolArenaMetric a1 = allocateInEventLoop(e1, allocator);
+            PoolArenaMetric a2 = allocateInEventLoop(e2, allocator);
+            assertNotSame(shared, a1);
+            assertNotSame(shared, a2);
+            assertNotSame(a1, a2);
+
+            // No unused arena is left, so the third event loop shares with another event loop.
+            PoolArenaMetric a3 = allocateInEventLoop(e3, allocator);
+            assertNotSame(shared, a3);
+            assertEquals(2, a3.numThreadCaches());
+
+            // Other threads keep using the shared arena although it is not the least used one.
+            assertSame(shared, allocateInThread(allocator));
+            assertEquals(2, shared.numThreadCaches());
+        } finally {
+            group.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+        }
+    }
+
+    @Test
+    public void testEventLoopDoesNotTakeLastArena() throws Exception {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 2, 0, 8192, 11);
+        EventExecutorGroup group = new DefaultEventExecutorGroup(2);
+        EventExecutor e1 = group.next();
+        EventExecutor e2 = group.next();
+        try {
+            PoolArenaMetric a1 = allocateInEventLoop(e1, allocator);
+            assertSame(a1, allocateInEventLoop(e2, allocator));
+            PoolArenaMetric shared = allocate(allocator);
+            assertNotSame(a1, shared);
+            assertEquals(1, shared.numThreadCaches());
+        } finally {
+            group.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+        }
+    }
+
+    private static PoolArenaMetric allocate(PooledByteBufAllocator allocator) {
+        ByteBuf buf = allocator.heapBuffer(16);
+        assertTrue(buf.release());
+        return allocator.threadHeapArenas().get(Thread.currentThread());
+    }
+
+    @Test
+    public void testExecutorsShareArenasWithOtherThreads() throws Exception {
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 2, 0, 8192, 11);
+        EventExecutorGroup group = new DefaultEventExecutorGroup(1);
+        try {
+            // An executor which is no event loop is treated like any other thread.
+            PoolArenaMetric a = allocateIn(group.next(), allocator);
+            assertNotSame(a, allocate(allocator));
+            assertSame(a, allocateInThread(allocator));
+            assertEquals(2, a.numThreadCaches());
+        } finally {
+            group.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+        }
+    }
+
+    private static PoolArenaMetric allocateIn(
+            EventExecutor executor, final PooledByteBufAllocator allocator) throws Exception {
+        return executor.submit(new Callable<PoolArenaMetric>() {
+            @Override
+            public PoolArenaMetric call() {
+                return allocate(allocator);
+            }
+        }).get();
+    }
+
+    /**
+     * Allocates in the thread of the given executor after binding it like an event loop binds its thread.
+     */
+    private static PoolArenaMetric allocateInEventLoop(
+            final EventExecutor executor, final PooledByteBufAllocator allocator) throws Exception {
+        return executor.submit(new Callable<PoolArenaMetric>() {
+            @Override
+            public PoolArenaMetric call() {
+                ThreadExecutorMap.setCurrentExecutor(executor);
+                return allocate(allocator);
+            }
+        }).get();
+    }
+
+    private static PoolArenaMetric allocateInThread(final PooledByteBufAllocator allocator) throws Exception {
+        final AtomicReference<PoolArenaMetric> arena = new AtomicReference<PoolArenaMetric>();
+        final CountDownLatch allocated = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                arena.set(allocate(allocator));
+                allocated.countDown();
+                try {
+                    // Stay alive so the binding shows up until the caller is done.
+                    done.await();
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
+            }
+        });
+        t.setDaemon(true);
+        t.start();
+        allocated.await();
+        assertTrue(allocator.threadHeapArenas().containsKey(t));
+        done.countDown();
+        return arena.get();
+    }
+}
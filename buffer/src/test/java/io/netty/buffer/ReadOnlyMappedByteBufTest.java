@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.CharsetUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ReadOnlyMappedByteBufTest {
+
+    private File file;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws Exception {
+        content = new byte[8192 + 17];
+        new Random().nextBytes(content);
+
+        file = File.createTempFile("netty-", ".tmp");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void testContent() throws Exception {
+        ByteBuf buf = Unpooled.wrappedMappedFile(file);
+        try {
+            assertTrue(buf.isDirect());
+            assertTrue(buf.isReadable());
+            assertEquals(0, buf.readerIndex());
+            assertEquals(content.length, buf.writerIndex());
+            assertEquals(content.length, buf.capacity());
+            assertEquals(Unpooled.wrappedBuffer(content), buf);
+            for (int i = 0; i < content.length - 8; i ++) {
+                assertEquals(content[i], buf.getByte(i));
+                assertEquals(Unpooled.wrappedBuffer(content).getLong(i), buf.getLong(i));
+            }
+        } finally {
+            assertTrue(buf.release());
+        }
+    }
+
+    @Test
+    public void testRegion() throws Exception {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        ByteBuf buf;
+        try {
+            buf = Unpooled.wrappedMappedFile(raf.getChannel(), 100, 1000);
+        } finally {
+            raf.close();
+        }
+
+        assertEquals(Unpooled.wrappedBuffer(content, 100, 1000), buf);
+        assertTrue(buf.release());
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            assertSame(Unpooled.EMPTY_BUFFER, Unpooled.wrappedMappedFile(raf.getChannel(), 0, 0));
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Test(expected = ReadOnlyBufferException.class)
+    public void testReadOnly() throws Exception {
+        ByteBuf buf = Unpooled.wrappedMappedFile(file);
+        try {
+            buf.setByte(0, 1);
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Test
+    public void testSliceAndComposite() throws Exception {
+        ByteBuf buf = Unpooled.wrappedMappedFile(file);
+        ByteBuf composite = Unpooled.wrappedBuffer(
+                buf.slice(0, 10).retain(), Unpooled.copiedBuffer("-", CharsetUtil.US_ASCII), buf.slice(10, 20));
+
+        assertEquals(3, composite.nioBufferCount());
+        ByteBuffer[] nioBuffers = composite.nioBuffers();
+        assertTrue(nioBuffers[0].isDirect());
+        assertTrue(nioBuffers[2].isDirect());
+        assertEquals(ByteBuffer.wrap(content, 0, 10), nioBuffers[0]);
+        assertEquals(ByteBuffer.wrap(content, 10, 20), nioBuffers[2]);
+
+        // The mapping is released together with the last slice.
+        assertTrue(composite.release());
+        assertEquals(0, buf.refCnt());
+    }
+}
@@ -15,23 +15,23 @@
  */
 package io.netty.handler.codec.http;
 
+import io.netty.util.concurrent.FastThreadLocal;
 
 final class CookieEncoderUtil {
 
-    static final ThreadLocal<StringBuilder> buffer = new ThreadLocal<StringBuilder>() {
-        @Override
-        public StringBuilder get() {
-            StringBuilder buf = super.get();
-            buf.setLength(0);
-            return buf;
-        }
-
+    private static final FastThreadLocal<StringBuilder> buffer = new FastThreadLocal<StringBuilder>() {
         @Override
         protected StringBuilder initialValue() {
             return new StringBuilder(512);
         }
     };
 
+    static StringBuilder stringBuilder() {
+        StringBuilder buf = buffer.get();
+        buf.setLength(0);
+        return buf;
+    }
+
     static String stripTrailingSeparator(StringBuilder buf) {
         if (buf.length() > 0) {
             buf.setLength(buf.length() - 2);
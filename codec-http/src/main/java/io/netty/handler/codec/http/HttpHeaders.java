@@ -16,6 +16,8 @@
 package io.netty.handler.codec.http;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.AsciiString;
 
 import java.text.ParseException;
 import java.util.Calendar;
@@ -1298,50 +1300,11 @@ public abstract class HttpHeaders implements Iterable<Map.Entry<String, String>>
      * This only supports US_ASCII.
      */
     public static boolean equalsIgnoreCase(CharSequence name1, CharSequence name2) {
-        if (name1 == name2) {
-            return true;
-        }
-
-        if (name1 == null || name2 == null) {
-            return false;
-        }
-
-        int nameLen = name1.length();
-        if (nameLen != name2.length()) {
-            return false;
-        }
-
-        for (int i = nameLen - 1; i >= 0; i --) {
-            char c1 = name1.charAt(i);
-            char c2 = name2.charAt(i);
-            if (c1 != c2) {
-                if (c1 >= 'A' && c1 <= 'Z') {
-                    c1 += 32;
-                }
-                if (c2 >= 'A' && c2 <= 'Z') {
-                    c2 += 32;
-                }
-                if (c1 != c2) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return AsciiString.contentEqualsIgnoreCase(name1, name2);
     }
 
     static int hash(CharSequence name) {
-        if (name instanceof HttpHeaderEntity) {
-            return ((HttpHeaderEntity) name).hash();
-        }
-        int h = 0;
-        for (int i = name.length() - 1; i >= 0; i --) {
-            char c = name.charAt(i);
-            if (c >= 'A' && c <= 'Z') {
-                c += 32;
-            }
-            h = 31 * h + c;
-        }
-
+        int h = AsciiString.hashCode(name);
         if (h > 0) {
             return h;
         } else if (h == Integer.MIN_VALUE) {
@@ -1369,29 +1332,23 @@ public abstract class HttpHeaders implements Iterable<Map.Entry<String, String>>
     }
 
     public static void encodeAscii(CharSequence seq, ByteBuf buf) {
-        if (seq instanceof HttpHeaderEntity) {
-            ((HttpHeaderEntity) seq).encode(buf);
-        } else {
-            encodeAscii0(seq, buf);
-        }
+        encodeAscii0(seq, buf);
     }
 
     static void encodeAscii0(CharSequence seq, ByteBuf buf) {
-        int length = seq.length();
-        for (int i = 0 ; i < length; i++) {
-            buf.writeByte((byte) seq.charAt(i));
-        }
+        ByteBufUtil.writeAscii(buf, seq);
     }
 
     /**
      * Create a new {@link CharSequence} which is optimized for reuse as {@link HttpHeaders} name or value.
      * So if you have a Header name or value that you want to reuse you should make use of this.
+     * The returned {@link AsciiString} is encoded only once and caches its hash code.
      */
     public static CharSequence newEntity(String name) {
         if (name == null) {
             throw new NullPointerException("name");
         }
-        return new HttpHeaderEntity(name);
+        return new AsciiString(name);
     }
 
     protected HttpHeaders() { }
@@ -27,7 +27,6 @@ import io.netty.util.internal.AppendableCharSequence;
 
 import java.util.List;
 
-import static io.netty.buffer.ByteBufUtil.*;
 
 /**
  * Decodes {@link ByteBuf}s into {@link HttpMessage}s and
@@ -253,7 +252,7 @@ public abstract class HttpObjectDecoder extends ReplayingDecoder<HttpObjectDecod
             // Keep reading data as a chunk until the end of connection is reached.
             int toRead = Math.min(actualReadableBytes(), maxChunkSize);
             if (toRead > 0) {
-                ByteBuf content = readBytes(ctx.alloc(), buffer, toRead);
+                ByteBuf content = readRetainedSlice(buffer, toRead);
                 if (buffer.isReadable()) {
                     out.add(new DefaultHttpContent(content));
                 } else {
@@ -285,7 +284,7 @@ public abstract class HttpObjectDecoder extends ReplayingDecoder<HttpObjectDecod
             if (toRead > chunkSize) {
                 toRead = (int) chunkSize;
             }
-            ByteBuf content = readBytes(ctx.alloc(), buffer, toRead);
+            ByteBuf content = readRetainedSlice(buffer, toRead);
             chunkSize -= toRead;
 
             if (chunkSize == 0) {
@@ -319,7 +318,7 @@ public abstract class HttpObjectDecoder extends ReplayingDecoder<HttpObjectDecod
             assert chunkSize <= Integer.MAX_VALUE;
             int toRead = Math.min((int) chunkSize, maxChunkSize);
 
-            HttpContent chunk = new DefaultHttpContent(readBytes(ctx.alloc(), buffer, toRead));
+            HttpContent chunk = new DefaultHttpContent(readRetainedSlice(buffer, toRead));
             chunkSize -= toRead;
 
             out.add(chunk);
@@ -460,6 +459,16 @@ public abstract class HttpObjectDecoder extends ReplayingDecoder<HttpObjectDecod
         return chunk;
     }
 
+    /**
+     * Returns a retained slice of the next {@code length} readable bytes and skips them, so the content does not
+     * need to be copied out of the cumulation buffer.
+     */
+    private static ByteBuf readRetainedSlice(ByteBuf buffer, int length) {
+        ByteBuf content = buffer.retainedSlice(buffer.readerIndex(), length);
+        buffer.skipBytes(length);
+        return content;
+    }
+
     private static void skipControlCharacters(ByteBuf buffer) {
         for (;;) {
             char c = (char) buffer.readUnsignedByte();
@@ -16,7 +16,7 @@
 package io.netty.handler.codec.http;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.util.CharsetUtil;
+import io.netty.buffer.ByteBufUtil;
 
 import static io.netty.handler.codec.http.HttpConstants.*;
 
@@ -54,7 +54,7 @@ public class HttpRequestEncoder extends HttpObjectEncoder<HttpRequest> {
             }
         }
 
-        buf.writeBytes(uri.getBytes(CharsetUtil.UTF_8));
+        ByteBufUtil.writeUtf8(buf, uri);
 
         buf.writeByte(SP);
         request.getProtocolVersion().encode(buf);
@@ -145,7 +145,6 @@ public abstract class AbstractDiskHttpData extends AbstractHttpData {
                     throw new IOException("Out of size: " + (size + localsize) +
                             " > " + definedSize);
                 }
-                ByteBuffer byteBuffer = buffer.nioBufferCount() == 1 ? buffer.nioBuffer() : buffer.copy().nioBuffer();
                 int written = 0;
                 if (file == null) {
                     file = tempFile();
@@ -154,11 +153,11 @@ public abstract class AbstractDiskHttpData extends AbstractHttpData {
                     FileOutputStream outputStream = new FileOutputStream(file);
                     fileChannel = outputStream.getChannel();
                 }
+                // Write straight from the buffer, which avoids merging composite buffers into a copy first.
                 while (written < localsize) {
-                    written += fileChannel.write(byteBuffer);
+                    written += buffer.readBytes(fileChannel, size + written, localsize - written);
                 }
                 size += localsize;
-                buffer.readerIndex(buffer.readerIndex() + written);
             } finally {
                 // Release the buffer as it was retained before and we not need a reference to it at all
                 // See https://github.com/netty/netty/issues/1516
@@ -16,6 +16,7 @@
 package io.netty.handler.codec.http.websocketx;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.util.CharsetUtil;
 
@@ -69,7 +70,9 @@ public class TextWebSocketFrame extends WebSocketFrame {
         if (text == null || text.isEmpty()) {
             return Unpooled.EMPTY_BUFFER;
         } else {
-            return Unpooled.copiedBuffer(text, CharsetUtil.UTF_8);
+            ByteBuf buf = Unpooled.buffer(ByteBufUtil.utf8Length(text));
+            ByteBufUtil.writeUtf8(buf, text);
+            return buf;
         }
     }
 
@@ -28,8 +28,10 @@ import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -41,7 +43,7 @@ public class SpdyHttpDecoder extends MessageToMessageDecoder<SpdyFrame> {
 
     private final int spdyVersion;
     private final int maxContentLength;
-    private final Map<Integer, FullHttpMessage> messageMap;
+    private final IntObjectMap<FullHttpMessage> messageMap;
 
     /**
      * Creates a new instance.
@@ -52,7 +54,7 @@ public class SpdyHttpDecoder extends MessageToMessageDecoder<SpdyFrame> {
      *        a {@link TooLongFrameException} will be raised.
      */
     public SpdyHttpDecoder(SpdyVersion version, int maxContentLength) {
-        this(version, maxContentLength, new HashMap<Integer, FullHttpMessage>());
+        this(version, maxContentLength, new IntObjectHashMap<FullHttpMessage>());
     }
 
     /**
@@ -63,8 +65,25 @@ public class SpdyHttpDecoder extends MessageToMessageDecoder<SpdyFrame> {
      *        If the length of the message content exceeds this value,
      *        a {@link TooLongFrameException} will be raised.
      * @param messageMap the {@link Map} used to hold partially received messages.
+     *
+     * @deprecated Use {@link #SpdyHttpDecoder(SpdyVersion, int, IntObjectMap)} instead.
      */
+    @Deprecated
     protected SpdyHttpDecoder(SpdyVersion version, int maxContentLength, Map<Integer, FullHttpMessage> messageMap) {
+        this(version, maxContentLength, new MessageMapAdapter(messageMap));
+    }
+
+    /**
+     * Creates a new instance with the specified parameters.
+     *
+     * @param version the protocol version
+     * @param maxContentLength the maximum length of the message content.
+     *        If the length of the message content exceeds this value,
+     *        a {@link TooLongFrameException} will be raised.
+     * @param messageMap the {@link IntObjectMap} used to hold partially received messages.
+     */
+    protected SpdyHttpDecoder(
+            SpdyVersion version, int maxContentLength, IntObjectMap<FullHttpMessage> messageMap) {
         if (version == null) {
             throw new NullPointerException("version");
         }
@@ -345,4 +364,106 @@ public class SpdyHttpDecoder extends MessageToMessageDecoder<SpdyFrame> {
 
         return res;
     }
+
+    /**
+     * Lets the decoder store its messages in the {@link Map} which was passed to the deprecated constructor, so
+     * the owner of the {@link Map} keeps seeing all updates.
+     */
+    private static final class MessageMapAdapter implements IntObjectMap<FullHttpMessage> {
+
+        private final Map<Integer, FullHttpMessage> map;
+
+        MessageMapAdapter(Map<Integer, FullHttpMessage> map) {
+            if (map == null) {
+                throw new NullPointerException("map");
+            }
+            this.map = map;
+        }
+
+        @Override
+        public FullHttpMessage get(int key) {
+            return map.get(key);
+        }
+
+        @Override
+        public FullHttpMessage put(int key, FullHttpMessage value) {
+            return map.put(key, value);
+        }
+
+        @Override
+        public void putAll(IntObjectMap<FullHttpMessage> sourceMap) {
+            for (Entry<FullHttpMessage> e: sourceMap.entries()) {
+                map.put(e.key(), e.value());
+            }
+        }
+
+        @Override
+        public FullHttpMessage remove(int key) {
+            return map.remove(key);
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        @Override
+        public boolean containsKey(int key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public boolean containsValue(FullHttpMessage value) {
+            return map.containsValue(value);
+        }
+
+        @Override
+        public Iterable<Entry<FullHttpMessage>> entries() {
+            List<Entry<FullHttpMessage>> entries = new ArrayList<Entry<FullHttpMessage>>(map.size());
+            for (final Map.Entry<Integer, FullHttpMessage> e: map.entrySet()) {
+                entries.add(new Entry<FullHttpMessage>() {
+                    @Override
+                    public int key() {
+                        return e.getKey();
+                    }
+
+                    @Override
+                    public FullHttpMessage value() {
+                        return e.getValue();
+                    }
+
+                    @Override
+                    public void setValue(FullHttpMessage value) {
+                        e.setValue(value);
+                    }
+                });
+            }
+            return entries;
+        }
+
+        @Override
+        public int[] keys() {
+            int[] keys = new int[map.size()];
+            int i = 0;
+            for (Integer key: map.keySet()) {
+                keys[i ++] = key;
+            }
+            return keys;
+        }
+
+        @Override
+        public FullHttpMessage[] values(Class<FullHttpMessage> clazz) {
+            return map.values().toArray(new FullHttpMessage[map.size()]);
+        }
+    }
 }
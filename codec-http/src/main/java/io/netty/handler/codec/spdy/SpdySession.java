@@ -16,10 +16,10 @@
 package io.netty.handler.codec.spdy;
 
 import io.netty.channel.ChannelPromise;
-import io.netty.util.internal.PlatformDependent;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 
 import java.util.Comparator;
-import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
@@ -32,7 +32,8 @@ final class SpdySession {
 
     private final AtomicInteger activeLocalStreams  = new AtomicInteger();
     private final AtomicInteger activeRemoteStreams = new AtomicInteger();
-    private final Map<Integer, StreamState> activeStreams = PlatformDependent.newConcurrentHashMap();
+    // Only accessed from the event loop of the session's channel.
+    private final IntObjectMap<StreamState> activeStreams = new IntObjectHashMap<StreamState>();
 
     private final AtomicInteger sendWindowSize;
     private final AtomicInteger receiveWindowSize;
@@ -61,7 +62,9 @@ final class SpdySession {
     // Stream-IDs should be iterated in priority order
     Set<Integer> getActiveStreams() {
         TreeSet<Integer> streamIds = new TreeSet<Integer>(new PriorityComparator());
-        streamIds.addAll(activeStreams.keySet());
+        for (int streamId: activeStreams.keys()) {
+            streamIds.add(streamId);
+        }
         return streamIds;
     }
 
@@ -186,13 +189,14 @@ final class SpdySession {
     }
 
     void updateAllSendWindowSizes(int deltaWindowSize) {
-        for (StreamState state: activeStreams.values()) {
-            state.updateSendWindowSize(deltaWindowSize);
+        for (IntObjectMap.Entry<StreamState> e: activeStreams.entries()) {
+            e.value().updateSendWindowSize(deltaWindowSize);
         }
     }
 
     void updateAllReceiveWindowSizes(int deltaWindowSize) {
-        for (StreamState state: activeStreams.values()) {
+        for (IntObjectMap.Entry<StreamState> e: activeStreams.entries()) {
+            StreamState state = e.value();
             state.updateReceiveWindowSize(deltaWindowSize);
             if (deltaWindowSize < 0) {
                 state.setReceiveWindowSizeLowerBound(deltaWindowSize);
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.handler.codec.spdy;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.FullHttpMessage;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.CharsetUtil;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SpdyHttpDecoderTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedMessageMapIsUpdated() {
+        final Map<Integer, FullHttpMessage> messageMap = new HashMap<Integer, FullHttpMessage>();
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new SpdyHttpDecoder(SpdyVersion.SPDY_3_1, 1024, messageMap) { });
+
+        int spdyVersion = SpdyVersion.SPDY_3_1.getVersion();
+        SpdySynStreamFrame synStream = new DefaultSpdySynStreamFrame(1, 0, (byte) 0);
+        SpdyHeaders.setMethod(spdyVersion, synStream, HttpMethod.POST);
+        SpdyHeaders.setUrl(spdyVersion, synStream, "/");
+        SpdyHeaders.setVersion(spdyVersion, synStream, HttpVersion.HTTP_1_1);
+        SpdyHeaders.setScheme(spdyVersion, synStream, "http");
+        SpdyHeaders.setHost(synStream, "localhost");
+        assertFalse(channel.writeInbound(synStream));
+
+        // The request waits for its content in the map of the caller.
+        assertEquals(1, messageMap.size());
+        assertTrue(messageMap.get(1) instanceof FullHttpRequest);
+
+        SpdyDataFrame data = new DefaultSpdyDataFrame(1, Unpooled.copiedBuffer("content", CharsetUtil.US_ASCII));
+        data.setLast(true);
+        assertTrue(channel.writeInbound(data));
+        assertTrue(messageMap.isEmpty());
+
+        FullHttpRequest request = (FullHttpRequest) channel.readInbound();
+        assertEquals("content", request.content().toString(CharsetUtil.US_ASCII));
+        assertTrue(request.release());
+        assertFalse(channel.finish());
+    }
+}
@@ -132,7 +132,11 @@ public abstract class ByteToMessageDecoder extends ChannelInboundHandlerAdapter
                 if (first) {
                     cumulation = data;
                 } else {
-                    if (cumulation.writerIndex() > cumulation.maxCapacity() - data.readableBytes()) {
+                    if (cumulation.writerIndex() > cumulation.maxCapacity() - data.readableBytes()
+                            || cumulation.refCnt() > 1) {
+                        // Expand cumulation (by replace it) when either there is not more room in the buffer
+                        // or if the refCnt is greater then 1 which may happen when the user use slice().retain() or
+                        // retainedSlice() and so the content of the cumulation must not be modified.
                         expandCumulation(ctx, data.readableBytes());
                     }
                     cumulation.writeBytes(data);
@@ -170,9 +174,10 @@ public abstract class ByteToMessageDecoder extends ChannelInboundHandlerAdapter
 
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
-        if (cumulation != null && !first) {
+        if (cumulation != null && !first && cumulation.refCnt() == 1) {
             // discard some bytes if possible to make more room in the
-            // buffer
+            // buffer but only if the refCnt == 1  as otherwise the user may have
+            // used slice().retain() or retainedSlice() and so the content of the buffer must not be moved
             cumulation.discardSomeReadBytes();
         }
         if (decodeWasNull) {
@@ -315,7 +315,14 @@ public class DelimiterBasedFrameDecoder extends ByteToMessageDecoder {
      * found in the haystack.
      */
     private static int indexOf(ByteBuf haystack, ByteBuf needle) {
+        final byte firstByte = needle.getByte(0);
         for (int i = haystack.readerIndex(); i < haystack.writerIndex(); i ++) {
+            // Skip to the next candidate, which lets the buffer scan for the first byte of the needle efficiently.
+            i = haystack.indexOf(i, haystack.writerIndex(), firstByte);
+            if (i < 0) {
+                break;
+            }
+
             int haystackIndex = i;
             int needleIndex;
             for (needleIndex = 0; needleIndex < needle.capacity(); needleIndex ++) {
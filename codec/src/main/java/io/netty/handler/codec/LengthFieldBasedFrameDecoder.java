@@ -435,23 +435,27 @@ public class LengthFieldBasedFrameDecoder extends ByteToMessageDecoder {
      * @throws DecoderException if failed to decode the specified region
      */
     protected long getUnadjustedFrameLength(ByteBuf buf, int offset, int length, ByteOrder order) {
-        buf = buf.order(order);
+        // Use the *LE methods for a little endian length field instead of wrapping the buffer with order().
+        boolean littleEndian = order == ByteOrder.LITTLE_ENDIAN;
+        if (!littleEndian) {
+            buf = buf.order(order);
+        }
         long frameLength;
         switch (length) {
         case 1:
             frameLength = buf.getUnsignedByte(offset);
             break;
         case 2:
-            frameLength = buf.getUnsignedShort(offset);
+            frameLength = littleEndian ? buf.getUnsignedShortLE(offset) : buf.getUnsignedShort(offset);
             break;
         case 3:
-            frameLength = buf.getUnsignedMedium(offset);
+            frameLength = littleEndian ? buf.getUnsignedMediumLE(offset) : buf.getUnsignedMedium(offset);
             break;
         case 4:
-            frameLength = buf.getUnsignedInt(offset);
+            frameLength = littleEndian ? buf.getUnsignedIntLE(offset) : buf.getUnsignedInt(offset);
             break;
         case 8:
-            frameLength = buf.getLong(offset);
+            frameLength = littleEndian ? buf.getLongLE(offset) : buf.getLong(offset);
             break;
         default:
             throw new DecoderException(
@@ -482,18 +486,19 @@ public class LengthFieldBasedFrameDecoder extends ByteToMessageDecoder {
     /**
      * Extract the sub-region of the specified buffer.
      * <p>
+     * The default implementation returns a retained slice of the sub-region
+     * (i.e. <tt>return buffer.retainedSlice(index, length)</tt>), so the frame
+     * is not copied and the cumulation buffer is kept alive until the frame is released.
      * If you are sure that the frame and its content are not accessed after
      * the current {@link #decode(ChannelHandlerContext, ByteBuf)}
-     * call returns, you can even avoid memory copy by returning the sliced
+     * call returns, you can even avoid the reference counting by returning the sliced
      * sub-region (i.e. <tt>return buffer.slice(index, length)</tt>).
      * It's often useful when you convert the extracted frame into an object.
      * Refer to the source code of {@link ObjectDecoder} to see how this method
      * is overridden to avoid memory copy.
      */
     protected ByteBuf extractFrame(ChannelHandlerContext ctx, ByteBuf buffer, int index, int length) {
-        ByteBuf frame = ctx.alloc().buffer(length);
-        frame.writeBytes(buffer, index, length);
-        return frame;
+        return buffer.retainedSlice(index, length);
     }
 
     private void fail(long frameLength) {
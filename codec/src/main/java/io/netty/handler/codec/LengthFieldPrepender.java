@@ -19,6 +19,8 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 
+import java.nio.ByteOrder;
+
 
 /**
  * An encoder that prepends the length of the message.  The length value is
@@ -49,6 +51,7 @@ import io.netty.channel.ChannelHandlerContext;
 @Sharable
 public class LengthFieldPrepender extends MessageToByteEncoder<ByteBuf> {
 
+    private final ByteOrder byteOrder;
     private final int lengthFieldLength;
     private final boolean lengthIncludesLengthFieldLength;
     private final int lengthAdjustment;
@@ -114,6 +117,31 @@ public class LengthFieldPrepender extends MessageToByteEncoder<ByteBuf> {
      *         if {@code lengthFieldLength} is not 1, 2, 3, 4, or 8
      */
     public LengthFieldPrepender(int lengthFieldLength, int lengthAdjustment, boolean lengthIncludesLengthFieldLength) {
+        this(ByteOrder.BIG_ENDIAN, lengthFieldLength, lengthAdjustment, lengthIncludesLengthFieldLength);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param byteOrder         the {@link ByteOrder} of the length field
+     * @param lengthFieldLength the length of the prepended length field.
+     *                          Only 1, 2, 3, 4, and 8 are allowed.
+     * @param lengthAdjustment  the compensation value to add to the value
+     *                          of the length field
+     * @param lengthIncludesLengthFieldLength
+     *                          if {@code true}, the length of the prepended
+     *                          length field is added to the value of the
+     *                          prepended length field.
+     *
+     * @throws IllegalArgumentException
+     *         if {@code lengthFieldLength} is not 1, 2, 3, 4, or 8
+     */
+    public LengthFieldPrepender(
+            ByteOrder byteOrder, int lengthFieldLength,
+            int lengthAdjustment, boolean lengthIncludesLengthFieldLength) {
+        if (byteOrder == null) {
+            throw new NullPointerException("byteOrder");
+        }
         if (lengthFieldLength != 1 && lengthFieldLength != 2 &&
             lengthFieldLength != 3 && lengthFieldLength != 4 &&
             lengthFieldLength != 8) {
@@ -122,6 +150,7 @@ public class LengthFieldPrepender extends MessageToByteEncoder<ByteBuf> {
                     lengthFieldLength);
         }
 
+        this.byteOrder = byteOrder;
         this.lengthFieldLength = lengthFieldLength;
         this.lengthIncludesLengthFieldLength = lengthIncludesLengthFieldLength;
         this.lengthAdjustment = lengthAdjustment;
@@ -139,6 +168,8 @@ public class LengthFieldPrepender extends MessageToByteEncoder<ByteBuf> {
                     "Adjusted frame length (" + length + ") is less than zero");
         }
 
+        // Use the *LE methods for a little endian length field instead of wrapping the buffer with order().
+        boolean littleEndian = byteOrder == ByteOrder.LITTLE_ENDIAN;
         switch (lengthFieldLength) {
         case 1:
             if (length >= 256) {
@@ -152,20 +183,36 @@ public class LengthFieldPrepender extends MessageToByteEncoder<ByteBuf> {
                 throw new IllegalArgumentException(
                         "length does not fit into a short integer: " + length);
             }
-            out.writeShort((short) length);
+            if (littleEndian) {
+                out.writeShortLE(length);
+            } else {
+                out.writeShort(length);
+            }
             break;
         case 3:
             if (length >= 16777216) {
                 throw new IllegalArgumentException(
                         "length does not fit into a medium integer: " + length);
             }
-            out.writeMedium(length);
+            if (littleEndian) {
+                out.writeMediumLE(length);
+            } else {
+                out.writeMedium(length);
+            }
             break;
         case 4:
-            out.writeInt(length);
+            if (littleEndian) {
+                out.writeIntLE(length);
+            } else {
+                out.writeInt(length);
+            }
             break;
         case 8:
-            out.writeLong(length);
+            if (littleEndian) {
+                out.writeLongLE(length);
+            } else {
+                out.writeLong(length);
+            }
             break;
         default:
             throw new Error("should not reach here");
@@ -27,6 +27,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
@@ -233,6 +234,12 @@ final class ReplayingDecoderBuffer extends ByteBuf {
         return 0;
     }
 
+    @Override
+    public int getBytes(int index, FileChannel out, long position, int length) {
+        reject();
+        return 0;
+    }
+
     @Override
     public ByteBuf getBytes(int index, OutputStream out, int length) {
         reject();
@@ -257,6 +264,48 @@ final class ReplayingDecoderBuffer extends ByteBuf {
         return buffer.getLong(index);
     }
 
+    @Override
+    public short getShortLE(int index) {
+        checkIndex(index, 2);
+        return buffer.getShortLE(index);
+    }
+
+    @Override
+    public int getUnsignedShortLE(int index) {
+        checkIndex(index, 2);
+        return buffer.getUnsignedShortLE(index);
+    }
+
+    @Override
+    public int getMediumLE(int index) {
+        checkIndex(index, 3);
+        return buffer.getMediumLE(index);
+    }
+
+    @Override
+    public int getUnsignedMediumLE(int index) {
+        checkIndex(index, 3);
+        return buffer.getUnsignedMediumLE(index);
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        checkIndex(index, 4);
+        return buffer.getIntLE(index);
+    }
+
+    @Override
+    public long getUnsignedIntLE(int index) {
+        checkIndex(index, 4);
+        return buffer.getUnsignedIntLE(index);
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        checkIndex(index, 8);
+        return buffer.getLongLE(index);
+    }
+
     @Override
     public int getMedium(int index) {
         checkIndex(index, 3);
@@ -506,6 +555,12 @@ final class ReplayingDecoderBuffer extends ByteBuf {
         return 0;
     }
 
+    @Override
+    public int readBytes(FileChannel out, long position, int length) {
+        reject();
+        return 0;
+    }
+
     @Override
     public ByteBuf readBytes(int length) {
         checkReadableBytes(length);
@@ -553,6 +608,48 @@ final class ReplayingDecoderBuffer extends ByteBuf {
         return buffer.readLong();
     }
 
+    @Override
+    public short readShortLE() {
+        checkReadableBytes(2);
+        return buffer.readShortLE();
+    }
+
+    @Override
+    public int readUnsignedShortLE() {
+        checkReadableBytes(2);
+        return buffer.readUnsignedShortLE();
+    }
+
+    @Override
+    public int readMediumLE() {
+        checkReadableBytes(3);
+        return buffer.readMediumLE();
+    }
+
+    @Override
+    public int readUnsignedMediumLE() {
+        checkReadableBytes(3);
+        return buffer.readUnsignedMediumLE();
+    }
+
+    @Override
+    public int readIntLE() {
+        checkReadableBytes(4);
+        return buffer.readIntLE();
+    }
+
+    @Override
+    public long readUnsignedIntLE() {
+        checkReadableBytes(4);
+        return buffer.readUnsignedIntLE();
+    }
+
+    @Override
+    public long readLongLE() {
+        checkReadableBytes(8);
+        return buffer.readLongLE();
+    }
+
     @Override
     public int readMedium() {
         checkReadableBytes(3);
@@ -673,6 +770,12 @@ final class ReplayingDecoderBuffer extends ByteBuf {
         return 0;
     }
 
+    @Override
+    public int setBytes(int index, FileChannel in, long position, int length) {
+        reject();
+        return 0;
+    }
+
     @Override
     public ByteBuf setIndex(int readerIndex, int writerIndex) {
         reject();
@@ -691,6 +794,30 @@ final class ReplayingDecoderBuffer extends ByteBuf {
         return this;
     }
 
+    @Override
+    public ByteBuf setShortLE(int index, int value) {
+        reject();
+        return this;
+    }
+
+    @Override
+    public ByteBuf setMediumLE(int index, int value) {
+        reject();
+        return this;
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        reject();
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        reject();
+        return this;
+    }
+
     @Override
     public ByteBuf setMedium(int index, int value) {
         reject();
@@ -740,6 +867,24 @@ final class ReplayingDecoderBuffer extends ByteBuf {
         return buffer.slice(index, length);
     }
 
+    @Override
+    public ByteBuf retainedSlice() {
+        reject();
+        return this;
+    }
+
+    @Override
+    public ByteBuf retainedSlice(int index, int length) {
+        checkIndex(index, length);
+        return buffer.retainedSlice(index, length);
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        reject();
+        return this;
+    }
+
     @Override
     public int nioBufferCount() {
         return buffer.nioBufferCount();
@@ -878,6 +1023,12 @@ final class ReplayingDecoderBuffer extends ByteBuf {
         return 0;
     }
 
+    @Override
+    public int writeBytes(FileChannel in, long position, int length) {
+        reject();
+        return 0;
+    }
+
     @Override
     public ByteBuf writeInt(int value) {
         reject();
@@ -890,6 +1041,30 @@ final class ReplayingDecoderBuffer extends ByteBuf {
         return this;
     }
 
+    @Override
+    public ByteBuf writeShortLE(int value) {
+        reject();
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeMediumLE(int value) {
+        reject();
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeIntLE(int value) {
+        reject();
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLongLE(long value) {
+        reject();
+        return this;
+    }
+
     @Override
     public ByteBuf writeMedium(int value) {
         reject();
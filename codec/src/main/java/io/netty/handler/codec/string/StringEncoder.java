@@ -22,6 +22,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.LineBasedFrameDecoder;
 import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.CharsetUtil;
 
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
@@ -77,6 +78,10 @@ public class StringEncoder extends MessageToMessageEncoder<CharSequence> {
             return;
         }
 
-        out.add(ByteBufUtil.encodeString(ctx.alloc(), CharBuffer.wrap(msg), charset));
+        if (CharsetUtil.UTF_8.equals(charset)) {
+            out.add(ByteBufUtil.writeUtf8(ctx.alloc(), msg));
+        } else {
+            out.add(ByteBufUtil.encodeString(ctx.alloc(), CharBuffer.wrap(msg), charset));
+        }
     }
 }
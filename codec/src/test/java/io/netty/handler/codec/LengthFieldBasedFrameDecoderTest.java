@@ -18,9 +18,12 @@ package io.netty.handler.codec;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteOrder;
+
 import static io.netty.util.ReferenceCountUtil.releaseLater;
 
 public class LengthFieldBasedFrameDecoderTest {
@@ -82,4 +85,61 @@ public class LengthFieldBasedFrameDecoderTest {
         Assert.assertNull(channel.readInbound());
         channel.finish();
     }
+
+    @Test
+    public void testLittleEndianLengthField() {
+        for (int lengthFieldLength: new int[] { 1, 2, 3, 4, 8 }) {
+            EmbeddedChannel channel = new EmbeddedChannel(
+                    new LengthFieldPrepender(ByteOrder.LITTLE_ENDIAN, lengthFieldLength, 0, false),
+                    new LengthFieldBasedFrameDecoder(
+                            ByteOrder.LITTLE_ENDIAN, 1024, 0, lengthFieldLength, 0, lengthFieldLength, true));
+
+            Assert.assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(new byte[] { 'a', 'b', 'c' })));
+            ByteBuf encoded = (ByteBuf) channel.readOutbound();
+            Assert.assertEquals(lengthFieldLength + 3, encoded.readableBytes());
+            // The least significant byte of the length comes first.
+            Assert.assertEquals(3, encoded.getByte(0));
+            for (int i = 1; i < lengthFieldLength; i ++) {
+                Assert.assertEquals(0, encoded.getByte(i));
+            }
+
+            Assert.assertTrue(channel.writeInbound(encoded));
+            ByteBuf frame = (ByteBuf) channel.readInbound();
+            Assert.assertEquals(Unpooled.wrappedBuffer(new byte[] { 'a', 'b', 'c' }), frame);
+            frame.release();
+            Assert.assertFalse(channel.finish());
+        }
+    }
+
+    @Test
+    public void testFramesOfOneCumulation() {
+        EmbeddedChannel channel = new EmbeddedChannel(new LengthFieldBasedFrameDecoder(16, 0, 1, 0, 1));
+
+        // Two complete frames and the beginning of a third one.
+        ByteBuf first = Unpooled.buffer(8).writeBytes(new byte[] { 1, 'a', 2, 'b', 'c', 3, 'd' });
+        Assert.assertTrue(channel.writeInbound(first));
+        // Both frames share the memory of the cumulation, which still holds the beginning of the third frame.
+        Assert.assertEquals(3, first.refCnt());
+
+        // The cumulation is not modified while frames share its memory, so it is replaced and released.
+        Assert.assertTrue(channel.writeInbound(Unpooled.wrappedBuffer(new byte[] { 'e', 'f' })));
+        Assert.assertEquals(2, first.refCnt());
+
+        ByteBuf a = (ByteBuf) channel.readInbound();
+        ByteBuf bc = (ByteBuf) channel.readInbound();
+        ByteBuf def = (ByteBuf) channel.readInbound();
+        Assert.assertNull(channel.readInbound());
+        Assert.assertEquals("a", a.toString(CharsetUtil.US_ASCII));
+        Assert.assertEquals("bc", bc.toString(CharsetUtil.US_ASCII));
+        Assert.assertEquals("def", def.toString(CharsetUtil.US_ASCII));
+
+        // The memory of the first cumulation is freed once the last frame which shares it is released.
+        Assert.assertTrue(a.release());
+        Assert.assertEquals(1, first.refCnt());
+        Assert.assertTrue(bc.release());
+        Assert.assertEquals(0, first.refCnt());
+        Assert.assertTrue(def.release());
+        Assert.assertEquals(0, def.refCnt());
+        Assert.assertFalse(channel.finish());
+    }
 }
@@ -0,0 +1,564 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util;
+
+import io.netty.util.internal.EmptyArrays;
+
+/**
+ * An immutable {@link CharSequence} of ASCII characters which is backed by a {@code byte[]}, one byte per character.
+ * <p>
+ * Protocol elements such as header names, methods and status lines are ASCII by definition.  Keeping them as an
+ * {@link AsciiString} avoids encoding them to bytes again every time they are written and creating a new
+ * {@link String} every time they are read.  The hash code is cached and does not depend on the case of the
+ * characters, so an {@link AsciiString} can be looked up cheaply in case-insensitive tables.
+ * <p>
+ * Characters which are not in the range of {@code 0-255} are replaced with {@code '?'} when an {@link AsciiString}
+ * is created from a {@link CharSequence}.
+ */
+public final class AsciiString implements CharSequence, Comparable<CharSequence> {
+
+    public static final AsciiString EMPTY_STRING = new AsciiString(EmptyArrays.EMPTY_BYTES, false);
+
+    private final byte[] value;
+    private final int offset;
+    private final int length;
+
+    private int hash;
+    private String string;
+
+    /**
+     * Creates a new instance which contains a copy of the specified bytes.
+     */
+    public AsciiString(byte[] value) {
+        this(value, true);
+    }
+
+    /**
+     * Creates a new instance which contains the specified bytes.  If {@code copy} is {@code false} the array is
+     * shared, so the caller must not modify it afterwards.
+     */
+    public AsciiString(byte[] value, boolean copy) {
+        this(value, 0, value.length, copy);
+    }
+
+    /**
+     * Creates a new instance which contains {@code length} bytes of the specified array starting at {@code start}.
+     * If {@code copy} is {@code false} the array is shared, so the caller must not modify it afterwards.
+     */
+    public AsciiString(byte[] value, int start, int length, boolean copy) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        if (start < 0 || length < 0 || start > value.length - length) {
+            throw new IndexOutOfBoundsException(
+                    "start: " + start + ", length: " + length + " (expected: 0 <= start && " +
+                    "0 <= length && start + length <= value.length(" + value.length + "))");
+        }
+
+        if (copy) {
+            this.value = new byte[length];
+            System.arraycopy(value, start, this.value, 0, length);
+            offset = 0;
+        } else {
+            this.value = value;
+            offset = start;
+        }
+        this.length = length;
+    }
+
+    /**
+     * Creates a new instance which contains the characters of the specified {@link CharSequence}.
+     */
+    public AsciiString(CharSequence value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+
+        length = value.length();
+        offset = 0;
+        this.value = new byte[length];
+        boolean replaced = false;
+        for (int i = 0; i < length; i ++) {
+            char c = value.charAt(i);
+            replaced |= c > 255;
+            this.value[i] = c2b(c);
+        }
+        if (value instanceof String && !replaced) {
+            string = (String) value;
+        }
+    }
+
+    /**
+     * Returns the specified {@link CharSequence} if it is an {@link AsciiString} already, or a new
+     * {@link AsciiString} which contains its characters.
+     */
+    public static AsciiString of(CharSequence value) {
+        return value instanceof AsciiString? (AsciiString) value : new AsciiString(value);
+    }
+
+    private static byte c2b(char c) {
+        if (c > 255) {
+            return '?';
+        }
+        return (byte) c;
+    }
+
+    private static char b2c(byte b) {
+        return (char) (b & 0xFF);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns {@code true} if this string has no characters.
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return b2c(byteAt(index));
+    }
+
+    /**
+     * Returns the byte at the specified index.
+     */
+    public byte byteAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + " (expected: 0 <= index < " + length + ')');
+        }
+        return value[offset + index];
+    }
+
+    /**
+     * Returns the backing array.  The content of this string starts at {@link #arrayOffset()}.  The returned array
+     * must not be modified.
+     */
+    public byte[] array() {
+        return value;
+    }
+
+    /**
+     * Returns the offset of the first byte of this string in {@link #array()}.
+     */
+    public int arrayOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns a copy of the bytes of this string.
+     */
+    public byte[] toByteArray() {
+        return toByteArray(0, length);
+    }
+
+    /**
+     * Returns a copy of the bytes of this string between {@code start} (inclusive) and {@code end} (exclusive).
+     */
+    public byte[] toByteArray(int start, int end) {
+        checkRange(start, end);
+        byte[] bytes = new byte[end - start];
+        System.arraycopy(value, offset + start, bytes, 0, end - start);
+        return bytes;
+    }
+
+    /**
+     * Copies {@code length} bytes of this string starting at {@code srcIndex} to the specified array.
+     */
+    public void copy(int srcIndex, byte[] dst, int dstIndex, int length) {
+        if (dst == null) {
+            throw new NullPointerException("dst");
+        }
+        checkRange(srcIndex, srcIndex + length);
+        System.arraycopy(value, offset + srcIndex, dst, dstIndex, length);
+    }
+
+    /**
+     * Returns a string which shares the bytes of this string between {@code start} (inclusive) and {@code end}
+     * (exclusive).
+     */
+    @Override
+    public AsciiString subSequence(int start, int end) {
+        checkRange(start, end);
+        if (start == 0 && end == length) {
+            return this;
+        }
+        if (start == end) {
+            return EMPTY_STRING;
+        }
+        return new AsciiString(value, offset + start, end - start, false);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified character at or after {@code start}, or {@code -1}
+     * if there is no such character.
+     */
+    public int indexOf(char ch, int start) {
+        if (ch > 255) {
+            return -1;
+        }
+        if (start < 0) {
+            start = 0;
+        }
+        byte b = (byte) ch;
+        for (int i = offset + start; i < offset + length; i ++) {
+            if (value[i] == b) {
+                return i - offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a string without the leading and trailing whitespace and control characters of this string.
+     */
+    public AsciiString trim() {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && (value[start] & 0xFF) <= ' ') {
+            start ++;
+        }
+        while (end > start && (value[end - 1] & 0xFF) <= ' ') {
+            end --;
+        }
+        return subSequence(start - offset, end - offset);
+    }
+
+    /**
+     * Returns this string with all upper case ASCII characters converted to lower case.
+     */
+    public AsciiString toLowerCase() {
+        int i = offset;
+        int end = offset + length;
+        while (i < end && !isUpperCase(value[i])) {
+            i ++;
+        }
+        if (i == end) {
+            return this;
+        }
+
+        byte[] newValue = new byte[length];
+        for (int j = 0; j < length; j ++) {
+            newValue[j] = toLowerCase(value[offset + j]);
+        }
+        return new AsciiString(newValue, false);
+    }
+
+    /**
+     * Returns this string with all lower case ASCII characters converted to upper case.
+     */
+    public AsciiString toUpperCase() {
+        int i = offset;
+        int end = offset + length;
+        while (i < end && !isLowerCase(value[i])) {
+            i ++;
+        }
+        if (i == end) {
+            return this;
+        }
+
+        byte[] newValue = new byte[length];
+        for (int j = 0; j < length; j ++) {
+            byte b = value[offset + j];
+            newValue[j] = isLowerCase(b)? (byte) (b - 32) : b;
+        }
+        return new AsciiString(newValue, false);
+    }
+
+    /**
+     * Parses this string as a signed decimal {@code int}.
+     *
+     * @throws NumberFormatException if this string does not contain a parsable {@code int}
+     */
+    public int parseInt() {
+        return parseInt(0, length, 10);
+    }
+
+    /**
+     * Parses this string as a signed {@code int} in the specified radix.
+     *
+     * @throws NumberFormatException if this string does not contain a parsable {@code int}
+     */
+    public int parseInt(int radix) {
+        return parseInt(0, length, radix);
+    }
+
+    /**
+     * Parses the characters between {@code start} (inclusive) and {@code end} (exclusive) as a signed {@code int}
+     * in the specified radix.
+     *
+     * @throws NumberFormatException if the characters do not form a parsable {@code int}
+     */
+    public int parseInt(int start, int end, int radix) {
+        long result = parseLong(start, end, radix);
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            throw new NumberFormatException(subSequence(start, end).toString());
+        }
+        return (int) result;
+    }
+
+    /**
+     * Parses this string as a signed decimal {@code long}.
+     *
+     * @throws NumberFormatException if this string does not contain a parsable {@code long}
+     */
+    public long parseLong() {
+        return parseLong(0, length, 10);
+    }
+
+    /**
+     * Parses the characters between {@code start} (inclusive) and {@code end} (exclusive) as a signed {@code long}
+     * in the specified radix.
+     *
+     * @throws NumberFormatException if the characters do not form a parsable {@code long}
+     */
+    public long parseLong(int start, int end, int radix) {
+        if (radix < Character.MIN_RADIX || radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix: " + radix);
+        }
+        checkRange(start, end);
+        if (start == end) {
+            throw new NumberFormatException("empty string");
+        }
+
+        int i = offset + start;
+        int last = offset + end;
+        boolean negative = value[i] == '-';
+        if (negative || value[i] == '+') {
+            if (++ i == last) {
+                throw new NumberFormatException(subSequence(start, end).toString());
+            }
+        }
+
+        // Accumulate negatively, which can hold Long.MIN_VALUE.
+        long limit = negative? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / radix;
+        long result = 0;
+        for (; i < last; i ++) {
+            int digit = Character.digit((char) (value[i] & 0xFF), radix);
+            if (digit < 0 || result < multiplyLimit) {
+                throw new NumberFormatException(subSequence(start, end).toString());
+            }
+            result *= radix;
+            if (result < limit + digit) {
+                throw new NumberFormatException(subSequence(start, end).toString());
+            }
+            result -= digit;
+        }
+        return negative? result : -result;
+    }
+
+    /**
+     * Returns {@code true} if this string contains the same characters as the specified {@link CharSequence}.
+     */
+    public boolean contentEquals(CharSequence other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || other.length() != length) {
+            return false;
+        }
+        if (other instanceof AsciiString) {
+            return equals(other);
+        }
+        for (int i = 0; i < length; i ++) {
+            if (b2c(value[offset + i]) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if this string contains the same characters as the specified {@link CharSequence} when
+     * the case of ASCII letters is ignored.
+     */
+    public boolean contentEqualsIgnoreCase(CharSequence other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || other.length() != length) {
+            return false;
+        }
+        if (other instanceof AsciiString) {
+            AsciiString that = (AsciiString) other;
+            if (hash != 0 && that.hash != 0 && hash != that.hash) {
+                return false;
+            }
+            for (int i = 0; i < length; i ++) {
+                if (toLowerCase(value[offset + i]) != toLowerCase(that.value[that.offset + i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (int i = 0; i < length; i ++) {
+            if (toLowerCase(b2c(value[offset + i])) != toLowerCase(other.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if both {@link CharSequence}s contain the same characters when the case of ASCII letters
+     * is ignored.  Two {@code null}s are equal.
+     */
+    public static boolean contentEqualsIgnoreCase(CharSequence a, CharSequence b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        if (a instanceof AsciiString) {
+            return ((AsciiString) a).contentEqualsIgnoreCase(b);
+        }
+        if (b instanceof AsciiString) {
+            return ((AsciiString) b).contentEqualsIgnoreCase(a);
+        }
+
+        int length = a.length();
+        if (length != b.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i ++) {
+            if (toLowerCase(a.charAt(i)) != toLowerCase(b.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the case-insensitive hash code of the specified {@link CharSequence}, which is the same as
+     * {@link #hashCode()} of an {@link AsciiString} with the same characters.  The hash code of an
+     * {@link AsciiString} is not computed again.
+     */
+    public static int hashCode(CharSequence value) {
+        if (value instanceof AsciiString) {
+            return value.hashCode();
+        }
+
+        int h = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i ++) {
+            h = 31 * h + toLowerCase(b2c(c2b(value.charAt(i))));
+        }
+        return h;
+    }
+
+    /**
+     * Returns the hash code of this string.  It is computed only once and does not depend on the case of the ASCII
+     * letters, so it can be used for case-insensitive lookups via {@link #hashCode(CharSequence)} and
+     * {@link #contentEqualsIgnoreCase(CharSequence, CharSequence)}.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            for (int i = offset; i < offset + length; i ++) {
+                h = 31 * h + (toLowerCase(value[i]) & 0xFF);
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Returns {@code true} if the specified object is an {@link AsciiString} with the same bytes.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof AsciiString)) {
+            return false;
+        }
+
+        AsciiString that = (AsciiString) obj;
+        if (length != that.length || hash != 0 && that.hash != 0 && hash != that.hash) {
+            return false;
+        }
+        for (int i = 0, j = offset, k = that.offset; i < length; i ++, j ++, k ++) {
+            if (value[j] != that.value[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the characters of this string with the characters of the specified {@link CharSequence}
+     * lexicographically.
+     */
+    @Override
+    public int compareTo(CharSequence other) {
+        if (this == other) {
+            return 0;
+        }
+
+        int otherLength = other.length();
+        int minLength = Math.min(length, otherLength);
+        for (int i = 0; i < minLength; i ++) {
+            int result = b2c(value[offset + i]) - other.charAt(i);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return length - otherLength;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public String toString() {
+        String string = this.string;
+        if (string == null) {
+            // Each byte becomes the low byte of a char, which is exactly the ASCII decoding.
+            string = new String(value, 0, offset, length);
+            this.string = string;
+        }
+        return string;
+    }
+
+    private void checkRange(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException(
+                    "start: " + start + ", end: " + end + " (expected: 0 <= start <= end <= length(" + length + "))");
+        }
+    }
+
+    private static boolean isLowerCase(byte b) {
+        return b >= 'a' && b <= 'z';
+    }
+
+    private static boolean isUpperCase(byte b) {
+        return b >= 'A' && b <= 'Z';
+    }
+
+    private static byte toLowerCase(byte b) {
+        return isUpperCase(b)? (byte) (b + 32) : b;
+    }
+
+    private static char toLowerCase(char c) {
+        return c >= 'A' && c <= 'Z'? (char) (c + 32) : c;
+    }
+}
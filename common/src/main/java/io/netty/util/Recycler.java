@@ -16,100 +16,536 @@
 
 package io.netty.util;
 
-import java.util.IdentityHashMap;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.internal.SystemPropertyUtil;
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Light-weight object pool based on a thread-local stack.
+ * <p>
+ * An object may be recycled by any thread.  If the recycling thread is not the thread which created the object,
+ * the object is handed back through a queue which is only written by the recycling thread and drained by the owner
+ * thread once its own stack runs empty.
  *
  * @param <T> the type of the pooled object
  */
 public abstract class Recycler<T> {
 
-    private final ThreadLocal<Stack<T>> threadLocal = new ThreadLocal<Stack<T>>() {
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(Recycler.class);
+
+    private static final Handle NOOP_HANDLE = new Handle() { };
+    private static final AtomicInteger ID_GENERATOR = new AtomicInteger(Integer.MIN_VALUE);
+    private static final int OWN_THREAD_ID = ID_GENERATOR.getAndIncrement();
+    private static final int DEFAULT_MAX_CAPACITY = 262144;
+    private static final int DEFAULT_MAX_CAPACITY_PER_THREAD;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int DEFAULT_RATIO;
+
+    static {
+        // In the future, we might have different maxCapacity for different object types.
+        // e.g. io.netty.recycler.maxCapacity.writeTask
+        //      io.netty.recycler.maxCapacity.outboundBuffer
+        int maxCapacityPerThread = SystemPropertyUtil.getInt("io.netty.recycler.maxCapacityPerThread",
+                SystemPropertyUtil.getInt("io.netty.recycler.maxCapacity", DEFAULT_MAX_CAPACITY));
+        if (maxCapacityPerThread < 0) {
+            maxCapacityPerThread = DEFAULT_MAX_CAPACITY;
+        }
+        DEFAULT_MAX_CAPACITY_PER_THREAD = maxCapacityPerThread;
+
+        // By default we allow one push to a Recycler for each 8th try on handles that were never recycled before.
+        // This should help to slowly increase the capacity of the recycler while not be too sensitive to allocation
+        // bursts.
+        DEFAULT_RATIO = safeFindNextPositivePowerOfTwo(
+                Math.max(SystemPropertyUtil.getInt("io.netty.recycler.ratio", 8), 1));
+
+        if (logger.isDebugEnabled()) {
+            if (DEFAULT_MAX_CAPACITY_PER_THREAD == 0) {
+                logger.debug("-Dio.netty.recycler.maxCapacityPerThread: disabled");
+                logger.debug("-Dio.netty.recycler.ratio: disabled");
+            } else {
+                logger.debug("-Dio.netty.recycler.maxCapacityPerThread: {}", DEFAULT_MAX_CAPACITY_PER_THREAD);
+                logger.debug("-Dio.netty.recycler.ratio: {}", DEFAULT_RATIO);
+            }
+        }
+    }
+
+    private final int maxCapacity;
+    private final int ratioMask;
+
+    private final FastThreadLocal<Stack<T>> threadLocal = new FastThreadLocal<Stack<T>>() {
         @Override
         protected Stack<T> initialValue() {
-            return new Stack<T>(Recycler.this, Thread.currentThread());
+            return new Stack<T>(Recycler.this, Thread.currentThread(), maxCapacity, ratioMask);
         }
     };
 
+    protected Recycler() {
+        this(DEFAULT_MAX_CAPACITY_PER_THREAD);
+    }
+
+    /**
+     * Creates a new instance which holds up to {@code maxCapacity} recycled objects per thread.
+     * Specify {@code 0} to disable recycling.
+     */
+    protected Recycler(int maxCapacity) {
+        this(maxCapacity, DEFAULT_RATIO);
+    }
+
+    /**
+     * Creates a new instance which holds up to {@code maxCapacity} recycled objects per thread and only keeps one
+     * out of {@code ratio} objects which are recycled for the first time.  The remaining ones are dropped and left
+     * to the garbage collector, so that a burst of allocations does not inflate the pool permanently.
+     */
+    protected Recycler(int maxCapacity, int ratio) {
+        if (ratio <= 0) {
+            throw new IllegalArgumentException("ratio: " + ratio + " (expected: > 0)");
+        }
+        ratioMask = safeFindNextPositivePowerOfTwo(ratio) - 1;
+        this.maxCapacity = Math.max(0, maxCapacity);
+    }
+
+    @SuppressWarnings("unchecked")
     public final T get() {
+        if (maxCapacity == 0) {
+            return newObject(NOOP_HANDLE);
+        }
         Stack<T> stack = threadLocal.get();
-        T o = stack.pop();
-        if (o == null) {
-            o = newObject(stack);
+        DefaultHandle handle = stack.pop();
+        if (handle == null) {
+            handle = stack.newHandle();
+            handle.value = newObject(handle);
         }
-        return o;
+        return (T) handle.value;
     }
 
     public final boolean recycle(T o, Handle handle) {
-        @SuppressWarnings("unchecked")
-        Stack<T> stack = (Stack<T>) handle;
-        if (stack.parent != this) {
+        if (handle == NOOP_HANDLE) {
             return false;
         }
 
-        if (Thread.currentThread() != stack.thread) {
+        DefaultHandle h = (DefaultHandle) handle;
+        Stack<?> stack = h.stack;
+        if (stack == null) {
+            // The handle was handed over to another thread and not yet picked up by its owner.
+            throw new IllegalStateException("recycled already");
+        }
+        if (stack.parent != this) {
             return false;
         }
-
-        stack.push(o);
+        if (o != h.value) {
+            throw new IllegalArgumentException("o does not belong to handle");
+        }
+        h.recycle();
         return true;
     }
 
     protected abstract T newObject(Handle handle);
 
+    final int threadLocalCapacity() {
+        return threadLocal.get().elements.length;
+    }
+
+    final int threadLocalSize() {
+        return threadLocal.get().size;
+    }
+
+    private static int safeFindNextPositivePowerOfTwo(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        if (value >= 0x40000000) {
+            return 0x40000000;
+        }
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+
     public interface Handle { }
 
-    static final class Stack<T> implements Handle {
+    static final class DefaultHandle implements Handle {
+        private int lastRecycledId;
+        private int recycleId;
+
+        private boolean hasBeenRecycled;
+
+        private Stack<?> stack;
+        private Object value;
+
+        DefaultHandle(Stack<?> stack) {
+            this.stack = stack;
+        }
+
+        void recycle() {
+            Thread thread = Thread.currentThread();
+            if (thread == stack.thread) {
+                stack.push(this);
+                return;
+            }
+            // Hand the object over to the owner through the queue this thread keeps for the owner's stack.
+            Map<Stack<?>, WeakOrderQueue> delayedRecycled = DELAYED_RECYCLED.get();
+            WeakOrderQueue queue = delayedRecycled.get(stack);
+            if (queue == null) {
+                queue = WeakOrderQueue.allocate(stack, thread);
+                if (queue == null) {
+                    // The owner has no shared capacity left, so drop the object.
+                    delayedRecycled.put(stack, WeakOrderQueue.DUMMY);
+                    return;
+                }
+                delayedRecycled.put(stack, queue);
+            } else if (queue == WeakOrderQueue.DUMMY) {
+                // drop object
+                return;
+            }
+            queue.add(this);
+        }
+    }
+
+    private static final FastThreadLocal<Map<Stack<?>, WeakOrderQueue>> DELAYED_RECYCLED =
+            new FastThreadLocal<Map<Stack<?>, WeakOrderQueue>>() {
+        @Override
+        protected Map<Stack<?>, WeakOrderQueue> initialValue() {
+            return new WeakHashMap<Stack<?>, WeakOrderQueue>();
+        }
+    };
+
+    // a queue that makes only moderate guarantees about visibility: items are seen in the correct order,
+    // but we aren't absolutely guaranteed to ever see anything at all, thereby keeping the queue cheap to maintain
+    private static final class WeakOrderQueue {
+
+        static final WeakOrderQueue DUMMY = new WeakOrderQueue();
+
+        private static final int LINK_CAPACITY = 16;
+
+        // Let Link extend AtomicInteger for intrinsics. The Link itself will be used as writerIndex.
+        @SuppressWarnings("serial")
+        private static final class Link extends AtomicInteger {
+            private final DefaultHandle[] elements = new DefaultHandle[LINK_CAPACITY];
+
+            private int readIndex;
+            private Link next;
+        }
+
+        // chain of data items
+        private Link head, tail;
+        // pointer to another queue of delayed items for the same stack
+        private WeakOrderQueue next;
+        private final WeakReference<Thread> owner;
+        private final int id = ID_GENERATOR.getAndIncrement();
+        // Shared with the owning stack, so that the queue does not need to hold a reference to the stack itself.
+        private final AtomicInteger availableSharedCapacity;
+
+        private WeakOrderQueue() {
+            owner = null;
+            availableSharedCapacity = null;
+        }
+
+        private WeakOrderQueue(Stack<?> stack, Thread thread) {
+            head = tail = new Link();
+            owner = new WeakReference<Thread>(thread);
+            availableSharedCapacity = stack.availableSharedCapacity;
+            synchronized (stack) {
+                next = stack.head;
+                stack.head = this;
+            }
+        }
+
+        /**
+         * Allocates a new {@link WeakOrderQueue} or returns {@code null} if the owning stack has no shared capacity
+         * left for objects recycled by other threads.
+         */
+        static WeakOrderQueue allocate(Stack<?> stack, Thread thread) {
+            // We allocated a Link so reserve the space
+            return reserveSpace(stack.availableSharedCapacity, LINK_CAPACITY)
+                    ? new WeakOrderQueue(stack, thread) : null;
+        }
+
+        private static boolean reserveSpace(AtomicInteger availableSharedCapacity, int space) {
+            assert space >= 0;
+            for (;;) {
+                int available = availableSharedCapacity.get();
+                if (available < space) {
+                    return false;
+                }
+                if (availableSharedCapacity.compareAndSet(available, available - space)) {
+                    return true;
+                }
+            }
+        }
+
+        private void reclaimSpace(int space) {
+            assert space >= 0;
+            availableSharedCapacity.addAndGet(space);
+        }
+
+        void add(DefaultHandle handle) {
+            handle.lastRecycledId = id;
 
-        private static final int INITIAL_CAPACITY = 256;
+            Link tail = this.tail;
+            int writeIndex;
+            if ((writeIndex = tail.get()) == LINK_CAPACITY) {
+                if (!reserveSpace(availableSharedCapacity, LINK_CAPACITY)) {
+                    // Drop it.
+                    return;
+                }
+                // We allocate a Link so reserve the space
+                this.tail = tail = tail.next = new Link();
+
+                writeIndex = tail.get();
+            }
+            tail.elements[writeIndex] = handle;
+            handle.stack = null;
+            // we lazy set to ensure that setting stack to null appears before we unnull it in the owning thread;
+            // this also means we guarantee visibility of an element in the queue if we see the index updated
+            tail.lazySet(writeIndex + 1);
+        }
+
+        boolean hasFinalData() {
+            return tail.readIndex != tail.get();
+        }
+
+        // transfer as many items as we can from this queue to the stack, returning true if any were transferred
+        boolean transfer(Stack<?> dst) {
+            Link head = this.head;
+            if (head == null) {
+                return false;
+            }
 
+            if (head.readIndex == LINK_CAPACITY) {
+                if (head.next == null) {
+                    return false;
+                }
+                this.head = head = head.next;
+                reclaimSpace(LINK_CAPACITY);
+            }
+
+            final int srcStart = head.readIndex;
+            int srcEnd = head.get();
+            final int srcSize = srcEnd - srcStart;
+            if (srcSize == 0) {
+                return false;
+            }
+
+            final int dstSize = dst.size;
+            final int expectedCapacity = dstSize + srcSize;
+
+            if (expectedCapacity > dst.elements.length) {
+                final int actualCapacity = dst.increaseCapacity(expectedCapacity);
+                srcEnd = Math.min(srcStart + actualCapacity - dstSize, srcEnd);
+            }
+
+            if (srcStart != srcEnd) {
+                final DefaultHandle[] srcElems = head.elements;
+                final DefaultHandle[] dstElems = dst.elements;
+                int newDstSize = dstSize;
+                for (int i = srcStart; i < srcEnd; i ++) {
+                    DefaultHandle element = srcElems[i];
+                    if (element.recycleId == 0) {
+                        element.recycleId = element.lastRecycledId;
+                    } else if (element.recycleId != element.lastRecycledId) {
+                        throw new IllegalStateException("recycled already");
+                    }
+                    srcElems[i] = null;
+
+                    element.stack = dst;
+                    if (dst.dropHandle(element)) {
+                        // Drop the object.
+                        continue;
+                    }
+                    dstElems[newDstSize ++] = element;
+                }
+
+                if (srcEnd == LINK_CAPACITY && head.next != null) {
+                    // Add capacity back as the Link is GCed.
+                    reclaimSpace(LINK_CAPACITY);
+                    this.head = head.next;
+                }
+
+                head.readIndex = srcEnd;
+                if (dst.size == newDstSize) {
+                    return false;
+                }
+                dst.size = newDstSize;
+                return true;
+            } else {
+                // The destination stack is full already.
+                return false;
+            }
+        }
+
+        /**
+         * Gives back the capacity reserved by the {@link Link}s which are still in use once this queue is unlinked
+         * from its stack.
+         */
+        void reclaimAllSpace() {
+            int reserved = 0;
+            for (Link link = head; link != null; link = link.next) {
+                reserved += LINK_CAPACITY;
+            }
+            head = tail = null;
+            reclaimSpace(reserved);
+        }
+    }
+
+    static final class Stack<T> {
+
+        // we keep a queue of per-thread queues, which is appended to once only, each time a new thread other
+        // than the stack owner recycles: when we run out of items in our stack we iterate this collection
+        // to scavenge those that can be reused. this permits us to incur minimal thread synchronisation whilst
+        // still recycling all items.
         final Recycler<T> parent;
         final Thread thread;
-        private T[] elements;
+        final AtomicInteger availableSharedCapacity;
+        private DefaultHandle[] elements;
+        private final int maxCapacity;
+        private final int ratioMask;
         private int size;
-        private final Map<T, Boolean> map = new IdentityHashMap<T, Boolean>(INITIAL_CAPACITY);
+        private int handleRecycleCount = -1; // Start with -1 so the first one will be recycled.
+        private WeakOrderQueue cursor, prev;
+        private volatile WeakOrderQueue head;
 
-        @SuppressWarnings({ "unchecked", "SuspiciousArrayCast" })
-        Stack(Recycler<T> parent, Thread thread) {
+        Stack(Recycler<T> parent, Thread thread, int maxCapacity, int ratioMask) {
             this.parent = parent;
             this.thread = thread;
-            elements = newArray(INITIAL_CAPACITY);
+            this.maxCapacity = maxCapacity;
+            this.ratioMask = ratioMask;
+            // Other threads may hold at most half of the capacity in their queues.
+            availableSharedCapacity = new AtomicInteger(Math.max(maxCapacity / 2, WeakOrderQueue.LINK_CAPACITY));
+            elements = new DefaultHandle[Math.min(INITIAL_CAPACITY, maxCapacity)];
+        }
+
+        int increaseCapacity(int expectedCapacity) {
+            int newCapacity = elements.length;
+            int maxCapacity = this.maxCapacity;
+            do {
+                newCapacity <<= 1;
+            } while (newCapacity < expectedCapacity && newCapacity < maxCapacity);
+
+            newCapacity = Math.min(newCapacity, maxCapacity);
+            if (newCapacity != elements.length) {
+                elements = Arrays.copyOf(elements, newCapacity);
+            }
+
+            return newCapacity;
         }
 
-        T pop() {
+        DefaultHandle pop() {
             int size = this.size;
             if (size == 0) {
-                return null;
+                if (!scavenge()) {
+                    return null;
+                }
+                size = this.size;
             }
             size --;
-            T ret = elements[size];
+            DefaultHandle ret = elements[size];
             elements[size] = null;
-            map.remove(ret);
+            if (ret.lastRecycledId != ret.recycleId) {
+                throw new IllegalStateException("recycled multiple times");
+            }
+            ret.recycleId = 0;
+            ret.lastRecycledId = 0;
             this.size = size;
             return ret;
         }
 
-        void push(T o) {
-            if (map.put(o, Boolean.TRUE) != null) {
+        boolean scavenge() {
+            // continue an existing scavenge, if any
+            if (scavengeSome()) {
+                return true;
+            }
+
+            // reset our scavenge cursor
+            prev = null;
+            cursor = head;
+            return false;
+        }
+
+        boolean scavengeSome() {
+            WeakOrderQueue cursor = this.cursor;
+            if (cursor == null) {
+                cursor = head;
+                if (cursor == null) {
+                    return false;
+                }
+            }
+
+            boolean success = false;
+            WeakOrderQueue prev = this.prev;
+            do {
+                if (cursor.transfer(this)) {
+                    success = true;
+                    break;
+                }
+
+                WeakOrderQueue next = cursor.next;
+                if (cursor.owner.get() == null) {
+                    // if the thread associated with the queue is gone, unlink it, after
+                    // performing a volatile read to confirm there is no data left to collect.
+                    // We never unlink the first queue, as we don't want to synchronize on updating the head.
+                    if (cursor.hasFinalData()) {
+                        for (;;) {
+                            if (cursor.transfer(this)) {
+                                success = true;
+                            } else {
+                                break;
+                            }
+                        }
+                    }
+                    if (prev != null) {
+                        cursor.reclaimAllSpace();
+                        prev.next = next;
+                    }
+                } else {
+                    prev = cursor;
+                }
+
+                cursor = next;
+
+            } while (cursor != null && !success);
+
+            this.prev = prev;
+            this.cursor = cursor;
+            return success;
+        }
+
+        void push(DefaultHandle item) {
+            if ((item.recycleId | item.lastRecycledId) != 0) {
                 throw new IllegalStateException("recycled already");
             }
+            item.recycleId = item.lastRecycledId = OWN_THREAD_ID;
 
             int size = this.size;
+            if (size >= maxCapacity || dropHandle(item)) {
+                // Hit the maximum capacity or should drop - drop the possibly youngest object.
+                return;
+            }
             if (size == elements.length) {
-                T[] newElements = newArray(size << 1);
-                System.arraycopy(elements, 0, newElements, 0, size);
-                elements = newElements;
+                elements = Arrays.copyOf(elements, Math.min(size << 1, maxCapacity));
             }
 
-            elements[size] = o;
+            elements[size] = item;
             this.size = size + 1;
         }
 
-        @SuppressWarnings({ "unchecked", "SuspiciousArrayCast" })
-        private static <T> T[] newArray(int length) {
-            return (T[]) new Object[length];
+        boolean dropHandle(DefaultHandle handle) {
+            if (!handle.hasBeenRecycled) {
+                if ((++ handleRecycleCount & ratioMask) != 0) {
+                    // Drop the object.
+                    return true;
+                }
+                handle.hasBeenRecycled = true;
+            }
+            return false;
+        }
+
+        DefaultHandle newHandle() {
+            return new DefaultHandle(this);
         }
     }
 }
@@ -26,8 +26,12 @@ import java.lang.ref.ReferenceQueue;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.netty.util.internal.StringUtil.*;
 
@@ -36,6 +40,14 @@ public final class ResourceLeakDetector<T> {
     private static final String PROP_LEVEL = "io.netty.leakDetectionLevel";
     private static final Level DEFAULT_LEVEL = Level.SIMPLE;
 
+    private static final String PROP_ADAPTIVE_SAMPLING = "io.netty.leakDetection.adaptiveSampling";
+    private static final String PROP_SAMPLES_PER_SECOND = "io.netty.leakDetection.samplesPerSecond";
+    private static final int DEFAULT_SAMPLES_PER_SECOND = 100;
+    private static final String PROP_MAX_RECORDS = "io.netty.leakDetection.maxRecords";
+    private static final int DEFAULT_MAX_RECORDS = 4;
+
+    private static final String UNKNOWN_SITE = "unknown";
+
     /**
      * Represents the level of resource leak detection.
      */
@@ -62,6 +74,11 @@ public final class ResourceLeakDetector<T> {
     }
 
     private static Level level;
+    private static boolean adaptiveSampling;
+    private static volatile ResourceLeakListener leakListener;
+
+    private static final int SAMPLES_PER_SECOND;
+    private static final int MAX_RECORDS;
 
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(ResourceLeakDetector.class);
 
@@ -87,13 +104,24 @@ public final class ResourceLeakDetector<T> {
         }
 
         ResourceLeakDetector.level = level;
+        adaptiveSampling = SystemPropertyUtil.getBoolean(PROP_ADAPTIVE_SAMPLING, false);
+        SAMPLES_PER_SECOND = Math.max(1, SystemPropertyUtil.getInt(PROP_SAMPLES_PER_SECOND, DEFAULT_SAMPLES_PER_SECOND));
+        MAX_RECORDS = Math.max(0, SystemPropertyUtil.getInt(PROP_MAX_RECORDS, DEFAULT_MAX_RECORDS));
         if (logger.isDebugEnabled()) {
             logger.debug("-D{}: {}", PROP_LEVEL, level.name().toLowerCase());
+            logger.debug("-D{}: {}", PROP_ADAPTIVE_SAMPLING, adaptiveSampling);
+            logger.debug("-D{}: {}", PROP_SAMPLES_PER_SECOND, SAMPLES_PER_SECOND);
+            logger.debug("-D{}: {}", PROP_MAX_RECORDS, MAX_RECORDS);
         }
     }
 
     private static final int DEFAULT_SAMPLING_INTERVAL = 113;
 
+    // In adaptive mode the sampling interval is adjusted every 1024 allocations, at most once per second.
+    private static final int ADJUST_INTERVAL_MASK = 1023;
+    private static final long ADJUST_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_ADAPTIVE_SAMPLING_INTERVAL = 1 << 24;
+
     /**
      * @deprecated Use {@link #setLevel(Level)} instead.
      */
@@ -126,12 +154,49 @@ public final class ResourceLeakDetector<T> {
         return level;
     }
 
+    /**
+     * Enables or disables adaptive sampling.  In adaptive mode the sampling interval of the {@link Level#SIMPLE}
+     * and {@link Level#ADVANCED} levels grows with the allocation rate, so that only about
+     * {@code -Dio.netty.leakDetection.samplesPerSecond} (default: 100) resources are tracked per second no matter
+     * how many are allocated.  This keeps the overhead of leak detection close to zero under high load, so it can
+     * stay enabled in production.  The allocation site of the tracked resources is recorded even at the
+     * {@link Level#SIMPLE} level, so leaks can be counted per site.
+     */
+    public static void setAdaptiveSampling(boolean adaptiveSampling) {
+        ResourceLeakDetector.adaptiveSampling = adaptiveSampling;
+    }
+
+    /**
+     * Returns {@code true} if adaptive sampling is enabled.
+     *
+     * @see #setAdaptiveSampling(boolean)
+     */
+    public static boolean isAdaptiveSampling() {
+        return adaptiveSampling;
+    }
+
+    /**
+     * Sets the {@link ResourceLeakListener} which is notified about every detected leak.  Specify {@code null} to
+     * remove the current listener.
+     */
+    public static void setLeakListener(ResourceLeakListener leakListener) {
+        ResourceLeakDetector.leakListener = leakListener;
+    }
+
+    /**
+     * Returns the {@link ResourceLeakListener} which is notified about every detected leak or {@code null}.
+     */
+    public static ResourceLeakListener getLeakListener() {
+        return leakListener;
+    }
+
     /** the linked list of active resources */
     private final DefaultResourceLeak head = new DefaultResourceLeak(null);
     private final DefaultResourceLeak tail = new DefaultResourceLeak(null);
 
     private final ReferenceQueue<Object> refQueue = new ReferenceQueue<Object>();
     private final ConcurrentMap<String, Boolean> reportedLeaks = PlatformDependent.newConcurrentHashMap();
+    private final ConcurrentMap<String, AtomicLong> leakCounts = PlatformDependent.newConcurrentHashMap();
 
     private final String resourceType;
     private final int samplingInterval;
@@ -141,6 +206,12 @@ public final class ResourceLeakDetector<T> {
 
     private long leakCheckCnt;
 
+    // State of the adaptive sampling. Updated without synchronization just like leakCheckCnt, which is good
+    // enough for sampling.
+    private int adaptiveSamplingMask;
+    private long adjustedCnt;
+    private long adjustedNanos = System.nanoTime();
+
     public ResourceLeakDetector(Class<?> resourceType) {
         this(simpleClassName(resourceType));
     }
@@ -167,6 +238,7 @@ public final class ResourceLeakDetector<T> {
         this.resourceType = resourceType;
         this.samplingInterval = samplingInterval;
         this.maxActive = maxActive;
+        adaptiveSamplingMask = roundUpToPowerOfTwo(samplingInterval) - 1;
 
         head.next = tail;
         tail.prev = head;
@@ -185,7 +257,7 @@ public final class ResourceLeakDetector<T> {
         }
 
         if (level.ordinal() < Level.PARANOID.ordinal()) {
-            if (leakCheckCnt ++ % samplingInterval == 0) {
+            if (adaptiveSampling? sampleAdaptively() : leakCheckCnt ++ % samplingInterval == 0) {
                 reportLeak(level);
                 return new DefaultResourceLeak(obj);
             } else {
@@ -197,22 +269,60 @@ public final class ResourceLeakDetector<T> {
         }
     }
 
-    private void reportLeak(Level level) {
-        if (!logger.isErrorEnabled()) {
-            for (;;) {
-                @SuppressWarnings("unchecked")
-                DefaultResourceLeak ref = (DefaultResourceLeak) refQueue.poll();
-                if (ref == null) {
-                    break;
-                }
-                ref.close();
-            }
+    private boolean sampleAdaptively() {
+        long cnt = leakCheckCnt ++;
+        if ((cnt & ADJUST_INTERVAL_MASK) == 0) {
+            adjustSamplingInterval(cnt);
+        }
+        return (cnt & adaptiveSamplingMask) == 0;
+    }
+
+    private void adjustSamplingInterval(long cnt) {
+        long nanoTime = System.nanoTime();
+        long elapsedNanos = nanoTime - adjustedNanos;
+        if (elapsedNanos < ADJUST_INTERVAL_NANOS) {
             return;
         }
 
+        double allocationsPerSecond = (double) (cnt - adjustedCnt) * ADJUST_INTERVAL_NANOS / elapsedNanos;
+        double interval = Math.min(
+                MAX_ADAPTIVE_SAMPLING_INTERVAL, Math.max(samplingInterval, allocationsPerSecond / SAMPLES_PER_SECOND));
+        adaptiveSamplingMask = roundUpToPowerOfTwo((int) interval) - 1;
+        adjustedCnt = cnt;
+        adjustedNanos = nanoTime;
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        int powerOfTwo = Integer.highestOneBit(value);
+        return powerOfTwo == value? value : powerOfTwo << 1;
+    }
+
+    /**
+     * Returns the current number of allocations per tracked resource.
+     */
+    int samplingInterval() {
+        return adaptiveSampling? adaptiveSamplingMask + 1 : samplingInterval;
+    }
+
+    /**
+     * Returns a snapshot of the number of leaks detected so far per allocation site.  The allocation site is only
+     * known if the level is {@link Level#ADVANCED} or higher or if adaptive sampling is enabled; all other leaks
+     * are counted for the site {@code "unknown"}.
+     */
+    public Map<String, Long> leakCounts() {
+        Map<String, Long> snapshot = new HashMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> e: leakCounts.entrySet()) {
+            snapshot.put(e.getKey(), e.getValue().get());
+        }
+        return snapshot;
+    }
+
+    private void reportLeak(Level level) {
+        boolean logEnabled = logger.isErrorEnabled();
+
         // Report too many instances.
-        int samplingInterval = level == Level.PARANOID? 1 : this.samplingInterval;
-        if (active * samplingInterval > maxActive && loggedTooManyActive.compareAndSet(false, true)) {
+        int samplingInterval = level == Level.PARANOID? 1 : samplingInterval();
+        if (logEnabled && active * samplingInterval > maxActive && loggedTooManyActive.compareAndSet(false, true)) {
             logger.error("LEAK: You are creating too many " + resourceType + " instances.  " +
                     resourceType + " is a shared resource that must be reused across the JVM," +
                     "so that only a few instances are created.");
@@ -232,6 +342,11 @@ public final class ResourceLeakDetector<T> {
                 continue;
             }
 
+            countLeak(ref.site);
+            if (!logEnabled) {
+                continue;
+            }
+
             String records = ref.toString();
             if (reportedLeaks.putIfAbsent(records, Boolean.TRUE) == null) {
                 if (records.isEmpty()) {
@@ -249,11 +364,35 @@ public final class ResourceLeakDetector<T> {
         }
     }
 
-    private final class DefaultResourceLeak extends PhantomReference<Object> implements ResourceLeak {
+    private void countLeak(String site) {
+        if (site == null) {
+            site = UNKNOWN_SITE;
+        }
+
+        AtomicLong count = leakCounts.get(site);
+        if (count == null) {
+            AtomicLong newCount = new AtomicLong();
+            count = leakCounts.putIfAbsent(site, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        long leaks = count.incrementAndGet();
+
+        ResourceLeakListener listener = leakListener;
+        if (listener != null) {
+            try {
+                listener.onLeak(resourceType, site, leaks);
+            } catch (Throwable t) {
+                logger.warn("An exception was thrown by " + listener.getClass().getName() + ".onLeak()", t);
+            }
+        }
+    }
 
-        private static final int MAX_RECORDS = 4;
+    private final class DefaultResourceLeak extends PhantomReference<Object> implements ResourceLeak {
 
         private final String creationRecord;
+        private final String site;
         private final Deque<String> lastRecords = new ArrayDeque<String>();
         private final AtomicBoolean freed;
         private DefaultResourceLeak prev;
@@ -265,9 +404,16 @@ public final class ResourceLeakDetector<T> {
             if (referent != null) {
                 Level level = getLevel();
                 if (level.ordinal() >= Level.ADVANCED.ordinal()) {
-                    creationRecord = newRecord(3);
+                    StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+                    // Skip the frames of this constructor and open().
+                    creationRecord = newRecord(stackTrace, 2);
+                    site = allocationSite(stackTrace);
+                } else if (adaptiveSampling) {
+                    creationRecord = null;
+                    site = allocationSite(new Throwable().getStackTrace());
                 } else {
                     creationRecord = null;
+                    site = null;
                 }
 
                 // TODO: Use CAS to update the list.
@@ -281,6 +427,7 @@ public final class ResourceLeakDetector<T> {
                 freed = new AtomicBoolean();
             } else {
                 creationRecord = null;
+                site = null;
                 freed = new AtomicBoolean(true);
             }
         }
@@ -291,11 +438,11 @@ public final class ResourceLeakDetector<T> {
                 String value = newRecord(2);
 
                 synchronized (lastRecords) {
-                    int size = lastRecords.size();
-                    if (size == 0 || !lastRecords.getLast().equals(value)) {
-                        lastRecords.add(value);
-                    }
-                    if (size > MAX_RECORDS) {
+                    // Keep every distinct access point only once, so a hot access path does not push all other
+                    // records out.  A repeated record moves to the end as the most recent one.
+                    lastRecords.remove(value);
+                    lastRecords.add(value);
+                    if (lastRecords.size() > MAX_RECORDS) {
                         lastRecords.removeFirst();
                     }
                 }
@@ -356,9 +503,36 @@ public final class ResourceLeakDetector<T> {
             "io.netty.buffer.AbstractByteBufAllocator.toLeakAwareBuffer(",
     };
 
+    // Frames which never belong to the code that forgot to release a resource.
+    private static final String[] ALLOCATION_SITE_EXCLUSIONS = {
+            ResourceLeakDetector.class.getName() + '$',
+            "io.netty.buffer.",
+    };
+
+    static String allocationSite(StackTraceElement[] stackTrace) {
+        for (StackTraceElement e: stackTrace) {
+            String className = e.getClassName();
+            boolean excluded = className.equals(ResourceLeakDetector.class.getName());
+            for (String exclusion: ALLOCATION_SITE_EXCLUSIONS) {
+                if (className.startsWith(exclusion)) {
+                    excluded = true;
+                    break;
+                }
+            }
+            if (!excluded) {
+                return e.toString();
+            }
+        }
+        return UNKNOWN_SITE;
+    }
+
     static String newRecord(int recordsToSkip) {
+        // Skip the frame of this method as well.
+        return newRecord(new Throwable().getStackTrace(), recordsToSkip + 1);
+    }
+
+    private static String newRecord(StackTraceElement[] array, int recordsToSkip) {
         StringBuilder buf = new StringBuilder(4096);
-        StackTraceElement[] array = new Throwable().getStackTrace();
         for (StackTraceElement e: array) {
             if (recordsToSkip > 0) {
                 recordsToSkip --;
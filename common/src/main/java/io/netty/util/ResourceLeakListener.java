@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util;
+
+/**
+ * Gets notified by the {@link ResourceLeakDetector} about every detected leak, so leaks can be fed into a metrics
+ * system instead of only showing up in the log.
+ *
+ * @see ResourceLeakDetector#setLeakListener(ResourceLeakListener)
+ */
+public interface ResourceLeakListener {
+
+    /**
+     * Invoked when a leaked resource was garbage-collected.  This method is called by the thread which detected
+     * the leak, usually one that is about to allocate another resource, so it should return quickly.
+     *
+     * @param resourceType the type of the leaked resource, like {@code ByteBuf}
+     * @param site         the stack trace element of the code which allocated the leaked resource or
+     *                     {@code "unknown"} if the allocation site is not recorded at the current level
+     * @param leaks        the number of leaks detected for this allocation site so far, including this one
+     */
+    void onLeak(String resourceType, String site, long leaks);
+}
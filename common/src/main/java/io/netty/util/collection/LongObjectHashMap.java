@@ -0,0 +1,376 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.collection;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link LongObjectMap} which uses open addressing with linear probing, so neither the keys nor the mappings are
+ * stored in objects of their own.  Removing a mapping moves the following colliding mappings back, so lookups never
+ * have to skip deleted slots.  Iterating over the {@link #entries()} does not create an object per entry.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <V> the type of the values
+ */
+public class LongObjectHashMap<V> implements LongObjectMap<V>, Iterable<LongObjectMap.Entry<V>> {
+
+    /** The default capacity, which is used if none is specified. */
+    public static final int DEFAULT_CAPACITY = 8;
+
+    /** The default load factor, which is used if none is specified. */
+    public static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Stands in for a {@code null} value, because a {@code null} slot marks an empty slot.
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    private final float loadFactor;
+    private long[] keys;
+    private Object[] values;
+    private int maxSize;
+    private int mask;
+    private int size;
+
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongObjectHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongObjectHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity: " + initialCapacity + " (expected: >= 1)");
+        }
+        if (loadFactor <= 0.0f || loadFactor > 1.0f) {
+            throw new IllegalArgumentException("loadFactor: " + loadFactor + " (expected: 0 < loadFactor <= 1)");
+        }
+        this.loadFactor = loadFactor;
+
+        int capacity = 1;
+        while (capacity < initialCapacity && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        // Always keep at least one slot free.
+        maxSize = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    @Override
+    public V get(long key) {
+        int index = indexOf(key);
+        return index == -1? null : toExternal(values[index]);
+    }
+
+    @Override
+    public V put(long key, V value) {
+        int index = hashIndex(key);
+        for (;;) {
+            Object v = values[index];
+            if (v == null) {
+                keys[index] = key;
+                values[index] = toInternal(value);
+                growSize();
+                return null;
+            }
+            if (keys[index] == key) {
+                values[index] = toInternal(value);
+                return toExternal(v);
+            }
+            index = probeNext(index);
+        }
+    }
+
+    @Override
+    public void putAll(LongObjectMap<V> sourceMap) {
+        if (sourceMap instanceof LongObjectHashMap) {
+            // Fast path which does not iterate over the entries.
+            LongObjectHashMap<V> source = (LongObjectHashMap<V>) sourceMap;
+            for (int i = 0; i < source.values.length; i ++) {
+                Object v = source.values[i];
+                if (v != null) {
+                    put(source.keys[i], toExternal(v));
+                }
+            }
+            return;
+        }
+
+        for (Entry<V> e: sourceMap.entries()) {
+            put(e.key(), e.value());
+        }
+    }
+
+    @Override
+    public V remove(long key) {
+        int index = indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+
+        Object prev = values[index];
+        removeAt(index);
+        return toExternal(prev);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return indexOf(key) != -1;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        Object v1 = toInternal(value);
+        for (Object v2: values) {
+            if (v2 != null && v2.equals(v1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterable<Entry<V>> entries() {
+        return this;
+    }
+
+    /**
+     * Returns an {@link Iterator} over all entries of this map which returns itself as the {@link Entry} of the
+     * current element.
+     */
+    @Override
+    public Iterator<Entry<V>> iterator() {
+        return new EntryIterator();
+    }
+
+    @Override
+    public long[] keys() {
+        long[] outKeys = new long[size];
+        int targetIndex = 0;
+        for (int i = 0; i < values.length; i ++) {
+            if (values[i] != null) {
+                outKeys[targetIndex ++] = keys[i];
+            }
+        }
+        return outKeys;
+    }
+
+    @Override
+    public V[] values(Class<V> clazz) {
+        @SuppressWarnings("unchecked")
+        V[] outValues = (V[]) Array.newInstance(clazz, size);
+        int targetIndex = 0;
+        for (Object v: values) {
+            if (v != null) {
+                outValues[targetIndex ++] = toExternal(v);
+            }
+        }
+        return outValues;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "{}";
+        }
+
+        StringBuilder buf = new StringBuilder(4 * size);
+        buf.append('{');
+        boolean first = true;
+        for (int i = 0; i < values.length; i ++) {
+            Object v = values[i];
+            if (v == null) {
+                continue;
+            }
+            if (!first) {
+                buf.append(", ");
+            }
+            buf.append(keys[i]).append('=').append(v == this? "(this Map)" : toExternal(v));
+            first = false;
+        }
+        return buf.append('}').toString();
+    }
+
+    private int indexOf(long key) {
+        int index = hashIndex(key);
+        for (;;) {
+            Object v = values[index];
+            if (v == null) {
+                return -1;
+            }
+            if (keys[index] == key) {
+                return index;
+            }
+            index = probeNext(index);
+        }
+    }
+
+    private int hashIndex(long key) {
+        // Spread the bits so that keys which only differ in their upper bits do not collide.
+        int h = (int) (key ^ key >>> 32) * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    private int probeNext(int index) {
+        return index + 1 & mask;
+    }
+
+    private void growSize() {
+        size ++;
+        if (size > maxSize) {
+            if (keys.length == MAX_CAPACITY) {
+                throw new IllegalStateException("Max capacity reached at size=" + size);
+            }
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Removes the mapping at the specified index and moves back the following mappings of the same probe sequence,
+     * so that no lookup stops at the freed slot too early.
+     */
+    private void removeAt(int index) {
+        size --;
+        keys[index] = 0;
+        values[index] = null;
+
+        int nextFree = index;
+        for (int i = probeNext(index); values[i] != null; i = probeNext(i)) {
+            int bucket = hashIndex(keys[i]);
+            // Move the mapping if its bucket is not cyclically in (nextFree, i].
+            if (i < bucket && (bucket <= nextFree || nextFree <= i) ||
+                bucket <= nextFree && nextFree <= i) {
+                keys[nextFree] = keys[i];
+                values[nextFree] = values[i];
+                keys[i] = 0;
+                values[i] = null;
+                nextFree = i;
+            }
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldValues.length; i ++) {
+            Object oldValue = oldValues[i];
+            if (oldValue != null) {
+                int index = hashIndex(oldKeys[i]);
+                while (values[index] != null) {
+                    index = probeNext(index);
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValue;
+            }
+        }
+    }
+
+    private static Object toInternal(Object value) {
+        return value == null? NULL_VALUE : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V toExternal(Object value) {
+        return value == NULL_VALUE? null : (V) value;
+    }
+
+    /**
+     * Iterates over the occupied slots and exposes the current one as the {@link Entry}.
+     */
+    private final class EntryIterator implements Iterator<Entry<V>>, Entry<V> {
+        private int entryIndex = -1;
+        private int nextIndex = -1;
+
+        private void scanNext() {
+            do {
+                nextIndex ++;
+            } while (nextIndex < values.length && values[nextIndex] == null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextIndex == -1 || nextIndex == entryIndex) {
+                scanNext();
+            }
+            return nextIndex < values.length;
+        }
+
+        @Override
+        public Entry<V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            entryIndex = nextIndex;
+            return this;
+        }
+
+        /**
+         * Not supported, because removing a mapping may move a mapping which was visited already.  Collect the
+         * keys and call {@link LongObjectHashMap#remove(long)} after the iteration instead.
+         */
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public long key() {
+            return keys[entryIndex];
+        }
+
+        @Override
+        public V value() {
+            return toExternal(values[entryIndex]);
+        }
+
+        @Override
+        public void setValue(V value) {
+            values[entryIndex] = toInternal(value);
+        }
+    }
+}
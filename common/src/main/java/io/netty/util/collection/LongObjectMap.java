@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.collection;
+
+/**
+ * A map whose keys are primitive {@code long}s, so no key is ever boxed.
+ *
+ * @param <V> the type of the values
+ */
+public interface LongObjectMap<V> {
+
+    /**
+     * An entry of an {@link LongObjectMap}.  Iterators may reuse the same {@link Entry} for every element, so an
+     * {@link Entry} is only valid until the iterator moves on.
+     */
+    interface Entry<V> {
+        /**
+         * Returns the key of this entry.
+         */
+        long key();
+
+        /**
+         * Returns the value of this entry.
+         */
+        V value();
+
+        /**
+         * Sets the value of this entry.
+         */
+        void setValue(V value);
+    }
+
+    /**
+     * Returns the value which is mapped to the specified key or {@code null} if there is no such mapping.
+     */
+    V get(long key);
+
+    /**
+     * Maps the specified key to the specified value.
+     *
+     * @return the previous value of the key or {@code null} if there was none
+     */
+    V put(long key, V value);
+
+    /**
+     * Puts all mappings of the specified map into this map.
+     */
+    void putAll(LongObjectMap<V> sourceMap);
+
+    /**
+     * Removes the mapping of the specified key.
+     *
+     * @return the removed value or {@code null} if there was none
+     */
+    V remove(long key);
+
+    /**
+     * Returns the number of mappings in this map.
+     */
+    int size();
+
+    /**
+     * Returns {@code true} if this map contains no mappings.
+     */
+    boolean isEmpty();
+
+    /**
+     * Removes all mappings from this map.
+     */
+    void clear();
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified key.
+     */
+    boolean containsKey(long key);
+
+    /**
+     * Returns {@code true} if one or more keys of this map are mapped to the specified value.
+     */
+    boolean containsValue(V value);
+
+    /**
+     * Returns an {@link Iterable} over all entries of this map.  The map must not be modified while iterating.
+     */
+    Iterable<Entry<V>> entries();
+
+    /**
+     * Returns a copy of all keys of this map.
+     */
+    long[] keys();
+
+    /**
+     * Returns a copy of all values of this map.
+     */
+    V[] values(Class<V> clazz);
+}
@@ -40,6 +40,19 @@ public class DefaultEventExecutorGroup extends MultithreadEventExecutorGroup {
         super(nThreads, threadFactory);
     }
 
+    /**
+     * Create a new instance.
+     *
+     * @param nThreads          the number of threads that will be used by this instance.
+     * @param threadFactory     the ThreadFactory to use, or {@code null} if the default should be used.
+     * @param chooserFactory    the {@link EventExecutorChooserFactory} which picks the executor that
+     *                          {@link #next()} returns
+     */
+    public DefaultEventExecutorGroup(
+            int nThreads, ThreadFactory threadFactory, EventExecutorChooserFactory chooserFactory) {
+        super(nThreads, threadFactory, chooserFactory);
+    }
+
     @Override
     protected EventExecutor newChild(
             ThreadFactory threadFactory, Object... args) throws Exception {
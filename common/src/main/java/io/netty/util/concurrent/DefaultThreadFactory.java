@@ -23,7 +23,8 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A {@link ThreadFactory} implementation with a simple naming rule.
+ * A {@link ThreadFactory} implementation with a simple naming rule.  The created threads are
+ * {@link FastThreadLocalThread}s, so they access {@link FastThreadLocal}s without a hash lookup.
  * 
  * ThreadFactoryĬʵ֣ ̹߳
  */
@@ -120,7 +121,7 @@ public class DefaultThreadFactory implements ThreadFactory {
      */
     @Override
     public Thread newThread(Runnable r) {
-        Thread t = new Thread(r, prefix + nextId.incrementAndGet());
+        Thread t = new FastThreadLocalThread(r, prefix + nextId.incrementAndGet());
         try {
             if (t.isDaemon()) {
                 if (!daemon) {
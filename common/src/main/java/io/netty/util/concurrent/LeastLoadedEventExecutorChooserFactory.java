@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link EventExecutorChooserFactory} whose {@link EventExecutorChooser}s pick the {@link EventExecutor} with the
+ * lowest {@linkplain #load(EventExecutor) load}.  The scan starts at a different {@link EventExecutor} on every call,
+ * so idle {@link EventExecutor}s are still picked in a round-robin fashion.
+ * <p>
+ * Every {@link EventExecutorChooser#next()} call looks at all {@link EventExecutor}s, which costs more than
+ * {@link DefaultEventExecutorChooserFactory} but spreads the work more evenly when the work per pick varies, for
+ * example when short-lived connections churn.
+ */
+public class LeastLoadedEventExecutorChooserFactory implements EventExecutorChooserFactory {
+
+    public static final LeastLoadedEventExecutorChooserFactory INSTANCE = new LeastLoadedEventExecutorChooserFactory();
+
+    protected LeastLoadedEventExecutorChooserFactory() { }
+
+    @Override
+    public EventExecutorChooser newChooser(EventExecutor[] executors) {
+        return new LeastLoadedEventExecutorChooser(executors);
+    }
+
+    /**
+     * Returns the load of the given {@link EventExecutor}.  The default implementation returns the number of
+     * {@linkplain SingleThreadEventExecutor#pendingTasks() pending tasks} of a {@link SingleThreadEventExecutor} and
+     * {@code 0} for all other {@link EventExecutor}s.  This method may be called from any thread.
+     */
+    protected int load(EventExecutor executor) {
+        if (executor instanceof SingleThreadEventExecutor) {
+            return ((SingleThreadEventExecutor) executor).pendingTasks();
+        }
+        return 0;
+    }
+
+    private final class LeastLoadedEventExecutorChooser implements EventExecutorChooser {
+        private final AtomicInteger idx = new AtomicInteger();
+        private final EventExecutor[] executors;
+
+        LeastLoadedEventExecutorChooser(EventExecutor[] executors) {
+            this.executors = executors;
+        }
+
+        @Override
+        public EventExecutor next() {
+            final EventExecutor[] executors = this.executors;
+            final int length = executors.length;
+            int index = Math.abs(idx.getAndIncrement() % length);
+
+            EventExecutor minExecutor = executors[index];
+            int minLoad = load(minExecutor);
+            for (int i = 1; i < length && minLoad > 0; i ++) {
+                if (++ index == length) {
+                    index = 0;
+                }
+                EventExecutor executor = executors[index];
+                int load = load(executor);
+                if (load < minLoad) {
+                    minExecutor = executor;
+                    minLoad = load;
+                }
+            }
+            return minExecutor;
+        }
+    }
+}
@@ -35,7 +35,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 public abstract class MultithreadEventExecutorGroup extends AbstractEventExecutorGroup {
 
     private final EventExecutor[] children;
-    private final AtomicInteger childIndex = new AtomicInteger();
+    private final EventExecutorChooserFactory.EventExecutorChooser chooser;
     private final AtomicInteger terminatedChildren = new AtomicInteger();
     private final Promise<?> terminationFuture = new DefaultPromise(GlobalEventExecutor.INSTANCE);
 
@@ -49,9 +49,26 @@ public abstract class MultithreadEventExecutorGroup extends AbstractEventExecuto
      * @param args              arguments which will passed to each {@link #newChild(ThreadFactory, Object...)} call
      */
     protected MultithreadEventExecutorGroup(int nThreads, ThreadFactory threadFactory, Object... args) {
+        this(nThreads, threadFactory, DefaultEventExecutorChooserFactory.INSTANCE, args);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param nThreads          the number of threads that will be used by this instance.
+     * @param threadFactory     the ThreadFactory to use, or {@code null} if the default should be used.
+     * @param chooserFactory    the {@link EventExecutorChooserFactory} which picks the child that {@link #next()}
+     *                          returns
+     * @param args              arguments which will passed to each {@link #newChild(ThreadFactory, Object...)} call
+     */
+    protected MultithreadEventExecutorGroup(int nThreads, ThreadFactory threadFactory,
+                                            EventExecutorChooserFactory chooserFactory, Object... args) {
         if (nThreads <= 0) {
             throw new IllegalArgumentException(String.format("nThreads: %d (expected: > 0)", nThreads));
         }
+        if (chooserFactory == null) {
+            throw new NullPointerException("chooserFactory");
+        }
 
         // ûд̹߳ԼһNettyDefaultThreadFactoryࡣ
         if (threadFactory == null) {
@@ -92,6 +109,8 @@ public abstract class MultithreadEventExecutorGroup extends AbstractEventExecuto
             }
         }
 
+        chooser = chooserFactory.newChooser(children);
+
         // û TODO
         final FutureListener<Object> terminationListener = new FutureListener<Object>() {
             @Override
@@ -118,16 +137,11 @@ public abstract class MultithreadEventExecutorGroup extends AbstractEventExecuto
     }
 
     /**
-     * <pre>
-     * 		nextʵַǳҪ
-     * 
-     * 		һ±childIndex(AtomicInteger)Ȼchild
-     * 		ȡΪchild±ꡣ
-     * </pre>
+     * Returns the child picked by the {@link EventExecutorChooserFactory.EventExecutorChooser} of this group.
      */
     @Override
     public EventExecutor next() {
-        return children[Math.abs(childIndex.getAndIncrement() % children.length)];
+        return chooser.next();
     }
 
     @Override
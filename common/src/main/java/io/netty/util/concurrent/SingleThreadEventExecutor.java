@@ -103,6 +103,7 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
                 // һִʱ 
                 updateLastExecutionTime();
                 try {
+                    onThreadStart();
                 	// ȥʵ дΪʲô  TODO
                     SingleThreadEventExecutor.this.run();
                     success = true;
@@ -134,6 +135,9 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
                         try {
                             cleanup();
                         } finally {
+                            // Drop the thread-local values of this event loop so they do not outlive it.
+                            FastThreadLocal.removeAll();
+
                             synchronized (stateLock) {
                                 state = ST_TERMINATED;
                             }
@@ -160,7 +164,8 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
      * Create a new {@link Queue} which will holds the tasks to execute. This default implementation will return a
      * {@link LinkedBlockingQueue} but if your sub-class of {@link SingleThreadEventExecutor} will not do any blocking
      * calls on the this {@link Queue} it may make sense to {@code @Override} this and return some more performant
-     * implementation that does not support blocking operations at all.
+     * implementation that does not support blocking operations at all, like
+     * {@link io.netty.util.internal.PlatformDependent#newMpscQueue()}.
      */
     protected Queue<Runnable> newTaskQueue() {
         return new LinkedBlockingQueue<Runnable>();
@@ -260,8 +265,11 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
             }
 
             if (delayedTask.deadlineNanos() <= nanoTime) {
+                if (!taskQueue.offer(delayedTask)) {
+                    // The task queue is full, so leave the task scheduled and try again later.
+                    break;
+                }
                 delayedTaskQueue.remove();
-                taskQueue.add(delayedTask);
             } else {
                 break;
             }
@@ -301,7 +309,7 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
      * </pre>
      * 
      * Add a task to the task queue, or throws a {@link RejectedExecutionException} if this instance was shutdown
-     * before.
+     * before or the task queue is full.
      */
     protected void addTask(Runnable task) {
         if (task == null) {
@@ -310,7 +318,9 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
         if (isShutdown()) {
             reject();
         }
-        taskQueue.add(task);
+        if (!taskQueue.offer(task)) {
+            throw new RejectedExecutionException("event executor task queue full");
+        }
     }
 
     /**
@@ -421,6 +431,13 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
      */
     protected abstract void run();
 
+    /**
+     * Invoked by the executor thread right before {@link #run()}.  Do nothing, sub-classes may override
+     */
+    protected void onThreadStart() {
+        // NOOP
+    }
+
     /**
      * Do nothing, sub-classes may override
      */
@@ -430,7 +447,8 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
 
     protected void wakeup(boolean inEventLoop) {
         if (!inEventLoop || state == ST_SHUTTING_DOWN) {
-            taskQueue.add(WAKEUP_TASK);
+            // A full task queue wakes up the executor anyway.
+            taskQueue.offer(WAKEUP_TASK);
         }
     }
 
@@ -709,8 +727,17 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
             addTask(task);
             
             // ǹر״̬ҪƳ TODO
-            if (isShutdown() && removeTask(task)) {
-                reject();
+            if (isShutdown()) {
+                boolean reject = false;
+                try {
+                    reject = removeTask(task);
+                } catch (UnsupportedOperationException ignore) {
+                    // The task queue does not support removal, so the best we can do is to move on and hope
+                    // the task is picked up before the executor terminates.
+                }
+                if (reject) {
+                    reject();
+                }
             }
         }
 
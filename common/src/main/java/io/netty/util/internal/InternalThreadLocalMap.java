@@ -0,0 +1,187 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.concurrent.FastThreadLocalThread;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The internal data structure that stores the thread-local variables of a {@link Thread}.  Every
+ * {@link FastThreadLocal} owns a constant index into the array of this map, so a lookup costs an array access
+ * instead of the hash table lookup of {@link ThreadLocal}.
+ * <p>
+ * A {@link FastThreadLocalThread} holds its map in a field.  All other threads fall back to a {@link ThreadLocal}
+ * that holds the map, which is slower but still correct.  Note that this class is for internal use only.  Use
+ * {@link FastThreadLocal} unless you know what you are doing.
+ */
+public final class InternalThreadLocalMap {
+
+    /**
+     * The value of a slot which was never set or was removed.
+     */
+    public static final Object UNSET = new Object();
+
+    private static final ThreadLocal<InternalThreadLocalMap> slowThreadLocalMap =
+            new ThreadLocal<InternalThreadLocalMap>();
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * Returns the map of the current {@link Thread} or {@code null} if it has none yet.
+     */
+    public static InternalThreadLocalMap getIfSet() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof FastThreadLocalThread) {
+            return ((FastThreadLocalThread) thread).threadLocalMap();
+        }
+        return slowThreadLocalMap.get();
+    }
+
+    /**
+     * Returns the map of the current {@link Thread}, creating it if necessary.
+     */
+    public static InternalThreadLocalMap get() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof FastThreadLocalThread) {
+            return fastGet((FastThreadLocalThread) thread);
+        }
+        return slowGet();
+    }
+
+    private static InternalThreadLocalMap fastGet(FastThreadLocalThread thread) {
+        InternalThreadLocalMap threadLocalMap = thread.threadLocalMap();
+        if (threadLocalMap == null) {
+            threadLocalMap = new InternalThreadLocalMap();
+            thread.setThreadLocalMap(threadLocalMap);
+        }
+        return threadLocalMap;
+    }
+
+    private static InternalThreadLocalMap slowGet() {
+        InternalThreadLocalMap threadLocalMap = slowThreadLocalMap.get();
+        if (threadLocalMap == null) {
+            threadLocalMap = new InternalThreadLocalMap();
+            slowThreadLocalMap.set(threadLocalMap);
+        }
+        return threadLocalMap;
+    }
+
+    /**
+     * Drops the map of the current {@link Thread} without notifying the {@link FastThreadLocal}s it holds values of.
+     */
+    public static void remove() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof FastThreadLocalThread) {
+            ((FastThreadLocalThread) thread).setThreadLocalMap(null);
+        } else {
+            slowThreadLocalMap.remove();
+        }
+    }
+
+    /**
+     * Reserves a new slot in the maps of all threads and returns its index.
+     */
+    public static int nextVariableIndex() {
+        int index = nextIndex.getAndIncrement();
+        if (index < 0) {
+            nextIndex.decrementAndGet();
+            throw new IllegalStateException("too many thread-local indexed variables");
+        }
+        return index;
+    }
+
+    private Object[] indexedVariables;
+
+    private InternalThreadLocalMap() {
+        indexedVariables = newIndexedVariables(INITIAL_CAPACITY);
+    }
+
+    private static Object[] newIndexedVariables(int capacity) {
+        Object[] array = new Object[capacity];
+        Arrays.fill(array, UNSET);
+        return array;
+    }
+
+    /**
+     * Returns the value of the given slot or {@link #UNSET} if it has no value.
+     */
+    public Object indexedVariable(int index) {
+        Object[] lookup = indexedVariables;
+        return index < lookup.length? lookup[index] : UNSET;
+    }
+
+    /**
+     * Sets the value of the given slot.
+     *
+     * @return {@code true} if and only if the slot had no value before
+     */
+    public boolean setIndexedVariable(int index, Object value) {
+        Object[] lookup = indexedVariables;
+        if (index < lookup.length) {
+            Object oldValue = lookup[index];
+            lookup[index] = value;
+            return oldValue == UNSET;
+        } else {
+            expandIndexedVariableTableAndSet(index, value);
+            return true;
+        }
+    }
+
+    private void expandIndexedVariableTableAndSet(int index, Object value) {
+        Object[] oldArray = indexedVariables;
+        final int oldCapacity = oldArray.length;
+        int newCapacity = index;
+        newCapacity |= newCapacity >>>  1;
+        newCapacity |= newCapacity >>>  2;
+        newCapacity |= newCapacity >>>  4;
+        newCapacity |= newCapacity >>>  8;
+        newCapacity |= newCapacity >>> 16;
+        newCapacity ++;
+
+        Object[] newArray = Arrays.copyOf(oldArray, newCapacity);
+        Arrays.fill(newArray, oldCapacity, newArray.length, UNSET);
+        newArray[index] = value;
+        indexedVariables = newArray;
+    }
+
+    /**
+     * Clears the given slot.
+     *
+     * @return the value the slot had or {@link #UNSET} if it had none
+     */
+    public Object removeIndexedVariable(int index) {
+        Object[] lookup = indexedVariables;
+        if (index < lookup.length) {
+            Object v = lookup[index];
+            lookup[index] = UNSET;
+            return v;
+        } else {
+            return UNSET;
+        }
+    }
+
+    /**
+     * Returns {@code true} if and only if the given slot has a value.
+     */
+    public boolean isIndexedVariableSet(int index) {
+        Object[] lookup = indexedVariables;
+        return index < lookup.length && lookup[index] != UNSET;
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * A lock-free multi-producer single-consumer {@link Queue} which stores its elements in a linked list of arrays.
+ * <p>
+ * A producer claims a slot of the last array with a single atomic increment and allocates a new array only once per
+ * {@code chunkSize} elements, so unlike {@link java.util.concurrent.ConcurrentLinkedQueue} it does not allocate a
+ * node for every element.  The fields written by the producers and the consumer are padded to keep them on separate
+ * cache lines.
+ * <p>
+ * The queue may optionally be bounded, in which case {@link #offer(Object)} returns {@code false} once it holds
+ * {@code capacity} elements.  A bounded queue costs one more atomic operation per element.
+ * <p>
+ * Only one thread at a time may call {@link #poll()}, {@link #peek()}, {@link #remove()}, {@link #clear()} and the
+ * other methods that remove elements.  {@link #size()}, {@link #isEmpty()} and the {@link #iterator()} may be used by
+ * any thread but only give an estimate while the queue is modified concurrently.  {@link #remove(Object)} and
+ * {@link Iterator#remove()} are not supported.  Note that this class is for internal use only.  Use
+ * {@link PlatformDependent#newMpscQueue()} and {@link PlatformDependent#newMpscQueue(int)} instead.
+ */
+public final class MpscLinkedArrayQueue<E> extends MpscLinkedArrayQueueProducerFields<E> {
+
+    static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    long p40, p41, p42, p43, p44, p45, p46, p47;
+    long p50, p51, p52, p53, p54, p55, p56, p57;
+
+    private final int chunkSize;
+    // Integer.MAX_VALUE if unbounded.
+    private final int capacity;
+
+    /**
+     * Creates a new unbounded queue.
+     */
+    public MpscLinkedArrayQueue() {
+        this(DEFAULT_CHUNK_SIZE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new queue which holds up to {@code capacity} elements.  Specify {@link Integer#MAX_VALUE} for an
+     * unbounded queue.
+     */
+    public MpscLinkedArrayQueue(int capacity) {
+        this(Math.min(DEFAULT_CHUNK_SIZE, capacity), capacity);
+    }
+
+    MpscLinkedArrayQueue(int chunkSize, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity: " + capacity + " (expected: > 0)");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize: " + chunkSize + " (expected: > 0)");
+        }
+        this.chunkSize = chunkSize;
+        this.capacity = capacity;
+
+        MpscLinkedArrayQueueChunk chunk = new MpscLinkedArrayQueueChunk(chunkSize);
+        head = chunk;
+        setTail(chunk);
+        producerLimit = capacity;
+    }
+
+    /**
+     * Returns the maximum number of elements this queue holds or {@link Integer#MAX_VALUE} if it is unbounded.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("e");
+        }
+        if (capacity != Integer.MAX_VALUE && !reserve()) {
+            return false;
+        }
+
+        final int chunkSize = this.chunkSize;
+        MpscLinkedArrayQueueChunk tail = tail();
+        for (;;) {
+            int index = tail.claim();
+            if (index < chunkSize) {
+                tail.lazySet(index, e);
+                return true;
+            }
+
+            // The chunk is full, so link a new one which holds the element already or help the producer who did.
+            MpscLinkedArrayQueueChunk next = tail.next();
+            if (next == null) {
+                MpscLinkedArrayQueueChunk newChunk = new MpscLinkedArrayQueueChunk(chunkSize, e);
+                if (tail.casNext(null, newChunk)) {
+                    casTail(tail, newChunk);
+                    return true;
+                }
+                next = tail.next();
+            }
+            casTail(tail, next);
+            tail = tail();
+        }
+    }
+
+    /**
+     * Reserves room for one element in a bounded queue.
+     */
+    private boolean reserve() {
+        long limit = producerLimit;
+        for (;;) {
+            long produced = produced();
+            if (produced >= limit) {
+                // Only look at the consumer's counter if the cached limit is exhausted.
+                limit = consumed() + capacity;
+                if (produced >= limit) {
+                    return false;
+                }
+                producerLimit = limit;
+            }
+            if (casProduced(produced, produced + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public E poll() {
+        return poll(true);
+    }
+
+    @Override
+    public E peek() {
+        return poll(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E poll(boolean remove) {
+        MpscLinkedArrayQueueChunk head = this.head;
+        int index = consumerIndex;
+        if (index == chunkSize) {
+            MpscLinkedArrayQueueChunk next = head.next();
+            if (next == null) {
+                return null;
+            }
+            // All elements of the chunk were consumed, so let it go.
+            this.head = head = next;
+            consumerIndex = index = 0;
+        }
+
+        Object e = head.get(index);
+        if (e == null) {
+            if (head.claimed() <= index) {
+                return null;
+            }
+            // A producer claimed the slot but has not stored its element yet.
+            do {
+                e = head.get(index);
+            } while (e == null);
+        }
+
+        if (remove) {
+            head.lazySet(index, null);
+            consumerIndex = index + 1;
+            if (capacity != Integer.MAX_VALUE) {
+                lazySetConsumed(consumed() + 1);
+            }
+        }
+        return (E) e;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        MpscLinkedArrayQueueChunk head = this.head;
+        int index = consumerIndex;
+        if (index < chunkSize) {
+            return head.claimed() <= index;
+        }
+        return head.next() == null;
+    }
+
+    @Override
+    public int size() {
+        final int chunkSize = this.chunkSize;
+        MpscLinkedArrayQueueChunk chunk = head;
+        long size = -Math.min(consumerIndex, chunkSize);
+        do {
+            size += Math.min(chunk.claimed(), chunkSize);
+            chunk = chunk.next();
+        } while (chunk != null && size < Integer.MAX_VALUE);
+
+        return (int) Math.max(0, Math.min(size, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Returns a weakly consistent read-only {@link Iterator} over the elements of this queue.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    private final class Itr implements Iterator<E> {
+
+        private MpscLinkedArrayQueueChunk chunk = head;
+        private int index = consumerIndex;
+        private Object next;
+
+        Itr() {
+            advance();
+        }
+
+        private void advance() {
+            while (chunk != null) {
+                int end = Math.min(chunk.claimed(), chunkSize);
+                while (index < end) {
+                    Object e = chunk.get(index ++);
+                    if (e != null) {
+                        next = e;
+                        return;
+                    }
+                }
+                if (index < chunkSize) {
+                    break;
+                }
+                chunk = chunk.next();
+                index = 0;
+            }
+            next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E next() {
+            Object e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return (E) e;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A fixed size array of elements of a {@link MpscLinkedArrayQueue}.  Producers claim a slot by incrementing
+ * {@link #claimed} and then store their element into it.  Once all slots are claimed, a new chunk is linked via
+ * {@link #next}.
+ */
+// Extends AtomicReferenceArray for intrinsics.  The chunk itself holds the elements.
+@SuppressWarnings("serial")
+final class MpscLinkedArrayQueueChunk extends AtomicReferenceArray<Object> {
+
+    private static final AtomicIntegerFieldUpdater<MpscLinkedArrayQueueChunk> CLAIMED_UPDATER;
+    private static final AtomicReferenceFieldUpdater<MpscLinkedArrayQueueChunk, MpscLinkedArrayQueueChunk>
+            NEXT_UPDATER;
+
+    static {
+        AtomicIntegerFieldUpdater<MpscLinkedArrayQueueChunk> claimedUpdater =
+                PlatformDependent.newAtomicIntegerFieldUpdater(MpscLinkedArrayQueueChunk.class, "claimed");
+        if (claimedUpdater == null) {
+            claimedUpdater = AtomicIntegerFieldUpdater.newUpdater(MpscLinkedArrayQueueChunk.class, "claimed");
+        }
+        CLAIMED_UPDATER = claimedUpdater;
+
+        AtomicReferenceFieldUpdater<MpscLinkedArrayQueueChunk, MpscLinkedArrayQueueChunk> nextUpdater =
+                PlatformDependent.newAtomicReferenceFieldUpdater(MpscLinkedArrayQueueChunk.class, "next");
+        if (nextUpdater == null) {
+            nextUpdater = AtomicReferenceFieldUpdater.newUpdater(
+                    MpscLinkedArrayQueueChunk.class, MpscLinkedArrayQueueChunk.class, "next");
+        }
+        NEXT_UPDATER = nextUpdater;
+    }
+
+    // The number of slots handed out to producers.  May exceed the length of the chunk once it is full.
+    private volatile int claimed;
+    private volatile MpscLinkedArrayQueueChunk next;
+
+    MpscLinkedArrayQueueChunk(int length) {
+        super(length);
+    }
+
+    /**
+     * Creates a new chunk whose first slot is already claimed and holds the given element.
+     */
+    MpscLinkedArrayQueueChunk(int length, Object first) {
+        super(length);
+        lazySet(0, first);
+        claimed = 1;
+    }
+
+    int claimed() {
+        return claimed;
+    }
+
+    /**
+     * Claims the next slot and returns its index, which is out of bounds if the chunk is full.
+     */
+    int claim() {
+        return CLAIMED_UPDATER.getAndIncrement(this);
+    }
+
+    MpscLinkedArrayQueueChunk next() {
+        return next;
+    }
+
+    boolean casNext(MpscLinkedArrayQueueChunk expect, MpscLinkedArrayQueueChunk update) {
+        return NEXT_UPDATER.compareAndSet(this, expect, update);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import java.util.AbstractQueue;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * The fields of a {@link MpscLinkedArrayQueue} which are written by the consumer.  They are padded so that they do
+ * not share a cache line with the fields the producers write to.
+ */
+abstract class MpscLinkedArrayQueueConsumerFields<E> extends AbstractQueue<E> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpscLinkedArrayQueueConsumerFields> CONSUMED_UPDATER;
+
+    static {
+        @SuppressWarnings("rawtypes")
+        AtomicLongFieldUpdater<MpscLinkedArrayQueueConsumerFields> consumedUpdater =
+                PlatformDependent.newAtomicLongFieldUpdater(MpscLinkedArrayQueueConsumerFields.class, "consumed");
+        if (consumedUpdater == null) {
+            consumedUpdater = AtomicLongFieldUpdater.newUpdater(MpscLinkedArrayQueueConsumerFields.class, "consumed");
+        }
+        CONSUMED_UPDATER = consumedUpdater;
+    }
+
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    // The chunk and the index of the next element to poll.
+    volatile MpscLinkedArrayQueueChunk head;
+    int consumerIndex;
+
+    // The number of polled elements, only maintained by a bounded queue.
+    private volatile long consumed;
+
+    final long consumed() {
+        return consumed;
+    }
+
+    @SuppressWarnings("unchecked")
+    final void lazySetConsumed(long consumed) {
+        CONSUMED_UPDATER.lazySet(this, consumed);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * The fields of a {@link MpscLinkedArrayQueue} which are written by the producers.  They are padded so that they do
+ * not share a cache line with the fields the consumer writes to.
+ */
+abstract class MpscLinkedArrayQueueProducerFields<E> extends MpscLinkedArrayQueueConsumerFields<E> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<MpscLinkedArrayQueueProducerFields, MpscLinkedArrayQueueChunk>
+            TAIL_UPDATER;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpscLinkedArrayQueueProducerFields> PRODUCED_UPDATER;
+
+    static {
+        @SuppressWarnings("rawtypes")
+        AtomicReferenceFieldUpdater<MpscLinkedArrayQueueProducerFields, MpscLinkedArrayQueueChunk> tailUpdater =
+                PlatformDependent.newAtomicReferenceFieldUpdater(MpscLinkedArrayQueueProducerFields.class, "tail");
+        if (tailUpdater == null) {
+            tailUpdater = AtomicReferenceFieldUpdater.newUpdater(
+                    MpscLinkedArrayQueueProducerFields.class, MpscLinkedArrayQueueChunk.class, "tail");
+        }
+        TAIL_UPDATER = tailUpdater;
+
+        @SuppressWarnings("rawtypes")
+        AtomicLongFieldUpdater<MpscLinkedArrayQueueProducerFields> producedUpdater =
+                PlatformDependent.newAtomicLongFieldUpdater(MpscLinkedArrayQueueProducerFields.class, "produced");
+        if (producedUpdater == null) {
+            producedUpdater = AtomicLongFieldUpdater.newUpdater(MpscLinkedArrayQueueProducerFields.class, "produced");
+        }
+        PRODUCED_UPDATER = producedUpdater;
+    }
+
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+    long p30, p31, p32, p33, p34, p35, p36, p37;
+
+    // The chunk producers claim slots from.  May lag behind the last chunk for a moment.
+    private volatile MpscLinkedArrayQueueChunk tail;
+
+    // The number of offered elements and the cached upper bound for it, only maintained by a bounded queue.
+    private volatile long produced;
+    volatile long producerLimit;
+
+    final MpscLinkedArrayQueueChunk tail() {
+        return tail;
+    }
+
+    final void setTail(MpscLinkedArrayQueueChunk tail) {
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    final boolean casTail(MpscLinkedArrayQueueChunk expect, MpscLinkedArrayQueueChunk update) {
+        return TAIL_UPDATER.compareAndSet(this, expect, update);
+    }
+
+    final long produced() {
+        return produced;
+    }
+
+    @SuppressWarnings("unchecked")
+    final boolean casProduced(long expect, long update) {
+        return PRODUCED_UPDATER.compareAndSet(this, expect, update);
+    }
+}
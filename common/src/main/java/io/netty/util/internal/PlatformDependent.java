@@ -17,6 +17,7 @@ package io.netty.util.internal;
 
 import io.netty.util.CharsetUtil;
 import io.netty.util.internal.chmv8.ConcurrentHashMapV8;
+import io.netty.util.internal.chmv8.LongAdder;
 import io.netty.util.internal.logging.InternalLogger;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 
@@ -29,13 +30,16 @@ import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.regex.Matcher;
@@ -54,6 +58,11 @@ public final class PlatformDependent {
 
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(PlatformDependent.class);
 
+    /**
+     * {@code true} if and only if the native byte order of the platform is {@link ByteOrder#BIG_ENDIAN}.
+     */
+    public static final boolean BIG_ENDIAN_NATIVE_ORDER = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
     private static final Pattern MAX_DIRECT_MEMORY_SIZE_ARG_PATTERN = Pattern.compile(
             "\\s*-XX:MaxDirectMemorySize\\s*=\\s*([0-9]+)\\s*([kKmMgG]?)\\s*$");
 
@@ -71,6 +80,10 @@ public final class PlatformDependent {
             HAS_UNSAFE && !SystemPropertyUtil.getBoolean("io.netty.noPreferDirect", false);
     private static final long MAX_DIRECT_MEMORY = maxDirectMemory0();
 
+    private static final boolean USE_DIRECT_BUFFER_NO_CLEANER;
+    private static final AtomicLong DIRECT_MEMORY_COUNTER;
+    private static final long DIRECT_MEMORY_LIMIT;
+
     private static final long ARRAY_BASE_OFFSET = arrayBaseOffset0();
 
     private static final boolean HAS_JAVASSIST = hasJavassist0();
@@ -84,6 +97,25 @@ public final class PlatformDependent {
             logger.debug("-Dio.netty.noPreferDirect: {}", !DIRECT_BUFFER_PREFERRED);
         }
 
+        // Direct buffers which are allocated without a Cleaner are not accounted by the JDK, so we count them
+        // ourselves.  They are disabled unless explicitly requested: a positive value enables them with the given
+        // limit and 0 enables them with the same limit as the JDK.
+        long maxDirectMemory = SystemPropertyUtil.getLong("io.netty.maxDirectMemory", -1);
+        if (maxDirectMemory < 0 || !hasUnsafe() || !PlatformDependent0.hasDirectBufferNoCleanerConstructor()) {
+            USE_DIRECT_BUFFER_NO_CLEANER = false;
+            DIRECT_MEMORY_COUNTER = null;
+        } else {
+            USE_DIRECT_BUFFER_NO_CLEANER = true;
+            if (maxDirectMemory == 0) {
+                maxDirectMemory = MAX_DIRECT_MEMORY;
+            }
+            DIRECT_MEMORY_COUNTER = new AtomicLong();
+        }
+        DIRECT_MEMORY_LIMIT = maxDirectMemory;
+        if (logger.isDebugEnabled()) {
+            logger.debug("-Dio.netty.maxDirectMemory: {} bytes", maxDirectMemory);
+        }
+
         if (!hasUnsafe() && !isAndroid()) {
             logger.info(
                     "Your platform does not provide complete low-level API for accessing direct buffers reliably. " +
@@ -136,6 +168,14 @@ public final class PlatformDependent {
         return HAS_UNSAFE;
     }
 
+    /**
+     * Returns {@code true} if and only if {@link #hasUnsafe()} returns {@code true} and the platform supports
+     * unaligned memory access, which makes reading multi-byte values at arbitrary offsets cheap.
+     */
+    public static boolean isUnaligned() {
+        return HAS_UNSAFE && PlatformDependent0.isUnaligned();
+    }
+
     /**
      * Returns {@code true} if the platform has reliable low-level direct buffer access API and a user specified
      * {@code -Dio.netty.preferDirect} option.
@@ -244,6 +284,100 @@ public final class PlatformDependent {
         }
     }
 
+    /**
+     * Creates a new fastest {@link LongCounter} implementaion for the current platform.
+     */
+    public static LongCounter newLongCounter() {
+        if (HAS_UNSAFE) {
+            return new LongAdderCounter();
+        } else {
+            return new AtomicLongCounter();
+        }
+    }
+
+    /**
+     * Creates a new unbounded {@link Queue} which is safe to use for multiple producers and a single consumer.
+     */
+    public static <T> Queue<T> newMpscQueue() {
+        return new MpscLinkedArrayQueue<T>();
+    }
+
+    /**
+     * Creates a new {@link Queue} which is safe to use for multiple producers and a single consumer and holds up to
+     * {@code maxCapacity} elements.  {@link Queue#offer(Object)} returns {@code false} once the queue is full.
+     * Specify {@link Integer#MAX_VALUE} for an unbounded queue.
+     */
+    public static <T> Queue<T> newMpscQueue(int maxCapacity) {
+        return new MpscLinkedArrayQueue<T>(maxCapacity);
+    }
+
+    /**
+     * Returns {@code true} if direct buffers should be allocated via {@link #allocateDirectNoCleaner(int)} and
+     * released via {@link #freeDirectNoCleaner(ByteBuffer)}, which does not rely on the garbage collector.  This is
+     * only the case if {@code -Dio.netty.maxDirectMemory} is set to {@code 0} or a positive value.
+     */
+    public static boolean useDirectBufferNoCleaner() {
+        return USE_DIRECT_BUFFER_NO_CLEANER;
+    }
+
+    /**
+     * Allocates a new direct {@link ByteBuffer} which has no {@link sun.misc.Cleaner} and so must be released via
+     * {@link #freeDirectNoCleaner(ByteBuffer)}.  Only use this if {@link #useDirectBufferNoCleaner()} returns
+     * {@code true}.
+     *
+     * @throws OutOfDirectMemoryError if the allocation would exceed the configured maximum direct memory
+     */
+    public static ByteBuffer allocateDirectNoCleaner(int capacity) {
+        assert USE_DIRECT_BUFFER_NO_CLEANER;
+
+        incrementMemoryCounter(capacity);
+        try {
+            return PlatformDependent0.allocateDirectNoCleaner(capacity);
+        } catch (Throwable e) {
+            decrementMemoryCounter(capacity);
+            throwException(e);
+            return null;
+        }
+    }
+
+    /**
+     * Releases a direct {@link ByteBuffer} which was allocated via {@link #allocateDirectNoCleaner(int)}.
+     */
+    public static void freeDirectNoCleaner(ByteBuffer buffer) {
+        assert USE_DIRECT_BUFFER_NO_CLEANER;
+
+        int capacity = buffer.capacity();
+        PlatformDependent0.freeMemory(PlatformDependent0.directBufferAddress(buffer));
+        decrementMemoryCounter(capacity);
+    }
+
+    /**
+     * Returns the number of bytes which are currently allocated via {@link #allocateDirectNoCleaner(int)} or
+     * {@code -1} if {@link #useDirectBufferNoCleaner()} returns {@code false}.
+     */
+    public static long usedDirectMemory() {
+        return DIRECT_MEMORY_COUNTER != null ? DIRECT_MEMORY_COUNTER.get() : -1;
+    }
+
+    private static void incrementMemoryCounter(int capacity) {
+        for (;;) {
+            long usedMemory = DIRECT_MEMORY_COUNTER.get();
+            long newUsedMemory = usedMemory + capacity;
+            if (newUsedMemory > DIRECT_MEMORY_LIMIT) {
+                throw new OutOfDirectMemoryError("failed to allocate " + capacity +
+                        " byte(s) of direct memory (used: " + usedMemory + ", max: " + DIRECT_MEMORY_LIMIT + ')');
+            }
+            if (DIRECT_MEMORY_COUNTER.compareAndSet(usedMemory, newUsedMemory)) {
+                return;
+            }
+        }
+    }
+
+    private static void decrementMemoryCounter(int capacity) {
+        long usedMemory = DIRECT_MEMORY_COUNTER.addAndGet(-capacity);
+        assert usedMemory >= 0;
+    }
+
     /**
      * Try to deallocate the specified direct {@link ByteBuffer}.  Please note this method does nothing if
      * the current platform does not support this operation or the specified buffer is not a direct buffer.
@@ -290,6 +424,31 @@ public final class PlatformDependent {
         return PlatformDependent0.getLong(address);
     }
 
+    public static byte getByte(byte[] data, int index) {
+        return PlatformDependent0.getByte(data, ARRAY_BASE_OFFSET + index);
+    }
+
+    /**
+     * Reads the 16-bit short integer at the specified index of the byte array in the native byte order.
+     */
+    public static short getShort(byte[] data, int index) {
+        return PlatformDependent0.getShort(data, ARRAY_BASE_OFFSET + index);
+    }
+
+    /**
+     * Reads the 32-bit integer at the specified index of the byte array in the native byte order.
+     */
+    public static int getInt(byte[] data, int index) {
+        return PlatformDependent0.getInt(data, ARRAY_BASE_OFFSET + index);
+    }
+
+    /**
+     * Reads the 64-bit long integer at the specified index of the byte array in the native byte order.
+     */
+    public static long getLong(byte[] data, int index) {
+        return PlatformDependent0.getLong(data, ARRAY_BASE_OFFSET + index);
+    }
+
     public static void putByte(long address, byte value) {
         PlatformDependent0.putByte(address, value);
     }
@@ -306,6 +465,31 @@ public final class PlatformDependent {
         PlatformDependent0.putLong(address, value);
     }
 
+    public static void putByte(byte[] data, int index, byte value) {
+        PlatformDependent0.putByte(data, ARRAY_BASE_OFFSET + index, value);
+    }
+
+    /**
+     * Writes the 16-bit short integer at the specified index of the byte array in the native byte order.
+     */
+    public static void putShort(byte[] data, int index, short value) {
+        PlatformDependent0.putShort(data, ARRAY_BASE_OFFSET + index, value);
+    }
+
+    /**
+     * Writes the 32-bit integer at the specified index of the byte array in the native byte order.
+     */
+    public static void putInt(byte[] data, int index, int value) {
+        PlatformDependent0.putInt(data, ARRAY_BASE_OFFSET + index, value);
+    }
+
+    /**
+     * Writes the 64-bit long integer at the specified index of the byte array in the native byte order.
+     */
+    public static void putLong(byte[] data, int index, long value) {
+        PlatformDependent0.putLong(data, ARRAY_BASE_OFFSET + index, value);
+    }
+
     public static void copyMemory(long srcAddr, long dstAddr, long length) {
         PlatformDependent0.copyMemory(srcAddr, dstAddr, length);
     }
@@ -318,6 +502,68 @@ public final class PlatformDependent {
         PlatformDependent0.copyMemory(null, srcAddr, dst, ARRAY_BASE_OFFSET + dstIndex, length);
     }
 
+    /**
+     * Returns {@code true} if the {@code length} bytes starting at the specified indexes of the two arrays are equal.
+     * Reads a {@code long} at a time, so only use this if {@link #isUnaligned()} returns {@code true}.
+     */
+    public static boolean equals(byte[] a, int aIndex, byte[] b, int bIndex, int length) {
+        return PlatformDependent0.equals(a, ARRAY_BASE_OFFSET + aIndex, b, ARRAY_BASE_OFFSET + bIndex, length);
+    }
+
+    /**
+     * Same as {@link #equals(byte[], int, byte[], int, int)}, but compares against memory at the specified address.
+     */
+    public static boolean equals(byte[] a, int aIndex, long bAddress, int length) {
+        return PlatformDependent0.equals(a, ARRAY_BASE_OFFSET + aIndex, null, bAddress, length);
+    }
+
+    /**
+     * Same as {@link #equals(byte[], int, byte[], int, int)}, but compares memory at the specified addresses.
+     */
+    public static boolean equals(long aAddress, long bAddress, int length) {
+        return PlatformDependent0.equals(null, aAddress, null, bAddress, length);
+    }
+
+    /**
+     * Compares the {@code length} bytes starting at the specified indexes of the two arrays lexicographically as
+     * unsigned bytes and returns a negative value, zero or a positive value like {@link Comparable#compareTo(Object)}.
+     * Reads a {@code long} at a time, so only use this if {@link #isUnaligned()} returns {@code true}.
+     */
+    public static int compare(byte[] a, int aIndex, byte[] b, int bIndex, int length) {
+        return PlatformDependent0.compare(a, ARRAY_BASE_OFFSET + aIndex, b, ARRAY_BASE_OFFSET + bIndex, length);
+    }
+
+    /**
+     * Same as {@link #compare(byte[], int, byte[], int, int)}, but compares against memory at the specified address.
+     */
+    public static int compare(byte[] a, int aIndex, long bAddress, int length) {
+        return PlatformDependent0.compare(a, ARRAY_BASE_OFFSET + aIndex, null, bAddress, length);
+    }
+
+    /**
+     * Same as {@link #compare(byte[], int, byte[], int, int)}, but compares memory at the specified addresses.
+     */
+    public static int compare(long aAddress, long bAddress, int length) {
+        return PlatformDependent0.compare(null, aAddress, null, bAddress, length);
+    }
+
+    /**
+     * Returns the hash code of the {@code length} bytes starting at the specified index of the array.  The bytes are
+     * hashed as a sequence of big-endian 32-bit integers followed by the remaining bytes, starting with {@code 1} and
+     * multiplying by {@code 31} for every element.  Reads a {@code long} at a time, so only use this if
+     * {@link #isUnaligned()} returns {@code true}.
+     */
+    public static int hashCode(byte[] data, int index, int length) {
+        return PlatformDependent0.hashCode(data, ARRAY_BASE_OFFSET + index, length);
+    }
+
+    /**
+     * Same as {@link #hashCode(byte[], int, int)}, but hashes memory at the specified address.
+     */
+    public static int hashCode(long address, int length) {
+        return PlatformDependent0.hashCode(null, address, length);
+    }
+
     /**
      * Create a new optimized {@link AtomicReferenceFieldUpdater} or {@code null} if it
      * could not be created. Because of this the caller need to check for {@code null} and if {@code null} is returned
@@ -795,4 +1041,37 @@ public final class PlatformDependent {
     private PlatformDependent() {
         // only static method supported
     }
+
+    private static final class LongAdderCounter extends LongAdder implements LongCounter {
+        private static final long serialVersionUID = 3917340553296587357L;
+
+        @Override
+        public long value() {
+            return sum();
+        }
+    }
+
+    private static final class AtomicLongCounter extends AtomicLong implements LongCounter {
+        private static final long serialVersionUID = 4074772784610639305L;
+
+        @Override
+        public void add(long delta) {
+            addAndGet(delta);
+        }
+
+        @Override
+        public void increment() {
+            incrementAndGet();
+        }
+
+        @Override
+        public void decrement() {
+            decrementAndGet();
+        }
+
+        @Override
+        public long value() {
+            return get();
+        }
+    }
 }
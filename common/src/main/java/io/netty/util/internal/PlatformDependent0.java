@@ -21,6 +21,7 @@ import sun.misc.Cleaner;
 import sun.misc.Unsafe;
 import sun.nio.ch.DirectBuffer;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.Buffer;
@@ -40,6 +41,12 @@ final class PlatformDependent0 {
     private static final boolean BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
     private static final long ADDRESS_FIELD_OFFSET;
 
+    /**
+     * The {@code DirectByteBuffer(long, int)} constructor which allows to wrap memory without a {@link Cleaner}, or
+     * {@code null} if it is not accessible.
+     */
+    private static final Constructor<?> DIRECT_BUFFER_CONSTRUCTOR;
+
     /**
      * {@code true} if and only if the platform supports unaligned access.
      *
@@ -116,6 +123,7 @@ final class PlatformDependent0 {
         if (unsafe == null) {
             ADDRESS_FIELD_OFFSET = -1;
             UNALIGNED = false;
+            DIRECT_BUFFER_CONSTRUCTOR = null;
         } else {
             ADDRESS_FIELD_OFFSET = objectFieldOffset(addressField);
             boolean unaligned;
@@ -133,6 +141,24 @@ final class PlatformDependent0 {
 
             UNALIGNED = unaligned;
             logger.debug("java.nio.Bits.unaligned: {}", UNALIGNED);
+
+            Constructor<?> directBufferConstructor;
+            long address = -1;
+            try {
+                directBufferConstructor = direct.getClass().getDeclaredConstructor(long.class, int.class);
+                directBufferConstructor.setAccessible(true);
+                address = unsafe.allocateMemory(1);
+                directBufferConstructor.newInstance(address, 1);
+            } catch (Throwable t) {
+                directBufferConstructor = null;
+            } finally {
+                if (address != -1) {
+                    unsafe.freeMemory(address);
+                }
+            }
+            DIRECT_BUFFER_CONSTRUCTOR = directBufferConstructor;
+            logger.debug("java.nio.DirectByteBuffer.<init>(long, int): {}",
+                    directBufferConstructor != null? "available" : "unavailable");
         }
     }
 
@@ -140,6 +166,10 @@ final class PlatformDependent0 {
         return UNSAFE != null;
     }
 
+    static boolean isUnaligned() {
+        return UNALIGNED;
+    }
+
     static void throwException(Throwable t) {
         UNSAFE.throwException(t);
     }
@@ -173,6 +203,29 @@ final class PlatformDependent0 {
         }
     }
 
+    static boolean hasDirectBufferNoCleanerConstructor() {
+        return DIRECT_BUFFER_CONSTRUCTOR != null;
+    }
+
+    static ByteBuffer allocateDirectNoCleaner(int capacity) {
+        // Allocate at least one byte so that the returned address is always unique and freeable.
+        long address = UNSAFE.allocateMemory(Math.max(1, capacity));
+        try {
+            return (ByteBuffer) DIRECT_BUFFER_CONSTRUCTOR.newInstance(address, capacity);
+        } catch (Throwable cause) {
+            UNSAFE.freeMemory(address);
+            // Not expected to ever happen as the constructor was tested in the static initializer.
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new Error(cause);
+        }
+    }
+
+    static void freeMemory(long address) {
+        UNSAFE.freeMemory(address);
+    }
+
     static long directBufferAddress(ByteBuffer buffer) {
         return getLong(buffer, ADDRESS_FIELD_OFFSET);
     }
@@ -251,6 +304,60 @@ final class PlatformDependent0 {
         }
     }
 
+    static byte getByte(byte[] data, long offset) {
+        return UNSAFE.getByte(data, offset);
+    }
+
+    static short getShort(byte[] data, long offset) {
+        if (UNALIGNED) {
+            return UNSAFE.getShort(data, offset);
+        } else if (BIG_ENDIAN) {
+            return (short) (getByte(data, offset) << 8 | getByte(data, offset + 1) & 0xff);
+        } else {
+            return (short) (getByte(data, offset + 1) << 8 | getByte(data, offset) & 0xff);
+        }
+    }
+
+    static int getInt(byte[] data, long offset) {
+        if (UNALIGNED) {
+            return UNSAFE.getInt(data, offset);
+        } else if (BIG_ENDIAN) {
+            return getByte(data, offset) << 24 |
+                  (getByte(data, offset + 1) & 0xff) << 16 |
+                  (getByte(data, offset + 2) & 0xff) <<  8 |
+                   getByte(data, offset + 3) & 0xff;
+        } else {
+            return getByte(data, offset + 3) << 24 |
+                  (getByte(data, offset + 2) & 0xff) << 16 |
+                  (getByte(data, offset + 1) & 0xff) <<  8 |
+                   getByte(data, offset) & 0xff;
+        }
+    }
+
+    static long getLong(byte[] data, long offset) {
+        if (UNALIGNED) {
+            return UNSAFE.getLong(data, offset);
+        } else if (BIG_ENDIAN) {
+            return (long) getByte(data, offset) << 56 |
+                  ((long) getByte(data, offset + 1) & 0xff) << 48 |
+                  ((long) getByte(data, offset + 2) & 0xff) << 40 |
+                  ((long) getByte(data, offset + 3) & 0xff) << 32 |
+                  ((long) getByte(data, offset + 4) & 0xff) << 24 |
+                  ((long) getByte(data, offset + 5) & 0xff) << 16 |
+                  ((long) getByte(data, offset + 6) & 0xff) <<  8 |
+                   (long) getByte(data, offset + 7) & 0xff;
+        } else {
+            return (long) getByte(data, offset + 7) << 56 |
+                  ((long) getByte(data, offset + 6) & 0xff) << 48 |
+                  ((long) getByte(data, offset + 5) & 0xff) << 40 |
+                  ((long) getByte(data, offset + 4) & 0xff) << 32 |
+                  ((long) getByte(data, offset + 3) & 0xff) << 24 |
+                  ((long) getByte(data, offset + 2) & 0xff) << 16 |
+                  ((long) getByte(data, offset + 1) & 0xff) <<  8 |
+                   (long) getByte(data, offset) & 0xff;
+        }
+    }
+
     static void putByte(long address, byte value) {
         UNSAFE.putByte(address, value);
     }
@@ -307,6 +414,62 @@ final class PlatformDependent0 {
         }
     }
 
+    static void putByte(byte[] data, long offset, byte value) {
+        UNSAFE.putByte(data, offset, value);
+    }
+
+    static void putShort(byte[] data, long offset, short value) {
+        if (UNALIGNED) {
+            UNSAFE.putShort(data, offset, value);
+        } else if (BIG_ENDIAN) {
+            putByte(data, offset, (byte) (value >>> 8));
+            putByte(data, offset + 1, (byte) value);
+        } else {
+            putByte(data, offset + 1, (byte) (value >>> 8));
+            putByte(data, offset, (byte) value);
+        }
+    }
+
+    static void putInt(byte[] data, long offset, int value) {
+        if (UNALIGNED) {
+            UNSAFE.putInt(data, offset, value);
+        } else if (BIG_ENDIAN) {
+            putByte(data, offset, (byte) (value >>> 24));
+            putByte(data, offset + 1, (byte) (value >>> 16));
+            putByte(data, offset + 2, (byte) (value >>> 8));
+            putByte(data, offset + 3, (byte) value);
+        } else {
+            putByte(data, offset + 3, (byte) (value >>> 24));
+            putByte(data, offset + 2, (byte) (value >>> 16));
+            putByte(data, offset + 1, (byte) (value >>> 8));
+            putByte(data, offset, (byte) value);
+        }
+    }
+
+    static void putLong(byte[] data, long offset, long value) {
+        if (UNALIGNED) {
+            UNSAFE.putLong(data, offset, value);
+        } else if (BIG_ENDIAN) {
+            putByte(data, offset, (byte) (value >>> 56));
+            putByte(data, offset + 1, (byte) (value >>> 48));
+            putByte(data, offset + 2, (byte) (value >>> 40));
+            putByte(data, offset + 3, (byte) (value >>> 32));
+            putByte(data, offset + 4, (byte) (value >>> 24));
+            putByte(data, offset + 5, (byte) (value >>> 16));
+            putByte(data, offset + 6, (byte) (value >>> 8));
+            putByte(data, offset + 7, (byte) value);
+        } else {
+            putByte(data, offset + 7, (byte) (value >>> 56));
+            putByte(data, offset + 6, (byte) (value >>> 48));
+            putByte(data, offset + 5, (byte) (value >>> 40));
+            putByte(data, offset + 4, (byte) (value >>> 32));
+            putByte(data, offset + 3, (byte) (value >>> 24));
+            putByte(data, offset + 2, (byte) (value >>> 16));
+            putByte(data, offset + 1, (byte) (value >>> 8));
+            putByte(data, offset, (byte) value);
+        }
+    }
+
     static void copyMemory(long srcAddr, long dstAddr, long length) {
         UNSAFE.copyMemory(srcAddr, dstAddr, length);
     }
@@ -315,6 +478,76 @@ final class PlatformDependent0 {
         UNSAFE.copyMemory(src, srcOffset, dst, dstOffset, length);
     }
 
+    static boolean equals(Object a, long aOffset, Object b, long bOffset, int length) {
+        for (int i = length >>> 3; i > 0; i --) {
+            if (UNSAFE.getLong(a, aOffset) != UNSAFE.getLong(b, bOffset)) {
+                return false;
+            }
+            aOffset += 8;
+            bOffset += 8;
+        }
+        for (int i = length & 7; i > 0; i --) {
+            if (UNSAFE.getByte(a, aOffset) != UNSAFE.getByte(b, bOffset)) {
+                return false;
+            }
+            aOffset ++;
+            bOffset ++;
+        }
+        return true;
+    }
+
+    static int compare(Object a, long aOffset, Object b, long bOffset, int length) {
+        for (int i = length >>> 3; i > 0; i --) {
+            long va = UNSAFE.getLong(a, aOffset);
+            long vb = UNSAFE.getLong(b, bOffset);
+            if (va != vb) {
+                if (!BIG_ENDIAN) {
+                    va = Long.reverseBytes(va);
+                    vb = Long.reverseBytes(vb);
+                }
+                // Flip the sign bits to compare unsigned.
+                return (va ^ Long.MIN_VALUE) < (vb ^ Long.MIN_VALUE)? -1 : 1;
+            }
+            aOffset += 8;
+            bOffset += 8;
+        }
+        for (int i = length & 7; i > 0; i --) {
+            int va = UNSAFE.getByte(a, aOffset) & 0xFF;
+            int vb = UNSAFE.getByte(b, bOffset) & 0xFF;
+            if (va != vb) {
+                return va < vb? -1 : 1;
+            }
+            aOffset ++;
+            bOffset ++;
+        }
+        return 0;
+    }
+
+    static int hashCode(Object data, long offset, int length) {
+        int hashCode = 1;
+        for (int i = length >>> 3; i > 0; i --) {
+            long value = UNSAFE.getLong(data, offset);
+            if (!BIG_ENDIAN) {
+                value = Long.reverseBytes(value);
+            }
+            // Same as hashing the two big-endian ints one after the other.
+            hashCode = 31 * (31 * hashCode + (int) (value >>> 32)) + (int) value;
+            offset += 8;
+        }
+        if ((length & 4) != 0) {
+            int value = UNSAFE.getInt(data, offset);
+            if (!BIG_ENDIAN) {
+                value = Integer.reverseBytes(value);
+            }
+            hashCode = 31 * hashCode + value;
+            offset += 4;
+        }
+        for (int i = length & 3; i > 0; i --) {
+            hashCode = 31 * hashCode + UNSAFE.getByte(data, offset ++);
+        }
+        return hashCode;
+    }
+
     static <U, W> AtomicReferenceFieldUpdater<U, W> newAtomicReferenceFieldUpdater(
             Class<U> tclass, String fieldName) throws Exception {
         return new UnsafeAtomicReferenceFieldUpdater<U, W>(UNSAFE, tclass, fieldName);
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Keeps track of the event loop which is backed by the current {@link Thread}, so code which has no reference to
+ * the event loop (like the buffer pool) can tell event loop threads apart from other threads.  Only event loops
+ * bind their threads; the threads of other {@link EventExecutor}s, which usually run business logic, are not bound.
+ */
+public final class ThreadExecutorMap {
+
+    private static final FastThreadLocal<EventExecutor> mappings = new FastThreadLocal<EventExecutor>();
+
+    /**
+     * Returns the event loop that runs on the current {@link Thread} or {@code null} if the current
+     * {@link Thread} is not the thread of an event loop.
+     */
+    public static EventExecutor currentExecutor() {
+        return mappings.get();
+    }
+
+    /**
+     * Binds the given event loop to the current {@link Thread}. Specify {@code null} to remove the binding.
+     */
+    public static void setCurrentExecutor(EventExecutor executor) {
+        if (executor == null) {
+            mappings.remove();
+        } else {
+            mappings.set(executor);
+        }
+    }
+
+    private ThreadExecutorMap() { }
+}
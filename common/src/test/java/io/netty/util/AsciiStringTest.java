@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AsciiStringTest {
+
+    @Test
+    public void testCharSequence() {
+        AsciiString s = new AsciiString("Content-Length");
+        assertEquals(14, s.length());
+        assertEquals('C', s.charAt(0));
+        assertEquals("Content-Length", s.toString());
+        assertEquals("Length", s.subSequence(8, 14).toString());
+        assertEquals('L', s.subSequence(8, 14).charAt(0));
+        assertSame(s, s.subSequence(0, 14));
+        assertTrue(s.subSequence(3, 3).isEmpty());
+    }
+
+    @Test
+    public void testSharedArray() {
+        byte[] bytes = "xxGETxx".getBytes(CharsetUtil.US_ASCII);
+        AsciiString s = new AsciiString(bytes, 2, 3, false);
+        assertSame(bytes, s.array());
+        assertEquals(2, s.arrayOffset());
+        assertEquals("GET", s.toString());
+        assertArrayEquals("GET".getBytes(CharsetUtil.US_ASCII), s.toByteArray());
+
+        AsciiString copy = new AsciiString(bytes, 2, 3, true);
+        assertNotSame(bytes, copy.array());
+        assertEquals(s, copy);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCharAtOutOfBounds() {
+        new AsciiString("abc").subSequence(1, 2).charAt(1);
+    }
+
+    @Test
+    public void testNonAsciiCharactersReplaced() {
+        assertEquals("a?b", new AsciiString("a\u20ACb").toString());
+    }
+
+    @Test
+    public void testHashCodeAndEqualsIgnoreCase() {
+        AsciiString lower = new AsciiString("content-type");
+        AsciiString upper = new AsciiString("CONTENT-TYPE");
+        assertEquals(lower.hashCode(), upper.hashCode());
+        assertEquals(lower.hashCode(), AsciiString.hashCode("Content-Type"));
+        assertEquals(lower.hashCode(), AsciiString.hashCode(new StringBuilder("cOnTeNt-TyPe")));
+        assertFalse(lower.equals(upper));
+        assertTrue(lower.contentEqualsIgnoreCase(upper));
+        assertTrue(lower.contentEqualsIgnoreCase("Content-Type"));
+        assertTrue(AsciiString.contentEqualsIgnoreCase("Content-Type", upper));
+        assertTrue(AsciiString.contentEqualsIgnoreCase("Content-Type", "CONTENT-type"));
+        assertFalse(AsciiString.contentEqualsIgnoreCase("Content-Type", "Content-Typ"));
+        assertFalse(AsciiString.contentEqualsIgnoreCase(null, lower));
+        assertTrue(AsciiString.contentEqualsIgnoreCase(null, null));
+        assertTrue(lower.contentEquals("content-type"));
+        assertFalse(lower.contentEquals("Content-type"));
+    }
+
+    @Test
+    public void testEqualsOfSubSequence() {
+        AsciiString s = new AsciiString("keep-alive, close");
+        assertEquals(new AsciiString("close"), s.subSequence(12, 17));
+        assertEquals(new AsciiString("close").hashCode(), s.subSequence(12, 17).hashCode());
+        assertEquals(new AsciiString("keep-alive"), s.subSequence(0, 10).trim());
+        assertEquals(new AsciiString("close"), s.subSequence(11, 17).trim());
+    }
+
+    @Test
+    public void testCaseConversion() {
+        AsciiString s = new AsciiString("Keep-Alive");
+        assertEquals(new AsciiString("keep-alive"), s.toLowerCase());
+        assertEquals(new AsciiString("KEEP-ALIVE"), s.toUpperCase());
+        AsciiString lower = new AsciiString("close");
+        assertSame(lower, lower.toLowerCase());
+    }
+
+    @Test
+    public void testCompareTo() {
+        assertTrue(new AsciiString("abc").compareTo("abd") < 0);
+        assertTrue(new AsciiString("abc").compareTo("ab") > 0);
+        assertEquals(0, new AsciiString("abc").compareTo("abc"));
+    }
+
+    @Test
+    public void testIndexOf() {
+        AsciiString s = new AsciiString("a:b:c").subSequence(1, 5);
+        assertEquals(0, s.indexOf(':', 0));
+        assertEquals(2, s.indexOf(':', 1));
+        assertEquals(-1, s.indexOf('x', 0));
+    }
+
+    @Test
+    public void testParseInt() {
+        assertEquals(0, new AsciiString("0").parseInt());
+        assertEquals(1234, new AsciiString("1234").parseInt());
+        assertEquals(-1234, new AsciiString("-1234").parseInt());
+        assertEquals(Integer.MAX_VALUE, new AsciiString(String.valueOf(Integer.MAX_VALUE)).parseInt());
+        assertEquals(Integer.MIN_VALUE, new AsciiString(String.valueOf(Integer.MIN_VALUE)).parseInt());
+        assertEquals(255, new AsciiString("ff").parseInt(16));
+        assertEquals(200, new AsciiString("HTTP/1.1 200 OK").parseInt(9, 12, 10));
+        assertEquals(Long.MIN_VALUE, new AsciiString(String.valueOf(Long.MIN_VALUE)).parseLong());
+        assertEquals(Long.MAX_VALUE, new AsciiString(String.valueOf(Long.MAX_VALUE)).parseLong());
+    }
+
+    @Test
+    public void testParseIntInvalid() {
+        String[] invalid = { "", "-", "+", "12a", "2147483648", "-2147483649", " 1" };
+        for (String s: invalid) {
+            try {
+                new AsciiString(s).parseInt();
+                fail(s);
+            } catch (NumberFormatException e) {
+                // Expected
+            }
+        }
+        try {
+            new AsciiString("9223372036854775808").parseLong();
+            fail();
+        } catch (NumberFormatException e) {
+            // Expected
+        }
+    }
+}
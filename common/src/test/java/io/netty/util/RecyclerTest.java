@@ -0,0 +1,206 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class RecyclerTest {
+
+    private static Recycler<RecyclableObject> newRecycler(int maxCapacity) {
+        return newRecycler(maxCapacity, 1);
+    }
+
+    private static Recycler<RecyclableObject> newRecycler(int maxCapacity, int ratio) {
+        return new Recycler<RecyclableObject>(maxCapacity, ratio) {
+            @Override
+            protected RecyclableObject newObject(Handle handle) {
+                return new RecyclableObject(this, handle);
+            }
+        };
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMultipleRecycle() {
+        Recycler<RecyclableObject> recycler = newRecycler(1024);
+        RecyclableObject object = recycler.get();
+        object.recycle();
+        object.recycle();
+    }
+
+    @Test
+    public void testRecycle() {
+        Recycler<RecyclableObject> recycler = newRecycler(1024);
+        RecyclableObject object = recycler.get();
+        assertTrue(object.recycle());
+        RecyclableObject object2 = recycler.get();
+        assertSame(object, object2);
+        assertTrue(object2.recycle());
+    }
+
+    @Test
+    public void testRecycleDisabled() {
+        Recycler<RecyclableObject> recycler = newRecycler(0);
+        RecyclableObject object = recycler.get();
+        assertFalse(object.recycle());
+        RecyclableObject object2 = recycler.get();
+        assertNotSame(object, object2);
+    }
+
+    @Test
+    public void testRecycleFromOtherThread() throws Exception {
+        Recycler<RecyclableObject> recycler = newRecycler(1024);
+        final RecyclableObject object = recycler.get();
+        final AtomicReference<Boolean> recycled = new AtomicReference<Boolean>();
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                recycled.set(object.recycle());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertTrue(recycled.get());
+        assertSame(object, recycler.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMultipleRecycleFromOtherThread() throws Throwable {
+        Recycler<RecyclableObject> recycler = newRecycler(1024);
+        final RecyclableObject object = recycler.get();
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                object.recycle();
+                try {
+                    object.recycle();
+                } catch (Throwable cause) {
+                    error.set(cause);
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+
+        Throwable cause = error.get();
+        if (cause != null) {
+            throw cause;
+        }
+    }
+
+    @Test
+    public void testMaxCapacity() {
+        testMaxCapacity(300);
+        for (int i = 0; i < 50; i ++) {
+            testMaxCapacity((int) (Math.random() * 1000) + 256);
+        }
+    }
+
+    private static void testMaxCapacity(int maxCapacity) {
+        Recycler<RecyclableObject> recycler = newRecycler(maxCapacity);
+        RecyclableObject[] objects = new RecyclableObject[maxCapacity * 3];
+        for (int i = 0; i < objects.length; i ++) {
+            objects[i] = recycler.get();
+        }
+
+        for (RecyclableObject object : objects) {
+            object.recycle();
+        }
+
+        assertTrue("The threadLocalCapacity (" + recycler.threadLocalCapacity() + ") must be <= maxCapacity ("
+                + maxCapacity + ") as we not pool all new handles internally",
+                maxCapacity >= recycler.threadLocalCapacity());
+        assertEquals(maxCapacity, recycler.threadLocalSize());
+    }
+
+    @Test
+    public void testRatio() {
+        Recycler<RecyclableObject> recycler = newRecycler(1024, 8);
+        RecyclableObject[] objects = new RecyclableObject[64];
+        for (int i = 0; i < objects.length; i ++) {
+            objects[i] = recycler.get();
+        }
+
+        for (RecyclableObject object : objects) {
+            object.recycle();
+        }
+
+        // Only one out of eight objects which were never recycled before is kept.
+        assertEquals(objects.length / 8, recycler.threadLocalSize());
+    }
+
+    @Test
+    public void testMaxCapacityWithRecycleAtDifferentThread() throws Exception {
+        final int maxCapacity = 4; // Choose the number smaller than WeakOrderQueue.LINK_CAPACITY
+        final Recycler<RecyclableObject> recycler = newRecycler(maxCapacity);
+
+        // Borrow 2 * maxCapacity objects.
+        // Return the half from the same thread.
+        // Return the other half from the different thread.
+
+        final RecyclableObject[] array = new RecyclableObject[maxCapacity * 3];
+        for (int i = 0; i < array.length; i ++) {
+            array[i] = recycler.get();
+        }
+
+        for (int i = 0; i < maxCapacity; i ++) {
+            array[i].recycle();
+        }
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = maxCapacity; i < array.length; i ++) {
+                    array[i].recycle();
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertEquals(maxCapacity, recycler.threadLocalCapacity());
+        assertEquals(maxCapacity, recycler.threadLocalSize());
+
+        for (int i = 0; i < array.length; i ++) {
+            recycler.get();
+        }
+
+        assertEquals(maxCapacity, recycler.threadLocalCapacity());
+        assertEquals(0, recycler.threadLocalSize());
+    }
+
+    static final class RecyclableObject {
+
+        private final Recycler<RecyclableObject> recycler;
+        private final Recycler.Handle handle;
+
+        RecyclableObject(Recycler<RecyclableObject> recycler, Recycler.Handle handle) {
+            this.recycler = recycler;
+            this.handle = handle;
+        }
+
+        boolean recycle() {
+            return recycler.recycle(this, handle);
+        }
+    }
+}
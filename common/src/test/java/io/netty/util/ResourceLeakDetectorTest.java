@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util;
+
+import io.netty.util.ResourceLeakDetector.Level;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ResourceLeakDetectorTest {
+
+    private Level oldLevel;
+    private boolean oldAdaptiveSampling;
+
+    @Before
+    public void saveSettings() {
+        oldLevel = ResourceLeakDetector.getLevel();
+        oldAdaptiveSampling = ResourceLeakDetector.isAdaptiveSampling();
+    }
+
+    @After
+    public void restoreSettings() {
+        ResourceLeakDetector.setLevel(oldLevel);
+        ResourceLeakDetector.setAdaptiveSampling(oldAdaptiveSampling);
+        ResourceLeakDetector.setLeakListener(null);
+    }
+
+    @Test(timeout = 10000)
+    public void testLeaksCountedPerSite() throws Exception {
+        ResourceLeakDetector.setLevel(Level.PARANOID);
+        final BlockingQueue<String> sites = new LinkedBlockingQueue<String>();
+        ResourceLeakDetector.setLeakListener(new ResourceLeakListener() {
+            @Override
+            public void onLeak(String resourceType, String site, long leaks) {
+                assertEquals("leakCountTest", resourceType);
+                sites.add(site + '=' + leaks);
+            }
+        });
+
+        ResourceLeakDetector<Object> detector = new ResourceLeakDetector<Object>("leakCountTest", 1, Long.MAX_VALUE);
+        leak(detector);
+        leak(detector);
+
+        Object resource = new Object();
+        while (sites.size() < 2) {
+            System.gc();
+            Thread.sleep(10);
+            // open() reports the leaks that were detected so far.
+            assertTrue(detector.open(resource).close());
+        }
+
+        Map<String, Long> counts = detector.leakCounts();
+        assertEquals(1, counts.size());
+        String site = counts.keySet().iterator().next();
+        assertTrue(site, site.startsWith(ResourceLeakDetectorTest.class.getName() + ".leak("));
+        assertEquals(2L, (long) counts.get(site));
+        assertEquals(site + "=1", sites.poll());
+        assertEquals(site + "=2", sites.poll());
+    }
+
+    private static void leak(ResourceLeakDetector<Object> detector) {
+        assertNotNull(detector.open(new Object()));
+    }
+
+    @Test
+    public void testRecordsDeduplicatedAndBounded() {
+        ResourceLeakDetector.setLevel(Level.PARANOID);
+        ResourceLeakDetector<Object> detector = new ResourceLeakDetector<Object>("recordTest", 1, Long.MAX_VALUE);
+        Object resource = new Object();
+        ResourceLeak leak = detector.open(resource);
+
+        for (int i = 0; i < 10; i ++) {
+            leak.record();
+        }
+        assertTrue(leak.toString().contains("Recent access records: 1"));
+
+        recordA(leak);
+        recordB(leak);
+        recordC(leak);
+        recordD(leak);
+        recordA(leak);
+        recordB(leak);
+        assertTrue(leak.toString().contains("Recent access records: 4"));
+        assertTrue(leak.close());
+    }
+
+    private static void recordA(ResourceLeak leak) {
+        leak.record();
+    }
+
+    private static void recordB(ResourceLeak leak) {
+        leak.record();
+    }
+
+    private static void recordC(ResourceLeak leak) {
+        leak.record();
+    }
+
+    private static void recordD(ResourceLeak leak) {
+        leak.record();
+    }
+
+    @Test
+    public void testAdaptiveSamplingIntervalGrowsWithAllocationRate() {
+        ResourceLeakDetector.setLevel(Level.SIMPLE);
+        ResourceLeakDetector.setAdaptiveSampling(true);
+        ResourceLeakDetector<Object> detector = new ResourceLeakDetector<Object>("adaptiveTest", 1, Long.MAX_VALUE);
+        assertEquals(1, detector.samplingInterval());
+
+        Object resource = new Object();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1500);
+        while (System.nanoTime() < deadline) {
+            ResourceLeak leak = detector.open(resource);
+            if (leak != null) {
+                leak.close();
+            }
+        }
+
+        int interval = detector.samplingInterval();
+        assertTrue(String.valueOf(interval), interval > 1);
+        assertEquals(0, interval & interval - 1);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.collection;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put(1, "one"));
+        assertNull(map.put(-1, "minus one"));
+        assertNull(map.put(0, "zero"));
+        assertEquals("one", map.put(1, "ONE"));
+        assertEquals(3, map.size());
+        assertEquals("ONE", map.get(1));
+        assertEquals("minus one", map.get(-1));
+        assertEquals("zero", map.get(0));
+        assertNull(map.get(2));
+        assertTrue(map.containsKey(0));
+        assertFalse(map.containsKey(2));
+        assertTrue(map.containsValue("zero"));
+        assertFalse(map.containsValue("two"));
+
+        assertEquals("zero", map.remove(0));
+        assertNull(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+    }
+
+    @Test
+    public void testNullValue() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        assertNull(map.put(7, null));
+        assertTrue(map.containsKey(7));
+        assertTrue(map.containsValue(null));
+        assertEquals(1, map.size());
+        assertNull(map.remove(7));
+        assertFalse(map.containsKey(7));
+    }
+
+    @Test
+    public void testGrowAndRemoveCollidingKeys() {
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<Integer>(1);
+        for (int i = 0; i < 1000; i ++) {
+            map.put((long) i << 32, i);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(Integer.valueOf(i), map.remove((long) i << 32));
+        }
+        for (int i = 0; i < 1000; i ++) {
+            assertEquals(i % 2 == 0? null : Integer.valueOf(i), map.get((long) i << 32));
+        }
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        Random random = new Random(42);
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<Integer>();
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        for (int i = 0; i < 100000; i ++) {
+            long key = random.nextInt(512);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (long key = 0; key < 512; key ++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void testEntriesKeysAndValues() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        map.put(3, "3");
+        map.put(1, "1");
+        map.put(2, "2");
+
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(new long[] { 1, 2, 3 }, keys);
+
+        String[] values = map.values(String.class);
+        Arrays.sort(values);
+        assertArrayEquals(new String[] { "1", "2", "3" }, values);
+
+        long sum = 0;
+        for (LongObjectMap.Entry<String> e: map.entries()) {
+            assertEquals(String.valueOf(e.key()), e.value());
+            e.setValue(e.value() + '!');
+            sum += e.key();
+        }
+        assertEquals(6, sum);
+        assertEquals("2!", map.get(2));
+
+        Iterator<LongObjectMap.Entry<String>> i = new LongObjectHashMap<String>().iterator();
+        assertFalse(i.hasNext());
+    }
+
+    @Test
+    public void testPutAll() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        map.put(1, "1");
+        LongObjectHashMap<String> other = new LongObjectHashMap<String>();
+        other.put(1, "one");
+        other.put(2, "two");
+        map.putAll(other);
+        assertEquals(2, map.size());
+        assertEquals("one", map.get(1));
+        assertEquals("two", map.get(2));
+    }
+}
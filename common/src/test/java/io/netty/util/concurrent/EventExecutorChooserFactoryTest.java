@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.concurrent;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class EventExecutorChooserFactoryTest {
+
+    @Test
+    public void testPowerOfTwoRoundRobin() {
+        testRoundRobin(4);
+    }
+
+    @Test
+    public void testGenericRoundRobin() {
+        testRoundRobin(3);
+    }
+
+    private static void testRoundRobin(int nThreads) {
+        EventExecutorGroup group = new DefaultEventExecutorGroup(nThreads);
+        try {
+            List<EventExecutor> children = new ArrayList<EventExecutor>();
+            for (EventExecutor e: group) {
+                children.add(e);
+            }
+            assertEquals(nThreads, children.size());
+
+            EventExecutor first = group.next();
+            int offset = children.indexOf(first);
+            for (int i = 1; i < nThreads * 3; i ++) {
+                assertSame(children.get((offset + i) % nThreads), group.next());
+            }
+        } finally {
+            group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testLeastLoaded() throws Exception {
+        EventExecutorGroup group =
+                new DefaultEventExecutorGroup(2, null, LeastLoadedEventExecutorChooserFactory.INSTANCE);
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            // Both executors are idle, so they are picked in turn.
+            EventExecutor busy = group.next();
+            EventExecutor idle = group.next();
+            assertNotSame(busy, idle);
+
+            busy.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            busy.execute(new Runnable() {
+                @Override
+                public void run() { }
+            });
+
+            for (int i = 0; i < 10; i ++) {
+                assertSame(idle, group.next());
+            }
+        } finally {
+            latch.countDown();
+            group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullChooserFactory() {
+        new DefaultEventExecutorGroup(1, null, null);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.concurrent;
+
+import io.netty.util.internal.InternalThreadLocalMap;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class FastThreadLocalTest {
+
+    @Test
+    public void testGetSetRemove() {
+        final AtomicReference<String> removed = new AtomicReference<String>();
+        FastThreadLocal<String> var = new FastThreadLocal<String>() {
+            @Override
+            protected String initialValue() {
+                return "initial";
+            }
+
+            @Override
+            protected void onRemoval(String value) {
+                assertNull(removed.getAndSet(value));
+            }
+        };
+
+        assertFalse(var.isSet());
+        assertEquals("initial", var.get());
+        assertTrue(var.isSet());
+
+        var.set("changed");
+        assertEquals("changed", var.get());
+
+        var.remove();
+        assertFalse(var.isSet());
+        assertEquals("changed", removed.get());
+
+        // Removing a variable which is not set must not notify.
+        var.remove();
+        assertEquals("initial", var.get());
+        removed.set(null);
+        var.remove();
+        assertEquals("initial", removed.get());
+    }
+
+    @Test
+    public void testManyVariables() {
+        FastThreadLocal<?>[] vars = new FastThreadLocal<?>[100];
+        for (int i = 0; i < vars.length; i ++) {
+            FastThreadLocal<Integer> var = new FastThreadLocal<Integer>();
+            var.set(i);
+            vars[i] = var;
+        }
+        for (int i = 0; i < vars.length; i ++) {
+            assertEquals(i, vars[i].get());
+        }
+        FastThreadLocal.removeAll();
+        for (FastThreadLocal<?> var: vars) {
+            assertFalse(var.isSet());
+            assertNull(var.get());
+        }
+        FastThreadLocal.removeAll();
+    }
+
+    @Test
+    public void testRemoveAllOnPlainThread() throws Exception {
+        testRemoveAll(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r);
+            }
+        });
+    }
+
+    @Test
+    public void testRemoveAllOnFastThreadLocalThread() throws Exception {
+        testRemoveAll(new DefaultThreadFactory(FastThreadLocalTest.class));
+    }
+
+    private static void testRemoveAll(ThreadFactory threadFactory) throws Exception {
+        final AtomicInteger removed = new AtomicInteger();
+        final FastThreadLocal<Object> var = new FastThreadLocal<Object>() {
+            @Override
+            protected Object initialValue() {
+                return new Object();
+            }
+
+            @Override
+            protected void onRemoval(Object value) {
+                removed.incrementAndGet();
+            }
+        };
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+        Thread t = threadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Object value = var.get();
+                    assertSame(value, var.get());
+                    FastThreadLocal.removeAll();
+                    assertEquals(1, removed.get());
+                    assertNull(InternalThreadLocalMap.getIfSet());
+                    assertNotSame(value, var.get());
+                } catch (Throwable cause) {
+                    error.set(cause);
+                }
+            }
+        });
+        t.start();
+        t.join();
+
+        Throwable cause = error.get();
+        if (cause != null) {
+            throw new AssertionError(cause);
+        }
+    }
+
+    @Test
+    public void testDefaultThreadFactoryCreatesFastThreadLocalThread() {
+        Thread t = new DefaultThreadFactory(FastThreadLocalTest.class).newThread(new Runnable() {
+            @Override
+            public void run() { }
+        });
+        assertTrue(t instanceof FastThreadLocalThread);
+    }
+
+    @Test(timeout = 10000)
+    public void testRemovedWhenEventExecutorTerminates() throws Exception {
+        final CountDownLatch removed = new CountDownLatch(1);
+        final FastThreadLocal<Object> var = new FastThreadLocal<Object>() {
+            @Override
+            protected void onRemoval(Object value) {
+                removed.countDown();
+            }
+        };
+
+        EventExecutorGroup group = new DefaultEventExecutorGroup(1);
+        group.submit(new Runnable() {
+            @Override
+            public void run() {
+                var.set(Boolean.TRUE);
+            }
+        }).sync();
+        assertEquals(1, removed.getCount());
+
+        group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        removed.await();
+    }
+}
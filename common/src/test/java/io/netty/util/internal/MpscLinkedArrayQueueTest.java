@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class MpscLinkedArrayQueueTest {
+
+    @Test
+    public void testOfferPollAcrossChunks() {
+        Queue<Integer> queue = new MpscLinkedArrayQueue<Integer>(4, Integer.MAX_VALUE);
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+        assertNull(queue.peek());
+        assertNull(queue.poll());
+
+        for (int round = 0; round < 3; round ++) {
+            for (int i = 0; i < 10; i ++) {
+                assertTrue(queue.offer(i));
+                assertEquals(i + 1, queue.size());
+            }
+            assertFalse(queue.isEmpty());
+
+            for (int i = 0; i < 10; i ++) {
+                assertEquals(Integer.valueOf(i), queue.peek());
+                assertEquals(Integer.valueOf(i), queue.poll());
+                assertEquals(9 - i, queue.size());
+            }
+            assertTrue(queue.isEmpty());
+            assertNull(queue.peek());
+            assertNull(queue.poll());
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOfferNull() {
+        new MpscLinkedArrayQueue<Object>().offer(null);
+    }
+
+    @Test
+    public void testBounded() {
+        MpscLinkedArrayQueue<Integer> queue = new MpscLinkedArrayQueue<Integer>(3);
+        assertEquals(3, queue.capacity());
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+        assertTrue(queue.offer(3));
+        assertFalse(queue.offer(4));
+        assertEquals(3, queue.size());
+
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertTrue(queue.offer(4));
+        assertFalse(queue.offer(5));
+
+        assertEquals(Integer.valueOf(2), queue.poll());
+        assertEquals(Integer.valueOf(3), queue.poll());
+        assertEquals(Integer.valueOf(4), queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.offer(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new MpscLinkedArrayQueue<Object>(0);
+    }
+
+    @Test
+    public void testIterator() {
+        Queue<Integer> queue = new MpscLinkedArrayQueue<Integer>(4, Integer.MAX_VALUE);
+        for (int i = 0; i < 10; i ++) {
+            queue.offer(i);
+        }
+        queue.poll();
+        queue.poll();
+
+        Iterator<Integer> i = queue.iterator();
+        for (int expected = 2; expected < 10; expected ++) {
+            assertTrue(i.hasNext());
+            assertEquals(Integer.valueOf(expected), i.next());
+        }
+        assertFalse(i.hasNext());
+        assertTrue(queue.contains(5));
+        assertFalse(queue.contains(1));
+        assertFalse(queue.remove(Integer.valueOf(1)));
+        try {
+            queue.remove(Integer.valueOf(5));
+            fail();
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentProducers() throws Exception {
+        testConcurrentProducers(new MpscLinkedArrayQueue<long[]>(16, Integer.MAX_VALUE));
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentProducersBounded() throws Exception {
+        testConcurrentProducers(new MpscLinkedArrayQueue<long[]>(16, 64));
+    }
+
+    private static void testConcurrentProducers(final Queue<long[]> queue) throws Exception {
+        final int producers = 4;
+        final int elements = 100000;
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int i = 0; i < producers; i ++) {
+            final int producer = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < elements; j ++) {
+                        long[] e = { producer, j };
+                        while (!queue.offer(e)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+
+        long[] nextSequence = new long[producers];
+        int received = 0;
+        while (received < producers * elements) {
+            long[] e = queue.poll();
+            if (e == null) {
+                continue;
+            }
+            // The elements of every producer must be received in the order they were offered.
+            assertEquals(nextSequence[(int) e[0]] ++, e[1]);
+            received ++;
+        }
+
+        for (Thread t: threads) {
+            t.join();
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+}
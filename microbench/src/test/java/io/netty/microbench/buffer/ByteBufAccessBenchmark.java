@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.buffer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.buffer.UnpooledDirectByteBuf;
+import io.netty.buffer.UnpooledHeapByteBuf;
+import io.netty.buffer.UnpooledUnsafeDirectByteBuf;
+import io.netty.buffer.UnpooledUnsafeHeapByteBuf;
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import io.netty.util.internal.PlatformDependent;
+import org.openjdk.jmh.annotations.GenerateMicroBenchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * This class benchmarks the accessors of heap and direct buffers, with and without {@code sun.misc.Unsafe}.
+ */
+public class ByteBufAccessBenchmark extends AbstractMicrobenchmark {
+
+    private static final int SIZE = 1024;
+    private static final ByteBufAllocator ALLOC = UnpooledByteBufAllocator.DEFAULT;
+
+    @Param({ "heap", "unsafeHeap", "direct", "unsafeDirect" })
+    public String bufferType;
+
+    private ByteBuf buffer;
+
+    @Setup
+    public void setup() {
+        buffer = newBuffer(bufferType);
+        buffer.writerIndex(SIZE);
+    }
+
+    private static ByteBuf newBuffer(String bufferType) {
+        if ("heap".equals(bufferType)) {
+            return new UnpooledHeapByteBuf(ALLOC, SIZE, SIZE) { };
+        }
+        if ("direct".equals(bufferType)) {
+            return new UnpooledDirectByteBuf(ALLOC, SIZE, SIZE) { };
+        }
+        if (!PlatformDependent.hasUnsafe()) {
+            throw new IllegalStateException("sun.misc.Unsafe is not available");
+        }
+        if ("unsafeHeap".equals(bufferType)) {
+            return new UnpooledUnsafeHeapByteBuf(ALLOC, SIZE, SIZE) { };
+        }
+        if ("unsafeDirect".equals(bufferType)) {
+            return new UnpooledUnsafeDirectByteBuf(ALLOC, SIZE, SIZE) { };
+        }
+        throw new IllegalArgumentException("bufferType: " + bufferType);
+    }
+
+    @TearDown
+    public void teardown() {
+        buffer.release();
+    }
+
+    @GenerateMicroBenchmark
+    public int getByte() {
+        ByteBuf buffer = this.buffer;
+        int sum = 0;
+        for (int i = 0; i < SIZE; i ++) {
+            sum += buffer.getByte(i);
+        }
+        return sum;
+    }
+
+    @GenerateMicroBenchmark
+    public int getInt() {
+        ByteBuf buffer = this.buffer;
+        int sum = 0;
+        for (int i = 0; i < SIZE; i += 4) {
+            sum += buffer.getInt(i);
+        }
+        return sum;
+    }
+
+    @GenerateMicroBenchmark
+    public long getLong() {
+        ByteBuf buffer = this.buffer;
+        long sum = 0;
+        for (int i = 0; i < SIZE; i += 8) {
+            sum += buffer.getLong(i);
+        }
+        return sum;
+    }
+
+    @GenerateMicroBenchmark
+    public ByteBuf setByte() {
+        ByteBuf buffer = this.buffer;
+        for (int i = 0; i < SIZE; i ++) {
+            buffer.setByte(i, i);
+        }
+        return buffer;
+    }
+
+    @GenerateMicroBenchmark
+    public ByteBuf setLong() {
+        ByteBuf buffer = this.buffer;
+        for (int i = 0; i < SIZE; i += 8) {
+            buffer.setLong(i, i);
+        }
+        return buffer;
+    }
+
+    @GenerateMicroBenchmark
+    public ByteBuf writeAndReadLong() {
+        ByteBuf buffer = this.buffer;
+        buffer.clear();
+        for (int i = 0; i < SIZE; i += 8) {
+            buffer.writeLong(i);
+        }
+        while (buffer.isReadable()) {
+            buffer.readLong();
+        }
+        return buffer;
+    }
+}
@@ -22,12 +22,22 @@ import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.microbench.util.AbstractMicrobenchmark;
 import org.openjdk.jmh.annotations.GenerateMicroBenchmark;
 import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Threads;
 
 /**
- * This class benchmarks different allocators with different allocation sizes.
+ * This class benchmarks different allocators with different allocation sizes.  The {@code *Contended} benchmarks
+ * run on several threads which share one allocator, the others use an allocator per thread.
  */
 public class ByteBufAllocatorBenchmark extends AbstractMicrobenchmark {
 
+    private static final int CONTENDED_THREADS = 4;
+
+    private static final ByteBufAllocator sharedUnpooledAllocator = new UnpooledByteBufAllocator(true);
+    private static final ByteBufAllocator sharedPooledAllocator = new PooledByteBufAllocator(true);
+    // All threads allocate from the same arena, which is the worst case for the arena lock.
+    private static final ByteBufAllocator sharedSingleArenaAllocator =
+            new PooledByteBufAllocator(true, 1, 1, 8192, 11);
+
     private final ByteBufAllocator unpooledHeapAllocator = new UnpooledByteBufAllocator(false);
     private final ByteBufAllocator unpooledDirectAllocator = new UnpooledByteBufAllocator(true);
     private final ByteBufAllocator pooledHeapAllocator = new PooledByteBufAllocator(false);
@@ -60,4 +70,24 @@ public class ByteBufAllocatorBenchmark extends AbstractMicrobenchmark {
         buffer.release();
     }
 
+    @GenerateMicroBenchmark
+    @Threads(CONTENDED_THREADS)
+    public void unpooledDirectAllocAndFreeContended() {
+        ByteBuf buffer = sharedUnpooledAllocator.directBuffer(size);
+        buffer.release();
+    }
+
+    @GenerateMicroBenchmark
+    @Threads(CONTENDED_THREADS)
+    public void pooledDirectAllocAndFreeContended() {
+        ByteBuf buffer = sharedPooledAllocator.directBuffer(size);
+        buffer.release();
+    }
+
+    @GenerateMicroBenchmark
+    @Threads(CONTENDED_THREADS)
+    public void pooledSingleArenaDirectAllocAndFreeContended() {
+        ByteBuf buffer = sharedSingleArenaAllocator.directBuffer(size);
+        buffer.release();
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.buffer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufProcessor;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.GenerateMicroBenchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * This class benchmarks searching a line delimiter in heap and direct buffers.
+ */
+public class ByteBufSearchBenchmark extends AbstractMicrobenchmark {
+
+    private static final ByteBufProcessor FIND_LF_SLOW = new ByteBufProcessor() {
+        @Override
+        public boolean process(byte value) throws Exception {
+            return value != '\n';
+        }
+    };
+
+    @Param({ "00016", "00128", "01024", "16384" })
+    public int lineLength;
+
+    private ByteBuf heapBuffer;
+    private ByteBuf directBuffer;
+
+    @Setup
+    public void setup() {
+        heapBuffer = newLine(PooledByteBufAllocator.DEFAULT.heapBuffer(lineLength + 1));
+        directBuffer = newLine(PooledByteBufAllocator.DEFAULT.directBuffer(lineLength + 1));
+    }
+
+    private ByteBuf newLine(ByteBuf buffer) {
+        for (int i = 0; i < lineLength; i ++) {
+            buffer.writeByte('a' + i % 26);
+        }
+        return buffer.writeByte('\n');
+    }
+
+    @TearDown
+    public void teardown() {
+        heapBuffer.release();
+        directBuffer.release();
+    }
+
+    @GenerateMicroBenchmark
+    public int heapIndexOf() {
+        return heapBuffer.indexOf(heapBuffer.readerIndex(), heapBuffer.writerIndex(), (byte) '\n');
+    }
+
+    @GenerateMicroBenchmark
+    public int heapFindCrlf() {
+        return heapBuffer.forEachByte(ByteBufProcessor.FIND_CRLF);
+    }
+
+    @GenerateMicroBenchmark
+    public int heapFindLfByteByByte() {
+        return heapBuffer.forEachByte(FIND_LF_SLOW);
+    }
+
+    @GenerateMicroBenchmark
+    public int directIndexOf() {
+        return directBuffer.indexOf(directBuffer.readerIndex(), directBuffer.writerIndex(), (byte) '\n');
+    }
+
+    @GenerateMicroBenchmark
+    public int directFindCrlf() {
+        return directBuffer.forEachByte(ByteBufProcessor.FIND_CRLF);
+    }
+
+    @GenerateMicroBenchmark
+    public int directFindLfByteByByte() {
+        return directBuffer.forEachByte(FIND_LF_SLOW);
+    }
+}
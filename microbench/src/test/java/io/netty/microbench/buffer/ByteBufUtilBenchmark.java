@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.buffer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import io.netty.util.AsciiString;
+import io.netty.util.CharsetUtil;
+import org.openjdk.jmh.annotations.GenerateMicroBenchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.CharBuffer;
+
+/**
+ * This class benchmarks the search, comparison and string encoding helpers of {@link ByteBufUtil}.
+ */
+public class ByteBufUtilBenchmark extends AbstractMicrobenchmark {
+
+    @Param({ "00016", "00128", "01024" })
+    public int length;
+
+    private ByteBuf heapBuffer;
+    private ByteBuf directBuffer;
+    private ByteBuf heapCopy;
+    private ByteBuf directCopy;
+    private ByteBuf target;
+
+    private String ascii;
+    private AsciiString asciiString;
+    private String utf8;
+
+    @Setup
+    public void setup() {
+        StringBuilder asciiBuf = new StringBuilder(length);
+        StringBuilder utf8Buf = new StringBuilder(length);
+        for (int i = 0; i < length; i ++) {
+            asciiBuf.append((char) ('a' + i % 26));
+            // Mixes one, two and three byte sequences.
+            utf8Buf.append(i % 3 == 0? 'a' : i % 3 == 1? '\u00e9' : '\u20ac');
+        }
+        ascii = asciiBuf.toString();
+        asciiString = new AsciiString(ascii);
+        utf8 = utf8Buf.toString();
+
+        heapBuffer = PooledByteBufAllocator.DEFAULT.heapBuffer(length);
+        heapBuffer.writeBytes(ascii.getBytes(CharsetUtil.US_ASCII));
+        heapCopy = heapBuffer.copy();
+        directBuffer = PooledByteBufAllocator.DEFAULT.directBuffer(length);
+        directBuffer.writeBytes(heapBuffer, 0, length);
+        directCopy = directBuffer.copy();
+
+        target = PooledByteBufAllocator.DEFAULT.directBuffer(length * 3);
+    }
+
+    @TearDown
+    public void teardown() {
+        heapBuffer.release();
+        heapCopy.release();
+        directBuffer.release();
+        directCopy.release();
+        target.release();
+    }
+
+    @GenerateMicroBenchmark
+    public int heapIndexOf() {
+        return ByteBufUtil.indexOf(heapBuffer, 0, length, (byte) 0);
+    }
+
+    @GenerateMicroBenchmark
+    public int directIndexOf() {
+        return ByteBufUtil.indexOf(directBuffer, 0, length, (byte) 0);
+    }
+
+    @GenerateMicroBenchmark
+    public boolean heapEquals() {
+        return ByteBufUtil.equals(heapBuffer, heapCopy);
+    }
+
+    @GenerateMicroBenchmark
+    public boolean directEquals() {
+        return ByteBufUtil.equals(directBuffer, directCopy);
+    }
+
+    @GenerateMicroBenchmark
+    public int heapHashCode() {
+        return ByteBufUtil.hashCode(heapBuffer);
+    }
+
+    @GenerateMicroBenchmark
+    public int directHashCode() {
+        return ByteBufUtil.hashCode(directBuffer);
+    }
+
+    @GenerateMicroBenchmark
+    public int writeAsciiString() {
+        target.clear();
+        return ByteBufUtil.writeAscii(target, ascii);
+    }
+
+    @GenerateMicroBenchmark
+    public int writeAsciiAsciiString() {
+        target.clear();
+        return ByteBufUtil.writeAscii(target, asciiString);
+    }
+
+    @GenerateMicroBenchmark
+    public int writeUtf8() {
+        target.clear();
+        return ByteBufUtil.writeUtf8(target, utf8);
+    }
+
+    @GenerateMicroBenchmark
+    public boolean encodeStringUtf8() {
+        ByteBuf buf = ByteBufUtil.encodeString(
+                PooledByteBufAllocator.DEFAULT, CharBuffer.wrap(utf8), CharsetUtil.UTF_8);
+        return buf.release();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.buffer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.GenerateMicroBenchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+
+/**
+ * This class benchmarks the component lookup and the consolidation strategies of {@link CompositeByteBuf}.
+ */
+public class CompositeByteBufBenchmark extends AbstractMicrobenchmark {
+
+    private static final int COMPONENT_SIZE = 64;
+    private static final ByteBuf COMPONENT = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(new byte[COMPONENT_SIZE]));
+
+    @Param({ "0016", "0256", "4096" })
+    public int numComponents;
+
+    private CompositeByteBuf composite;
+    private int[] randomIndexes;
+
+    @Setup
+    public void setup() {
+        composite = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+        for (int i = 0; i < numComponents; i ++) {
+            composite.addComponent(Unpooled.wrappedBuffer(new byte[COMPONENT_SIZE]));
+        }
+        composite.writerIndex(composite.capacity());
+
+        Random random = new Random(42);
+        randomIndexes = new int[1024];
+        for (int i = 0; i < randomIndexes.length; i ++) {
+            randomIndexes[i] = random.nextInt(composite.capacity());
+        }
+    }
+
+    @TearDown
+    public void teardown() {
+        composite.release();
+    }
+
+    @GenerateMicroBenchmark
+    public int sequentialGetByte() {
+        CompositeByteBuf composite = this.composite;
+        int sum = 0;
+        for (int i = 0; i < composite.capacity(); i ++) {
+            sum += composite.getByte(i);
+        }
+        return sum;
+    }
+
+    @GenerateMicroBenchmark
+    public int randomGetByte() {
+        CompositeByteBuf composite = this.composite;
+        int sum = 0;
+        for (int index: randomIndexes) {
+            sum += composite.getByte(index);
+        }
+        return sum;
+    }
+
+    @GenerateMicroBenchmark
+    public int addComponentsFullConsolidation() {
+        return addComponents(new CompositeByteBuf(UnpooledByteBufAllocator.DEFAULT, false, 16));
+    }
+
+    @GenerateMicroBenchmark
+    public int addComponentsIncrementalConsolidation() {
+        return addComponents(new CompositeByteBuf(UnpooledByteBufAllocator.DEFAULT, false, 16, true));
+    }
+
+    @GenerateMicroBenchmark
+    public int addComponentsWithoutConsolidation() {
+        CompositeByteBuf buf = new CompositeByteBuf(UnpooledByteBufAllocator.DEFAULT, false, 16);
+        for (int i = 0; i < numComponents; i ++) {
+            buf.addComponentsWithoutConsolidation(COMPONENT.duplicate());
+        }
+        return release(buf);
+    }
+
+    private int addComponents(CompositeByteBuf buf) {
+        for (int i = 0; i < numComponents; i ++) {
+            buf.addComponent(COMPONENT.duplicate());
+        }
+        return release(buf);
+    }
+
+    private static int release(CompositeByteBuf buf) {
+        int numComponents = buf.numComponents();
+        buf.release();
+        return numComponents;
+    }
+}
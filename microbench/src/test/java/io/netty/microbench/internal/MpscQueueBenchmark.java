@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.internal;
+
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import io.netty.util.internal.MpscLinkedArrayQueue;
+import org.openjdk.jmh.annotations.GenerateMicroBenchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * This class compares the queues an event loop may use for its tasks, with several producers and a single consumer
+ * like an event loop which is fed by other threads.
+ */
+@State(Scope.Group)
+public class MpscQueueBenchmark extends AbstractMicrobenchmark {
+
+    private static final int PRODUCERS = 3;
+    private static final int MAX_PENDING = 65536;
+    private static final Integer ELEMENT = 42;
+
+    @Param({ "mpscLinkedArray", "mpscLinkedArrayBounded", "concurrentLinked", "linkedBlocking" })
+    public String queueType;
+
+    private Queue<Integer> queue;
+    // Only written by the consumer.
+    private volatile long consumed;
+
+    @State(Scope.Thread)
+    public static class Producer {
+        long offered;
+    }
+
+    @Setup
+    public void setup() {
+        queue = newQueue(queueType);
+    }
+
+    static Queue<Integer> newQueue(String queueType) {
+        if ("mpscLinkedArray".equals(queueType)) {
+            return new MpscLinkedArrayQueue<Integer>();
+        }
+        if ("mpscLinkedArrayBounded".equals(queueType)) {
+            return new MpscLinkedArrayQueue<Integer>(MAX_PENDING);
+        }
+        if ("concurrentLinked".equals(queueType)) {
+            return new ConcurrentLinkedQueue<Integer>();
+        }
+        if ("linkedBlocking".equals(queueType)) {
+            return new LinkedBlockingQueue<Integer>();
+        }
+        throw new IllegalArgumentException("queueType: " + queueType);
+    }
+
+    @GenerateMicroBenchmark
+    @Group("offerPoll")
+    @GroupThreads(PRODUCERS)
+    public boolean offer(Producer producer) {
+        // Keep the unbounded queues from growing until the JVM runs out of memory, assuming that all producers
+        // offer at the same rate.
+        if (producer.offered * PRODUCERS - consumed >= MAX_PENDING) {
+            return false;
+        }
+        if (queue.offer(ELEMENT)) {
+            producer.offered ++;
+            return true;
+        }
+        return false;
+    }
+
+    @GenerateMicroBenchmark
+    @Group("offerPoll")
+    @GroupThreads(1)
+    public Integer poll() {
+        Integer e = queue.poll();
+        if (e != null) {
+            consumed ++;
+        }
+        return e;
+    }
+}
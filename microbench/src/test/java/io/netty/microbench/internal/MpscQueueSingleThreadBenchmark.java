@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.internal;
+
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.GenerateMicroBenchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Queue;
+
+/**
+ * This class measures the uncontended cost of offering a task to and polling it from the queues compared by
+ * {@link MpscQueueBenchmark}, like an event loop which schedules tasks for itself.
+ */
+@State(Scope.Thread)
+public class MpscQueueSingleThreadBenchmark extends AbstractMicrobenchmark {
+
+    private static final Integer ELEMENT = 42;
+
+    @Param({ "mpscLinkedArray", "mpscLinkedArrayBounded", "concurrentLinked", "linkedBlocking" })
+    public String queueType;
+
+    private Queue<Integer> queue;
+
+    @Setup
+    public void setup() {
+        queue = MpscQueueBenchmark.newQueue(queueType);
+    }
+
+    @GenerateMicroBenchmark
+    public Integer offerAndPoll() {
+        queue.offer(ELEMENT);
+        return queue.poll();
+    }
+}
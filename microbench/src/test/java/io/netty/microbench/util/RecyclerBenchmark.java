@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.util;
+
+import io.netty.util.Recycler;
+import org.openjdk.jmh.annotations.GenerateMicroBenchmark;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * This class benchmarks getting an object from a {@link Recycler} and recycling it again, on a single thread and on
+ * several threads which share the {@link Recycler}.
+ */
+public class RecyclerBenchmark extends AbstractMicrobenchmark {
+
+    private static final Recycler<DummyObject> recycler = new Recycler<DummyObject>() {
+        @Override
+        protected DummyObject newObject(Recycler.Handle handle) {
+            return new DummyObject(handle);
+        }
+    };
+
+    @GenerateMicroBenchmark
+    public DummyObject getAndRecycle() {
+        DummyObject o = recycler.get();
+        o.recycle();
+        return o;
+    }
+
+    @GenerateMicroBenchmark
+    @Threads(4)
+    public DummyObject getAndRecycleContended() {
+        DummyObject o = recycler.get();
+        o.recycle();
+        return o;
+    }
+
+    @GenerateMicroBenchmark
+    public DummyObject newObject() {
+        return new DummyObject(null);
+    }
+
+    public static final class DummyObject {
+        private final Recycler.Handle handle;
+
+        DummyObject(Recycler.Handle handle) {
+            this.handle = handle;
+        }
+
+        void recycle() {
+            recycler.recycle(this, handle);
+        }
+    }
+}
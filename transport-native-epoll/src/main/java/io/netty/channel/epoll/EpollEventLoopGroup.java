@@ -18,6 +18,7 @@ package io.netty.channel.epoll;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.MultithreadEventLoopGroup;
 import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorChooserFactory;
 
 import java.util.concurrent.ThreadFactory;
 
@@ -56,6 +57,16 @@ public final class EpollEventLoopGroup extends MultithreadEventLoopGroup {
         super(nThreads, threadFactory, maxEventsAtOnce);
     }
 
+    /**
+     * Create a new instance using the specified number of threads, the given {@link ThreadFactory}, the given
+     * {@link EventExecutorChooserFactory} which picks the event loop a new channel is registered to, and the given
+     * maximal amount of epoll events to handle per epollWait(...).
+     */
+    public EpollEventLoopGroup(int nThreads, ThreadFactory threadFactory,
+                               EventExecutorChooserFactory chooserFactory, int maxEventsAtOnce) {
+        super(nThreads, threadFactory, chooserFactory, maxEventsAtOnce);
+    }
+
     /**
      * Sets the percentage of the desired amount of time spent for I/O in the child event loops.  The default value is
      * {@code 50}, which means the event loop will try to spend the same amount of time for I/O as for non-I/O tasks.
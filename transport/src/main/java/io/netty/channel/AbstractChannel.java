@@ -450,6 +450,9 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
                 
                 // registered״̬
                 registered = true;
+                if (eventLoop instanceof SingleThreadEventLoop) {
+                    ((SingleThreadEventLoop) eventLoop).incrementRegisteredChannels();
+                }
                 
                 // promisesuccess TODO
                 safeSetSuccess(promise);
@@ -628,6 +631,9 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
             } finally {
                 if (registered) {
                     registered = false;
+                    if (eventLoop instanceof SingleThreadEventLoop) {
+                        ((SingleThreadEventLoop) eventLoop).decrementRegisteredChannels();
+                    }
                     invokeLater(new Runnable() {
                         @Override
                         public void run() {
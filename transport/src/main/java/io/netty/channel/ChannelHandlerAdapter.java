@@ -16,6 +16,8 @@
 
 package io.netty.channel;
 
+import io.netty.channel.ChannelHandlerMask.Skip;
+
 /**
  * <pre>
  * 		ChannelHandlerAdapter,ChannelHandlerĹǼʵ֡
@@ -80,6 +82,7 @@ public abstract class ChannelHandlerAdapter implements ChannelHandler {
      *
      * Sub-classes may override this method to change behavior.
      */
+    @Skip
     @Deprecated
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
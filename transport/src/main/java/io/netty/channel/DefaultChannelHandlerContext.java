@@ -15,6 +15,7 @@
  */
 package io.netty.channel;
 
+import static io.netty.channel.ChannelHandlerMask.*;
 import static io.netty.channel.DefaultChannelPipeline.logger;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.util.DefaultAttributeMap;
@@ -31,8 +32,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
     volatile DefaultChannelHandlerContext next;
     volatile DefaultChannelHandlerContext prev;
 
-    private final boolean inbound;
-    private final boolean outbound;
+    private final int executionMask;
     private final AbstractChannel channel;
     private final DefaultChannelPipeline pipeline;
     private final String name;
@@ -80,8 +80,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
             executor = null;
         }
 
-        inbound = handler instanceof ChannelInboundHandler;
-        outbound = handler instanceof ChannelOutboundHandler;
+        executionMask = mask(handler.getClass());
     }
 
     /** Invocation initiated by {@link DefaultChannelPipeline#teardownAll()}}. */
@@ -145,7 +144,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     @Override
     public ChannelHandlerContext fireChannelRegistered() {
-        final DefaultChannelHandlerContext next = findContextInbound();
+        final DefaultChannelHandlerContext next = findContextInbound(MASK_CHANNEL_REGISTERED);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeChannelRegistered();
@@ -170,7 +169,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     @Override
     public ChannelHandlerContext fireChannelUnregistered() {
-        final DefaultChannelHandlerContext next = findContextInbound();
+        final DefaultChannelHandlerContext next = findContextInbound(MASK_CHANNEL_UNREGISTERED);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeChannelUnregistered();
@@ -195,7 +194,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     @Override
     public ChannelHandlerContext fireChannelActive() {
-        final DefaultChannelHandlerContext next = findContextInbound();
+        final DefaultChannelHandlerContext next = findContextInbound(MASK_CHANNEL_ACTIVE);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeChannelActive();
@@ -220,7 +219,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     @Override
     public ChannelHandlerContext fireChannelInactive() {
-        final DefaultChannelHandlerContext next = findContextInbound();
+        final DefaultChannelHandlerContext next = findContextInbound(MASK_CHANNEL_INACTIVE);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeChannelInactive();
@@ -249,8 +248,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
             throw new NullPointerException("cause");
         }
 
-        final DefaultChannelHandlerContext next = this.next;
-
+        final DefaultChannelHandlerContext next = findContextInbound(MASK_EXCEPTION_CAUGHT);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeExceptionCaught(cause);
@@ -291,7 +289,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
             throw new NullPointerException("event");
         }
 
-        final DefaultChannelHandlerContext next = findContextInbound();
+        final DefaultChannelHandlerContext next = findContextInbound(MASK_USER_EVENT_TRIGGERED);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeUserEventTriggered(event);
@@ -320,7 +318,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
             throw new NullPointerException("msg");
         }
 
-        final DefaultChannelHandlerContext next = findContextInbound();
+        final DefaultChannelHandlerContext next = findContextInbound(MASK_CHANNEL_READ);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeChannelRead(msg);
@@ -345,7 +343,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     @Override
     public ChannelHandlerContext fireChannelReadComplete() {
-        final DefaultChannelHandlerContext next = findContextInbound();
+        final DefaultChannelHandlerContext next = findContextInbound(MASK_CHANNEL_READ_COMPLETE);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeChannelReadComplete();
@@ -374,7 +372,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     @Override
     public ChannelHandlerContext fireChannelWritabilityChanged() {
-        final DefaultChannelHandlerContext next = findContextInbound();
+        final DefaultChannelHandlerContext next = findContextInbound(MASK_CHANNEL_WRITABILITY_CHANGED);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeChannelWritabilityChanged();
@@ -441,7 +439,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
         }
         validatePromise(promise, false);
 
-        final DefaultChannelHandlerContext next = findContextOutbound();
+        final DefaultChannelHandlerContext next = findContextOutbound(MASK_BIND);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeBind(localAddress, promise);
@@ -479,7 +477,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
         }
         validatePromise(promise, false);
 
-        final DefaultChannelHandlerContext next = findContextOutbound();
+        final DefaultChannelHandlerContext next = findContextOutbound(MASK_CONNECT);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeConnect(remoteAddress, localAddress, promise);
@@ -505,27 +503,23 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     @Override
     public ChannelFuture disconnect(final ChannelPromise promise) {
+        // Translate disconnect to close if the channel has no notion of disconnect-reconnect.
+        // So far, UDP/IP is the only transport that has such behavior.
+        if (!channel().metadata().hasDisconnect()) {
+            return close(promise);
+        }
+
         validatePromise(promise, false);
 
-        final DefaultChannelHandlerContext next = findContextOutbound();
+        final DefaultChannelHandlerContext next = findContextOutbound(MASK_DISCONNECT);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
-            // Translate disconnect to close if the channel has no notion of disconnect-reconnect.
-            // So far, UDP/IP is the only transport that has such behavior.
-            if (!channel().metadata().hasDisconnect()) {
-                next.invokeClose(promise);
-            } else {
-                next.invokeDisconnect(promise);
-            }
+            next.invokeDisconnect(promise);
         } else {
             safeExecute(executor, new Runnable() {
                 @Override
                 public void run() {
-                    if (!channel().metadata().hasDisconnect()) {
-                        next.invokeClose(promise);
-                    } else {
-                        next.invokeDisconnect(promise);
-                    }
+                    next.invokeDisconnect(promise);
                 }
             }, promise, null);
         }
@@ -545,7 +539,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
     public ChannelFuture close(final ChannelPromise promise) {
         validatePromise(promise, false);
 
-        final DefaultChannelHandlerContext next = findContextOutbound();
+        final DefaultChannelHandlerContext next = findContextOutbound(MASK_CLOSE);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeClose(promise);
@@ -573,7 +567,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
     public ChannelFuture deregister(final ChannelPromise promise) {
         validatePromise(promise, false);
 
-        final DefaultChannelHandlerContext next = findContextOutbound();
+        final DefaultChannelHandlerContext next = findContextOutbound(MASK_DEREGISTER);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeDeregister(promise);
@@ -599,7 +593,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     @Override
     public ChannelHandlerContext read() {
-        final DefaultChannelHandlerContext next = findContextOutbound();
+        final DefaultChannelHandlerContext next = findContextOutbound(MASK_READ);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeRead();
@@ -655,7 +649,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     @Override
     public ChannelHandlerContext flush() {
-        final DefaultChannelHandlerContext next = findContextOutbound();
+        final DefaultChannelHandlerContext next = findContextOutbound(MASK_FLUSH);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeFlush();
@@ -698,7 +692,7 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
 
     private void write(Object msg, boolean flush, ChannelPromise promise) {
 
-        DefaultChannelHandlerContext next = findContextOutbound();
+        DefaultChannelHandlerContext next = findContextOutbound(flush? MASK_WRITE | MASK_FLUSH : MASK_WRITE);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
             next.invokeWrite(msg, promise);
@@ -829,19 +823,29 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
         }
     }
 
-    private DefaultChannelHandlerContext findContextInbound() {
+    /**
+     * Returns the next {@link DefaultChannelHandlerContext} towards the tail whose handler handles at least one of
+     * the events in the given {@link ChannelHandlerMask} bits.  Handlers which would only forward the event are
+     * skipped.  The tail handles all inbound events, so the search always ends.
+     */
+    private DefaultChannelHandlerContext findContextInbound(int mask) {
         DefaultChannelHandlerContext ctx = this;
         do {
             ctx = ctx.next;
-        } while (!ctx.inbound);
+        } while ((ctx.executionMask & mask) == 0);
         return ctx;
     }
 
-    private DefaultChannelHandlerContext findContextOutbound() {
+    /**
+     * Returns the next {@link DefaultChannelHandlerContext} towards the head whose handler handles at least one of
+     * the events in the given {@link ChannelHandlerMask} bits.  The head handles all outbound events, so the search
+     * always ends.
+     */
+    private DefaultChannelHandlerContext findContextOutbound(int mask) {
         DefaultChannelHandlerContext ctx = this;
         do {
             ctx = ctx.prev;
-        } while (!ctx.outbound);
+        } while ((ctx.executionMask & mask) == 0);
         return ctx;
     }
 
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.LeastLoadedEventExecutorChooserFactory;
+
+/**
+ * {@link LeastLoadedEventExecutorChooserFactory} which also counts the {@link Channel}s registered to a
+ * {@link SingleThreadEventLoop}, so that a new {@link Channel} is registered to the event loop with the fewest
+ * {@linkplain SingleThreadEventLoop#registeredChannels() registered channels} and pending tasks.
+ */
+public final class LeastLoadedEventLoopChooserFactory extends LeastLoadedEventExecutorChooserFactory {
+
+    public static final LeastLoadedEventLoopChooserFactory INSTANCE = new LeastLoadedEventLoopChooserFactory();
+
+    private LeastLoadedEventLoopChooserFactory() { }
+
+    @Override
+    protected int load(EventExecutor executor) {
+        int load = super.load(executor);
+        if (executor instanceof SingleThreadEventLoop) {
+            load += ((SingleThreadEventLoop) executor).registeredChannels();
+        }
+        return load;
+    }
+}
@@ -17,6 +17,10 @@ package io.netty.channel;
 
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.netty.util.internal.SystemPropertyUtil;
+import io.netty.util.internal.ThreadExecutorMap;
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
 
 import java.util.concurrent.ThreadFactory;
 
@@ -26,6 +30,24 @@ import java.util.concurrent.ThreadFactory;
  */
 public abstract class SingleThreadEventLoop extends SingleThreadEventExecutor implements EventLoop {
 
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(SingleThreadEventLoop.class);
+
+    /**
+     * The maximum number of tasks an event loop which does not block on its task queue keeps pending.  Further tasks
+     * are rejected with a {@link java.util.concurrent.RejectedExecutionException}.  Unbounded by default.
+     */
+    protected static final int DEFAULT_MAX_PENDING_TASKS = Math.max(16,
+            SystemPropertyUtil.getInt("io.netty.eventLoop.maxPendingTasks", Integer.MAX_VALUE));
+
+    static {
+        if (logger.isDebugEnabled()) {
+            logger.debug("-Dio.netty.eventLoop.maxPendingTasks: {}", DEFAULT_MAX_PENDING_TASKS);
+        }
+    }
+
+    // Only modified by the event loop thread.
+    private volatile int registeredChannels;
+
     /**
      * @see {@link SingleThreadEventExecutor#SingleThreadEventExecutor(EventExecutorGroup, ThreadFactory, boolean)}
      */
@@ -33,6 +55,30 @@ public abstract class SingleThreadEventLoop extends SingleThreadEventExecutor im
         super(parent, threadFactory, addTaskWakesUp);
     }
 
+    /**
+     * Returns the number of {@link Channel}s which are registered to this event loop.  This method may be called
+     * from any thread.
+     */
+    public int registeredChannels() {
+        return registeredChannels;
+    }
+
+    void incrementRegisteredChannels() {
+        assert inEventLoop();
+        registeredChannels ++;
+    }
+
+    void decrementRegisteredChannels() {
+        assert inEventLoop();
+        registeredChannels --;
+    }
+
+    @Override
+    protected void onThreadStart() {
+        // Only bind event loops, so the buffer pool does not give arenas of their own to other executors.
+        ThreadExecutorMap.setCurrentExecutor(this);
+    }
+
     @Override
     public EventLoopGroup parent() {
         return (EventLoopGroup) super.parent();
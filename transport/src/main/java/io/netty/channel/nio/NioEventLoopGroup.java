@@ -18,6 +18,7 @@ package io.netty.channel.nio;
 import io.netty.channel.Channel;
 import io.netty.channel.MultithreadEventLoopGroup;
 import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorChooserFactory;
 
 import java.nio.channels.Selector;
 import java.nio.channels.spi.SelectorProvider;
@@ -71,6 +72,16 @@ public class NioEventLoopGroup extends MultithreadEventLoopGroup {
         super(nThreads, threadFactory, selectorProvider);
     }
 
+    /**
+     * Create a new instance using the specified number of threads, the given {@link ThreadFactory}, the given
+     * {@link EventExecutorChooserFactory} which picks the event loop a new {@link Channel} is registered to, and the
+     * given {@link SelectorProvider}.
+     */
+    public NioEventLoopGroup(int nThreads, ThreadFactory threadFactory,
+                             EventExecutorChooserFactory chooserFactory, SelectorProvider selectorProvider) {
+        super(nThreads, threadFactory, chooserFactory, selectorProvider);
+    }
+
     /**
      * Sets the percentage of the desired amount of time spent for I/O in the child event loops.  The default value is
      * {@code 50}, which means the event loop will try to spend the same amount of time for I/O as for non-I/O tasks.
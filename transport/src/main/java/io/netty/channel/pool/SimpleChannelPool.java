@@ -0,0 +1,464 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.internal.EmptyArrays;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Simple {@link ChannelPool} implementation which will create new {@link Channel}s if someone tries to acquire
+ * a {@link Channel} but none is in the pool atm. No limit on the maximal concurrent {@link Channel}s is enforced.
+ * <p>
+ * The idle {@link Channel}s are kept in LIFO order, so the most recently used (and so most likely still warm)
+ * {@link Channel} is handed out first.
+ * <p>
+ * The state of the pool is only ever accessed by a single {@link EventLoop} which is picked from the
+ * {@link EventLoopGroup} of the {@link Bootstrap}, so no locking is needed.  Pass a {@link Bootstrap} whose group is
+ * a single {@link EventLoop} to also create all pooled {@link Channel}s on that {@link EventLoop}, which avoids
+ * handing over between threads on {@link #acquire()} and {@link #release(Channel)} completely.
+ */
+public class SimpleChannelPool implements ChannelPool {
+
+    private static final AttributeKey<SimpleChannelPool> POOL_KEY =
+            AttributeKey.valueOf(SimpleChannelPool.class.getName() + ".POOL");
+    private static final IllegalStateException POOL_CLOSED_ON_ACQUIRE_EXCEPTION =
+            new IllegalStateException("ChannelPool was closed");
+
+    static {
+        POOL_CLOSED_ON_ACQUIRE_EXCEPTION.setStackTrace(EmptyArrays.EMPTY_STACK_TRACE);
+    }
+
+    // Only accessed by the executor.
+    private final Deque<Channel> deque = new ArrayDeque<Channel>();
+    private final ChannelPoolHandler handler;
+    private final ChannelHealthChecker healthCheck;
+    private final Bootstrap bootstrap;
+    private final boolean releaseHealthCheck;
+    private final EventLoop executor;
+    private boolean closed;
+
+    /**
+     * Creates a new instance using the {@link ChannelHealthChecker#ACTIVE}.
+     *
+     * @param bootstrap         the {@link Bootstrap} that is used for connections
+     * @param handler           the {@link ChannelPoolHandler} that will be notified for the different pool actions
+     */
+    public SimpleChannelPool(Bootstrap bootstrap, ChannelPoolHandler handler) {
+        this(bootstrap, handler, ChannelHealthChecker.ACTIVE);
+    }
+
+    /**
+     * Creates a new instance which checks the health of the {@link Channel}s on acquire and release.
+     *
+     * @param bootstrap         the {@link Bootstrap} that is used for connections
+     * @param handler           the {@link ChannelPoolHandler} that will be notified for the different pool actions
+     * @param healthCheck       the {@link ChannelHealthChecker} that will be used to check if a {@link Channel} is
+     *                          still healthy when obtain from the {@link ChannelPool}
+     */
+    public SimpleChannelPool(Bootstrap bootstrap, ChannelPoolHandler handler, ChannelHealthChecker healthCheck) {
+        this(bootstrap, handler, healthCheck, true);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param bootstrap          the {@link Bootstrap} that is used for connections
+     * @param handler            the {@link ChannelPoolHandler} that will be notified for the different pool actions
+     * @param healthCheck        the {@link ChannelHealthChecker} that will be used to check if a {@link Channel} is
+     *                           still healthy when obtain from the {@link ChannelPool}
+     * @param releaseHealthCheck will check channel health before offering back if this parameter set to
+     *                           {@code true}.
+     */
+    public SimpleChannelPool(Bootstrap bootstrap, final ChannelPoolHandler handler, ChannelHealthChecker healthCheck,
+                             boolean releaseHealthCheck) {
+        if (bootstrap == null) {
+            throw new NullPointerException("bootstrap");
+        }
+        if (handler == null) {
+            throw new NullPointerException("handler");
+        }
+        if (healthCheck == null) {
+            throw new NullPointerException("healthCheck");
+        }
+        EventLoopGroup group = bootstrap.group();
+        if (group == null) {
+            throw new IllegalStateException("group not set");
+        }
+
+        this.handler = handler;
+        this.healthCheck = healthCheck;
+        this.releaseHealthCheck = releaseHealthCheck;
+        // Clone the original Bootstrap as we want to set our own handler
+        this.bootstrap = bootstrap.clone();
+        this.bootstrap.handler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) throws Exception {
+                assert ch.eventLoop().inEventLoop();
+                handler.channelCreated(ch);
+            }
+        });
+        this.bootstrap.validate();
+        executor = group.next();
+    }
+
+    /**
+     * Returns the {@link EventLoop} which owns the state of this pool.
+     */
+    protected final EventLoop executor() {
+        return executor;
+    }
+
+    @Override
+    public final Future<Channel> acquire() {
+        return acquire(executor.<Channel>newPromise());
+    }
+
+    @Override
+    public Future<Channel> acquire(final Promise<Channel> promise) {
+        if (promise == null) {
+            throw new NullPointerException("promise");
+        }
+        acquireHealthyFromPoolOrNew(promise);
+        return promise;
+    }
+
+    /**
+     * Tries to retrieve a healthy {@link Channel} from the pool if any or creates a new {@link Channel} otherwise.
+     */
+    private void acquireHealthyFromPoolOrNew(final Promise<Channel> promise) {
+        if (executor.inEventLoop()) {
+            acquire0(promise);
+        } else {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        acquire0(promise);
+                    }
+                });
+            } catch (Throwable cause) {
+                promise.tryFailure(cause);
+            }
+        }
+    }
+
+    private void acquire0(final Promise<Channel> promise) {
+        assert executor.inEventLoop();
+
+        if (closed) {
+            promise.tryFailure(POOL_CLOSED_ON_ACQUIRE_EXCEPTION);
+            return;
+        }
+
+        final Channel ch = pollChannel();
+        if (ch == null) {
+            // No Channel left in the pool bootstrap a new Channel
+            ChannelFuture f = connectChannel(bootstrap);
+            // Always add a listener, even if the connect is done already, because the future notifies it on the
+            // event loop of the new Channel, which is usually not the executor of this pool.
+            f.addListener(new ChannelFutureListener() {
+                @Override
+                public void operationComplete(ChannelFuture future) throws Exception {
+                    notifyConnect(future, promise);
+                }
+            });
+            return;
+        }
+
+        EventLoop loop = ch.eventLoop();
+        if (loop.inEventLoop()) {
+            doHealthCheck(ch, promise);
+        } else {
+            try {
+                loop.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        doHealthCheck(ch, promise);
+                    }
+                });
+            } catch (Throwable cause) {
+                closeAndFail(ch, cause, promise);
+            }
+        }
+    }
+
+    private void notifyConnect(ChannelFuture future, final Promise<Channel> promise) {
+        if (!future.isSuccess()) {
+            promise.tryFailure(future.cause());
+            return;
+        }
+
+        // The future returned by connectChannel(...) may notify its listeners outside of the event loop of the
+        // Channel, but the handler must only ever be called from there.
+        final Channel ch = future.channel();
+        EventLoop loop = ch.eventLoop();
+        if (loop.inEventLoop()) {
+            notifyAcquired(ch, promise);
+        } else {
+            try {
+                loop.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        notifyAcquired(ch, promise);
+                    }
+                });
+            } catch (Throwable cause) {
+                closeAndFail(ch, cause, promise);
+            }
+        }
+    }
+
+    private void doHealthCheck(final Channel ch, final Promise<Channel> promise) {
+        assert ch.eventLoop().inEventLoop();
+
+        Future<Boolean> f;
+        try {
+            f = healthCheck.isHealthy(ch);
+        } catch (Throwable cause) {
+            closeAndFail(ch, cause, promise);
+            return;
+        }
+        if (f.isDone()) {
+            notifyHealthCheck(f, ch, promise);
+        } else {
+            f.addListener(new FutureListener<Boolean>() {
+                @Override
+                public void operationComplete(Future<Boolean> future) throws Exception {
+                    notifyHealthCheck(future, ch, promise);
+                }
+            });
+        }
+    }
+
+    private void notifyHealthCheck(Future<Boolean> future, Channel ch, Promise<Channel> promise) {
+        assert ch.eventLoop().inEventLoop();
+
+        if (future.isSuccess() && future.getNow() == Boolean.TRUE) {
+            notifyAcquired(ch, promise);
+        } else {
+            // The Channel is broken, so get rid of it and try the next one.
+            closeChannel(ch);
+            acquireHealthyFromPoolOrNew(promise);
+        }
+    }
+
+    private void notifyAcquired(Channel ch, Promise<Channel> promise) {
+        assert ch.eventLoop().inEventLoop();
+
+        try {
+            ch.attr(POOL_KEY).set(this);
+            handler.channelAcquired(ch);
+        } catch (Throwable cause) {
+            closeAndFail(ch, cause, promise);
+            return;
+        }
+        if (!promise.trySuccess(ch)) {
+            // Promise was completed in the meantime (like cancelled), just release the channel again
+            release(ch);
+        }
+    }
+
+    /**
+     * Bootstrap a new {@link Channel}. The default implementation uses {@link Bootstrap#connect()}, sub-classes may
+     * override this.
+     */
+    protected ChannelFuture connectChannel(Bootstrap bs) {
+        return bs.connect();
+    }
+
+    @Override
+    public final Future<Void> release(Channel channel) {
+        return release(channel, channel.eventLoop().<Void>newPromise());
+    }
+
+    @Override
+    public Future<Void> release(final Channel channel, final Promise<Void> promise) {
+        if (channel == null) {
+            throw new NullPointerException("channel");
+        }
+        if (promise == null) {
+            throw new NullPointerException("promise");
+        }
+        try {
+            EventLoop loop = channel.eventLoop();
+            if (loop.inEventLoop()) {
+                doReleaseChannel(channel, promise);
+            } else {
+                loop.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        doReleaseChannel(channel, promise);
+                    }
+                });
+            }
+        } catch (Throwable cause) {
+            closeAndFail(channel, cause, promise);
+        }
+        return promise;
+    }
+
+    private void doReleaseChannel(Channel channel, Promise<Void> promise) {
+        assert channel.eventLoop().inEventLoop();
+
+        // Remove the POOL_KEY attribute from the Channel and check if it was acquired from this pool, if not fail.
+        if (channel.attr(POOL_KEY).getAndSet(null) != this) {
+            closeAndFail(channel,
+                    // Better include a stacktrace here as this is an user error.
+                    new IllegalArgumentException(
+                            "Channel " + channel + " was not acquired from this ChannelPool"),
+                    promise);
+            return;
+        }
+
+        try {
+            if (releaseHealthCheck) {
+                doHealthCheckOnRelease(channel, promise);
+            } else {
+                releaseAndOffer(channel, promise);
+            }
+        } catch (Throwable cause) {
+            closeAndFail(channel, cause, promise);
+        }
+    }
+
+    private void doHealthCheckOnRelease(final Channel channel, final Promise<Void> promise) throws Exception {
+        final Future<Boolean> f = healthCheck.isHealthy(channel);
+        if (f.isDone()) {
+            releaseAndOfferIfHealthy(channel, promise, f);
+        } else {
+            f.addListener(new FutureListener<Boolean>() {
+                @Override
+                public void operationComplete(Future<Boolean> future) throws Exception {
+                    try {
+                        releaseAndOfferIfHealthy(channel, promise, future);
+                    } catch (Throwable cause) {
+                        closeAndFail(channel, cause, promise);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds the channel back to the pool only if the channel is healthy.
+     */
+    private void releaseAndOfferIfHealthy(Channel channel, Promise<Void> promise, Future<Boolean> future)
+            throws Exception {
+        if (future.isSuccess() && future.getNow() == Boolean.TRUE) {
+            releaseAndOffer(channel, promise);
+        } else {
+            // The Channel is not healthy, so do not put it back into the pool.
+            handler.channelReleased(channel);
+            closeChannel(channel);
+            promise.setSuccess(null);
+        }
+    }
+
+    private void releaseAndOffer(final Channel channel, Promise<Void> promise) throws Exception {
+        handler.channelReleased(channel);
+        if (executor.inEventLoop()) {
+            offer0(channel);
+        } else {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    offer0(channel);
+                }
+            });
+        }
+        promise.setSuccess(null);
+    }
+
+    private void offer0(Channel channel) {
+        assert executor.inEventLoop();
+
+        if (closed || !offerChannel(channel)) {
+            closeChannel(channel);
+        }
+    }
+
+    private static void closeChannel(Channel channel) {
+        channel.attr(POOL_KEY).getAndSet(null);
+        channel.close();
+    }
+
+    private static void closeAndFail(Channel channel, Throwable cause, Promise<?> promise) {
+        closeChannel(channel);
+        promise.tryFailure(cause);
+    }
+
+    /**
+     * Poll a {@link Channel} out of the internal storage to reuse it. This will return {@code null} if no
+     * {@link Channel} is ready to be reused.
+     *
+     * Sub-classes may override {@link #pollChannel()} and {@link #offerChannel(Channel)}. Both are only called by
+     * the {@link #executor()}.
+     */
+    protected Channel pollChannel() {
+        return deque.pollLast();
+    }
+
+    /**
+     * Offer a {@link Channel} back to the internal storage. This will return {@code true} if the {@link Channel}
+     * could be added, {@code false} otherwise.
+     *
+     * Sub-classes may override {@link #pollChannel()} and {@link #offerChannel(Channel)}. Both are only called by
+     * the {@link #executor()}.
+     */
+    protected boolean offerChannel(Channel channel) {
+        return deque.offer(channel);
+    }
+
+    @Override
+    public void close() {
+        if (executor.inEventLoop()) {
+            close0();
+        } else {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    close0();
+                }
+            });
+        }
+    }
+
+    private void close0() {
+        assert executor.inEventLoop();
+
+        closed = true;
+        for (;;) {
+            Channel channel = pollChannel();
+            if (channel == null) {
+                break;
+            }
+            channel.close();
+        }
+    }
+}
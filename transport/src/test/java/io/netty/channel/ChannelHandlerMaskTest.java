@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.netty.channel.ChannelHandlerMask.*;
+import static org.junit.Assert.*;
+
+public class ChannelHandlerMaskTest {
+
+    @Test
+    public void testAdaptersAreSkipped() {
+        assertEquals(0, mask(ChannelInboundHandlerAdapter.class));
+        assertEquals(0, mask(ChannelOutboundHandlerAdapter.class));
+        assertEquals(0, mask(ChannelDuplexHandler.class));
+    }
+
+    @Test
+    public void testOverriddenMethodsAreNotSkipped() {
+        assertEquals(MASK_CHANNEL_READ, mask(ReadHandler.class));
+        assertEquals(MASK_FLUSH | MASK_EXCEPTION_CAUGHT, mask(FlushHandler.class));
+        // Inherited overrides count as well.
+        assertEquals(MASK_CHANNEL_READ, mask(SubReadHandler.class));
+    }
+
+    @Test
+    public void testHandlersNotExtendingAdaptersAreNeverSkipped() {
+        assertEquals(MASK_ALL_INBOUND, mask(DefaultChannelPipeline.TailHandler.class));
+        assertEquals(MASK_ALL_OUTBOUND, mask(DefaultChannelPipeline.HeadHandler.class));
+    }
+
+    @Test
+    public void testSkippedHandlersDoNotBreakThePipeline() {
+        final List<Object> events = new ArrayList<Object>();
+        EmbeddedChannel ch = new EmbeddedChannel(
+                new ChannelDuplexHandler(),
+                new ChannelOutboundHandlerAdapter() {
+                    @Override
+                    public void flush(ChannelHandlerContext ctx) throws Exception {
+                        events.add("flush");
+                        ctx.flush();
+                    }
+                },
+                new ChannelInboundHandlerAdapter(),
+                new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+                        events.add(msg);
+                        ctx.fireChannelRead(msg);
+                    }
+                },
+                new ChannelDuplexHandler());
+
+        assertTrue(ch.writeInbound("in"));
+        assertEquals("in", ch.readInbound());
+        assertTrue(ch.writeOutbound("out"));
+        assertEquals("out", ch.readOutbound());
+        assertFalse(ch.finish());
+
+        assertEquals(2, events.size());
+        assertEquals("in", events.get(0));
+        assertEquals("flush", events.get(1));
+    }
+
+    private static class ReadHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            ctx.fireChannelRead(msg);
+        }
+    }
+
+    private static final class SubReadHandler extends ReadHandler { }
+
+    private static final class FlushHandler extends ChannelDuplexHandler {
+        @Override
+        public void flush(ChannelHandlerContext ctx) throws Exception {
+            ctx.flush();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+            ctx.fireExceptionCaught(cause);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.nio;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.LeastLoadedEventLoopChooserFactory;
+import io.netty.channel.SingleThreadEventLoop;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.Test;
+
+import java.nio.channels.spi.SelectorProvider;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class NioEventLoopGroupTest {
+
+    @Test(timeout = 10000)
+    public void testLeastLoadedChooserCountsRegisteredChannels() throws Exception {
+        NioEventLoopGroup group = new NioEventLoopGroup(
+                2, null, LeastLoadedEventLoopChooserFactory.INSTANCE, SelectorProvider.provider());
+        try {
+            Channel a = new NioSocketChannel();
+            Channel b = new NioSocketChannel();
+            group.register(a).sync();
+            group.register(b).sync();
+            // Both loops were idle, so the channels were spread over them.
+            assertNotSame(a.eventLoop(), b.eventLoop());
+            assertEquals(1, registeredChannels(a.eventLoop()));
+            assertEquals(1, registeredChannels(b.eventLoop()));
+
+            b.close().sync();
+            assertEquals(0, registeredChannels(b.eventLoop()));
+
+            // The loop of 'b' has no channels left, so it gets all new channels.
+            EventLoop expected = b.eventLoop();
+            for (int i = 0; i < 3; i ++) {
+                Channel c = new NioSocketChannel();
+                group.register(c).sync();
+                assertSame(expected, c.eventLoop());
+                c.close().sync();
+                assertEquals(0, registeredChannels(expected));
+            }
+            a.close().sync();
+            assertEquals(0, registeredChannels(a.eventLoop()));
+        } finally {
+            group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        }
+    }
+
+    private static int registeredChannels(EventLoop loop) throws Exception {
+        // The close future is notified before the channel is deregistered and the deregistration fires
+        // channelUnregistered() later, so let the loop run all of it before looking at its load.
+        for (int i = 0; i < 2; i ++) {
+            loop.submit(new Runnable() {
+                @Override
+                public void run() { }
+            }).sync();
+        }
+        return ((SingleThreadEventLoop) loop).registeredChannels();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalEventLoopGroup;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import static io.netty.channel.pool.SimpleChannelPoolTest.*;
+import static org.junit.Assert.*;
+
+public class AbstractChannelPoolMapTest {
+    private static final String LOCAL_ADDR_ID = "test.id";
+
+    private static final EventLoopGroup group = new LocalEventLoopGroup();
+
+    @AfterClass
+    public static void destroy() {
+        group.shutdownGracefully();
+    }
+
+    @Test(timeout = 10000)
+    public void testMap() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+        final Bootstrap cb = newBootstrap(group, addr);
+
+        AbstractChannelPoolMap<EventLoopGroup, SimpleChannelPool> poolMap =
+                new AbstractChannelPoolMap<EventLoopGroup, SimpleChannelPool>() {
+            @Override
+            protected SimpleChannelPool newPool(EventLoopGroup key) {
+                return new SimpleChannelPool(cb.clone(), new CountingChannelPoolHandler());
+            }
+        };
+
+        EventLoopGroup loop = group.next();
+
+        assertFalse(poolMap.iterator().hasNext());
+        assertEquals(0, poolMap.size());
+        assertFalse(poolMap.contains(loop));
+
+        SimpleChannelPool pool = poolMap.get(loop);
+        assertEquals(1, poolMap.size());
+        assertTrue(poolMap.iterator().hasNext());
+        assertSame(pool, poolMap.get(loop));
+
+        Channel channel = pool.acquire().sync().getNow();
+        pool.release(channel).sync();
+
+        assertTrue(poolMap.remove(loop));
+        assertFalse(poolMap.remove(loop));
+        assertFalse(poolMap.iterator().hasNext());
+        assertEquals(0, poolMap.size());
+        assertTrue(poolMap.isEmpty());
+
+        // Removing the pool closed it and so also the idle Channel.
+        channel.closeFuture().sync();
+        assertNotSame(pool, poolMap.get(loop));
+        sc.close().sync();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.pool;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalEventLoopGroup;
+import io.netty.channel.pool.FixedChannelPool.AcquireTimeoutAction;
+import io.netty.util.concurrent.Future;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.concurrent.TimeoutException;
+
+import static io.netty.channel.pool.SimpleChannelPoolTest.*;
+import static org.junit.Assert.*;
+
+public class FixedChannelPoolTest {
+    private static final String LOCAL_ADDR_ID = "test.id";
+
+    private static final EventLoopGroup group = new LocalEventLoopGroup();
+
+    @AfterClass
+    public static void destroy() {
+        group.shutdownGracefully();
+    }
+
+    @Test(timeout = 10000)
+    public void testAcquire() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+        CountingChannelPoolHandler handler = new CountingChannelPoolHandler();
+
+        ChannelPool pool = new FixedChannelPool(newBootstrap(group, addr), handler, 1, Integer.MAX_VALUE);
+
+        Channel channel = pool.acquire().sync().getNow();
+        Future<Channel> future = pool.acquire();
+        assertFalse(future.isDone());
+
+        pool.release(channel).syncUninterruptibly();
+        assertTrue(future.await(1000));
+
+        Channel channel2 = future.getNow();
+        assertSame(channel, channel2);
+        assertEquals(1, handler.channelCount());
+
+        assertEquals(2, handler.acquiredCount());
+        assertEquals(1, handler.releasedCount());
+
+        pool.release(channel2).syncUninterruptibly();
+        pool.close();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testAcquireTimeout() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+
+        ChannelPool pool = new FixedChannelPool(newBootstrap(group, addr), new CountingChannelPoolHandler(),
+                ChannelHealthChecker.ACTIVE, AcquireTimeoutAction.FAIL, 500, 1, Integer.MAX_VALUE);
+
+        Channel channel = pool.acquire().sync().getNow();
+        Future<Channel> future = pool.acquire().await();
+        assertTrue(future.cause() instanceof TimeoutException);
+
+        pool.release(channel).syncUninterruptibly();
+        // The timed out acquire must not have used up the connection slot.
+        assertSame(channel, pool.acquire().sync().getNow());
+
+        pool.release(channel).syncUninterruptibly();
+        pool.close();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testAcquireNewConnection() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+        CountingChannelPoolHandler handler = new CountingChannelPoolHandler();
+
+        ChannelPool pool = new FixedChannelPool(newBootstrap(group, addr), handler,
+                ChannelHealthChecker.ACTIVE, AcquireTimeoutAction.NEW, 500, 1, Integer.MAX_VALUE);
+
+        Channel channel = pool.acquire().sync().getNow();
+        Channel channel2 = pool.acquire().sync().getNow();
+        assertNotSame(channel, channel2);
+        assertEquals(2, handler.channelCount());
+
+        pool.release(channel).syncUninterruptibly();
+        pool.release(channel2).syncUninterruptibly();
+        pool.close();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testAcquireWithTooManyPendingAcquires() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+
+        ChannelPool pool = new FixedChannelPool(newBootstrap(group, addr), new CountingChannelPoolHandler(), 1, 1);
+
+        Channel channel = pool.acquire().sync().getNow();
+        Future<Channel> pending = pool.acquire();
+        Future<Channel> failed = pool.acquire().await();
+        assertTrue(failed.cause() instanceof IllegalStateException);
+        assertFalse(pending.isDone());
+
+        pool.release(channel).syncUninterruptibly();
+        assertSame(channel, pending.sync().getNow());
+
+        pool.release(channel).syncUninterruptibly();
+        pool.close();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testReleaseChannelNotAcquiredFromPool() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+
+        ChannelPool pool = new FixedChannelPool(newBootstrap(group, addr), new CountingChannelPoolHandler(), 1);
+        ChannelPool pool2 = new FixedChannelPool(newBootstrap(group, addr), new CountingChannelPoolHandler(), 1);
+        Channel channel = pool.acquire().sync().getNow();
+
+        assertTrue(pool2.release(channel).await().cause() instanceof IllegalArgumentException);
+        // The slot of the first pool is still in use.
+        assertFalse(pool.acquire().await(200));
+
+        pool.close();
+        pool2.close();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testCloseFailsPendingAcquires() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+
+        ChannelPool pool = new FixedChannelPool(newBootstrap(group, addr), new CountingChannelPoolHandler(), 1);
+        Channel channel = pool.acquire().sync().getNow();
+        Future<Channel> pending = pool.acquire();
+
+        pool.close();
+        assertTrue(pending.await().cause() instanceof IllegalStateException);
+        assertTrue(pool.release(channel).await().cause() instanceof IllegalStateException);
+        channel.closeFuture().sync();
+        sc.close().sync();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxConnections() {
+        new FixedChannelPool(newBootstrap(group, new LocalAddress(LOCAL_ADDR_ID)),
+                new CountingChannelPoolHandler(), 0);
+    }
+}
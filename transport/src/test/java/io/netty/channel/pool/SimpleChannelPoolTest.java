@@ -0,0 +1,221 @@
+/*
+ * Copyright 2014 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalEventLoopGroup;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.concurrent.Future;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class SimpleChannelPoolTest {
+    private static final String LOCAL_ADDR_ID = "test.id";
+
+    private static final EventLoopGroup group = new LocalEventLoopGroup();
+
+    @AfterClass
+    public static void destroy() {
+        group.shutdownGracefully();
+    }
+
+    static Channel startServer(EventLoopGroup group, LocalAddress addr) throws Exception {
+        ServerBootstrap sb = new ServerBootstrap();
+        sb.group(group)
+          .channel(LocalServerChannel.class)
+          .childHandler(new ChannelInitializer<LocalChannel>() {
+              @Override
+              public void initChannel(LocalChannel ch) throws Exception {
+                  ch.pipeline().addLast(new ChannelInboundHandlerAdapter());
+              }
+          });
+        return sb.bind(addr).sync().channel();
+    }
+
+    static Bootstrap newBootstrap(EventLoopGroup group, LocalAddress addr) {
+        Bootstrap cb = new Bootstrap();
+        cb.remoteAddress(addr);
+        cb.group(group).channel(LocalChannel.class);
+        return cb;
+    }
+
+    @Test(timeout = 10000)
+    public void testAcquire() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+        CountingChannelPoolHandler handler = new CountingChannelPoolHandler();
+
+        ChannelPool pool = new SimpleChannelPool(newBootstrap(group, addr), handler);
+
+        Channel channel = pool.acquire().sync().getNow();
+        pool.release(channel).syncUninterruptibly();
+
+        Channel channel2 = pool.acquire().sync().getNow();
+        assertSame(channel, channel2);
+        assertEquals(1, handler.channelCount());
+
+        Channel channel3 = pool.acquire().sync().getNow();
+        assertNotSame(channel, channel3);
+        assertEquals(2, handler.channelCount());
+
+        // The most recently released channel is handed out first.
+        pool.release(channel2).syncUninterruptibly();
+        pool.release(channel3).syncUninterruptibly();
+        assertSame(channel3, pool.acquire().sync().getNow());
+        assertSame(channel2, pool.acquire().sync().getNow());
+        assertEquals(2, handler.channelCount());
+
+        assertEquals(5, handler.acquiredCount());
+        assertEquals(3, handler.releasedCount());
+
+        pool.release(channel2).syncUninterruptibly();
+        pool.release(channel3).syncUninterruptibly();
+        pool.close();
+        channel2.closeFuture().sync();
+        channel3.closeFuture().sync();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testUnhealthyChannelIsNotOffered() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+        CountingChannelPoolHandler handler = new CountingChannelPoolHandler();
+
+        ChannelPool pool = new SimpleChannelPool(newBootstrap(group, addr), handler);
+        Channel channel = pool.acquire().sync().getNow();
+        channel.close().sync();
+        pool.release(channel).syncUninterruptibly();
+
+        Channel channel2 = pool.acquire().sync().getNow();
+        assertNotSame(channel, channel2);
+        assertTrue(channel2.isActive());
+        assertEquals(2, handler.channelCount());
+        assertEquals(2, handler.acquiredCount());
+        assertEquals(1, handler.releasedCount());
+
+        pool.release(channel2).syncUninterruptibly();
+        pool.close();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testUnhealthyChannelIsNotAcquired() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+        CountingChannelPoolHandler handler = new CountingChannelPoolHandler();
+
+        // Do not check the health on release so that the closed channel ends up in the pool.
+        ChannelPool pool = new SimpleChannelPool(
+                newBootstrap(group, addr), handler, ChannelHealthChecker.ACTIVE, false);
+        Channel channel = pool.acquire().sync().getNow();
+        pool.release(channel).syncUninterruptibly();
+        channel.close().sync();
+
+        Channel channel2 = pool.acquire().sync().getNow();
+        assertNotSame(channel, channel2);
+        assertTrue(channel2.isActive());
+        assertEquals(2, handler.channelCount());
+
+        pool.release(channel2).syncUninterruptibly();
+        pool.close();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testReleaseChannelNotAcquiredFromPool() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+
+        ChannelPool pool = new SimpleChannelPool(newBootstrap(group, addr), new CountingChannelPoolHandler());
+        ChannelPool pool2 = new SimpleChannelPool(newBootstrap(group, addr), new CountingChannelPoolHandler());
+        Channel channel = pool.acquire().sync().getNow();
+
+        Future<Void> f = pool2.release(channel).await();
+        assertTrue(f.cause() instanceof IllegalArgumentException);
+        // The channel is closed as it can not be used anymore.
+        channel.closeFuture().sync();
+
+        pool.close();
+        pool2.close();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testClose() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+
+        ChannelPool pool = new SimpleChannelPool(newBootstrap(group, addr), new CountingChannelPoolHandler());
+        Channel channel = pool.acquire().sync().getNow();
+        pool.release(channel).syncUninterruptibly();
+
+        pool.close();
+        channel.closeFuture().sync();
+        assertTrue(pool.acquire().await().cause() instanceof IllegalStateException);
+        sc.close().sync();
+    }
+
+    @Test(timeout = 10000)
+    public void testAcquireAfterConnectCompletedOnOtherEventLoop() throws Exception {
+        LocalAddress addr = new LocalAddress(LOCAL_ADDR_ID);
+        Channel sc = startServer(group, addr);
+        EventLoopGroup clientGroup = new LocalEventLoopGroup(2);
+        final AtomicBoolean acquiredInEventLoop = new AtomicBoolean();
+        ChannelPoolHandler handler = new AbstractChannelPoolHandler() {
+            @Override
+            public void channelCreated(Channel ch) {
+                // NOOP
+            }
+
+            @Override
+            public void channelAcquired(Channel ch) {
+                acquiredInEventLoop.set(ch.eventLoop().inEventLoop());
+            }
+        };
+
+        // The pool runs on the first event loop of the group and the new Channel is registered to the second one,
+        // so the returned future is done already but the pool is not on the event loop of the Channel.
+        ChannelPool pool = new SimpleChannelPool(newBootstrap(clientGroup, addr), handler) {
+            @Override
+            protected ChannelFuture connectChannel(Bootstrap bs) {
+                return bs.connect().syncUninterruptibly();
+            }
+        };
+        try {
+            Channel channel = pool.acquire().sync().getNow();
+            assertTrue(acquiredInEventLoop.get());
+            pool.release(channel).syncUninterruptibly();
+            pool.close();
+            channel.closeFuture().sync();
+        } finally {
+            clientGroup.shutdownGracefully();
+            sc.close().sync();
+        }
+    }
+}